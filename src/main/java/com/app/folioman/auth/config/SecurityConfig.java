@@ -49,6 +49,9 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers("/api/**", "/connect/**")
                         .authenticated()
+                        // Diagnostic endpoint reporting cache usage; not exposed over HTTP unless configured so
+                        .requestMatchers("/actuator/cachehotkeys/**")
+                        .hasRole("ADMIN")
                         .anyRequest()
                         .permitAll())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
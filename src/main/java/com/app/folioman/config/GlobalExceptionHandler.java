@@ -3,6 +3,7 @@ package com.app.folioman.config;
 import com.app.folioman.mfschemes.NavNotFoundException;
 import com.app.folioman.mfschemes.SchemeNotFoundException;
 import com.app.folioman.portfolio.exception.CapitalGainsHarvestingException;
+import com.app.folioman.pythonbridge.PythonCapacityExceededException;
 import jakarta.validation.ConstraintViolationException;
 import java.net.URI;
 import java.time.Instant;
@@ -76,6 +77,18 @@ class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(PythonCapacityExceededException.class)
+    ResponseEntity<ProblemDetail> onException(PythonCapacityExceededException pythonCapacityExceededException) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.TOO_MANY_REQUESTS,
+                Objects.requireNonNullElse(pythonCapacityExceededException.getMessage(), "Unknown error"));
+        problemDetail.setTitle("Too Many Requests");
+        problemDetail.setType(URI.create("https://api.hilla-folioman.com/errors/too-many-requests"));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(pythonCapacityExceededException.getRetryAfterSeconds()))
+                .body(problemDetail);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     ProblemDetail onException(ConstraintViolationException constraintViolationException) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
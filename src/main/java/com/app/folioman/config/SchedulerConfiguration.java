@@ -1,6 +1,8 @@
 package com.app.folioman.config;
 
+import com.app.folioman.config.db.PartitionMaintenance;
 import com.app.folioman.config.redis.AdaptiveStrategyScheduler;
+import com.app.folioman.config.redis.Monitor;
 import com.app.folioman.mfschemes.MFNavService;
 import com.app.folioman.portfolio.UserSchemeDetailService;
 import org.jobrunr.scheduling.BackgroundJob;
@@ -23,16 +25,22 @@ public class SchedulerConfiguration {
     private final MFNavService mfNavService;
     private final AdaptiveStrategyScheduler adaptiveStrategyScheduler;
     private final SchedulerProperties schedulerProperties;
+    private final PartitionMaintenance partitionMaintenance;
+    private final Monitor monitor;
 
     public SchedulerConfiguration(
             UserSchemeDetailService userSchemeDetailsService,
             MFNavService mfNavService,
             AdaptiveStrategyScheduler adaptiveStrategyScheduler,
-            SchedulerProperties schedulerProperties) {
+            SchedulerProperties schedulerProperties,
+            PartitionMaintenance partitionMaintenance,
+            Monitor monitor) {
         this.userSchemeDetailService = userSchemeDetailsService;
         this.mfNavService = mfNavService;
         this.adaptiveStrategyScheduler = adaptiveStrategyScheduler;
         this.schedulerProperties = schedulerProperties;
+        this.partitionMaintenance = partitionMaintenance;
+        this.monitor = monitor;
     }
 
     @EventListener(ApplicationStartedEvent.class)
@@ -40,6 +48,8 @@ public class SchedulerConfiguration {
         scheduleSetAMFIIfNullJob();
         scheduleNavDataJobs();
         scheduleAdaptiveStrategyJob();
+        schedulePartitionMaintenanceJob();
+        scheduleCacheKeyCountJob();
         // Portfolio cache eviction job is scheduled separately in the portfolio module
     }
 
@@ -74,4 +84,24 @@ public class SchedulerConfiguration {
                 adaptiveStrategyScheduler::adaptStrategy);
         LOGGER.info("Adaptive strategy job scheduled successfully");
     }
+
+    private void schedulePartitionMaintenanceJob() {
+        LOGGER.info(
+                "Scheduling partition maintenance job with cron: {}",
+                schedulerProperties.getPartitionMaintenanceJobCron());
+        BackgroundJob.scheduleRecurrently(
+                "yearly-partition-maintenance",
+                schedulerProperties.getPartitionMaintenanceJobCron(),
+                partitionMaintenance::maintainPartitions);
+        LOGGER.info("Partition maintenance job scheduled successfully");
+    }
+
+    private void scheduleCacheKeyCountJob() {
+        LOGGER.info("Scheduling cache key count job with cron: {}", schedulerProperties.getCacheKeyCountJobCron());
+        BackgroundJob.scheduleRecurrently(
+                "cache-key-count-reconcile",
+                schedulerProperties.getCacheKeyCountJobCron(),
+                monitor::reconcileKeyCounts);
+        LOGGER.info("Cache key count job scheduled successfully");
+    }
 }
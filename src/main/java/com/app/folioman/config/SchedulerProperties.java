@@ -46,6 +46,18 @@ public class SchedulerProperties {
      */
     private String schemeSyncJobCron = "0 0 20 * * SUN";
 
+    /**
+     * Cron expression for the yearly partition maintenance job
+     * Default: 02:00 on the first day of every month
+     */
+    private String partitionMaintenanceJobCron = "0 0 2 1 * *";
+
+    /**
+     * Cron expression for the job that rebuilds cache key counts from a keyspace scan
+     * Default: 7 minutes past every hour
+     */
+    private String cacheKeyCountJobCron = "0 7 * * * *";
+
     // Getters and setters
     public String getAmfiJobCron() {
         return amfiJobCron;
@@ -94,4 +106,20 @@ public class SchedulerProperties {
     public void setSchemeSyncJobCron(String schemeSyncJobCron) {
         this.schemeSyncJobCron = schemeSyncJobCron;
     }
+
+    public String getPartitionMaintenanceJobCron() {
+        return partitionMaintenanceJobCron;
+    }
+
+    public void setPartitionMaintenanceJobCron(String partitionMaintenanceJobCron) {
+        this.partitionMaintenanceJobCron = partitionMaintenanceJobCron;
+    }
+
+    public String getCacheKeyCountJobCron() {
+        return cacheKeyCountJobCron;
+    }
+
+    public void setCacheKeyCountJobCron(String cacheKeyCountJobCron) {
+        this.cacheKeyCountJobCron = cacheKeyCountJobCron;
+    }
 }
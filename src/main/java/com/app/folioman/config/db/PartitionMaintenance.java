@@ -0,0 +1,40 @@
+package com.app.folioman.config.db;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the yearly range partitions of the date-partitioned tables ahead of the data: creates the partitions of the
+ * coming years, so inserts never miss a partition, and adds BRIN indexes to the partitions of years that have ended.
+ * The work is done by {@code public.maintain_yearly_partitions}, which is idempotent.
+ */
+@Service
+public class PartitionMaintenance {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionMaintenance.class);
+    private static final List<String> PARTITIONED_TABLES = List.of("mfschemes.mf_scheme_nav", "portfolio.scheme_value");
+    private static final int YEARS_AHEAD = 2;
+
+    private final JdbcClient jdbcClient;
+
+    PartitionMaintenance(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Transactional
+    public void maintainPartitions() {
+        for (String table : PARTITIONED_TABLES) {
+            jdbcClient
+                    .sql("SELECT public.maintain_yearly_partitions(CAST(:table AS regclass), :yearsAhead)")
+                    .param("table", table)
+                    .param("yearsAhead", YEARS_AHEAD)
+                    .query()
+                    .listOfRows();
+            LOGGER.info("Maintained yearly partitions of {} for {} years ahead", table, YEARS_AHEAD);
+        }
+    }
+}
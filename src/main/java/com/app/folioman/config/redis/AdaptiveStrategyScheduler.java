@@ -1,6 +1,7 @@
 package com.app.folioman.config.redis;
 
 import java.util.Map;
+import java.util.Set;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,18 +11,23 @@ import org.springframework.stereotype.Component;
  * Adaptive strategy scheduler for Redis cache management.
  * This class evaluates metrics and adapts cache strategies based on usage patterns.
  *
+ * TTLs are tuned per cache by the {@link CacheTtlController} on every run, so the global strategies that would set one
+ * TTL for every cache are no longer applied.
+ *
  * Note: Scheduling is now managed centrally via JobRunr in SchedulerConfiguration.
  */
 @Component
 public class AdaptiveStrategyScheduler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveStrategyScheduler.class);
+    private static final Set<String> GLOBAL_TTL_STRATEGIES = Set.of("ADJUST_TTL", "INCREASE_CACHE_SIZE");
 
     private final CacheAdapter cacheAdapter;
     private final Monitor monitor;
     private final Evaluator evaluator;
     private final PolicyRepository policyRepository;
     private final RedisAppProperties redisAppProperties;
+    private final CacheTtlController cacheTtlController;
 
     // Track the last applied strategy to avoid unnecessary changes
     private @Nullable String lastAppliedStrategy = null;
@@ -34,12 +40,14 @@ public class AdaptiveStrategyScheduler {
             Monitor monitor,
             Evaluator evaluator,
             PolicyRepository policyRepository,
-            RedisAppProperties redisAppProperties) {
+            RedisAppProperties redisAppProperties,
+            CacheTtlController cacheTtlController) {
         this.cacheAdapter = cacheAdapter;
         this.monitor = monitor;
         this.evaluator = evaluator;
         this.policyRepository = policyRepository;
         this.redisAppProperties = redisAppProperties;
+        this.cacheTtlController = cacheTtlController;
     }
 
     /**
@@ -55,8 +63,21 @@ public class AdaptiveStrategyScheduler {
                 return;
             }
 
+            // While Redis is failing, hit rates and sizes describe the outage rather than the workload
+            Object circuitBreakerState = metrics.get("circuitBreakerState");
+            if ("OPEN".equals(circuitBreakerState) || "HALF_OPEN".equals(circuitBreakerState)) {
+                LOGGER.info("Redis circuit breaker is {}, skipping cache strategy evaluation", circuitBreakerState);
+                return;
+            }
+
+            cacheTtlController.adjust();
+
             // only evaluate when metrics is non-null
             String newStrategy = evaluator.evaluate(metrics);
+            if (GLOBAL_TTL_STRATEGIES.contains(newStrategy)) {
+                LOGGER.debug("Not applying {}: TTLs are tuned per cache", newStrategy);
+                return;
+            }
 
             LOGGER.debug(
                     "Cache metrics - Size: {}, Hit Rate: {}, Memory Usage: {}",
@@ -17,6 +17,12 @@ public class AdjustTTLPolicy implements CachePolicy {
     private static final Duration MAX_TTL = Duration.ofHours(2);
     private static final Duration MIN_TTL = Duration.ofMinutes(15);
 
+    private final HotKeySketch hotKeySketch;
+
+    public AdjustTTLPolicy(HotKeySketch hotKeySketch) {
+        this.hotKeySketch = hotKeySketch;
+    }
+
     @Override
     public Duration getExpirationTime() {
         return DEFAULT_TTL;
@@ -32,22 +38,13 @@ public class AdjustTTLPolicy implements CachePolicy {
         }
 
         for (String key : allKeys) {
-            double accessCount = getAccessCountForKey(meterRegistry, key);
+            double accessCount = hotKeySketch.estimate(key);
             Duration newTTL = determineNewTTL(accessCount);
             redisTemplate.expire(key, newTTL);
             LOGGER.debug("Adjusted TTL for key: {} to {} minutes.", key, newTTL.toMinutes());
         }
     }
 
-    private double getAccessCountForKey(MeterRegistry meterRegistry, String key) {
-        if (key.indexOf("SimpleKey") > 0) {
-            key = key.substring(key.indexOf("SimpleKey"));
-        } else if (key.indexOf("::") > 0) {
-            key = key.substring(key.indexOf("::") + 2);
-        }
-        return meterRegistry.counter("cache.access", "key", key).count();
-    }
-
     private Duration determineNewTTL(double accessCount) {
         if (accessCount > 50) {
             return MAX_TTL;
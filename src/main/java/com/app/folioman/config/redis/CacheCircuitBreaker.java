@@ -3,7 +3,11 @@ package com.app.folioman.config.redis;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
+import java.util.Locale;
 import java.util.function.Supplier;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -15,17 +19,23 @@ import org.springframework.stereotype.Component;
 /**
  * Provides circuit breaker functionality for Redis cache operations.
  * Prevents cascading failures when Redis is experiencing issues.
+ *
+ * <p>The breaker's state, call outcomes and failure rate are published as {@code resilience4j.circuitbreaker.*}
+ * meters tagged with {@code name=redisCache}, and every state transition is counted in
+ * {@code cache.circuit-breaker.transitions}, tagged with the states it went from and to.
  */
 @Component
 public class CacheCircuitBreaker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CacheCircuitBreaker.class);
+    private static final String TRANSITIONS_METRIC = "cache.circuit-breaker.transitions";
     private final CircuitBreaker circuitBreaker;
 
     public CacheCircuitBreaker(
             @Value("${app.cache.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
             @Value("${app.cache.circuit-breaker.wait-duration-seconds:30}") int waitDurationSeconds,
-            @Value("${app.cache.circuit-breaker.sliding-window-size:100}") int slidingWindowSize) {
+            @Value("${app.cache.circuit-breaker.sliding-window-size:100}") int slidingWindowSize,
+            MeterRegistry meterRegistry) {
 
         // Configure the circuit breaker with sensible defaults
         CircuitBreakerConfig config = CircuitBreakerConfig.custom()
@@ -45,14 +55,22 @@ public class CacheCircuitBreaker {
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
         this.circuitBreaker = registry.circuitBreaker("redisCache");
 
+        // Expose state gauges, call timers and failure rate of the breaker
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
         // Register event handlers
         this.circuitBreaker
                 .getEventPublisher()
                 .onStateTransition(event -> {
-                    LOGGER.warn(
-                            "Redis circuit breaker state changed from {} to {}",
-                            event.getStateTransition().getFromState(),
-                            event.getStateTransition().getToState());
+                    CircuitBreaker.State fromState = event.getStateTransition().getFromState();
+                    CircuitBreaker.State toState = event.getStateTransition().getToState();
+                    LOGGER.warn("Redis circuit breaker state changed from {} to {}", fromState, toState);
+                    Counter.builder(TRANSITIONS_METRIC)
+                            .description("Redis cache circuit breaker state transitions")
+                            .tag("from", fromState.name().toLowerCase(Locale.ROOT))
+                            .tag("to", toState.name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry)
+                            .increment();
                 })
                 .onError(event -> {
                     if (LOGGER.isDebugEnabled()) {
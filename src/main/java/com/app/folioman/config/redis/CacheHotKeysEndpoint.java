@@ -0,0 +1,60 @@
+package com.app.folioman.config.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the most frequently read cache keys tracked by {@link HotKeySketch}.
+ *
+ * <p>Keys embed PANs and email addresses, so only their prefix up to the first {@code _} is reported as is, followed
+ * by a salted hash of the whole key. The salt is drawn per instance, so a key keeps its hash across reports but the
+ * hash cannot be matched against a guessed PAN.
+ */
+@Component
+@Endpoint(id = "cachehotkeys")
+public class CacheHotKeysEndpoint {
+
+    private static final char PREFIX_SEPARATOR = '_';
+    private static final int HASH_BYTES = 8;
+
+    private final HotKeySketch hotKeySketch;
+    private final int reportSize;
+    private final byte[] salt = new byte[16];
+
+    public CacheHotKeysEndpoint(HotKeySketch hotKeySketch, RedisAppProperties redisAppProperties) {
+        this.hotKeySketch = hotKeySketch;
+        this.reportSize = redisAppProperties.getHotKeys().getReportSize();
+        new SecureRandom().nextBytes(salt);
+    }
+
+    public record HotKeysDescriptor(int sampleRate, List<HotKeySketch.HotKey> keys) {}
+
+    @ReadOperation
+    public HotKeysDescriptor hotKeys() {
+        List<HotKeySketch.HotKey> keys = hotKeySketch.topKeys(reportSize).stream()
+                .map(hotKey -> new HotKeySketch.HotKey(
+                        hotKey.cache(), redact(hotKey.key()), hotKey.count(), hotKey.error()))
+                .toList();
+        return new HotKeysDescriptor(hotKeySketch.getSampleRate(), keys);
+    }
+
+    String redact(String key) {
+        int separator = key.indexOf(PREFIX_SEPARATOR);
+        String prefix = separator > 0 ? key.substring(0, separator + 1) : "";
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            return prefix + HexFormat.of().formatHex(hash, 0, HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
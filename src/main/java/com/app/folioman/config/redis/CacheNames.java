@@ -8,6 +8,10 @@ public final class CacheNames {
 
     // MF Schemes module caches
     public static final String SCHEME_SEARCH_CACHE = "schemeSearchCache";
+    public static final String AMC_BY_NAME_CACHE = "findByAMCName";
+    public static final String AMC_BY_CODE_CACHE = "findByAMCCode";
+    public static final String AMC_TEXT_SEARCH_CACHE = "findAMCsByTextSearch";
+    public static final String SCHEME_TYPE_CACHE = "findByTypeAndCategoryAndSubCategory";
 
     // Auth module caches
     public static final String USER_PROFILE_CACHE = "userProfileCache";
@@ -17,6 +21,7 @@ public final class CacheNames {
     public static final String RETURNS_CACHE = "returnsCache";
     public static final String PORTFOLIO_HISTORY_CACHE = "portfolioHistoryCache";
     public static final String SUMMARY_CACHE = "portfolioSummaryCache";
+    public static final String UPLOAD_FINGERPRINT_CACHE = "uploadFingerprintCache";
 
     // Prevent instantiation
     private CacheNames() {
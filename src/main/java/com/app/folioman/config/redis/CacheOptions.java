@@ -0,0 +1,36 @@
+package com.app.folioman.config.redis;
+
+import java.time.Duration;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Optional features of the caches built by {@link CustomRedisCacheManager}.
+ *
+ * @param nearCache settings of the in-process near cache in front of Redis
+ * @param invalidator broadcasts writes so that other instances drop their near cache copies; none when {@code null}
+ * @param ttlController tunes the TTL of each cache from its observed value; configured TTLs are kept when {@code null}
+ * @param softTtls per cache, the age after which a value is served stale while it is refreshed in the background; the
+ * cache's TTL then acts as the hard TTL after which Redis drops the value
+ */
+public record CacheOptions(
+        RedisAppProperties.NearCache nearCache,
+        @Nullable NearCacheInvalidator invalidator,
+        @Nullable CacheTtlController ttlController,
+        Map<String, Duration> softTtls) {
+
+    public CacheOptions {
+        softTtls = Map.copyOf(softTtls);
+    }
+
+    /**
+     * A near cache with default settings and none of the other features.
+     */
+    public static CacheOptions defaults() {
+        return new CacheOptions(new RedisAppProperties.NearCache(), null, null, Map.of());
+    }
+
+    @Nullable Duration softTtl(String cacheName) {
+        return softTtls.get(cacheName);
+    }
+}
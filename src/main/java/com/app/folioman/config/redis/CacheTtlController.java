@@ -0,0 +1,243 @@
+package com.app.folioman.config.redis;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feedback controller that tunes the TTL of every cache separately, so that Redis memory goes to the caches that save
+ * the most backend time per byte.
+ *
+ * <p>Each run measures, per cache and since the previous run, the backend time its hits saved (hits times the mean time
+ * to compute a missing value) and the memory it held (estimated keys times mean serialized entry size). A cache whose
+ * smoothed savings per KB are above the memory-weighted average of all caches gets a longer TTL, one below it a shorter
+ * one, until the marginal byte is worth roughly the same everywhere. To keep TTLs from oscillating, scores are averaged
+ * across runs, deviations inside a dead band are ignored, a run moves a TTL by at most a quarter, and every TTL stays
+ * within a factor of {@value #BOUND_FACTOR} of the TTL the cache was configured with. A cache served stale while it is
+ * refreshed never gets a TTL below {@value #SOFT_TTL_MARGIN} times its soft TTL, so that stale values stay around long
+ * enough to be served. A cache whose entries are mostly evicted by updates long before they expire is not given a
+ * longer TTL, as its entries would not live any longer.
+ *
+ * <p>A new TTL applies to entries written after it was chosen. TTLs are kept in a Redis hash that every instance reads
+ * once a minute on a background thread, so writes use the TTLs chosen by whichever instance ran the controller
+ * without waiting for Redis themselves.
+ */
+@Component
+public class CacheTtlController implements InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheTtlController.class);
+    private static final String TTL_HASH_KEY = "folioman:cache:ttl";
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final long MIN_LOOKUPS = 50; // Fewer lookups per run are too noisy to act on
+    private static final double SMOOTHING = 0.3; // Weight of the latest score in its moving average
+    private static final double DEAD_BAND = 0.25; // Tolerated relative deviation from the average score
+    private static final double MAX_STEP = 0.25; // Largest relative TTL change per run
+    private static final int BOUND_FACTOR = 4;
+    private static final int SOFT_TTL_MARGIN = 2;
+    private static final double INVALIDATION_LIMIT = 2.0; // Evictions per key within one TTL that make growth moot
+
+    // The TTL of this cache is its de-duplication window rather than a performance knob
+    private static final Set<String> FIXED_TTL_CACHES = Set.of(CacheNames.UPLOAD_FINGERPRINT_CACHE);
+
+    private final Monitor monitor;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Clock clock;
+    private final Map<String, ControlledCache> caches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cache-ttl-refresh").daemon().factory());
+
+    @Autowired
+    public CacheTtlController(Monitor monitor, StringRedisTemplate stringRedisTemplate) {
+        this(monitor, stringRedisTemplate, Clock.systemUTC());
+    }
+
+    CacheTtlController(Monitor monitor, StringRedisTemplate stringRedisTemplate, Clock clock) {
+        this.monitor = monitor;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler.scheduleWithFixedDelay(this::refreshTtls, 0, REFRESH_INTERVAL.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Put a cache under control, starting from its configured TTL.
+     * @param softTtl the age after which the cache serves values stale while they are refreshed, if it does
+     * @return the TTL function the cache should write with, or {@code null} when its TTL is fixed or entries never
+     * expire
+     */
+    public RedisCacheWriter.@Nullable TtlFunction ttlFunction(
+            String cacheName, Duration configuredTtl, @Nullable Duration softTtl) {
+        if (FIXED_TTL_CACHES.contains(cacheName) || configuredTtl.isZero() || configuredTtl.isNegative()) {
+            return null;
+        }
+        ControlledCache cache =
+                caches.computeIfAbsent(cacheName, ignored -> new ControlledCache(configuredTtl, softTtl));
+        return (key, value) -> cache.ttl;
+    }
+
+    /**
+     * Current TTL of a controlled cache, {@code null} if the cache is not controlled.
+     */
+    @Nullable Duration currentTtl(String cacheName) {
+        ControlledCache cache = caches.get(cacheName);
+        return cache != null ? cache.ttl : null;
+    }
+
+    /**
+     * Run one step of the controller over every controlled cache and publish the TTLs that changed.
+     */
+    public void adjust() {
+        // Start from the TTLs of the previous run, which may have been on another instance
+        refreshTtls();
+        Instant now = clock.instant();
+        Map<String, Observation> observations = new HashMap<>();
+        caches.forEach((cacheName, cache) -> {
+            Observation observation = observe(cacheName, cache, now);
+            if (observation != null) {
+                observations.put(cacheName, observation);
+            }
+        });
+        // Memory can only be shifted between caches
+        if (observations.size() < 2) {
+            LOGGER.debug("Not enough cache activity to tune TTLs ({} caches with data)", observations.size());
+            return;
+        }
+
+        double totalKb = 0;
+        double weightedScore = 0;
+        for (Observation observation : observations.values()) {
+            totalKb += observation.kilobytes();
+            weightedScore += observation.cache().score * observation.kilobytes();
+        }
+        double averageScore = weightedScore / totalKb;
+        if (averageScore <= 0) {
+            LOGGER.debug("No cache saved measurable backend time, keeping TTLs");
+            return;
+        }
+
+        Map<String, String> changed = new LinkedHashMap<>();
+        observations.forEach((cacheName, observation) -> {
+            ControlledCache cache = observation.cache();
+            Duration ttl = nextTtl(cacheName, cache, observation, cache.score / averageScore);
+            if (!ttl.equals(cache.ttl)) {
+                LOGGER.info("Changing TTL of cache {} from {} to {}", cacheName, cache.ttl, ttl);
+                cache.ttl = ttl;
+                changed.put(cacheName, String.valueOf(ttl.toSeconds()));
+            }
+        });
+        if (!changed.isEmpty()) {
+            stringRedisTemplate.opsForHash().putAll(TTL_HASH_KEY, changed);
+        }
+    }
+
+    private @Nullable Observation observe(String cacheName, ControlledCache cache, Instant now) {
+        Monitor.CacheStats stats = monitor.getCacheStats(cacheName);
+        Monitor.CacheStats previous = cache.lastStats;
+        Instant previousAt = cache.lastObservedAt;
+        cache.lastStats = stats;
+        cache.lastObservedAt = now;
+        if (previous == null || previousAt == null) {
+            return null;
+        }
+
+        long hits = stats.hits() - previous.hits();
+        long lookups = hits + stats.misses() - previous.misses();
+        double seconds = Duration.between(previousAt, now).toMillis() / 1000.0;
+        if (lookups < MIN_LOOKUPS || stats.loads() == 0 || stats.sizedEntries() == 0 || seconds <= 0) {
+            return null;
+        }
+
+        // Means since startup: loads and writes are far rarer than lookups within one run
+        double meanLoadMillis = stats.loadMillis() / stats.loads();
+        double meanEntryKb = stats.entryBytes() / stats.sizedEntries() / 1024;
+        long keys = Math.max(1, stats.keys());
+        double kilobytes = keys * meanEntryKb;
+        double score = hits * meanLoadMillis / kilobytes;
+        cache.score = Double.isNaN(cache.score) ? score : SMOOTHING * score + (1 - SMOOTHING) * cache.score;
+        double evictionsPerKeySecond = (stats.evictions() - previous.evictions()) / (keys * seconds);
+        return new Observation(cache, kilobytes, evictionsPerKeySecond);
+    }
+
+    private Duration nextTtl(String cacheName, ControlledCache cache, Observation observation, double ratio) {
+        if (ratio > 1 - DEAD_BAND && ratio < 1 + DEAD_BAND) {
+            return cache.ttl;
+        }
+        // The square root halves the correction on a log scale, which keeps the loop from overshooting
+        double factor = Math.clamp(Math.sqrt(ratio), 1 - MAX_STEP, 1 + MAX_STEP);
+        if (factor > 1 && observation.evictionsPerKeySecond() * cache.ttl.toSeconds() > INVALIDATION_LIMIT) {
+            LOGGER.debug("Not extending TTL of cache {}: its entries are invalidated before they expire", cacheName);
+            return cache.ttl;
+        }
+        return cache.clamp(Duration.ofSeconds(Math.round(cache.ttl.toSeconds() * factor)));
+    }
+
+    /**
+     * Pick up the TTLs chosen by the instance that runs the controller.
+     */
+    void refreshTtls() {
+        try {
+            stringRedisTemplate.opsForHash().entries(TTL_HASH_KEY).forEach((cacheName, seconds) -> {
+                ControlledCache cache = caches.get(String.valueOf(cacheName));
+                if (cache != null) {
+                    cache.ttl = cache.clamp(Duration.ofSeconds(Long.parseLong(String.valueOf(seconds))));
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not refresh cache TTLs from Redis: {}", e.getMessage());
+        }
+    }
+
+    private static final class ControlledCache {
+        private final Duration minTtl;
+        private final Duration maxTtl;
+        private volatile Duration ttl;
+        private double score = Double.NaN;
+        private Monitor.@Nullable CacheStats lastStats;
+        private @Nullable Instant lastObservedAt;
+
+        private ControlledCache(Duration configuredTtl, @Nullable Duration softTtl) {
+            Duration minTtl = configuredTtl.dividedBy(BOUND_FACTOR);
+            Duration staleFloor = softTtl != null ? softTtl.multipliedBy(SOFT_TTL_MARGIN) : Duration.ZERO;
+            if (staleFloor.compareTo(minTtl) > 0) {
+                minTtl = staleFloor.compareTo(configuredTtl) < 0 ? staleFloor : configuredTtl;
+            }
+            this.minTtl = minTtl;
+            this.maxTtl = configuredTtl.multipliedBy(BOUND_FACTOR);
+            this.ttl = configuredTtl;
+        }
+
+        private Duration clamp(Duration candidate) {
+            if (candidate.compareTo(minTtl) < 0) {
+                return minTtl;
+            }
+            return candidate.compareTo(maxTtl) > 0 ? maxTtl : candidate;
+        }
+    }
+
+    private record Observation(ControlledCache cache, double kilobytes, double evictionsPerKeySecond) {}
+}
@@ -1,10 +1,18 @@
 package com.app.folioman.config.redis;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdException;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,21 +20,73 @@ import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
 /**
- * A Redis serializer that compresses values using GZIP to save memory.
+ * A Redis serializer that compresses values to save memory and bandwidth.
  * Only values larger than the threshold will be compressed.
  * This wrapper delegates the actual serialization to another serializer.
  *
+ * <p>Each value starts with a marker byte naming the codec it was written with, so values written with any codec stay
+ * readable whichever one is configured for writing, including the GZIP values of earlier releases:
+ * <ul>
+ *   <li>{@code 0}: not compressed, followed by the serialized value</li>
+ *   <li>{@code 1}: GZIP stream</li>
+ *   <li>{@code 2}: LZ4 block, {@code 3}: zstd frame, {@code 4}: zstd frame compressed with a dictionary; each preceded
+ *   by the uncompressed length as a 4-byte big-endian int</li>
+ * </ul>
+ * LZ4 and zstd compress straight into the framed output and decompress straight out of the framed input, so the only
+ * copy made is the final trim of the output buffer.
+ *
  * @param <T> the type to serialize
  */
 public class CompressedRedisSerializer<T> implements RedisSerializer<T> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CompressedRedisSerializer.class);
     private static final int COMPRESSION_THRESHOLD_BYTES = 1024; // Only compress values > 1KB
+    private static final int DEFAULT_ZSTD_LEVEL = 3;
+    private static final int MAX_VALUE_BYTES = 512 * 1024 * 1024; // Largest value Redis accepts
+
+    private static final byte MARKER_NONE = 0;
+    private static final byte MARKER_GZIP = 1;
+    private static final byte MARKER_LZ4 = 2;
+    private static final byte MARKER_ZSTD = 3;
+    private static final byte MARKER_ZSTD_DICTIONARY = 4;
+    private static final int HEADER_BYTES = 5; // Marker and uncompressed length
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
 
     private final RedisSerializer<T> delegate;
+    private final Compression compression;
+    private final int thresholdBytes;
+    private final int zstdLevel;
+    private final @Nullable ZstdDictCompress dictionaryCompressor;
+    private final @Nullable ZstdDictDecompress dictionaryDecompressor;
+
+    /**
+     * Codec used to compress values above the threshold. LZ4 is the cheapest on CPU; zstd compresses better, especially
+     * with a dictionary trained on the cache's values.
+     */
+    public enum Compression {
+        NONE,
+        GZIP,
+        LZ4,
+        ZSTD
+    }
 
     public CompressedRedisSerializer(RedisSerializer<T> delegate) {
+        this(delegate, Compression.GZIP, COMPRESSION_THRESHOLD_BYTES, DEFAULT_ZSTD_LEVEL, null);
+    }
+
+    public CompressedRedisSerializer(
+            RedisSerializer<T> delegate,
+            Compression compression,
+            int thresholdBytes,
+            int zstdLevel,
+            byte @Nullable [] zstdDictionary) {
         this.delegate = delegate;
+        this.compression = compression;
+        this.thresholdBytes = thresholdBytes;
+        this.zstdLevel = zstdLevel;
+        this.dictionaryCompressor = zstdDictionary != null ? new ZstdDictCompress(zstdDictionary, zstdLevel) : null;
+        this.dictionaryDecompressor = zstdDictionary != null ? new ZstdDictDecompress(zstdDictionary) : null;
     }
 
     @Override
@@ -35,42 +95,40 @@ public class CompressedRedisSerializer<T> implements RedisSerializer<T> {
             return new byte[0];
         }
 
-        try {
-            // First serialize the value using the delegate
-            byte[] serialized = delegate.serialize(value);
+        // First serialize the value using the delegate
+        byte[] serialized = delegate.serialize(value);
 
-            // If delegate returned null, return a single-byte 'not compressed' marker
-            if (serialized == null) {
-                return new byte[] {0};
-            }
+        // If delegate returned null, return a single-byte 'not compressed' marker
+        if (serialized == null) {
+            return new byte[] {MARKER_NONE};
+        }
 
-            // Only compress if serialized value is above threshold
-            if (serialized.length > COMPRESSION_THRESHOLD_BYTES) {
-                byte[] compressed = compress(serialized);
-
-                // Log compression ratio for monitoring
-                if (LOGGER.isDebugEnabled()) {
-                    double ratio = (double) compressed.length / serialized.length;
-                    LOGGER.debug(
-                            "Compressed value from {} bytes to {} bytes (ratio: {:.2f})",
-                            serialized.length,
-                            compressed.length,
-                            ratio);
-                }
-
-                // Add a marker byte at the beginning to indicate compression
-                byte[] result = new byte[compressed.length + 1];
-                result[0] = 1; // Marker byte: 1 means compressed
-                System.arraycopy(compressed, 0, result, 1, compressed.length);
-                return result;
-            } else {
-                // Small values: add marker byte indicating no compression
-                byte[] result = new byte[serialized.length + 1];
-                result[0] = 0; // Marker byte: 0 means not compressed
-                System.arraycopy(serialized, 0, result, 1, serialized.length);
-                return result;
+        // Only compress if serialized value is above threshold
+        if (compression == Compression.NONE || serialized.length <= thresholdBytes) {
+            byte[] result = new byte[serialized.length + 1];
+            result[0] = MARKER_NONE;
+            System.arraycopy(serialized, 0, result, 1, serialized.length);
+            return result;
+        }
+
+        try {
+            byte[] compressed = switch (compression) {
+                case GZIP -> gzip(serialized);
+                case LZ4 -> lz4(serialized);
+                case ZSTD -> zstd(serialized);
+                case NONE -> throw new IllegalStateException("Uncompressed values are framed above");
+            };
+
+            // Log compression ratio for monitoring
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(
+                        "Compressed value with {} from {} bytes to {} bytes",
+                        compression,
+                        serialized.length,
+                        compressed.length);
             }
-        } catch (IOException e) {
+            return compressed;
+        } catch (IOException | LZ4Exception | ZstdException e) {
             LOGGER.error("Error compressing Redis value", e);
             throw new SerializationException("Error compressing Redis value", e);
         }
@@ -83,41 +141,37 @@ public class CompressedRedisSerializer<T> implements RedisSerializer<T> {
             return null;
         }
 
+        byte[] deserialized;
         try {
-            // Check the marker byte
-            boolean isCompressed = bytes[0] == 1;
-
-            // Extract the actual data without the marker byte
-            byte[] data = new byte[bytes.length - 1];
-            System.arraycopy(bytes, 1, data, 0, data.length);
-
-            // Decompress if needed
-            byte[] deserialized = isCompressed ? decompress(data) : data;
-
-            // Delegate the deserialization
-            return delegate.deserialize(deserialized);
-        } catch (IOException e) {
+            // The marker byte names the codec the value was written with
+            deserialized = switch (bytes[0]) {
+                case MARKER_NONE -> Arrays.copyOfRange(bytes, 1, bytes.length);
+                case MARKER_GZIP -> gunzip(bytes);
+                case MARKER_LZ4 -> unlz4(bytes);
+                case MARKER_ZSTD, MARKER_ZSTD_DICTIONARY -> unzstd(bytes);
+                default -> throw new SerializationException("Unknown compression marker " + bytes[0]);
+            };
+        } catch (LZ4Exception | ZstdException e) {
             LOGGER.error("Error decompressing Redis value", e);
             throw new SerializationException("Error decompressing Redis value", e);
         }
+
+        // Delegate the deserialization
+        return delegate.deserialize(deserialized);
     }
 
-    private byte[] compress(byte[] input) throws IOException {
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(input.length);
+    private byte[] gzip(byte[] input) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(input.length / 2 + 1);
+        byteStream.write(MARKER_GZIP);
         try (GZIPOutputStream gzipStream = new GZIPOutputStream(byteStream)) {
             gzipStream.write(input);
         }
         return byteStream.toByteArray();
     }
 
-    private byte[] decompress(byte[] compressed) throws IOException {
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream(compressed.length * 2);
-        try (GZIPInputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            while ((bytesRead = gzipStream.read(buffer)) != -1) {
-                byteStream.write(buffer, 0, bytesRead);
-            }
+    private byte[] gunzip(byte[] framed) {
+        try (GZIPInputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(framed, 1, framed.length - 1))) {
+            return gzipStream.readAllBytes();
         } catch (IOException e) {
             // Wrap decompression-related IO errors (for example when data is not valid GZIP)
             // into Spring's SerializationException so callers (and tests) see a consistent
@@ -125,7 +179,76 @@ public class CompressedRedisSerializer<T> implements RedisSerializer<T> {
             LOGGER.error("Error during GZIP decompression", e);
             throw new SerializationException("Error during GZIP decompression", e);
         }
+    }
 
-        return byteStream.toByteArray();
+    private byte[] lz4(byte[] input) {
+        LZ4Compressor compressor = LZ4.fastCompressor();
+        byte[] output = new byte[HEADER_BYTES + compressor.maxCompressedLength(input.length)];
+        int compressedLength = compressor.compress(input, 0, input.length, output, HEADER_BYTES);
+        writeHeader(output, MARKER_LZ4, input.length);
+        return Arrays.copyOf(output, HEADER_BYTES + compressedLength);
+    }
+
+    private byte[] unlz4(byte[] framed) {
+        int length = readLength(framed);
+        byte[] output = new byte[length];
+        int decompressedLength = LZ4.safeDecompressor()
+                .decompress(framed, HEADER_BYTES, framed.length - HEADER_BYTES, output, 0, length);
+        if (decompressedLength != length) {
+            throw new SerializationException("Truncated LZ4 value");
+        }
+        return output;
+    }
+
+    private byte[] zstd(byte[] input) {
+        byte[] output = new byte[HEADER_BYTES + (int) Zstd.compressBound(input.length)];
+        long compressedLength = dictionaryCompressor != null
+                ? Zstd.compressFastDict(output, HEADER_BYTES, input, 0, input.length, dictionaryCompressor)
+                : Zstd.compressByteArray(
+                        output, HEADER_BYTES, output.length - HEADER_BYTES, input, 0, input.length, zstdLevel);
+        if (Zstd.isError(compressedLength)) {
+            throw new SerializationException("Error compressing Redis value: " + Zstd.getErrorName(compressedLength));
+        }
+        writeHeader(output, dictionaryCompressor != null ? MARKER_ZSTD_DICTIONARY : MARKER_ZSTD, input.length);
+        return Arrays.copyOf(output, HEADER_BYTES + (int) compressedLength);
+    }
+
+    private byte[] unzstd(byte[] framed) {
+        int length = readLength(framed);
+        byte[] output = new byte[length];
+        long decompressedLength;
+        if (framed[0] == MARKER_ZSTD_DICTIONARY) {
+            if (dictionaryDecompressor == null) {
+                throw new SerializationException("Value was compressed with a zstd dictionary that is not configured");
+            }
+            decompressedLength = Zstd.decompressFastDict(
+                    output, 0, framed, HEADER_BYTES, framed.length - HEADER_BYTES, dictionaryDecompressor);
+        } else {
+            decompressedLength =
+                    Zstd.decompressByteArray(output, 0, length, framed, HEADER_BYTES, framed.length - HEADER_BYTES);
+        }
+        if (Zstd.isError(decompressedLength) || decompressedLength != length) {
+            throw new SerializationException("Error during zstd decompression");
+        }
+        return output;
+    }
+
+    private static void writeHeader(byte[] output, byte marker, int length) {
+        output[0] = marker;
+        output[1] = (byte) (length >>> 24);
+        output[2] = (byte) (length >>> 16);
+        output[3] = (byte) (length >>> 8);
+        output[4] = (byte) length;
+    }
+
+    private static int readLength(byte[] framed) {
+        if (framed.length < HEADER_BYTES) {
+            throw new SerializationException("Truncated compressed value");
+        }
+        int length = (framed[1] & 0xFF) << 24 | (framed[2] & 0xFF) << 16 | (framed[3] & 0xFF) << 8 | framed[4] & 0xFF;
+        if (length < 0 || length > MAX_VALUE_BYTES) {
+            throw new SerializationException("Invalid uncompressed length " + length);
+        }
+        return length;
     }
 }
@@ -1,102 +1,145 @@
 package com.app.folioman.config.redis;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import java.time.Duration;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.Cache;
-import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheWriter;
-import org.springframework.data.redis.serializer.RedisSerializer;
 
+/**
+ * Two-level cache: a bounded in-process Caffeine near cache (L1) in front of Redis (L2).
+ *
+ * <p>Reads are served from L1 when possible and fall through to Redis otherwise, populating L1 on the way back. Writes
+ * go to Redis first and are then mirrored into L1; every put, evict and clear is broadcast through the
+ * {@link NearCacheInvalidator} so that other instances drop their now stale L1 copies. L1 entries also expire on their
+ * own after a short TTL, which bounds staleness should an invalidation message be lost. When Redis is unavailable L1
+ * keeps serving whatever it holds.
+ *
+ * <p>The latency of every Redis round trip, including time spent in the circuit breaker and its fallback, is recorded
+ * per cache and operation through the {@link Monitor}; reads served by L1 are not timed. So that the TTL of each cache
+ * can be tuned to what it is worth, the monitor also learns the serialized size of every value written, every
+ * eviction, and how long the caller took to compute a value between a miss and the put of the same key on the same
+ * thread, which is the backend time each later hit saves.
+ *
+ * <p>A cache may have a soft TTL shorter than its Redis TTL, which then acts as the hard TTL. Values are written with
+ * their write time, and a read through {@link #get(Object, Callable)}, which {@code @Cacheable(sync = true)} uses,
+ * serves a value past its soft TTL at once while a virtual thread recomputes it with the caller's loader. Only one
+ * refresh per key runs at a time on an instance, and only one caller per key computes a missing value; the others wait
+ * for its result. Callers only wait on recomputation once a value is past its hard TTL or was evicted. At most
+ * {@value #MAX_CONCURRENT_REFRESHES} refreshes per cache run at a time; stale reads beyond that are served without
+ * starting another. A value whose key is evicted or cleared while it is being computed, on this instance or on another
+ * one whose invalidation message arrives in time, is returned to its callers but not written, so that a recomputation
+ * that read the data before it changed cannot outlive the eviction.
+ */
 @SuppressWarnings("NullAway")
 public class CustomRedisCache extends RedisCache {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CustomRedisCache.class);
+    private static final String GET = "get";
+    private static final String PUT = "put";
+    private static final String EVICT = "evict";
+    private static final int MAX_CONCURRENT_REFRESHES = 4;
     private final Monitor monitor;
     private final CacheCircuitBreaker circuitBreaker;
+    private final @Nullable NearCacheInvalidator invalidator;
+    private final boolean nearCacheEnabled;
+    private final @Nullable Duration softTtl;
 
-    // In-memory fallback cache for critical items when Redis is unavailable
-    private final Map<Object, Object> localCache = new ConcurrentHashMap<>();
-    // Limit local cache size to prevent memory issues
-    private static final int MAX_LOCAL_CACHE_SIZE = 1000;
+    // Keys being loaded by a caller, and keys being refreshed in the background after their soft TTL
+    private final ConcurrentMap<String, Flight> loading = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Flight> refreshing = new ConcurrentHashMap<>();
+    private final Semaphore refreshPermits = new Semaphore(MAX_CONCURRENT_REFRESHES);
+
+    // Key and start time of the last miss on this thread, until the computed value is put
+    private final ThreadLocal<@Nullable PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    // Near cache, also used as the fallback when Redis is unavailable
+    private final Cache<String, ValueWrapper> localCache;
 
     public CustomRedisCache(
             String name,
             RedisCacheWriter cacheWriter,
-            RedisSerializer<Object> valueSerializer,
-            Duration ttl,
+            RedisCacheConfiguration cacheConfiguration,
             Monitor monitor,
-            CacheCircuitBreaker circuitBreaker) {
-        super(name, cacheWriter, RedisCacheConfiguration.defaultCacheConfig().entryTtl(ttl));
+            CacheCircuitBreaker circuitBreaker,
+            CacheOptions options) {
+        super(name, cacheWriter, cacheConfiguration);
+        Duration ttl = cacheConfiguration.getTtlFunction().getTimeToLive(Object.class, null);
         this.monitor = monitor;
         this.circuitBreaker = circuitBreaker;
+        RedisAppProperties.NearCache nearCache = options.nearCache();
+        this.invalidator = options.invalidator();
+        this.nearCacheEnabled = nearCache.isEnabled();
+        this.softTtl = options.softTtl(name);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(nearCache.getMaximumSize())
+                .expireAfterWrite(nearCacheTtl(ttl, nearCache))
+                .build();
     }
 
     @Override
     public void put(Object key, @Nullable Object value) {
+        String cacheKey = convertKey(key);
+        long start = System.nanoTime();
+        recordLoad(cacheKey, start);
         try {
             // Use circuit breaker to handle Redis connection failures
             circuitBreaker.<@Nullable Void>execute(() -> {
-                super.put(key, value);
+                super.put(key, stamped(value));
+                publishEvict(cacheKey);
                 return null;
             });
+            monitor.recordKeyWritten(getName(), createCacheKey(key));
+            monitor.recordLatency(getName(), PUT, System.nanoTime() - start);
 
             // Custom logic after the put operation
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Put operation completed for key: {}", key);
             }
 
-            // Store in local backup cache if Redis was successful and local cache isn't too large
-            if (value == null) {
-                localCache.remove(key);
-            } else if (localCache.size() < MAX_LOCAL_CACHE_SIZE) {
-                localCache.put(key, value);
-            }
+            putLocal(cacheKey, value);
 
             // Record metrics
-            recordMetrics(key, "update");
+            monitor.recordUpdate(getName());
         } catch (Exception e) {
             LOGGER.warn("Failed to put key {} in Redis cache: {}", key, e.getMessage());
             // Still store in local cache as fallback
-            if (value == null) {
-                localCache.remove(key);
-            } else if (localCache.size() < MAX_LOCAL_CACHE_SIZE) {
-                localCache.put(key, value);
-            }
+            putLocal(cacheKey, value);
         }
     }
 
     @Override
-    public Cache.@Nullable ValueWrapper get(Object key) {
+    public @Nullable ValueWrapper get(Object key) {
+        String cacheKey = convertKey(key);
         try {
-            // Try to get from Redis with circuit breaker protection
-            ValueWrapper valueWrapper =
-                    circuitBreaker.<Cache.@Nullable ValueWrapper>executeWithFallback(() -> super.get(key), () -> {
-                        // Fallback to local cache if Redis is unavailable
-                        Object value = localCache.get(key);
-                        return value != null ? new SimpleValueWrapper(value) : null;
-                    });
-
-            // Record access metrics
-            recordMetrics(key, "access");
-
-            // If we got a value from Redis, refresh local cache
-            if (valueWrapper != null && localCache.size() < MAX_LOCAL_CACHE_SIZE) {
-                localCache.put(key, valueWrapper.get());
+            ValueWrapper valueWrapper = nearCacheEnabled ? localCache.getIfPresent(cacheKey) : null;
+            if (valueWrapper == null) {
+                valueWrapper = unstamped(readRedis(key, cacheKey));
+
+                // If we got a value from Redis, refresh local cache
+                if (valueWrapper != null) {
+                    localCache.put(cacheKey, valueWrapper);
+                }
             }
 
             if (valueWrapper == null) {
                 // Cache miss
-                monitor.recordMiss(getNormalizedKey(key));
+                monitor.recordMiss(getName(), cacheKey);
+                pendingLoad.set(new PendingLoad(cacheKey, System.nanoTime()));
             } else {
                 // Cache hit
-                monitor.recordHit(getNormalizedKey(key));
+                monitor.recordHit(getName(), cacheKey);
             }
 
             return valueWrapper;
@@ -104,22 +147,62 @@ public class CustomRedisCache extends RedisCache {
             LOGGER.warn("Failed to get key {} from Redis cache: {}", key, e.getMessage());
 
             // Try local cache as last resort on unexpected errors
-            Object value = localCache.get(key);
-            return value != null ? new SimpleValueWrapper(value) : null;
+            return localCache.getIfPresent(cacheKey);
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T get(Object key, Callable<T> valueLoader) {
+        if (softTtl == null) {
+            return super.get(key, valueLoader);
+        }
+
+        String cacheKey = convertKey(key);
+        ValueWrapper valueWrapper = nearCacheEnabled ? localCache.getIfPresent(cacheKey) : null;
+        if (valueWrapper == null) {
+            try {
+                valueWrapper = readRedis(key, cacheKey);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to get key {} from Redis cache: {}", key, e.getMessage());
+                valueWrapper = localCache.getIfPresent(cacheKey);
+            }
+            if (valueWrapper != null && valueWrapper.get() instanceof StampedValue stamped) {
+                if (System.currentTimeMillis() - stamped.writtenAtMillis() > softTtl.toMillis()) {
+                    refreshInBackground(key, cacheKey, valueLoader);
+                }
+                valueWrapper = new SimpleValueWrapper(stamped.value());
+            }
+            if (valueWrapper != null) {
+                localCache.put(cacheKey, valueWrapper);
+            }
+        }
+
+        if (valueWrapper != null) {
+            monitor.recordHit(getName(), cacheKey);
+            return (T) valueWrapper.get();
+        }
+        monitor.recordMiss(getName(), cacheKey);
+        return load(key, cacheKey, valueLoader);
+    }
+
     @Override
     public void evict(Object key) {
+        String cacheKey = convertKey(key);
+        markEvicted(cacheKey);
         try {
             // Use circuit breaker for Redis eviction
+            long start = System.nanoTime();
             circuitBreaker.<@Nullable Void>execute(() -> {
                 super.evict(key);
+                publishEvict(cacheKey);
                 return null;
             });
+            monitor.recordLatency(getName(), EVICT, System.nanoTime() - start);
+            monitor.recordEviction(getName());
 
             // Always remove from local cache
-            localCache.remove(key);
+            localCache.invalidate(cacheKey);
 
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Evicted key {} from cache", key);
@@ -127,51 +210,215 @@ public class CustomRedisCache extends RedisCache {
         } catch (Exception e) {
             LOGGER.warn("Failed to evict key {} from Redis cache: {}", key, e.getMessage());
             // Still remove from local cache
-            localCache.remove(key);
+            localCache.invalidate(cacheKey);
         }
     }
 
     @Override
     public void clear() {
+        markAllEvicted();
         try {
             // Use circuit breaker for Redis clear
             circuitBreaker.<@Nullable Void>execute(() -> {
                 super.clear();
+                if (invalidator != null) {
+                    invalidator.publishClear(getName());
+                }
                 return null;
             });
 
             // Always clear local cache
-            localCache.clear();
+            localCache.invalidateAll();
 
             LOGGER.info("Cache cleared");
         } catch (Exception e) {
             LOGGER.warn("Failed to clear Redis cache: {}", e.getMessage());
             // Still clear local cache
-            localCache.clear();
+            localCache.invalidateAll();
         }
     }
 
+    @Override
+    protected byte[] serializeCacheValue(Object value) {
+        byte[] serialized = super.serializeCacheValue(value);
+        monitor.recordEntrySize(getName(), serialized.length);
+        return serialized;
+    }
+
+    /**
+     * Drops a single near cache entry after another instance changed it in Redis.
+     */
+    void invalidateLocal(String cacheKey) {
+        markEvicted(cacheKey);
+        localCache.invalidate(cacheKey);
+    }
+
     /**
-     * Record metrics for cache operations
+     * Drops every near cache entry after another instance cleared the cache in Redis.
      */
-    private void recordMetrics(Object key, String operation) {
-        String keyString = getNormalizedKey(key);
+    void clearLocal() {
+        markAllEvicted();
+        localCache.invalidateAll();
+    }
+
+    long localSize() {
+        return localCache.estimatedSize();
+    }
 
-        if ("access".equals(operation)) {
-            monitor.recordAccess(keyString);
-        } else if ("update".equals(operation)) {
-            monitor.recordUpdate(keyString);
+    private void putLocal(String cacheKey, @Nullable Object value) {
+        if (value == null) {
+            localCache.invalidate(cacheKey);
+        } else {
+            localCache.put(cacheKey, new SimpleValueWrapper(value));
         }
     }
 
+    // Redis read with circuit breaker protection, falling back to L1; values are returned as stored
+    private @Nullable ValueWrapper readRedis(Object key, String cacheKey) {
+        long start = System.nanoTime();
+        ValueWrapper valueWrapper = circuitBreaker.<@Nullable ValueWrapper>executeWithFallback(
+                () -> super.get(key), () -> localCache.getIfPresent(cacheKey));
+        monitor.recordLatency(getName(), GET, System.nanoTime() - start);
+        return valueWrapper;
+    }
+
     /**
-     * Normalize key format for metrics
+     * Compute a missing value once, however many callers ask for it at the same time.
      */
-    private String getNormalizedKey(Object key) {
-        if (key instanceof SimpleKey simpleKey) {
-            return simpleKey.toString();
-        } else {
-            return key.toString();
+    @SuppressWarnings("unchecked")
+    private <T> @Nullable T load(Object key, String cacheKey, Callable<T> valueLoader) {
+        Flight load = new Flight();
+        Flight inFlight = loading.putIfAbsent(cacheKey, load);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            pendingLoad.set(new PendingLoad(cacheKey, System.nanoTime()));
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            putUnlessEvicted(key, value, load);
+            load.result.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(cacheKey, load);
+        }
+    }
+
+    private <T> void refreshInBackground(Object key, String cacheKey, Callable<T> valueLoader) {
+        if (!refreshPermits.tryAcquire()) {
+            LOGGER.debug("Not refreshing key {} of cache {}: too many refreshes running", key, getName());
+            return;
         }
+        Flight refresh = new Flight();
+        if (refreshing.putIfAbsent(cacheKey, refresh) != null) {
+            refreshPermits.release();
+            return;
+        }
+        Thread.ofVirtual().name("cache-refresh-" + getName()).start(() -> {
+            try {
+                pendingLoad.set(new PendingLoad(cacheKey, System.nanoTime()));
+                putUnlessEvicted(key, valueLoader.call(), refresh);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to refresh key {} of cache {}: {}", key, getName(), e.getMessage());
+            } finally {
+                refreshing.remove(cacheKey, refresh);
+                refreshPermits.release();
+            }
+        });
+    }
+
+    /**
+     * Write a computed value unless its key was evicted since the computation started, in which case the value may
+     * predate the change that caused the eviction.
+     */
+    private void putUnlessEvicted(Object key, @Nullable Object value, Flight flight) {
+        if (flight.evicted) {
+            LOGGER.debug("Not caching key {} of cache {}: evicted while it was computed", key, getName());
+            pendingLoad.remove();
+            return;
+        }
+        put(key, value);
+        // An eviction that ran while the value was written may have removed nothing
+        if (flight.evicted) {
+            evict(key);
+        }
+    }
+
+    private void markEvicted(String cacheKey) {
+        Flight load = loading.get(cacheKey);
+        if (load != null) {
+            load.evicted = true;
+        }
+        Flight refresh = refreshing.get(cacheKey);
+        if (refresh != null) {
+            refresh.evicted = true;
+        }
+    }
+
+    private void markAllEvicted() {
+        loading.values().forEach(load -> load.evicted = true);
+        refreshing.values().forEach(refresh -> refresh.evicted = true);
+    }
+
+    private @Nullable Object stamped(@Nullable Object value) {
+        return softTtl != null && value != null ? new StampedValue(value, System.currentTimeMillis()) : value;
+    }
+
+    private static @Nullable ValueWrapper unstamped(@Nullable ValueWrapper valueWrapper) {
+        if (valueWrapper != null && valueWrapper.get() instanceof StampedValue stamped) {
+            return new SimpleValueWrapper(stamped.value());
+        }
+        return valueWrapper;
     }
+
+    private void recordLoad(String cacheKey, long now) {
+        PendingLoad load = pendingLoad.get();
+        if (load != null && load.cacheKey().equals(cacheKey)) {
+            monitor.recordLoad(getName(), now - load.startedAt());
+        }
+        pendingLoad.remove();
+    }
+
+    private void publishEvict(String cacheKey) {
+        if (invalidator != null) {
+            invalidator.publishEvict(getName(), cacheKey);
+        }
+    }
+
+    /**
+     * L1 entries never outlive the Redis entry they mirror.
+     */
+    private static Duration nearCacheTtl(Duration ttl, RedisAppProperties.NearCache nearCache) {
+        Duration nearCacheTtl = Duration.ofSeconds(nearCache.getTtlSeconds());
+        if (ttl.isZero() || ttl.isNegative()) {
+            return nearCacheTtl;
+        }
+        return ttl.compareTo(nearCacheTtl) < 0 ? ttl : nearCacheTtl;
+    }
+
+    private record PendingLoad(String cacheKey, long startedAt) {}
+
+    /**
+     * A value being computed for a key, and whether the key was evicted in the meantime.
+     */
+    private static final class Flight {
+        private final CompletableFuture<@Nullable Object> result = new CompletableFuture<>();
+        private volatile boolean evicted;
+    }
+
+    /**
+     * A value of a cache with a soft TTL, as stored in Redis together with the time it was written.
+     */
+    record StampedValue(Object value, long writtenAtMillis) {}
 }
@@ -1,7 +1,5 @@
 package com.app.folioman.config.redis;
 
-import java.time.Duration;
-import java.util.Collections;
 import java.util.Map;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -10,45 +8,63 @@ import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
-import org.springframework.data.redis.serializer.RedisSerializer;
 
 public class CustomRedisCacheManager extends RedisCacheManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CustomRedisCacheManager.class);
     private final RedisCacheWriter redisCacheWriter;
-    private final RedisSerializer<Object> redisSerializer;
-    private final Duration defaultTtl;
+    private final RedisCacheConfiguration defaultCacheConfiguration;
     private final Monitor monitor;
     private final CacheCircuitBreaker circuitBreaker;
+    private final CacheOptions options;
 
     public CustomRedisCacheManager(
             RedisCacheWriter cacheWriter,
+            RedisCacheConfiguration defaultCacheConfiguration,
             Map<String, RedisCacheConfiguration> initialCacheConfigurations,
             Monitor monitor,
             CacheCircuitBreaker circuitBreaker,
-            Duration defaultTtl) {
-        super(
-                cacheWriter,
-                RedisCacheConfiguration.defaultCacheConfig(),
-                initialCacheConfigurations != null ? initialCacheConfigurations : Collections.emptyMap());
+            CacheOptions options) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations);
         this.redisCacheWriter = cacheWriter;
-        this.redisSerializer = RedisSerializer.java(); // Custom serializer if needed
-        this.defaultTtl = defaultTtl != null ? defaultTtl : Duration.ofMinutes(10);
+        this.defaultCacheConfiguration = defaultCacheConfiguration;
         this.monitor = monitor;
         this.circuitBreaker = circuitBreaker;
+        this.options = options;
 
-        LOGGER.info("Initializing custom Redis cache manager with default TTL: {}", this.defaultTtl);
+        LOGGER.info(
+                "Initializing custom Redis cache manager with default TTL: {}",
+                defaultCacheConfiguration.getTtlFunction().getTimeToLive(Object.class, null));
     }
 
     @Override
     protected RedisCache createRedisCache(String name, @Nullable RedisCacheConfiguration cacheConfig) {
-        // Configure cache with either provided config or default
-        Duration ttl =
-                cacheConfig != null ? cacheConfig.getTtlFunction().getTimeToLive(Object.class, null) : defaultTtl;
+        // Configure cache with either provided config or default, keeping its serializers, prefix and TTL
+        RedisCacheConfiguration configuration = cacheConfig != null ? cacheConfig : defaultCacheConfiguration;
 
-        LOGGER.debug("Creating Redis cache '{}' with TTL: {}", name, ttl);
+        // Let the controller tune the TTL, starting from the configured one and keeping stale values servable
+        CacheTtlController ttlController = options.ttlController();
+        if (ttlController != null) {
+            RedisCacheWriter.TtlFunction ttlFunction = ttlController.ttlFunction(
+                    name, configuration.getTtlFunction().getTimeToLive(Object.class, null), options.softTtl(name));
+            if (ttlFunction != null) {
+                configuration = configuration.entryTtl(ttlFunction);
+            }
+        }
 
-        // Return the custom RedisCache implementation with circuit breaker support
-        return new CustomRedisCache(name, redisCacheWriter, redisSerializer, ttl, monitor, circuitBreaker);
+        LOGGER.debug(
+                "Creating Redis cache '{}' with TTL: {}",
+                name,
+                configuration.getTtlFunction().getTimeToLive(Object.class, null));
+
+        // Return the custom RedisCache implementation with circuit breaker and near cache support
+        CustomRedisCache cache =
+                new CustomRedisCache(name, redisCacheWriter, configuration, monitor, circuitBreaker, options);
+        NearCacheInvalidator invalidator = options.invalidator();
+        if (invalidator != null) {
+            invalidator.register(cache);
+        }
+        monitor.registerCache(name);
+        return cache;
     }
 }
@@ -0,0 +1,125 @@
+package com.app.folioman.config.redis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded tracker of the most frequently read cache keys, using the Space-Saving algorithm.
+ *
+ * <p>At most {@code capacity} keys are tracked. When a key that is not tracked arrives and the table is full, it
+ * replaces the key with the lowest count and inherits that count; the inherited amount is kept as the entry's
+ * maximum overestimation ({@code error}). Any key whose true frequency exceeds {@code total / capacity} is guaranteed
+ * to be tracked. Only one in {@code sampleRate} reads is offered to the table and counts are scaled back up when
+ * reported, which keeps the cost on the read path to a random number draw for most calls. All counts are halved
+ * periodically so that the ranking follows current traffic rather than all-time totals.
+ *
+ * <p>Keys are tracked in their Redis form, {@code cacheName::key}.
+ */
+@Component
+public class HotKeySketch {
+
+    static final String KEY_SEPARATOR = "::";
+
+    // Halve all counts after this many sampled reads per tracked slot
+    private static final int AGING_FACTOR = 1000;
+
+    private final int capacity;
+    private final int sampleRate;
+    private final long agingInterval;
+    private final Map<String, Slot> slots;
+    private long sampled;
+
+    public HotKeySketch(RedisAppProperties redisAppProperties) {
+        RedisAppProperties.HotKeys hotKeys = redisAppProperties.getHotKeys();
+        this.capacity = Math.max(1, hotKeys.getCapacity());
+        this.sampleRate = Math.max(1, hotKeys.getSampleRate());
+        this.agingInterval = (long) capacity * AGING_FACTOR;
+        this.slots = HashMap.newHashMap(capacity);
+    }
+
+    /**
+     * A tracked key with its estimated number of reads.
+     *
+     * @param count estimated reads, never lower than the true number of sampled reads
+     * @param error maximum amount by which {@code count} may overestimate
+     */
+    public record HotKey(String cache, String key, long count, long error) {}
+
+    public void record(String cacheName, String key) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        offer(cacheName + KEY_SEPARATOR + key);
+    }
+
+    /**
+     * Estimated reads of a key in its Redis form, {@code 0} when the key is not among the tracked hot keys.
+     */
+    public synchronized long estimate(String redisKey) {
+        Slot slot = slots.get(redisKey);
+        return slot == null ? 0 : slot.count * sampleRate;
+    }
+
+    public synchronized List<HotKey> topKeys(int limit) {
+        List<Map.Entry<String, Slot>> entries = new ArrayList<>(slots.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, Slot> entry) -> entry.getValue().count)
+                .reversed());
+        List<HotKey> hotKeys = new ArrayList<>(Math.min(limit, entries.size()));
+        for (Map.Entry<String, Slot> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            String redisKey = entry.getKey();
+            int separator = redisKey.indexOf(KEY_SEPARATOR);
+            hotKeys.add(new HotKey(
+                    redisKey.substring(0, separator),
+                    redisKey.substring(separator + KEY_SEPARATOR.length()),
+                    entry.getValue().count * sampleRate,
+                    entry.getValue().error * sampleRate));
+        }
+        return hotKeys;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    private synchronized void offer(String redisKey) {
+        Slot slot = slots.get(redisKey);
+        if (slot != null) {
+            slot.count++;
+        } else if (slots.size() < capacity) {
+            slots.put(redisKey, new Slot(1, 0));
+        } else {
+            String minKey = null;
+            long minCount = Long.MAX_VALUE;
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                if (entry.getValue().count < minCount) {
+                    minKey = entry.getKey();
+                    minCount = entry.getValue().count;
+                }
+            }
+            slots.remove(minKey);
+            slots.put(redisKey, new Slot(minCount + 1, minCount));
+        }
+        if (++sampled % agingInterval == 0) {
+            slots.values().removeIf(tracked -> {
+                tracked.count >>= 1;
+                tracked.error >>= 1;
+                return tracked.count == 0;
+            });
+        }
+    }
+
+    private static final class Slot {
+        private long count;
+        private long error;
+
+        private Slot(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
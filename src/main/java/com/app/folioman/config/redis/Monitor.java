@@ -1,11 +1,23 @@
 package com.app.folioman.config.redis;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.connection.RedisConnection;
@@ -20,41 +32,179 @@ public class Monitor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Monitor.class);
     private static final int SCAN_COUNT = 100; // Process keys in batches of 100
+    private static final int RECONCILE_SCAN_COUNT = 1000;
+    private static final String KEY_COUNT_PREFIX = "folioman:cache:key-count:";
+    private static final String KEY_SEPARATOR = "::";
+    private static final int KEY_COUNT_BATCH = 256;
+
+    private static final String LOOKUPS_METRIC = "cache.lookups";
+    private static final String UPDATES_METRIC = "cache.updates";
+    private static final String CACHE_TAG = "cache";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String HIT = "hit";
+    private static final String MISS = "miss";
+    private static final String LATENCY_METRIC = "cache.latency";
+    private static final String OPERATION_TAG = "operation";
+    private static final String LOADS_METRIC = "cache.loads";
+    private static final String ENTRY_SIZE_METRIC = "cache.entry.size";
+    private static final String EVICTIONS_METRIC = "cache.evictions";
+
+    // Service level objectives for a cache round trip, published as histogram buckets
+    private static final Duration[] LATENCY_SLOS = {
+        Duration.ofMillis(1),
+        Duration.ofMillis(2),
+        Duration.ofMillis(5),
+        Duration.ofMillis(10),
+        Duration.ofMillis(25),
+        Duration.ofMillis(50),
+        Duration.ofMillis(100),
+        Duration.ofMillis(250)
+    };
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final MeterRegistry meterRegistry;
+    private final HotKeySketch hotKeySketch;
+    private final CacheCircuitBreaker circuitBreaker;
+
+    // Counters and timers are tagged by cache name only, so there are a handful per cache rather than one per key
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    // Caches whose key count is tracked
+    private final Set<String> cacheNames = ConcurrentHashMap.newKeySet();
+
+    // Keys written since their cache's HyperLogLog was last updated, added to it in one PFADD per batch
+    private final Map<String, Set<String>> pendingKeys = new ConcurrentHashMap<>();
 
-    public Monitor(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+    public Monitor(
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            HotKeySketch hotKeySketch,
+            CacheCircuitBreaker circuitBreaker) {
         this.redisTemplate = redisTemplate;
         this.meterRegistry = meterRegistry;
+        this.hotKeySketch = hotKeySketch;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Record a cache hit, incrementing the hit counter of the cache and sampling the key into the hot-key sketch.
+     */
+    public void recordHit(String cacheName, String key) {
+        lookupCounter(cacheName, HIT).increment();
+        hotKeySketch.record(cacheName, key);
     }
 
     /**
-     * Record access to the cache, incrementing the counter for cache access.
+     * Record a cache miss, incrementing the miss counter of the cache and sampling the key into the hot-key sketch.
      */
-    public void recordAccess(String key) {
-        meterRegistry.counter("cache.access", "key", key).increment();
+    public void recordMiss(String cacheName, String key) {
+        lookupCounter(cacheName, MISS).increment();
+        hotKeySketch.record(cacheName, key);
     }
 
     /**
      * Record update to the cache, incrementing the counter for cache updates.
      */
-    public void recordUpdate(String key) {
-        meterRegistry.counter("cache.update", "key", key).increment();
+    public void recordUpdate(String cacheName) {
+        counters.computeIfAbsent(
+                        UPDATES_METRIC + ":" + cacheName,
+                        ignored -> Counter.builder(UPDATES_METRIC)
+                                .description("Cache writes")
+                                .tag(CACHE_TAG, cacheName)
+                                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Record how long a Redis round trip of a cache operation ({@code get}, {@code put} or {@code evict}) took.
+     */
+    public void recordLatency(String cacheName, String operation, long durationNanos) {
+        timers.computeIfAbsent(
+                        LATENCY_METRIC + ":" + cacheName + ":" + operation,
+                        ignored -> Timer.builder(LATENCY_METRIC)
+                                .description("Latency of Redis cache operations")
+                                .tag(CACHE_TAG, cacheName)
+                                .tag(OPERATION_TAG, operation)
+                                .serviceLevelObjectives(LATENCY_SLOS)
+                                .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record how long the application took to compute a value that was missing from the cache, which is the backend
+     * time every later hit on that value saves.
+     */
+    public void recordLoad(String cacheName, long durationNanos) {
+        timers.computeIfAbsent(
+                        LOADS_METRIC + ":" + cacheName,
+                        ignored -> Timer.builder(LOADS_METRIC)
+                                .description("Time to compute values missing from the cache")
+                                .tag(CACHE_TAG, cacheName)
+                                .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     /**
-     * Record a cache hit, incrementing the counter for cache hits.
+     * Record the serialized size of a value written to the cache.
      */
-    public void recordHit(String key) {
-        meterRegistry.counter("cache.hit", "key", key).increment();
+    public void recordEntrySize(String cacheName, int bytes) {
+        summaries
+                .computeIfAbsent(
+                        ENTRY_SIZE_METRIC + ":" + cacheName,
+                        ignored -> DistributionSummary.builder(ENTRY_SIZE_METRIC)
+                                .description("Serialized size of cached values")
+                                .baseUnit("bytes")
+                                .tag(CACHE_TAG, cacheName)
+                                .register(meterRegistry))
+                .record(bytes);
     }
 
     /**
-     * Record a cache miss, incrementing the counter for cache misses.
+     * Record the eviction of a single entry, which is how the application invalidates values that changed.
      */
-    public void recordMiss(String key) {
-        meterRegistry.counter("cache.miss", "key", key).increment();
+    public void recordEviction(String cacheName) {
+        counters.computeIfAbsent(
+                        EVICTIONS_METRIC + ":" + cacheName,
+                        ignored -> Counter.builder(EVICTIONS_METRIC)
+                                .description("Cache entries evicted by the application")
+                                .tag(CACHE_TAG, cacheName)
+                                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Totals recorded for one cache since startup together with its current estimated key count, for controllers that
+     * compare successive snapshots.
+     */
+    public CacheStats getCacheStats(String cacheName) {
+        Timer loads = meterRegistry.find(LOADS_METRIC).tag(CACHE_TAG, cacheName).timer();
+        DistributionSummary entrySizes =
+                meterRegistry.find(ENTRY_SIZE_METRIC).tag(CACHE_TAG, cacheName).summary();
+        return new CacheStats(
+                count(meterRegistry.find(LOOKUPS_METRIC).tag(CACHE_TAG, cacheName).tag(OUTCOME_TAG, HIT).counter()),
+                count(meterRegistry.find(LOOKUPS_METRIC).tag(CACHE_TAG, cacheName).tag(OUTCOME_TAG, MISS).counter()),
+                count(meterRegistry.find(EVICTIONS_METRIC).tag(CACHE_TAG, cacheName).counter()),
+                loads != null ? loads.count() : 0,
+                loads != null ? loads.totalTime(TimeUnit.MILLISECONDS) : 0.0,
+                entrySizes != null ? entrySizes.count() : 0,
+                entrySizes != null ? entrySizes.totalAmount() : 0.0,
+                estimateKeyCount(cacheName));
+    }
+
+    private static long count(@Nullable Counter counter) {
+        return counter != null ? (long) counter.count() : 0;
+    }
+
+    private Counter lookupCounter(String cacheName, String outcome) {
+        return counters.computeIfAbsent(
+                LOOKUPS_METRIC + ":" + cacheName + ":" + outcome,
+                ignored -> Counter.builder(LOOKUPS_METRIC)
+                        .description("Cache reads by outcome")
+                        .tag(CACHE_TAG, cacheName)
+                        .tag(OUTCOME_TAG, outcome)
+                        .register(meterRegistry));
     }
 
     /**
@@ -65,40 +215,185 @@ public class Monitor {
         metrics.put("cacheSize", countKeys());
         metrics.put("hitRate", calculateHitRate());
         metrics.put("memoryUsage", getRedisMemoryUsage());
+        metrics.put("meanGetLatencyMs", meanLatencyMillis("get"));
 
         // Add additional metrics for better monitoring
-        metrics.put("localCacheEnabled", getCircuitBreakerState().equals("OPEN"));
-        metrics.put("circuitBreakerState", getCircuitBreakerState());
+        String circuitBreakerState = circuitBreaker.getState().name();
+        metrics.put("localCacheEnabled", circuitBreakerState.equals("OPEN"));
+        metrics.put("circuitBreakerState", circuitBreakerState);
 
         return metrics;
     }
 
     /**
-     * Get the current state of the circuit breaker
+     * Mean latency of an operation across all caches since startup, {@code 0} when it has not been recorded yet.
+     */
+    private double meanLatencyMillis(String operation) {
+        long count = 0;
+        double totalMillis = 0;
+        for (Timer timer : meterRegistry.find(LATENCY_METRIC).tag(OPERATION_TAG, operation).timers()) {
+            count += timer.count();
+            totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+        return count == 0 ? 0.0 : totalMillis / count;
+    }
+
+    /**
+     * Register a cache so that its key count is tracked and reconciled even before it is first written to.
+     */
+    public void registerCache(String cacheName) {
+        cacheNames.add(cacheName);
+    }
+
+    /**
+     * Names of the caches registered so far.
      */
-    private String getCircuitBreakerState() {
+    public Set<String> getCacheNames() {
+        return Set.copyOf(cacheNames);
+    }
+
+    /**
+     * Queue a written key for the HyperLogLog that estimates the number of keys of its cache. Keys are added to it in
+     * batches of {@link #KEY_COUNT_BATCH}, or when the estimate is read, so that a put costs no extra round trip.
+     * Overwrites of an existing key and writes of the same key from several instances are counted once.
+     */
+    public void recordKeyWritten(String cacheName, String redisKey) {
+        registerCache(cacheName);
+        Set<String> pending = pendingKeys.computeIfAbsent(cacheName, ignored -> ConcurrentHashMap.newKeySet());
+        pending.add(redisKey);
+        if (pending.size() >= KEY_COUNT_BATCH) {
+            flushKeysWritten(cacheName);
+        }
+    }
+
+    private void flushKeysWritten(String cacheName) {
+        Set<String> pending = pendingKeys.get(cacheName);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        List<byte[]> batch = new ArrayList<>(pending.size());
+        for (Iterator<String> keys = pending.iterator(); keys.hasNext(); ) {
+            batch.add(keys.next().getBytes(StandardCharsets.UTF_8));
+            keys.remove();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
         try {
-            // This is a simplistic approach; in production, you would inject the actual CircuitBreaker
-            return "CLOSED"; // Default to closed if we can't determine
+            redisTemplate.execute((RedisConnection connection) ->
+                    connection.hyperLogLogCommands().pfAdd(keyCountKey(cacheName), batch.toArray(byte[][]::new)));
         } catch (Exception e) {
-            LOGGER.warn("Error getting circuit breaker state", e);
-            return "UNKNOWN";
+            // The next reconciliation counts these keys again
+            LOGGER.warn("Error recording written keys of cache {}: {}", cacheName, e.getMessage());
         }
     }
 
     /**
-     * Count the number of keys in Redis without using KEYS command
-     * @return the number of keys in Redis
+     * Count the number of cached keys without scanning the keyspace. Each cache's count is a HyperLogLog estimate
+     * that only grows between reconciliations, because evicted and expired keys are not removed from it; it is
+     * rebuilt by {@link #reconcileKeyCounts()}.
+     * @return the approximate number of keys across all registered caches
      */
     private long countKeys() {
+        long total = 0;
+        for (String cacheName : cacheNames) {
+            total += estimateKeyCount(cacheName);
+        }
+        return total;
+    }
+
+    /**
+     * Approximate number of keys of a single cache, read from its HyperLogLog without scanning.
+     * @return the estimate, or {@code 0} when it could not be read
+     */
+    public long estimateKeyCount(String cacheName) {
         try {
-            return scanKeys("*").size();
+            flushKeysWritten(cacheName);
+            Long count = redisTemplate.execute((RedisConnection connection) ->
+                    connection.hyperLogLogCommands().pfCount(keyCountKey(cacheName)));
+            return count != null ? count : 0;
         } catch (Exception e) {
-            LOGGER.error("Error counting Redis keys", e);
+            LOGGER.error("Error counting keys of cache {}", cacheName, e);
             return 0;
         }
     }
 
+    /**
+     * Rebuild the key count of every registered cache from one {@code SCAN} of the keyspace, which buckets keys by the
+     * cache prefix of their name, so that keys that expired or were evicted since the previous run are forgotten. Runs
+     * as a recurring job, off the path that reads the counts.
+     */
+    public void reconcileKeyCounts() {
+        Set<String> tracked = getCacheNames();
+        if (tracked.isEmpty()) {
+            return;
+        }
+        Map<String, Long> scanned = Objects.requireNonNullElse(
+                redisTemplate.execute((RedisConnection connection) -> {
+                    tracked.forEach(cacheName -> connection.keyCommands().del(rebuildingKey(cacheName)));
+                    Map<String, List<byte[]>> batches = new HashMap<>();
+                    Map<String, Long> counts = new HashMap<>();
+                    try (Cursor<byte[]> cursor = connection
+                            .keyCommands()
+                            .scan(ScanOptions.scanOptions()
+                                    .count(RECONCILE_SCAN_COUNT)
+                                    .build())) {
+                        while (cursor.hasNext()) {
+                            byte[] key = cursor.next();
+                            String cacheName = cacheNameOf(key, tracked);
+                            if (cacheName == null) {
+                                continue;
+                            }
+                            List<byte[]> batch = batches.computeIfAbsent(cacheName, ignored -> new ArrayList<>());
+                            batch.add(key);
+                            counts.merge(cacheName, 1L, Long::sum);
+                            if (batch.size() == RECONCILE_SCAN_COUNT) {
+                                connection
+                                        .hyperLogLogCommands()
+                                        .pfAdd(rebuildingKey(cacheName), batch.toArray(byte[][]::new));
+                                batch.clear();
+                            }
+                        }
+                    }
+                    batches.forEach((cacheName, batch) -> {
+                        if (!batch.isEmpty()) {
+                            connection
+                                    .hyperLogLogCommands()
+                                    .pfAdd(rebuildingKey(cacheName), batch.toArray(byte[][]::new));
+                        }
+                    });
+                    // Swap atomically so readers never see a half-built estimate
+                    for (String cacheName : tracked) {
+                        if (counts.containsKey(cacheName)) {
+                            connection.keyCommands().rename(rebuildingKey(cacheName), keyCountKey(cacheName));
+                        } else {
+                            connection.keyCommands().del(keyCountKey(cacheName));
+                        }
+                    }
+                    return counts;
+                }),
+                Map.of());
+        LOGGER.debug("Reconciled key counts of {} caches: {}", tracked.size(), scanned);
+    }
+
+    private static @Nullable String cacheNameOf(byte[] key, Set<String> cacheNames) {
+        String redisKey = new String(key, StandardCharsets.UTF_8);
+        int separator = redisKey.indexOf(KEY_SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        String cacheName = redisKey.substring(0, separator);
+        return cacheNames.contains(cacheName) ? cacheName : null;
+    }
+
+    private byte[] rebuildingKey(String cacheName) {
+        return (KEY_COUNT_PREFIX + cacheName + ":rebuilding").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] keyCountKey(String cacheName) {
+        return (KEY_COUNT_PREFIX + cacheName).getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Scan keys in Redis using the more efficient SCAN operation
      * @param pattern the key pattern to match
@@ -136,12 +431,12 @@ public class Monitor {
     }
 
     /**
-     * Calculate the cache hit rate using counters from Micrometer.
+     * Calculate the cache hit rate across all caches using counters from Micrometer.
      * Hit rate is calculated as (cacheHits / (cacheHits + cacheMisses)).
      */
     private double calculateHitRate() {
-        double hits = meterRegistry.counter("cache.hit").count();
-        double misses = meterRegistry.counter("cache.miss").count();
+        double hits = countLookups(HIT);
+        double misses = countLookups(MISS);
         double totalRequests = hits + misses;
 
         if (totalRequests == 0) {
@@ -151,6 +446,12 @@ public class Monitor {
         return hits / totalRequests;
     }
 
+    private double countLookups(String outcome) {
+        return meterRegistry.find(LOOKUPS_METRIC).tag(OUTCOME_TAG, outcome).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
     /**
      * Retrieve Redis memory usage using the INFO MEMORY command.
      */
@@ -171,4 +472,26 @@ public class Monitor {
             return 0L;
         }
     }
+
+    /**
+     * Snapshot of the totals recorded for one cache.
+     *
+     * @param hits lookups answered from the cache
+     * @param misses lookups the cache could not answer
+     * @param evictions entries evicted by the application
+     * @param loads values computed after a miss and timed
+     * @param loadMillis total time spent computing those values
+     * @param sizedEntries values written whose size was recorded
+     * @param entryBytes total serialized size of those values
+     * @param keys estimated number of keys currently in the cache
+     */
+    public record CacheStats(
+            long hits,
+            long misses,
+            long evictions,
+            long loads,
+            double loadMillis,
+            long sizedEntries,
+            double entryBytes,
+            long keys) {}
 }
@@ -0,0 +1,104 @@
+package com.app.folioman.config.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the near caches of all application instances coherent. Every change made through a {@link CustomRedisCache}
+ * is published on a Redis pub/sub channel as {@code origin\ncacheName[\nkey...]}; receiving instances drop the matching
+ * local entries, or the whole local cache when no key is given. Entries removed in bulk are announced with all their
+ * keys in one message. Cache keys never contain line breaks. Messages published by this instance are ignored because
+ * its own near cache has already been updated.
+ *
+ * <p>Pub/sub is fire-and-forget, so a message lost during a reconnect leaves the entry stale until its near cache TTL
+ * expires.
+ */
+@Component
+public class NearCacheInvalidator implements MessageListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearCacheInvalidator.class);
+    private static final String SEPARATOR = "\n";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, CustomRedisCache> caches = new ConcurrentHashMap<>();
+
+    public NearCacheInvalidator(StringRedisTemplate stringRedisTemplate, RedisAppProperties redisAppProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.channel = redisAppProperties.getNearCache().getInvalidationChannel();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    void register(CustomRedisCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void publishEvict(String cacheName, String cacheKey) {
+        publish(instanceId + SEPARATOR + cacheName + SEPARATOR + cacheKey);
+    }
+
+    void publishClear(String cacheName) {
+        publish(instanceId + SEPARATOR + cacheName);
+    }
+
+    /**
+     * Drops entries that were removed from Redis without going through a {@link CustomRedisCache}, such as keys
+     * unlinked in bulk, from the near cache of this instance and of every other instance, with a single message.
+     *
+     * @param cacheName the cache the entries belong to
+     * @param cacheKeys the keys of the entries, without the {@code cacheName::} prefix of their Redis keys
+     */
+    public void invalidate(String cacheName, Collection<String> cacheKeys) {
+        if (cacheKeys.isEmpty()) {
+            return;
+        }
+        CustomRedisCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cacheKeys.forEach(cache::invalidateLocal);
+        }
+        publish(instanceId + SEPARATOR + cacheName + SEPARATOR + String.join(SEPARATOR, cacheKeys));
+    }
+
+    @Override
+    public void onMessage(Message message, byte @Nullable [] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR);
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+        CustomRedisCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length > 2) {
+            for (int i = 2; i < parts.length; i++) {
+                cache.invalidateLocal(parts[i]);
+            }
+        } else {
+            cache.clearLocal();
+            LOGGER.debug("Near cache {} cleared by instance {}", parts[1], parts[0]);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // Other instances fall back to their near cache TTL
+            LOGGER.warn("Failed to publish near cache invalidation: {}", e.getMessage());
+        }
+    }
+}
@@ -9,6 +9,16 @@ import org.springframework.stereotype.Component;
 @Component
 public class PolicyRepository {
 
+    private final HotKeySketch hotKeySketch;
+    private final Monitor monitor;
+    private final NearCacheInvalidator nearCacheInvalidator;
+
+    public PolicyRepository(HotKeySketch hotKeySketch, Monitor monitor, NearCacheInvalidator nearCacheInvalidator) {
+        this.hotKeySketch = hotKeySketch;
+        this.monitor = monitor;
+        this.nearCacheInvalidator = nearCacheInvalidator;
+    }
+
     /**
      * Returns a caching policy based on the provided strategy string.
      *
@@ -20,9 +30,9 @@ public class PolicyRepository {
             throw new IllegalArgumentException("Strategy cannot be null or empty");
         }
         return switch (strategy) {
-            case "REDUCE_CACHE_SIZE" -> new ReduceCacheSizePolicy();
+            case "REDUCE_CACHE_SIZE" -> new ReduceCacheSizePolicy(monitor, nearCacheInvalidator);
             case "INCREASE_CACHE_SIZE" -> new IncreaseCacheSizePolicy();
-            case "ADJUST_TTL" -> new AdjustTTLPolicy();
+            case "ADJUST_TTL" -> new AdjustTTLPolicy(hotKeySketch);
             default -> new DefaultPolicy();
         };
     }
@@ -1,8 +1,12 @@
 package com.app.folioman.config.redis;
 
+import java.util.HashMap;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 
 @Configuration(proxyBeanMethods = false)
 @ConfigurationProperties(prefix = "app.cache")
@@ -15,6 +19,15 @@ public class RedisAppProperties {
     @NestedConfigurationProperty
     AdaptiveStrategy adaptiveStrategy = new AdaptiveStrategy();
 
+    @NestedConfigurationProperty
+    NearCache nearCache = new NearCache();
+
+    @NestedConfigurationProperty
+    HotKeys hotKeys = new HotKeys();
+
+    @NestedConfigurationProperty
+    Codec codec = new Codec();
+
     public AdaptiveStrategy getAdaptiveStrategy() {
         return adaptiveStrategy;
     }
@@ -23,6 +36,30 @@ public class RedisAppProperties {
         this.adaptiveStrategy = adaptiveStrategy;
     }
 
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public HotKeys getHotKeys() {
+        return hotKeys;
+    }
+
+    public void setHotKeys(HotKeys hotKeys) {
+        this.hotKeys = hotKeys;
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(Codec codec) {
+        this.codec = codec;
+    }
+
     public boolean isCompressionEnabled() {
         return compressionEnabled;
     }
@@ -61,4 +98,164 @@ public class RedisAppProperties {
             this.stabilityThreshold = stabilityThreshold;
         }
     }
+
+    public static class NearCache {
+
+        private boolean enabled = true;
+
+        private long maximumSize = 1000;
+
+        private long ttlSeconds = 60;
+
+        private String invalidationChannel = "folioman:cache:invalidation";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public String getInvalidationChannel() {
+            return invalidationChannel;
+        }
+
+        public void setInvalidationChannel(String invalidationChannel) {
+            this.invalidationChannel = invalidationChannel;
+        }
+    }
+
+    public static class HotKeys {
+
+        private int capacity = 100;
+
+        private int sampleRate = 10;
+
+        private int reportSize = 20;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getReportSize() {
+            return reportSize;
+        }
+
+        public void setReportSize(int reportSize) {
+            this.reportSize = reportSize;
+        }
+    }
+
+    public static class Codec {
+
+        private Format format = Format.SMILE;
+
+        private CompressedRedisSerializer.Compression compression = CompressedRedisSerializer.Compression.LZ4;
+
+        private int compressionThresholdBytes = 1024;
+
+        private int zstdLevel = 3;
+
+        private Map<String, CacheCodec> caches = new HashMap<>();
+
+        public Format getFormat() {
+            return format;
+        }
+
+        public void setFormat(Format format) {
+            this.format = format;
+        }
+
+        public CompressedRedisSerializer.Compression getCompression() {
+            return compression;
+        }
+
+        public void setCompression(CompressedRedisSerializer.Compression compression) {
+            this.compression = compression;
+        }
+
+        public int getCompressionThresholdBytes() {
+            return compressionThresholdBytes;
+        }
+
+        public void setCompressionThresholdBytes(int compressionThresholdBytes) {
+            this.compressionThresholdBytes = compressionThresholdBytes;
+        }
+
+        public int getZstdLevel() {
+            return zstdLevel;
+        }
+
+        public void setZstdLevel(int zstdLevel) {
+            this.zstdLevel = zstdLevel;
+        }
+
+        public Map<String, CacheCodec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, CacheCodec> caches) {
+            this.caches = caches;
+        }
+
+        public enum Format {
+            JSON,
+            SMILE
+        }
+    }
+
+    /**
+     * Per-cache override of the codec's compression, optionally with a zstd dictionary trained on that cache's values.
+     */
+    public static class CacheCodec {
+
+        private CompressedRedisSerializer.@Nullable Compression compression;
+
+        private @Nullable Resource dictionary;
+
+        public CompressedRedisSerializer.@Nullable Compression getCompression() {
+            return compression;
+        }
+
+        public void setCompression(CompressedRedisSerializer.@Nullable Compression compression) {
+            this.compression = compression;
+        }
+
+        public @Nullable Resource getDictionary() {
+            return dictionary;
+        }
+
+        public void setDictionary(@Nullable Resource dictionary) {
+            this.dictionary = dictionary;
+        }
+    }
 }
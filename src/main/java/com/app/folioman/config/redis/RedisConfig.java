@@ -1,10 +1,13 @@
 package com.app.folioman.config.redis;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.ConnectException;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,10 +18,14 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -31,6 +38,12 @@ import tools.jackson.databind.json.JsonMapper;
 class RedisConfig implements CachingConfigurer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisConfig.class);
+    private static final int SCAN_BATCH_SIZE = 1000;
+    private static final Set<String> ENTITY_CACHES = Set.of(
+            CacheNames.AMC_BY_NAME_CACHE,
+            CacheNames.AMC_BY_CODE_CACHE,
+            CacheNames.AMC_TEXT_SEARCH_CACHE,
+            CacheNames.SCHEME_TYPE_CACHE);
 
     @Bean
     RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -59,43 +72,133 @@ class RedisConfig implements CachingConfigurer {
             RedisConnectionFactory redisConnectionFactory,
             Monitor monitor,
             CacheCircuitBreaker circuitBreaker,
-            RedisAppProperties redisAppProperties) {
+            RedisAppProperties redisAppProperties,
+            NearCacheInvalidator nearCacheInvalidator,
+            CacheTtlController cacheTtlController) {
 
-        RedisCacheWriter redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory);
+        // Cache.clear() walks the keyspace with SCAN instead of the default, blocking KEYS
+        RedisCacheWriter redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                redisConnectionFactory, BatchStrategies.scan(SCAN_BATCH_SIZE));
 
-        // Create default cache configuration with compression if enabled
+        // Create default cache configuration with the configured value codec
+        RedisAppProperties.Codec codec = redisAppProperties.getCodec();
+        RedisSerializer<Object> valueSerializer = createValueSerializer(codec);
         RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(redisAppProperties.getDefaultTtl()))
                 .serializeKeysWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()));
+                        RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        compressing(valueSerializer, redisAppProperties, codec.getCompression(), null)));
 
         // Configure serialization based on compression setting
         if (redisAppProperties.isCompressionEnabled()) {
-            cacheConfiguration =
-                    cacheConfiguration.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
-                            new CompressedRedisSerializer<>(createOptimizedSerializer())));
-            LOGGER.info("Redis value compression enabled for values over 1KB");
+            LOGGER.info(
+                    "Redis cache values stored as {} with {} compression for values over {} bytes",
+                    codec.getFormat(),
+                    codec.getCompression(),
+                    codec.getCompressionThresholdBytes());
         } else {
-            cacheConfiguration = cacheConfiguration.serializeValuesWith(
-                    RedisSerializationContext.SerializationPair.fromSerializer(createOptimizedSerializer()));
-            LOGGER.info("Redis value compression disabled");
+            LOGGER.info("Redis cache values stored as {}, compression disabled", codec.getFormat());
         }
 
         // Prepare per-cache configurations
         Map<String, RedisCacheConfiguration> initialCacheConfigurations = new HashMap<>();
         initialCacheConfigurations.put(
                 CacheNames.USER_PROFILE_CACHE, cacheConfiguration.entryTtl(Duration.ofMinutes(5)));
+        // Portfolio views are evicted when the CAS, its transactions or the NAVs of its schemes change, so their TTLs
+        // only bound how long an entry survives a missed event
         initialCacheConfigurations.put(
-                CacheNames.PORTFOLIO_HISTORY_CACHE, cacheConfiguration.entryTtl(Duration.ofHours(1)));
-        initialCacheConfigurations.put(CacheNames.SUMMARY_CACHE, cacheConfiguration.entryTtl(Duration.ofMinutes(15)));
+                CacheNames.PORTFOLIO_HISTORY_CACHE, cacheConfiguration.entryTtl(Duration.ofHours(24)));
+        initialCacheConfigurations.put(CacheNames.SUMMARY_CACHE, cacheConfiguration.entryTtl(Duration.ofHours(12)));
+        initialCacheConfigurations.put(CacheNames.RETURNS_CACHE, cacheConfiguration.entryTtl(Duration.ofHours(12)));
+        initialCacheConfigurations.put(
+                CacheNames.TRANSACTION_CACHE, cacheConfiguration.entryTtl(Duration.ofHours(24)));
+        initialCacheConfigurations.put(
+                CacheNames.UPLOAD_FINGERPRINT_CACHE, cacheConfiguration.entryTtl(Duration.ofHours(1)));
+
+        // Past these ages portfolio values are served stale while they are recomputed in the background; the TTLs
+        // above are the hard limits after which a request waits for the recomputation
+        Map<String, Duration> softTtls = Map.of(
+                CacheNames.PORTFOLIO_HISTORY_CACHE, Duration.ofHours(6),
+                CacheNames.SUMMARY_CACHE, Duration.ofHours(1));
+
+        // Caches with their own compression, e.g. zstd with a trained dictionary for large history payloads
+        codec.getCaches().forEach((cacheName, cacheCodec) -> {
+            RedisCacheConfiguration configuration =
+                    initialCacheConfigurations.getOrDefault(cacheName, cacheConfiguration);
+            CompressedRedisSerializer.Compression override = cacheCodec.getCompression();
+            CompressedRedisSerializer.Compression compression = override != null ? override : codec.getCompression();
+            RedisSerializer<Object> cacheSerializer =
+                    compressing(valueSerializer, redisAppProperties, compression, cacheCodec.getDictionary());
+            initialCacheConfigurations.put(
+                    cacheName,
+                    configuration.serializeValuesWith(
+                            RedisSerializationContext.SerializationPair.fromSerializer(cacheSerializer)));
+            LOGGER.info("Redis cache {} uses {} compression", cacheName, compression);
+        });
+
+        // These caches hold JPA entities, whose lazy collections, back-references and Hibernate types neither Jackson
+        // format can carry, so they keep JDK serialization
+        RedisSerializationContext.SerializationPair<Object> entityValues =
+                RedisSerializationContext.SerializationPair.fromSerializer(
+                        compressing(RedisSerializer.java(), redisAppProperties, codec.getCompression(), null));
+        ENTITY_CACHES.forEach(cacheName -> initialCacheConfigurations.put(
+                cacheName,
+                initialCacheConfigurations
+                        .getOrDefault(cacheName, cacheConfiguration)
+                        .serializeValuesWith(entityValues)));
 
-        // Create the custom cache manager with our circuit breaker and default TTL
+        // Create the custom cache manager with our circuit breaker and default configuration
         return new CustomRedisCacheManager(
                 redisCacheWriter,
+                cacheConfiguration,
                 initialCacheConfigurations,
                 monitor,
                 circuitBreaker,
-                Duration.ofSeconds(redisAppProperties.getDefaultTtl()));
+                new CacheOptions(
+                        redisAppProperties.getNearCache(), nearCacheInvalidator, cacheTtlController, softTtls));
+    }
+
+    @Bean
+    RedisMessageListenerContainer nearCacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory, NearCacheInvalidator nearCacheInvalidator) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(nearCacheInvalidator, new ChannelTopic(nearCacheInvalidator.getChannel()));
+        return container;
+    }
+
+    private RedisSerializer<Object> createValueSerializer(RedisAppProperties.Codec codec) {
+        return switch (codec.getFormat()) {
+            case JSON -> createOptimizedSerializer();
+            // JSON values written before the switch to Smile stay readable
+            case SMILE -> new SmileRedisSerializer(createOptimizedSerializer());
+        };
+    }
+
+    private RedisSerializer<Object> compressing(
+            RedisSerializer<Object> valueSerializer,
+            RedisAppProperties redisAppProperties,
+            CompressedRedisSerializer.Compression compression,
+            @Nullable Resource dictionary) {
+        if (!redisAppProperties.isCompressionEnabled()) {
+            return valueSerializer;
+        }
+        RedisAppProperties.Codec codec = redisAppProperties.getCodec();
+        return new CompressedRedisSerializer<>(
+                valueSerializer,
+                compression,
+                codec.getCompressionThresholdBytes(),
+                codec.getZstdLevel(),
+                dictionary != null ? readDictionary(dictionary) : null);
+    }
+
+    private byte[] readDictionary(Resource dictionary) {
+        try {
+            return dictionary.getContentAsByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read zstd dictionary " + dictionary, e);
+        }
     }
 
     /**
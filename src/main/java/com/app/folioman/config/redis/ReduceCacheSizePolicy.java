@@ -1,23 +1,52 @@
 package com.app.folioman.config.redis;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+/**
+ * Shrinks each registered cache with an approximate LRU, in the spirit of Redis' own eviction: a random sample of the
+ * keyspace is drawn with pipelined {@code RANDOMKEY}s and split by cache, the {@code TTL} and {@code OBJECT IDLETIME}
+ * of the sampled keys are fetched in pipelined batches, and the most idle share of each cache's sample is removed with
+ * batched, non-blocking {@code UNLINK}s. Only cache entries are ever touched, and a run costs a bounded number of
+ * round trips regardless of the size of the keyspace.
+ *
+ * <p>The removed entries bypass {@link CustomRedisCache}, so they are dropped from the near caches of all instances
+ * through the {@link NearCacheInvalidator}, with one invalidation message per {@code UNLINK} batch.
+ */
 @Component
 public class ReduceCacheSizePolicy implements CachePolicy {
 
     private static final double REDUCTION_PERCENTAGE = 0.3; // Reduce by 30% instead of 50%
     private static final Duration EXPIRATION_TIME = Duration.ofMinutes(30); // Default expiration time
+    private static final Duration SHORTER_TTL = Duration.ofMinutes(15); // Shorter TTL for idle keys that are kept
+    private static final int SAMPLE_SIZE = 5000; // Keys drawn per run
+    private static final int BATCH_SIZE = 500; // Keys per pipeline and UNLINK
+    private static final String KEY_SEPARATOR = "::";
+    private static final int TTL_ADJUSTMENT_LIMIT = 100;
     private static final Logger LOGGER = LoggerFactory.getLogger(ReduceCacheSizePolicy.class);
-    private static final String PROTECTED_KEY_PREFIX = "critical:"; // Keys that should never be evicted
+
+    private final Monitor monitor;
+    private final NearCacheInvalidator nearCacheInvalidator;
+
+    public ReduceCacheSizePolicy(Monitor monitor, NearCacheInvalidator nearCacheInvalidator) {
+        this.monitor = monitor;
+        this.nearCacheInvalidator = nearCacheInvalidator;
+    }
 
     @Override
     public Duration getExpirationTime() {
@@ -26,108 +55,168 @@ public class ReduceCacheSizePolicy implements CachePolicy {
 
     @Override
     public void apply(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
-        // Use the more efficient scan operation from Monitor
-        Monitor monitor = new Monitor(redisTemplate, meterRegistry);
-        Set<String> allKeys = monitor.scanKeys("*");
-
-        if (allKeys == null || allKeys.isEmpty()) {
-            LOGGER.info("Cache is empty, nothing to reduce.");
+        Set<String> cacheNames = monitor.getCacheNames();
+        if (cacheNames.isEmpty()) {
+            LOGGER.info("No caches registered, nothing to reduce.");
             return;
         }
 
-        // Calculate how many keys to remove
-        int totalKeys = allKeys.size();
-        int keysToRemove = (int) (totalKeys * REDUCTION_PERCENTAGE);
-
-        LOGGER.info("Reducing cache size by removing up to {} entries using LRU strategy.", keysToRemove);
-
-        // Track access counts for keys to implement LRU-like eviction
-        List<KeyMetadata> keyMetadataList = getKeyMetadataList(allKeys, meterRegistry, redisTemplate);
-
-        // Sort keys by access frequency (least used first) and then by TTL (expiring soon first)
-        int removedCount = evictLeastUsedKeys(keyMetadataList, keysToRemove, redisTemplate);
+        Map<String, List<String>> sample = sampleKeys(cacheNames, redisTemplate);
+        int removedCount = 0;
+        for (String cacheName : cacheNames) {
+            removedCount += reduce(cacheName, sample.getOrDefault(cacheName, List.of()), redisTemplate);
+        }
 
         LOGGER.info("Cache reduction complete. Removed {} entries.", removedCount);
-
-        // Apply shorter TTL to remaining keys that had low access counts but weren't evicted
-        applyDynamicTTL(keyMetadataList, removedCount, redisTemplate);
     }
 
-    private List<KeyMetadata> getKeyMetadataList(
-            Set<String> allKeys, MeterRegistry meterRegistry, RedisTemplate<String, Object> redisTemplate) {
-        List<KeyMetadata> keyMetadataList = new ArrayList<>(allKeys.size());
-
-        for (String key : allKeys) {
-            // Skip protected keys
-            if (key.startsWith(PROTECTED_KEY_PREFIX)) {
-                continue;
-            }
+    private int reduce(String cacheName, List<String> keys, RedisTemplate<String, Object> redisTemplate) {
+        if (keys.isEmpty()) {
+            LOGGER.debug("No keys of cache {} sampled, nothing to reduce.", cacheName);
+            return 0;
+        }
 
-            // Get access count from metrics
-            double accessCount = getAccessCountForKey(meterRegistry, key);
+        List<KeyMetadata> keyMetadataList = getKeyMetadataList(keys, redisTemplate);
+        int keysToRemove = (int) (keyMetadataList.size() * REDUCTION_PERCENTAGE);
 
-            // Get remaining TTL
-            Long ttl = redisTemplate.getExpire(key);
-            long remainingTtl = (ttl != null && ttl > 0) ? ttl : 0;
+        LOGGER.info(
+                "Reducing cache {} by removing {} of {} sampled entries using approximate LRU.",
+                cacheName,
+                keysToRemove,
+                keyMetadataList.size());
 
-            keyMetadataList.add(new KeyMetadata(key, accessCount, remainingTtl));
-        }
+        // Most idle first, and among equally idle keys the ones expiring soonest
+        keyMetadataList.sort(Comparator.comparingLong(KeyMetadata::idleSeconds)
+                .reversed()
+                .thenComparingLong(KeyMetadata::remainingTtl));
 
-        return keyMetadataList;
-    }
+        unlink(cacheName, keyMetadataList.subList(0, keysToRemove), redisTemplate);
 
-    private int evictLeastUsedKeys(
-            List<KeyMetadata> keyMetadataList, int keysToRemove, RedisTemplate<String, Object> redisTemplate) {
-        // Sort by access count (ascending) and then by TTL (ascending)
-        keyMetadataList.sort(
-                Comparator.comparingDouble(KeyMetadata::accessCount).thenComparingLong(KeyMetadata::remainingTtl));
+        // Apply shorter TTL to the next most idle keys that weren't evicted
+        applyDynamicTTL(
+                keyMetadataList.subList(
+                        keysToRemove, Math.min(keysToRemove + TTL_ADJUSTMENT_LIMIT, keyMetadataList.size())),
+                redisTemplate);
 
-        int removedCount = 0;
+        return keysToRemove;
+    }
 
-        // Remove the least accessed keys
-        for (KeyMetadata metadata : keyMetadataList) {
-            if (removedCount >= keysToRemove) break;
+    /**
+     * Draws random keys rather than scanning, as a {@code SCAN} capped at the sample size always starts from the same
+     * end of the keyspace and would keep inspecting the same keys.
+     */
+    private Map<String, List<String>> sampleKeys(
+            Set<String> cacheNames, RedisTemplate<String, Object> redisTemplate) {
+        Set<String> sampled = new LinkedHashSet<>();
+        for (int drawn = 0; drawn < SAMPLE_SIZE; drawn += BATCH_SIZE) {
+            List<Object> keys = redisTemplate.executePipelined(
+                    (RedisCallback<Object>) connection -> {
+                        for (int i = 0; i < BATCH_SIZE; i++) {
+                            connection.keyCommands().randomKey();
+                        }
+                        return null;
+                    },
+                    RedisSerializer.string());
+            boolean drewNewKey = false;
+            for (Object key : keys) {
+                if (key instanceof String name && sampled.add(name)) {
+                    drewNewKey = true;
+                }
+            }
+            if (!drewNewKey) {
+                // The keyspace is smaller than the sample and has been drawn in full
+                break;
+            }
+        }
 
-            redisTemplate.delete(metadata.key());
-            removedCount++;
+        Map<String, List<String>> keysByCache = new HashMap<>();
+        for (String key : sampled) {
+            int separator = key.indexOf(KEY_SEPARATOR);
+            if (separator > 0 && cacheNames.contains(key.substring(0, separator))) {
+                keysByCache
+                        .computeIfAbsent(key.substring(0, separator), cacheName -> new ArrayList<>())
+                        .add(key);
+            }
+        }
+        return keysByCache;
+    }
 
-            if (removedCount % 100 == 0) {
-                LOGGER.debug("Removed {} keys so far", removedCount);
+    private List<KeyMetadata> getKeyMetadataList(List<String> keys, RedisTemplate<String, Object> redisTemplate) {
+        List<KeyMetadata> keyMetadataList = new ArrayList<>(keys.size());
+
+        for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+            List<String> batch = keys.subList(from, Math.min(from + BATCH_SIZE, keys.size()));
+            // One round trip per batch: TTL and OBJECT IDLETIME for every key
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : batch) {
+                    byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+                    connection.keyCommands().ttl(rawKey);
+                    connection.keyCommands().idletime(rawKey);
+                }
+                return null;
+            });
+
+            for (int i = 0; i < batch.size() && 2 * i + 1 < results.size(); i++) {
+                long ttl = toSeconds(results.get(2 * i));
+                if (ttl == -2) {
+                    // Expired or removed since it was scanned
+                    continue;
+                }
+                long remainingTtl = ttl > 0 ? ttl : 0;
+                keyMetadataList.add(new KeyMetadata(batch.get(i), toSeconds(results.get(2 * i + 1)), remainingTtl));
             }
         }
 
-        return removedCount;
+        return keyMetadataList;
     }
 
-    private void applyDynamicTTL(
-            List<KeyMetadata> keyMetadataList, int startIndex, RedisTemplate<String, Object> redisTemplate) {
-        // Apply shorter TTL to keys with low access counts that weren't evicted
-        int adjustedCount = 0;
-        Duration shorterTTL = Duration.ofMinutes(15); // Shorter TTL for less-used keys
-
-        for (int i = startIndex; i < Math.min(startIndex + 100, keyMetadataList.size()); i++) {
-            KeyMetadata metadata = keyMetadataList.get(i);
-            // If access count is low but key wasn't evicted, reduce its TTL
-            if (metadata.accessCount() < 5) {
-                redisTemplate.expire(metadata.key(), shorterTTL);
-                adjustedCount++;
-            }
+    private void unlink(String cacheName, List<KeyMetadata> victims, RedisTemplate<String, Object> redisTemplate) {
+        int prefixLength = (cacheName + KEY_SEPARATOR).length();
+        for (int from = 0; from < victims.size(); from += BATCH_SIZE) {
+            List<String> batch = victims.subList(from, Math.min(from + BATCH_SIZE, victims.size())).stream()
+                    .map(KeyMetadata::key)
+                    .toList();
+            // UNLINK reclaims memory in a background thread, unlike DEL
+            redisTemplate.unlink(batch);
+            nearCacheInvalidator.invalidate(
+                    cacheName, batch.stream().map(key -> key.substring(prefixLength)).toList());
+            LOGGER.debug("Unlinked {} keys", batch.size());
         }
+    }
 
-        if (adjustedCount > 0) {
-            LOGGER.info("Applied shorter TTL to {} additional low-usage keys", adjustedCount);
+    private void applyDynamicTTL(List<KeyMetadata> candidates, RedisTemplate<String, Object> redisTemplate) {
+        // If a key has been idle longer than the shorter TTL but was not evicted, let it expire sooner
+        List<KeyMetadata> idleKeys = candidates.stream()
+                .filter(metadata -> metadata.idleSeconds() > SHORTER_TTL.toSeconds())
+                .filter(metadata -> metadata.remainingTtl() == 0 || metadata.remainingTtl() > SHORTER_TTL.toSeconds())
+                .toList();
+        if (idleKeys.isEmpty()) {
+            return;
         }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (KeyMetadata metadata : idleKeys) {
+                connection
+                        .keyCommands()
+                        .expire(metadata.key().getBytes(StandardCharsets.UTF_8), SHORTER_TTL.toSeconds());
+            }
+            return null;
+        });
+
+        LOGGER.info("Applied shorter TTL to {} additional idle keys", idleKeys.size());
     }
 
-    private double getAccessCountForKey(MeterRegistry meterRegistry, String key) {
-        if (key.indexOf("SimpleKey") > 0) {
-            key = key.substring(key.indexOf("SimpleKey"));
-        } else if (key.indexOf("::") > 0) {
-            key = key.substring(key.indexOf("::") + 2);
+    private long toSeconds(@Nullable Object result) {
+        if (result instanceof Duration duration) {
+            return duration.toSeconds();
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
         }
-        return meterRegistry.counter("cache.access", "key", key).count();
+        // OBJECT IDLETIME is unavailable under an LFU maxmemory-policy
+        return 0;
     }
 
     // Record to store key metadata for eviction decisions
-    private record KeyMetadata(String key, double accessCount, long remainingTtl) {}
+    private record KeyMetadata(String key, long idleSeconds, long remainingTtl) {}
 }
@@ -2,13 +2,17 @@ package com.app.folioman.mfschemes;
 
 import com.app.folioman.mfschemes.rest.dtos.FundDetailProjection;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeProjection;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface MfSchemeService {
 
     Optional<MFSchemeProjection> findByPayOut(String isin);
 
+    List<MFSchemeProjection> findByPayOutIn(Collection<String> isins);
+
     Optional<MFSchemeProjection> findByAmfiCode(Long amfiCode);
 
     List<MFSchemeProjection> findByAmfiCodeIn(List<Long> amfiCodes);
@@ -20,4 +24,12 @@ public interface MfSchemeService {
     void fetchSchemeDetails(String oldSchemeCode, Long newSchemeCode);
 
     List<MFSchemeProjection> fetchSchemesByRtaCode(String rtaCode);
+
+    /**
+     * Resolves schemes for many RTA code prefixes with one query per distinct prefix length.
+     *
+     * @param rtaCodes RTA code prefixes to look up
+     * @return matching schemes keyed by the requested prefix, prefixes without a match are absent
+     */
+    Map<String, List<MFSchemeProjection>> fetchSchemesByRtaCodes(Collection<String> rtaCodes);
 }
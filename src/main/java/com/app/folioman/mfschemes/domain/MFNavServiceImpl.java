@@ -10,8 +10,10 @@ import com.app.folioman.mfschemes.rest.dtos.MFSchemeDTO;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeNavProjection;
 import com.app.folioman.mfschemes.util.SchemeConstants;
 import com.app.folioman.shared.LocalDateUtility;
+import com.app.folioman.shared.NavDateAdvanced;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +27,7 @@ import java.util.stream.Collectors;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
@@ -55,6 +58,7 @@ class MFNavServiceImpl implements MFNavService {
 
     private final Pattern schemeCodePattern = Pattern.compile("\\d{6}");
     private final ApplicationProperties applicationProperties;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     MFNavServiceImpl(
             CachedNavService cachedNavService,
@@ -64,7 +68,8 @@ class MFNavServiceImpl implements MFNavService {
             MfFundSchemeRepository mfSchemeRepository,
             RestClient restClient,
             PlatformTransactionManager transactionManager,
-            ApplicationProperties applicationProperties) {
+            ApplicationProperties applicationProperties,
+            ApplicationEventPublisher applicationEventPublisher) {
         this.cachedNavService = cachedNavService;
         this.mfSchemeService = mfSchemeService;
         this.historicalNavService = historicalNavService;
@@ -75,6 +80,7 @@ class MFNavServiceImpl implements MFNavService {
         this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         this.applicationProperties = applicationProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -149,7 +155,19 @@ class MFNavServiceImpl implements MFNavService {
                         })
                         .toList();
                 if (!mfSchemeNavList.isEmpty()) {
-                    transactionTemplate.execute(status -> mfSchemeNavRepository.saveAll(mfSchemeNavList));
+                    transactionTemplate.executeWithoutResult(status -> {
+                        mfSchemeNavRepository.saveAll(mfSchemeNavList);
+                        // Portfolio values cached for holders of these schemes are now outdated. Published once per
+                        // load and within the transaction, as module listeners only run once it commits.
+                        List<Long> loadedAmfiCodes = historicalDataNotLoadedSchemeIdList.stream()
+                                .filter(amfiCodeNavMap::containsKey)
+                                .toList();
+                        LocalDate latestNavDate = loadedAmfiCodes.stream()
+                                .map(amfiCode -> Objects.requireNonNull(amfiCodeNavMap.get(amfiCode)).navDate)
+                                .max(Comparator.naturalOrder())
+                                .orElseThrow();
+                        applicationEventPublisher.publishEvent(new NavDateAdvanced(latestNavDate, loadedAmfiCodes));
+                    });
                 }
             }
         }
@@ -1,5 +1,6 @@
 package com.app.folioman.mfschemes.domain;
 
+import com.app.folioman.config.redis.CacheNames;
 import org.jspecify.annotations.Nullable;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,6 @@ import org.springframework.stereotype.Repository;
 interface MFSchemeTypeRepository extends JpaRepository<MFSchemeTypeEntity, Integer> {
 
     @Nullable
-    @Cacheable(cacheNames = "findByTypeAndCategoryAndSubCategory", unless = "#result == null")
+    @Cacheable(cacheNames = CacheNames.SCHEME_TYPE_CACHE, unless = "#result == null")
     MFSchemeTypeEntity findByTypeAndCategoryAndSubCategory(String type, String category, @Nullable String subCategory);
 }
@@ -1,5 +1,6 @@
 package com.app.folioman.mfschemes.domain;
 
+import com.app.folioman.config.redis.CacheNames;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
@@ -20,14 +21,14 @@ class MfAmcCacheService {
         this.mfAmcRepository = mfAmcRepository;
     }
 
-    @Cacheable(value = "findByAMCName", key = "#amcName", unless = "#result == null")
+    @Cacheable(value = CacheNames.AMC_BY_NAME_CACHE, key = "#amcName", unless = "#result == null")
     public @Nullable MfAmcEntity findByName(String amcName) {
         return mfAmcRepository
                 .findByNameIgnoreCase(amcName.toUpperCase(Locale.ENGLISH))
                 .orElse(null);
     }
 
-    @Cacheable(value = "findByAMCCode", key = "#code", unless = "#result == null")
+    @Cacheable(value = CacheNames.AMC_BY_CODE_CACHE, key = "#code", unless = "#result == null")
     public @Nullable MfAmcEntity findByCode(String code) {
         return this.mfAmcRepository.findByCode(code).orElse(null);
     }
@@ -47,7 +48,7 @@ class MfAmcCacheService {
      * @param searchTerms Space-separated search terms
      * @return List of matching AMCs
      */
-    @Cacheable(value = "findAMCsByTextSearch", key = "#searchTerms", unless = "#result.isEmpty()")
+    @Cacheable(value = CacheNames.AMC_TEXT_SEARCH_CACHE, key = "#searchTerms", unless = "#result.isEmpty()")
     public List<MfAmcEntity> findByTextSearch(String searchTerms) {
         if (searchTerms.isBlank()) {
             return List.of();
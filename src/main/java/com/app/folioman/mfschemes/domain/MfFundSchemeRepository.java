@@ -70,10 +70,28 @@ interface MfFundSchemeRepository extends JpaRepository<MfFundSchemeEntity, Long>
 
     Optional<MFSchemeProjection> findByIsin(String isin);
 
+    List<MFSchemeProjection> findByIsinIn(Collection<String> isins);
+
     @Query("select distinct m.amfiCode from MfFundSchemeEntity m")
     List<String> findDistinctAmfiCode();
 
     List<MFSchemeProjection> findByRtaCodeStartsWith(String rtaCode);
 
+    /**
+     * Find schemes whose RTA code starts with any of the given prefixes
+     *
+     * @param length   the length shared by every prefix, so the lookup stays a single IN predicate
+     * @param prefixes RTA code prefixes of exactly {@code length} characters
+     * @return matching schemes ordered by id
+     */
+    @Query("""
+            select m from MfFundSchemeEntity m
+            where substring(m.rtaCode, 1, :length) in :prefixes
+            order by m.id
+            """)
+    @EntityGraph(attributePaths = {"mfSchemeTypeEntity"})
+    List<MfFundSchemeEntity> findByRtaCodePrefixIn(
+            @Param("length") int length, @Param("prefixes") Collection<String> prefixes);
+
     MfFundSchemeEntity getReferenceByAmfiCode(Long amfiCode);
 }
@@ -10,7 +10,10 @@ import com.app.folioman.mfschemes.rest.dtos.MFSchemeDTO;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeProjection;
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -109,6 +112,14 @@ class MfSchemeServiceImpl implements MfSchemeService {
         return mFSchemeRepository.findByIsin(isin);
     }
 
+    @Override
+    public List<MFSchemeProjection> findByPayOutIn(Collection<String> isins) {
+        if (isins.isEmpty()) {
+            return List.of();
+        }
+        return mFSchemeRepository.findByIsinIn(isins);
+    }
+
     @Override
     public Optional<MFSchemeProjection> findByAmfiCode(Long amfiCode) {
         return mFSchemeRepository.findByAmfiCode(amfiCode).map(this::mapToProjection);
@@ -309,6 +320,22 @@ class MfSchemeServiceImpl implements MfSchemeService {
         return this.mFSchemeRepository.findByRtaCodeStartsWith(rtaCode);
     }
 
+    @Override
+    public Map<String, List<MFSchemeProjection>> fetchSchemesByRtaCodes(Collection<String> rtaCodes) {
+        Map<String, List<MFSchemeProjection>> schemesByRtaCode = new HashMap<>();
+        // Prefixes of equal length can share one IN predicate, so this issues one query per distinct length
+        rtaCodes.stream()
+                .filter(StringUtils::hasText)
+                .distinct()
+                .collect(Collectors.groupingBy(String::length))
+                .forEach((length, prefixes) -> this.mFSchemeRepository
+                        .findByRtaCodePrefixIn(length, prefixes)
+                        .forEach(scheme -> schemesByRtaCode
+                                .computeIfAbsent(scheme.getRtaCode().substring(0, length), key -> new ArrayList<>())
+                                .add(mapToProjection(scheme))));
+        return schemesByRtaCode;
+    }
+
     @Override
     public void fetchSchemeDetails(String oldSchemeCode, Long newSchemeCode) {
         NavResponse navResponse = getNavResponseResponseEntity(Long.valueOf(oldSchemeCode));
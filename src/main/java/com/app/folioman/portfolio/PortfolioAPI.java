@@ -25,17 +25,33 @@ public interface PortfolioAPI {
 
     UploadFileResponse upload(MultipartFile multipartFile) throws IOException;
 
+    /**
+     * Imports a CAS JSON file, returning the earlier result when {@code uploadedBy} uploaded identical bytes recently.
+     */
+    UploadFileResponse upload(MultipartFile multipartFile, String uploadedBy) throws IOException;
+
     UploadFileResponse uploadFromDto(CasDTO casDTO);
 
     PortfolioResponse getPortfolioByPAN(String panNumber, LocalDate asOfDate);
 
-    Optional<PortfolioHistoryDTO> getPortfolioHistory(Long casId, String userEmail, LocalDate from, LocalDate to);
+    /**
+     * Portfolio history of a CAS between two dates in at most about {@code maxPoints} points, at daily, weekly or
+     * monthly resolution depending on the length of the range.
+     */
+    Optional<PortfolioHistoryDTO> getPortfolioHistory(
+            Long casId, String userEmail, LocalDate from, LocalDate to, int maxPoints);
 
     Optional<com.app.folioman.portfolio.rest.dtos.PortfolioSummaryDTO> getPortfolioSummary(
             Long casId, String userEmail);
 
     CasDTO convertPdfCasToJson(MultipartFile pdfFile, String password) throws IOException;
 
+    /**
+     * Converts and imports a password-protected CAS PDF, returning the earlier result without running casparser when
+     * {@code uploadedBy} uploaded identical bytes recently.
+     */
+    UploadFileResponse uploadPdf(MultipartFile pdfFile, String password, String uploadedBy) throws IOException;
+
     List<PortfolioSummaryProjection> getPortfolioSummariesByEmail(String email);
 
     CapitalGainsHarvestingResponseDTO getCapitalGainsHarvesting(String pan, CapitalGainsHarvestingRequestDTO request);
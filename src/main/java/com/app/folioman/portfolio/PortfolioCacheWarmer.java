@@ -0,0 +1,14 @@
+package com.app.folioman.portfolio;
+
+public interface PortfolioCacheWarmer {
+
+    /**
+     * Remembers that an investor viewed their portfolio summary, so it is warmed up on later runs.
+     */
+    void recordSummaryView(Long casId, String userEmail);
+
+    /**
+     * Recomputes and caches the portfolio summaries of the most recently active investors, most recent first.
+     */
+    void warmUpSummaries();
+}
@@ -1,9 +1,11 @@
 package com.app.folioman.portfolio.config;
 
 import com.app.folioman.config.redis.CacheNames;
+import com.app.folioman.config.redis.NearCacheInvalidator;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import org.jobrunr.scheduling.BackgroundJob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +13,9 @@ import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.util.StopWatch;
 
 /**
@@ -24,14 +28,19 @@ import org.springframework.util.StopWatch;
 public class PortfolioCacheConfig {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioCacheConfig.class);
+    private static final String KEY_SEPARATOR = "::";
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final PortfolioCacheProperties portfolioCacheProperties;
+    private final NearCacheInvalidator nearCacheInvalidator;
 
     public PortfolioCacheConfig(
-            RedisTemplate<String, Object> redisTemplate, PortfolioCacheProperties portfolioCacheProperties) {
+            RedisTemplate<String, Object> redisTemplate,
+            PortfolioCacheProperties portfolioCacheProperties,
+            NearCacheInvalidator nearCacheInvalidator) {
         this.redisTemplate = redisTemplate;
         this.portfolioCacheProperties = portfolioCacheProperties;
+        this.nearCacheInvalidator = nearCacheInvalidator;
     }
 
     /**
@@ -55,7 +64,9 @@ public class PortfolioCacheConfig {
 
     /**
      * Main cache eviction job that runs on the scheduled cron expression.
-     * Performs a thorough eviction of transaction caches that match certain patterns.
+     * Walks the transaction cache with an incremental {@code SCAN} rather than the blocking {@code KEYS}, and removes
+     * matching entries with one non-blocking {@code UNLINK} per batch, so Redis stays responsive to user traffic.
+     * The unlinked entries bypass the cache, so they are dropped from the near caches of all instances explicitly.
      */
     public void evictTransactionCaches() {
         try {
@@ -64,39 +75,38 @@ public class PortfolioCacheConfig {
             LocalDateTime now = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
             LOGGER.info("Executing scheduled transaction cache eviction at {}", now);
 
-            // Evict all entries with "monthly_" and "yearly_" patterns in the TRANSACTION_CACHE
-            String cacheKeyPattern = CacheNames.TRANSACTION_CACHE + "::*";
-
-            // Find all keys matching our pattern
-            Set<String> keys = redisTemplate.keys(cacheKeyPattern);
-
-            if (keys.isEmpty()) {
-                LOGGER.info("No transaction cache entries found to evict");
-                return;
-            }
-
-            LOGGER.info("Found {} transaction cache entries to check for eviction", keys.size());
-
-            int evictedCount = 0;
-            int batchCount = 0;
+            int batchSize = Math.max(1, portfolioCacheProperties.getEviction().getBatchSize());
 
-            for (String key : keys) {
-                if (key.contains("monthly_") || key.contains("yearly_")) {
-                    redisTemplate.delete(key);
-                    evictedCount++;
-                    batchCount++;
-
-                    // Process in batches to avoid Redis blocking for too long
-                    if (batchCount >= portfolioCacheProperties.getEviction().getBatchSize()) {
-                        LOGGER.debug("Evicted {} cache entries so far", evictedCount);
-                        batchCount = 0;
-                        // Small delay between batches to reduce Redis load
-                        Thread.sleep(10);
+            // Evict all entries with "monthly_" and "yearly_" patterns in the TRANSACTION_CACHE
+            ScanOptions scanOptions = ScanOptions.scanOptions()
+                    .match(CacheNames.TRANSACTION_CACHE + KEY_SEPARATOR + "*")
+                    .count(batchSize)
+                    .build();
+
+            long evictedCount = 0;
+            List<String> batch = new ArrayList<>(batchSize);
+            try (Cursor<String> cursor = redisTemplate.scan(scanOptions)) {
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    if (key.contains("monthly_") || key.contains("yearly_")) {
+                        batch.add(key);
+                        if (batch.size() >= batchSize) {
+                            evictedCount += unlink(batch);
+                            batch.clear();
+                            LOGGER.debug("Evicted {} cache entries so far", evictedCount);
+                        }
                     }
                 }
             }
+            if (!batch.isEmpty()) {
+                evictedCount += unlink(batch);
+            }
 
             stopWatch.stop();
+            if (evictedCount == 0) {
+                LOGGER.info("No transaction cache entries found to evict");
+                return;
+            }
             LOGGER.info(
                     "Successfully evicted {} transaction cache entries in {} ms",
                     evictedCount,
@@ -105,4 +115,14 @@ public class PortfolioCacheConfig {
             LOGGER.error("Error during transaction cache eviction", e);
         }
     }
+
+    private long unlink(List<String> keys) {
+        // UNLINK frees the values in a background thread, unlike DEL
+        Long removed = redisTemplate.unlink(keys);
+        int prefixLength = (CacheNames.TRANSACTION_CACHE + KEY_SEPARATOR).length();
+        nearCacheInvalidator.invalidate(
+                CacheNames.TRANSACTION_CACHE,
+                keys.stream().map(key -> key.substring(prefixLength)).toList());
+        return removed != null ? removed : 0;
+    }
 }
@@ -2,7 +2,11 @@ package com.app.folioman.portfolio.config;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.scheduling.support.CronExpression;
 import org.springframework.validation.annotation.Validated;
@@ -16,6 +20,10 @@ import org.springframework.validation.annotation.Validated;
  *   eviction:
  *     batch-size: 200
  *     transaction-cron: "0 45 18 * * *"
+ *   warmup:
+ *     max-investors: 500
+ *     active-within: P7D
+ *     pool-share: 0.25
  * ```
  */
 @Validated
@@ -28,6 +36,12 @@ public class PortfolioCacheProperties {
     @Valid
     private Eviction eviction = new Eviction();
 
+    /**
+     * Configuration properties for warming up summaries after the daily NAV load.
+     */
+    @Valid
+    private Warmup warmup = new Warmup();
+
     @PostConstruct
     private void validateCronExpression() {
         if (!CronExpression.isValidExpression(eviction.getTransactionCron())) {
@@ -43,6 +57,14 @@ public class PortfolioCacheProperties {
         this.eviction = eviction;
     }
 
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Warmup warmup) {
+        this.warmup = warmup;
+    }
+
     public static class Eviction {
         /**
          * Batch size for cache eviction operations.
@@ -73,4 +95,48 @@ public class PortfolioCacheProperties {
             this.transactionCron = transactionCron;
         }
     }
+
+    public static class Warmup {
+        /**
+         * Most investors whose summaries are recomputed per run.
+         */
+        @Positive(message = "maxInvestors must be positive")
+        private int maxInvestors = 500;
+
+        /**
+         * Only investors who viewed their summary within this period are warmed up.
+         */
+        private Duration activeWithin = Duration.ofDays(7);
+
+        /**
+         * Share of the database connection pool the warm-up may occupy, leaving the rest to user requests.
+         */
+        @DecimalMin(value = "0.0", inclusive = false, message = "poolShare must be greater than 0")
+        @DecimalMax(value = "1.0", message = "poolShare must be at most 1")
+        private double poolShare = 0.25;
+
+        public int getMaxInvestors() {
+            return maxInvestors;
+        }
+
+        public void setMaxInvestors(int maxInvestors) {
+            this.maxInvestors = maxInvestors;
+        }
+
+        public Duration getActiveWithin() {
+            return activeWithin;
+        }
+
+        public void setActiveWithin(Duration activeWithin) {
+            this.activeWithin = activeWithin;
+        }
+
+        public double getPoolShare() {
+            return poolShare;
+        }
+
+        public void setPoolShare(double poolShare) {
+            this.poolShare = poolShare;
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package com.app.folioman.portfolio.domain;
+
+import com.app.folioman.portfolio.rest.dtos.CasDTO;
+import com.app.folioman.portfolio.rest.dtos.InvestorInfoDTO;
+import com.app.folioman.portfolio.rest.dtos.StatementPeriodDTO;
+import com.app.folioman.portfolio.rest.dtos.UserFolioDTO;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Reads a casparser JSON document incrementally from an {@link InputStream}.
+ *
+ * <p>The statement header is bound first and folios are then bound one at a time and handed to the caller in
+ * chunks, so neither the raw upload nor the full folio list has to be held in memory. casparser writes
+ * {@code investor_info} before {@code folios}; if a document uses a different order, folios are held back until the
+ * header is complete so callers always see a fully populated header.
+ */
+@Service
+class CasJsonStreamReader {
+
+    private final JsonMapper mapper;
+
+    CasJsonStreamReader(JsonMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Parses the document and feeds folios to {@code folioChunkConsumer} in chunks of at most {@code chunkSize}.
+     *
+     * @param inputStream        the CAS JSON document
+     * @param chunkSize          maximum number of folios handed over per callback
+     * @param folioChunkConsumer receives the statement header and the next chunk of folios
+     * @return the statement header, with an empty folio list
+     */
+    CasDTO read(InputStream inputStream, int chunkSize, BiConsumer<CasDTO, List<UserFolioDTO>> folioChunkConsumer) {
+        HeaderBuilder header = new HeaderBuilder();
+        List<UserFolioDTO> pendingFolios = new ArrayList<>(chunkSize);
+        try (JsonParser parser = mapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("CAS document must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String propertyName = parser.currentName();
+                parser.nextToken();
+                switch (propertyName) {
+                    case "statement_period" ->
+                        header.statementPeriod = mapper.readValue(parser, StatementPeriodDTO.class);
+                    case "file_type" -> header.fileType = parser.getValueAsString();
+                    case "cas_type" -> header.casType = parser.getValueAsString();
+                    case "investor_info" -> header.investorInfo = mapper.readValue(parser, InvestorInfoDTO.class);
+                    case "folios" -> readFolios(parser, header, chunkSize, pendingFolios, folioChunkConsumer);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        // Flush folios that were held back or did not fill a complete chunk
+        CasDTO casHeader = header.build();
+        for (int i = 0; i < pendingFolios.size(); i += chunkSize) {
+            folioChunkConsumer.accept(
+                    casHeader, List.copyOf(pendingFolios.subList(i, Math.min(i + chunkSize, pendingFolios.size()))));
+        }
+        return casHeader;
+    }
+
+    private void readFolios(
+            JsonParser parser,
+            HeaderBuilder header,
+            int chunkSize,
+            List<UserFolioDTO> pendingFolios,
+            BiConsumer<CasDTO, List<UserFolioDTO>> folioChunkConsumer) {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            pendingFolios.add(mapper.readValue(parser, UserFolioDTO.class));
+            if (pendingFolios.size() >= chunkSize && header.investorInfo != null) {
+                folioChunkConsumer.accept(header.build(), List.copyOf(pendingFolios));
+                pendingFolios.clear();
+            }
+        }
+    }
+
+    private static final class HeaderBuilder {
+        private @Nullable StatementPeriodDTO statementPeriod;
+        private @Nullable String fileType;
+        private @Nullable String casType;
+        private @Nullable InvestorInfoDTO investorInfo;
+
+        private CasDTO build() {
+            return new CasDTO(statementPeriod, fileType, casType, investorInfo, List.of());
+        }
+    }
+}
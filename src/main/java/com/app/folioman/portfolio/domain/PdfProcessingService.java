@@ -1,10 +1,11 @@
 package com.app.folioman.portfolio.domain;
 
 import com.app.folioman.portfolio.rest.dtos.CasDTO;
+import com.app.folioman.pythonbridge.CasparserWorkerPool;
 import com.app.folioman.pythonbridge.PythonBridgeProperties;
 import com.app.folioman.pythonbridge.PythonCommands;
 import com.app.folioman.pythonbridge.PythonExecutor;
-import com.app.folioman.pythonbridge.PythonResult;
+import com.app.folioman.pythonbridge.PythonWorkerUnavailableException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -21,18 +22,25 @@ public class PdfProcessingService {
     private static final Logger LOGGER = LoggerFactory.getLogger(PdfProcessingService.class);
 
     private static final AtomicBoolean CASPARSER_CHECKED = new AtomicBoolean(false);
+    // tmpfs on Linux hosts, so CLI scratch files never hit the (possibly network-attached) disk
+    private static final Path SHARED_MEMORY = Path.of("/dev/shm");
 
     private final PortfolioServiceHelper portfolioServiceHelper;
     private final PythonExecutor pythonExecutor;
     private final PythonBridgeProperties pythonProperties;
+    private final CasparserWorkerPool casparserWorkerPool;
+    private final Path scratchDirectory;
 
     PdfProcessingService(
             PortfolioServiceHelper portfolioServiceHelper,
             PythonExecutor pythonExecutor,
-            PythonBridgeProperties pythonProperties) {
+            PythonBridgeProperties pythonProperties,
+            CasparserWorkerPool casparserWorkerPool) {
         this.portfolioServiceHelper = portfolioServiceHelper;
         this.pythonExecutor = pythonExecutor;
         this.pythonProperties = pythonProperties;
+        this.casparserWorkerPool = casparserWorkerPool;
+        this.scratchDirectory = resolveScratchDirectory();
     }
 
     /**
@@ -63,19 +71,14 @@ public class PdfProcessingService {
      * @return true if casparser is available, false otherwise
      */
     private boolean isCasparserAvailable() {
-        try {
-            PythonResult result = pythonExecutor.execute(
-                    PythonCommands.cli(pythonProperties.casparser().executable(), "--version"));
-            LOGGER.debug("casparser version check output: {}", result.asText());
-            return result.isSuccess();
-        } catch (Exception e) {
-            LOGGER.debug("casparser availability check failed", e);
-            return false;
-        }
+        return pythonExecutor.isAvailable(pythonProperties.casparser().executable());
     }
 
     /**
-     * Converts a password-protected CAS PDF file to a CasDTO object using the casparser Python CLI.
+     * Converts a password-protected CAS PDF file to a CasDTO object. The PDF is parsed on a pooled casparser worker
+     * when one is available, otherwise with a one-shot casparser run that receives the PDF on stdin. Only when the
+     * interpreter cannot import casparser does it fall back to the casparser CLI, which needs the PDF and its output
+     * as files.
      *
      * @param pdfFile The PDF file to convert
      * @param password The password to unlock the PDF
@@ -83,6 +86,29 @@ public class PdfProcessingService {
      * @throws IOException If there is an error reading or parsing the PDF
      */
     public CasDTO convertPdfCasToJson(MultipartFile pdfFile, String password) throws IOException {
+        if (casparserWorkerPool.isEnabled()) {
+            LOGGER.info("Converting PDF CAS file using pooled casparser worker: {}", pdfFile.getOriginalFilename());
+            try {
+                return portfolioServiceHelper.readValue(
+                        casparserWorkerPool.parse(pdfFile.getBytes(), password), CasDTO.class);
+            } catch (PythonWorkerUnavailableException e) {
+                LOGGER.warn("casparser worker unavailable, falling back to casparser cli: {}", e.getMessage());
+            }
+        }
+        if (pythonExecutor.isCasparserImportable()) {
+            return convertInMemory(pdfFile, password);
+        }
+        return convertWithCli(pdfFile, password);
+    }
+
+    private CasDTO convertInMemory(MultipartFile pdfFile, String password) throws IOException {
+        LOGGER.info("Converting PDF CAS file using python casparser over stdin: {}", pdfFile.getOriginalFilename());
+        return pythonExecutor.execute(
+                PythonCommands.casparserJson(pdfFile.getBytes(), password),
+                stdout -> portfolioServiceHelper.readValue(stdout.readAllBytes(), CasDTO.class));
+    }
+
+    private CasDTO convertWithCli(MultipartFile pdfFile, String password) throws IOException {
         LOGGER.info(
                 "Converting password-protected PDF CAS file to CasDTO Object using python casparser cli: {}",
                 pdfFile.getOriginalFilename());
@@ -92,9 +118,10 @@ public class PdfProcessingService {
             throw new IOException("casparser CLI is not installed, this is prerequisite ");
         }
 
-        // Create temporary files for the PDF and JSON output
-        Path tempPdfPath = Files.createTempFile("cas_", ".pdf");
-        Path tempJsonPath = Files.createTempFile("pdf_parsed_", ".json");
+        // The CLI only works with paths, so keep them in a private directory on tmpfs when the host has one
+        Path workDirectory = Files.createTempDirectory(scratchDirectory, "cas_");
+        Path tempPdfPath = workDirectory.resolve("cas.pdf");
+        Path tempJsonPath = workDirectory.resolve("cas.json");
 
         try {
             // Save the uploaded file to a temporary location
@@ -117,13 +144,24 @@ public class PdfProcessingService {
             // Parse the JSON Byte Array and convert to CasDTO
             return portfolioServiceHelper.readValue(jsonContent, CasDTO.class);
         } finally {
-            // Clean up temporary files
-            try {
-                Files.deleteIfExists(tempPdfPath);
-                Files.deleteIfExists(tempJsonPath);
-            } catch (IOException e) {
-                LOGGER.warn("Could not delete temporary files: {}", e.getMessage());
-            }
+            deleteQuietly(tempPdfPath);
+            deleteQuietly(tempJsonPath);
+            deleteQuietly(workDirectory);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete temporary file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private Path resolveScratchDirectory() {
+        if (Files.isDirectory(SHARED_MEMORY) && Files.isWritable(SHARED_MEMORY)) {
+            return SHARED_MEMORY;
         }
+        return Path.of(System.getProperty("java.io.tmpdir"));
     }
 }
@@ -2,7 +2,10 @@ package com.app.folioman.portfolio.domain;
 
 import com.app.folioman.config.redis.CacheNames;
 import com.app.folioman.portfolio.PortfolioAPI;
+import com.app.folioman.portfolio.PortfolioCacheWarmer;
 import com.app.folioman.portfolio.PortfolioSummaryProjection;
+import com.app.folioman.portfolio.domain.PortfolioHistoryDownsampler.Interval;
+import com.app.folioman.portfolio.domain.PortfolioHistoryDownsampler.Point;
 import com.app.folioman.portfolio.domain.models.CapitalGainsHarvestingRequest;
 import com.app.folioman.portfolio.domain.models.CapitalGainsHarvestingResponse;
 import com.app.folioman.portfolio.domain.models.projection.PortfolioValueDateProjection;
@@ -17,12 +20,12 @@ import com.app.folioman.portfolio.rest.dtos.PortfolioHistoryDTO;
 import com.app.folioman.portfolio.rest.dtos.PortfolioResponse;
 import com.app.folioman.portfolio.rest.dtos.UploadFileResponse;
 import com.app.folioman.portfolio.rest.dtos.YearlyInvestmentResponseDTO;
-import com.app.folioman.shared.LocalDateUtility;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import org.jspecify.annotations.Nullable;
 import org.springframework.cache.annotation.Cacheable;
@@ -39,6 +42,9 @@ public class PortfolioAPIImpl implements PortfolioAPI {
     private final UserPortfolioValueRepository userPortfolioValueRepository;
     private final CapitalGainsHarvestingService capitalGainsHarvestingService;
     private final PortfolioSummaryService portfolioSummaryService;
+    private final UploadDeduplicationService uploadDeduplicationService;
+    private final PortfolioCacheWarmer portfolioCacheWarmer;
+    private final PortfolioHistoryKeyIndex portfolioHistoryKeyIndex;
 
     PortfolioAPIImpl(
             UserTransactionDetailsService userTransactionDetailsService,
@@ -47,7 +53,10 @@ public class PortfolioAPIImpl implements PortfolioAPI {
             UserCASDetailsRepository userCASDetailsRepository,
             UserPortfolioValueRepository userPortfolioValueRepository,
             CapitalGainsHarvestingService capitalGainsHarvestingService,
-            PortfolioSummaryService portfolioSummaryService) {
+            PortfolioSummaryService portfolioSummaryService,
+            UploadDeduplicationService uploadDeduplicationService,
+            PortfolioCacheWarmer portfolioCacheWarmer,
+            PortfolioHistoryKeyIndex portfolioHistoryKeyIndex) {
         this.userTransactionDetailsService = userTransactionDetailsService;
         this.userDetailService = userDetailService;
         this.pdfProcessingService = pdfProcessingService;
@@ -55,6 +64,9 @@ public class PortfolioAPIImpl implements PortfolioAPI {
         this.userPortfolioValueRepository = userPortfolioValueRepository;
         this.capitalGainsHarvestingService = capitalGainsHarvestingService;
         this.portfolioSummaryService = portfolioSummaryService;
+        this.uploadDeduplicationService = uploadDeduplicationService;
+        this.portfolioCacheWarmer = portfolioCacheWarmer;
+        this.portfolioHistoryKeyIndex = portfolioHistoryKeyIndex;
     }
 
     public Optional<InvestmentReturnsDTO> getInvestmentReturnsByPan(String pan) {
@@ -73,6 +85,11 @@ public class PortfolioAPIImpl implements PortfolioAPI {
         return userDetailService.upload(multipartFile);
     }
 
+    public UploadFileResponse upload(MultipartFile multipartFile, String uploadedBy) throws IOException {
+        return uploadDeduplicationService.deduplicate(
+                uploadedBy, multipartFile, () -> userDetailService.upload(multipartFile));
+    }
+
     public UploadFileResponse uploadFromDto(CasDTO casDTO) {
         return userDetailService.uploadFromDto(casDTO);
     }
@@ -85,6 +102,13 @@ public class PortfolioAPIImpl implements PortfolioAPI {
         return pdfProcessingService.convertPdfCasToJson(pdfFile, password);
     }
 
+    public UploadFileResponse uploadPdf(MultipartFile pdfFile, String password, String uploadedBy) throws IOException {
+        return uploadDeduplicationService.deduplicate(
+                uploadedBy,
+                pdfFile,
+                () -> userDetailService.uploadFromDto(pdfProcessingService.convertPdfCasToJson(pdfFile, password)));
+    }
+
     public List<PortfolioSummaryProjection> getPortfolioSummariesByEmail(String email) {
         List<UserCasDetailsEntity> casList = userCASDetailsRepository.findAllByInvestorInfoEntityEmail(email);
         return casList.stream()
@@ -124,39 +148,53 @@ public class PortfolioAPIImpl implements PortfolioAPI {
     @Override
     @Cacheable(
             cacheNames = CacheNames.PORTFOLIO_HISTORY_CACHE,
-            key = "'history_' + #casId + '_' + #userEmail + '_' + #from + '_' + #to")
+            key = "T(com.app.folioman.portfolio.domain.PortfolioHistoryKeyIndex)"
+                    + ".key(#casId, #userEmail, #from, #to, #maxPoints)",
+            sync = true)
     public Optional<PortfolioHistoryDTO> getPortfolioHistory(
-            Long casId, String userEmail, LocalDate from, LocalDate to) {
+            Long casId, String userEmail, LocalDate from, LocalDate to, int maxPoints) {
+        // Indexed before the value is cached, so an eviction of the CAS while it is computed still finds it
+        portfolioHistoryKeyIndex.record(casId, PortfolioHistoryKeyIndex.key(casId, userEmail, from, to, maxPoints));
         return userCASDetailsRepository
                 .findById(casId)
                 .filter(cas -> cas.getInvestorInfoEntity() != null)
                 .filter(cas -> userEmail.equals(cas.getInvestorInfoEntity().getEmail()))
                 .map(cas -> {
-                    List<UserPortfolioValueEntity> portfolioValues =
-                            userPortfolioValueRepository.findByUserCasDetailsEntity_IdAndDateBetween(casId, from, to);
-
-                    List<UserPortfolioValueEntity> sortedValues = portfolioValues.stream()
-                            .sorted(Comparator.comparing(UserPortfolioValueEntity::getDate))
-                            .toList();
-
-                    List<Number[]> invested = sortedValues.stream()
-                            .map(entry ->
-                                    new Number[] {LocalDateUtility.toEpochMillis(entry.getDate()), entry.getInvested()})
-                            .toList();
+                    Interval interval = PortfolioHistoryDownsampler.intervalFor(from, to, maxPoints);
+                    List<Point> points = interval == Interval.DAY
+                            ? dailyHistory(casId, from, to)
+                            : bucketedHistory(casId, from, to, interval);
+                    // Value ranges are only worth their bytes when points stand for more than a day
+                    boolean aggregated = interval != Interval.DAY || points.size() > maxPoints;
+                    return PortfolioHistoryDownsampler.toDto(
+                            PortfolioHistoryDownsampler.downsample(points, maxPoints), interval, aggregated);
+                });
+    }
 
-                    List<Number[]> value = sortedValues.stream()
-                            .map(entry ->
-                                    new Number[] {LocalDateUtility.toEpochMillis(entry.getDate()), entry.getValue()})
-                            .toList();
+    private List<Point> dailyHistory(Long casId, LocalDate from, LocalDate to) {
+        return userPortfolioValueRepository.findByUserCasDetailsEntity_IdAndDateBetween(casId, from, to).stream()
+                .sorted(Comparator.comparing(UserPortfolioValueEntity::getDate))
+                .map(entry -> Point.of(entry.getDate(), entry.getInvested(), entry.getValue()))
+                .toList();
+    }
 
-                    return new PortfolioHistoryDTO(invested, value);
-                });
+    private List<Point> bucketedHistory(Long casId, LocalDate from, LocalDate to, Interval interval) {
+        String unit = interval.name().toLowerCase(Locale.ROOT);
+        return userPortfolioValueRepository.findValueBuckets(casId, from, to, unit).stream()
+                .map(bucket -> new Point(
+                        bucket.getDate(),
+                        bucket.getInvested(),
+                        bucket.getValue(),
+                        bucket.getMinValue(),
+                        bucket.getMaxValue()))
+                .toList();
     }
 
     @Override
-    @Cacheable(cacheNames = CacheNames.SUMMARY_CACHE, key = "'summary_' + #casId + '_' + #userEmail")
     public Optional<com.app.folioman.portfolio.rest.dtos.PortfolioSummaryDTO> getPortfolioSummary(
             Long casId, String userEmail) {
+        // Recorded before the cache lookup, so views served from the cache count too
+        portfolioCacheWarmer.recordSummaryView(casId, userEmail);
         return portfolioSummaryService.getPortfolioSummary(casId, userEmail);
     }
 
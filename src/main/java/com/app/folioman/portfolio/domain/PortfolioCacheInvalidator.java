@@ -0,0 +1,136 @@
+package com.app.folioman.portfolio.domain;
+
+import com.app.folioman.config.redis.CacheNames;
+import com.app.folioman.portfolio.PortfolioCacheWarmer;
+import com.app.folioman.portfolio.domain.models.projection.CasCacheKeyProjection;
+import com.app.folioman.shared.CasRevalued;
+import com.app.folioman.shared.NavDateAdvanced;
+import com.app.folioman.shared.TransactionsChanged;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.jobrunr.scheduling.BackgroundJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts the cached portfolio views of exactly the CASes and PANs an event affects, so those caches can keep entries
+ * for long and still never serve values older than the data they were computed from.
+ *
+ * <p>The listeners run asynchronously once the publishing transaction has committed, so the events have to be
+ * published within a transaction.
+ */
+@Service
+class PortfolioCacheInvalidator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioCacheInvalidator.class);
+
+    private final UserCASDetailsRepository userCASDetailsRepository;
+    private final CacheManager cacheManager;
+    private final PortfolioHistoryKeyIndex portfolioHistoryKeyIndex;
+    private final PortfolioCacheWarmer portfolioCacheWarmer;
+
+    PortfolioCacheInvalidator(
+            UserCASDetailsRepository userCASDetailsRepository,
+            CacheManager cacheManager,
+            PortfolioHistoryKeyIndex portfolioHistoryKeyIndex,
+            PortfolioCacheWarmer portfolioCacheWarmer) {
+        this.userCASDetailsRepository = userCASDetailsRepository;
+        this.cacheManager = cacheManager;
+        this.portfolioHistoryKeyIndex = portfolioHistoryKeyIndex;
+        this.portfolioCacheWarmer = portfolioCacheWarmer;
+    }
+
+    /**
+     * New transactions change every view of the CAS, including the invested amounts per PAN.
+     */
+    @ApplicationModuleListener
+    void onTransactionsChanged(TransactionsChanged event) {
+        List<CasCacheKeyProjection> holders =
+                userCASDetailsRepository.findCacheKeysByCasIds(List.of(event.userCasId()));
+        evictValuations(holders, true);
+        Set<String> transactionKeys = new LinkedHashSet<>();
+        holders.forEach(holder -> {
+            transactionKeys.add("monthly_" + holder.getPan());
+            transactionKeys.add("yearly_" + holder.getPan());
+        });
+        evict(CacheNames.TRANSACTION_CACHE, transactionKeys);
+    }
+
+    /**
+     * Recomputed scheme and portfolio values change the summary, the returns and the stored value history.
+     */
+    @ApplicationModuleListener
+    void onCasRevalued(CasRevalued event) {
+        evictValuations(userCASDetailsRepository.findCacheKeysByCasIds(List.of(event.userCasId())), true);
+    }
+
+    /**
+     * A newer NAV changes the current value of every CAS holding one of the schemes. The history only changes once
+     * such a CAS is revalued, which publishes its own event. The summary warm-up is queued only once the outdated
+     * summaries are gone, as it would otherwise find and keep them.
+     */
+    @ApplicationModuleListener
+    void onNavDateAdvanced(NavDateAdvanced event) {
+        if (event.amfiCodes().isEmpty()) {
+            return;
+        }
+        List<Long> casIds = userCASDetailsRepository.findCasIdsHoldingSchemes(event.amfiCodes());
+        LOGGER.debug(
+                "NAVs of {} schemes advanced to {}, evicting cached values of {} CASes",
+                event.amfiCodes().size(),
+                event.navDate(),
+                casIds.size());
+        if (!casIds.isEmpty()) {
+            evictValuations(userCASDetailsRepository.findCacheKeysByCasIds(casIds), false);
+            BackgroundJob.enqueue(portfolioCacheWarmer::warmUpSummaries);
+        }
+    }
+
+    private void evictValuations(Collection<CasCacheKeyProjection> holders, boolean includeHistory) {
+        Set<String> summaryKeys = new LinkedHashSet<>();
+        Set<Long> casIds = new LinkedHashSet<>();
+        Set<String> returnsKeys = new LinkedHashSet<>();
+        holders.forEach(holder -> {
+            summaryKeys.add("summary_" + holder.getCasId() + "_" + holder.getEmail());
+            casIds.add(holder.getCasId());
+            returnsKeys.add("returns_" + holder.getPan());
+        });
+        evict(CacheNames.SUMMARY_CACHE, summaryKeys);
+        evict(CacheNames.RETURNS_CACHE, returnsKeys);
+        if (includeHistory) {
+            casIds.forEach(this::evictHistories);
+        }
+    }
+
+    private void evict(String cacheName, Collection<String> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    /**
+     * History entries are keyed by their date range too, so their keys are taken from the index of the CAS and evicted
+     * through the cache, which also drops them from the local caches of every instance.
+     */
+    private void evictHistories(Long casId) {
+        Cache cache = cacheManager.getCache(CacheNames.PORTFOLIO_HISTORY_CACHE);
+        if (cache == null) {
+            return;
+        }
+        try {
+            Set<String> keys = portfolioHistoryKeyIndex.keysOf(casId);
+            keys.forEach(cache::evict);
+            portfolioHistoryKeyIndex.forget(casId, keys);
+        } catch (RuntimeException e) {
+            // The hard TTL still bounds how long these entries live
+            LOGGER.warn("Could not evict cached histories of CAS {}: {}", casId, e.getMessage());
+        }
+    }
+}
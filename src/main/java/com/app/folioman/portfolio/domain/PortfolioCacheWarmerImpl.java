@@ -0,0 +1,111 @@
+package com.app.folioman.portfolio.domain;
+
+import com.app.folioman.portfolio.PortfolioCacheWarmer;
+import com.app.folioman.portfolio.config.PortfolioCacheProperties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StopWatch;
+
+/**
+ * Recomputes the summaries of recently active investors ahead of their first visit of the day, so the morning
+ * logins after the NAV load are served from the cache instead of all recomputing at once.
+ *
+ * <p>Every summary view is recorded with its time in a Redis sorted set shared by all instances. A run warms up the
+ * investors seen within the configured period, most recent first, on a fixed number of threads derived from the share
+ * of the connection pool it may use.
+ */
+@Service
+class PortfolioCacheWarmerImpl implements PortfolioCacheWarmer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioCacheWarmerImpl.class);
+    private static final String ACTIVE_INVESTORS_KEY = "folioman:portfolio:summary-views";
+    private static final String MEMBER_SEPARATOR = ":";
+
+    private final PortfolioSummaryService portfolioSummaryService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PortfolioCacheProperties.Warmup warmup;
+    private final int maximumPoolSize;
+
+    PortfolioCacheWarmerImpl(
+            PortfolioSummaryService portfolioSummaryService,
+            StringRedisTemplate stringRedisTemplate,
+            PortfolioCacheProperties portfolioCacheProperties,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        this.portfolioSummaryService = portfolioSummaryService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.warmup = portfolioCacheProperties.getWarmup();
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    /**
+     * Failures are only logged, as they must not fail the view itself.
+     */
+    @Override
+    public void recordSummaryView(Long casId, String userEmail) {
+        try {
+            String member = casId + MEMBER_SEPARATOR + userEmail;
+            stringRedisTemplate.opsForZSet().add(ACTIVE_INVESTORS_KEY, member, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not record summary view of CAS {}: {}", casId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void warmUpSummaries() {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start("Summary warm-up");
+        double cutoff = System.currentTimeMillis() - warmup.getActiveWithin().toMillis();
+        stringRedisTemplate.opsForZSet().removeRangeByScore(ACTIVE_INVESTORS_KEY, 0, cutoff);
+        Set<String> investors = stringRedisTemplate
+                .opsForZSet()
+                .reverseRangeByScore(
+                        ACTIVE_INVESTORS_KEY, cutoff, Double.POSITIVE_INFINITY, 0, warmup.getMaxInvestors());
+        if (investors == null || investors.isEmpty()) {
+            LOGGER.info("No recently active investors to warm up summaries for");
+            return;
+        }
+
+        int threads = Math.max(1, (int) (maximumPoolSize * warmup.getPoolShare()));
+        AtomicInteger warmed = new AtomicInteger();
+        // A fixed pool runs the views in submission order, so the most recent investors are warmed up first
+        try (ExecutorService executor = Executors.newFixedThreadPool(
+                threads, Thread.ofVirtual().name("summary-warmup-", 0).factory())) {
+            investors.forEach(member -> executor.execute(() -> {
+                if (warmUp(member)) {
+                    warmed.incrementAndGet();
+                }
+            }));
+        }
+        stopWatch.stop();
+        LOGGER.info(
+                "Warmed up {} of {} portfolio summaries on {} threads in {} ms",
+                warmed.get(),
+                investors.size(),
+                threads,
+                stopWatch.getTotalTimeMillis());
+    }
+
+    private boolean warmUp(String member) {
+        int separator = member.indexOf(MEMBER_SEPARATOR);
+        if (separator <= 0) {
+            return false;
+        }
+        try {
+            Long casId = Long.valueOf(member.substring(0, separator));
+            // Served from the cache when still current, recomputed and cached otherwise
+            return portfolioSummaryService
+                    .getPortfolioSummary(casId, member.substring(separator + 1))
+                    .isPresent();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not warm up portfolio summary for {}: {}", member, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.app.folioman.portfolio.domain;
+
+import com.app.folioman.portfolio.rest.dtos.PortfolioHistoryDTO;
+import com.app.folioman.shared.LocalDateUtility;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shrinks a portfolio history to about as many points as a chart can show.
+ *
+ * <p>A range is first served at the finest of daily, weekly or monthly resolution that fits the requested number of
+ * points; weekly and monthly buckets are aggregated by the database. Series that still have too many points, such as
+ * decades of monthly values or unusual point counts, are reduced with Largest-Triangle-Three-Buckets, which keeps the
+ * points that shape the curve rather than every n-th one.
+ */
+final class PortfolioHistoryDownsampler {
+
+    enum Interval {
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    /**
+     * A point of the history with the lowest and highest value of the period it stands for.
+     */
+    record Point(LocalDate date, BigDecimal invested, BigDecimal value, BigDecimal minValue, BigDecimal maxValue) {
+
+        static Point of(LocalDate date, BigDecimal invested, BigDecimal value) {
+            return new Point(date, invested, value, value, value);
+        }
+    }
+
+    private PortfolioHistoryDownsampler() {}
+
+    static Interval intervalFor(LocalDate from, LocalDate to, int maxPoints) {
+        if (ChronoUnit.DAYS.between(from, to) + 1 <= maxPoints) {
+            return Interval.DAY;
+        }
+        if (ChronoUnit.WEEKS.between(from, to) + 1 <= maxPoints) {
+            return Interval.WEEK;
+        }
+        return Interval.MONTH;
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets over the values: keeps the first and last point and, from each of the buckets in
+     * between, the point forming the largest triangle with the point kept before it and the average of the next bucket.
+     * Each kept point carries the value range of its whole bucket.
+     */
+    static List<Point> downsample(List<Point> points, int maxPoints) {
+        int size = points.size();
+        if (size <= maxPoints) {
+            return points;
+        }
+        if (maxPoints < 3) {
+            return List.of(points.getFirst(), points.getLast());
+        }
+
+        List<Point> sampled = new ArrayList<>(maxPoints);
+        sampled.add(points.getFirst());
+        double bucketSize = (double) (size - 2) / (maxPoints - 2);
+        int selected = 0;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+
+            double nextX = 0;
+            double nextY = 0;
+            for (int i = end; i < nextEnd; i++) {
+                nextX += x(points.get(i));
+                nextY += y(points.get(i));
+            }
+            int nextCount = Math.max(1, nextEnd - end);
+            nextX /= nextCount;
+            nextY /= nextCount;
+
+            double selectedX = x(points.get(selected));
+            double selectedY = y(points.get(selected));
+            double largestArea = -1;
+            int largest = start;
+            BigDecimal min = points.get(start).minValue();
+            BigDecimal max = points.get(start).maxValue();
+            for (int i = start; i < end; i++) {
+                Point point = points.get(i);
+                double area = Math.abs((selectedX - nextX) * (y(point) - selectedY)
+                        - (selectedX - x(point)) * (nextY - selectedY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = i;
+                }
+                min = min.min(point.minValue());
+                max = max.max(point.maxValue());
+            }
+            Point kept = points.get(largest);
+            sampled.add(new Point(kept.date(), kept.invested(), kept.value(), min, max));
+            selected = largest;
+        }
+        sampled.add(points.getLast());
+        return sampled;
+    }
+
+    static PortfolioHistoryDTO toDto(List<Point> points, Interval interval, boolean withValueRange) {
+        List<Number[]> invested = new ArrayList<>(points.size());
+        List<Number[]> value = new ArrayList<>(points.size());
+        List<Number[]> valueRange = new ArrayList<>(withValueRange ? points.size() : 0);
+        for (Point point : points) {
+            long epochMillis = LocalDateUtility.toEpochMillis(point.date());
+            invested.add(new Number[] {epochMillis, point.invested()});
+            value.add(new Number[] {epochMillis, point.value()});
+            if (withValueRange) {
+                valueRange.add(new Number[] {epochMillis, point.minValue(), point.maxValue()});
+            }
+        }
+        return new PortfolioHistoryDTO(invested, value, valueRange, interval.name());
+    }
+
+    private static double x(Point point) {
+        return point.date().toEpochDay();
+    }
+
+    private static double y(Point point) {
+        return point.value().doubleValue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.app.folioman.portfolio.domain;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index of the cached portfolio histories of each CAS. History entries are keyed by their date range and resolution as
+ * well, so the keys of a CAS are recorded in a Redis set when a history is computed and read back when the CAS changes,
+ * instead of being searched for in the keyspace.
+ *
+ * <p>A set expires {@link #INDEX_TTL} after its last history was computed, which outlives any history TTL. Members
+ * whose entry already expired are harmless: evicting them removes nothing.
+ */
+@Component
+class PortfolioHistoryKeyIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioHistoryKeyIndex.class);
+    private static final String INDEX_PREFIX = "folioman:portfolio:history-keys:";
+    private static final Duration INDEX_TTL = Duration.ofDays(30);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    PortfolioHistoryKeyIndex(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Key of a portfolio history in its cache, also used by the {@code @Cacheable} that caches it.
+     */
+    public static String key(Long casId, String userEmail, LocalDate from, LocalDate to, int maxPoints) {
+        return "history_" + casId + "_" + userEmail + "_" + from + "_" + to + "_" + maxPoints;
+    }
+
+    /**
+     * Record the key of a history about to be computed and cached. Failures are only logged, as they must not fail the
+     * view itself; the history TTL then bounds how long the entry may outlive a change of the CAS.
+     */
+    void record(Long casId, String cacheKey) {
+        String indexKey = INDEX_PREFIX + casId;
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.sAdd(indexKey, cacheKey);
+                stringConnection.expire(indexKey, INDEX_TTL.toSeconds());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not index history key of CAS {}: {}", casId, e.getMessage());
+        }
+    }
+
+    /**
+     * Keys of the histories of a CAS that may still be cached.
+     */
+    Set<String> keysOf(Long casId) {
+        Set<String> keys = stringRedisTemplate.opsForSet().members(INDEX_PREFIX + casId);
+        return keys != null ? keys : Set.of();
+    }
+
+    /**
+     * Remove keys whose entries were evicted, leaving any recorded since they were read.
+     */
+    void forget(Long casId, Collection<String> cacheKeys) {
+        if (!cacheKeys.isEmpty()) {
+            stringRedisTemplate.opsForSet().remove(INDEX_PREFIX + casId, cacheKeys.toArray());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.app.folioman.portfolio.domain;
 
+import com.app.folioman.config.redis.CacheNames;
 import com.app.folioman.mfschemes.MFNavService;
 import com.app.folioman.mfschemes.MfSchemeService;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeNavProjection;
@@ -23,6 +24,7 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.jspecify.annotations.Nullable;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,6 +54,7 @@ public class PortfolioSummaryService {
         this.mfNavService = mfNavService;
     }
 
+    @Cacheable(cacheNames = CacheNames.SUMMARY_CACHE, key = "'summary_' + #casId + '_' + #userEmail", sync = true)
     public Optional<PortfolioSummaryDTO> getPortfolioSummary(Long casId, String userEmail) {
         Optional<UserCasDetailsEntity> casOpt = userCASDetailsRepository.findUserCasDetailsEntityById(casId);
 
@@ -5,6 +5,7 @@ import com.app.folioman.mfschemes.NavNotFoundException;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeNavProjection;
 import com.app.folioman.portfolio.domain.models.ProcessedTransaction;
 import com.app.folioman.portfolio.util.XirrCalculator;
+import com.app.folioman.shared.CasRevalued;
 import com.app.folioman.shared.LocalDateUtility;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -29,7 +30,7 @@ import java.util.stream.Collectors;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
@@ -56,6 +57,7 @@ public class PortfolioValueUpdateService {
     private final UserFolioValueRepository userFolioValueRepository;
     private final UserCASDetailsRepository userCASDetailsRepository;
     private final org.springframework.transaction.support.TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     PortfolioValueUpdateService(
             UserPortfolioValueRepository userPortfolioValueRepository,
@@ -65,7 +67,8 @@ public class PortfolioValueUpdateService {
             UserTransactionDetailsRepository userTransactionDetailsRepository,
             UserFolioValueRepository userFolioValueRepository,
             UserCASDetailsRepository userCASDetailsRepository,
-            TransactionTemplate transactionTemplate) {
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher applicationEventPublisher) {
         this.userPortfolioValueRepository = userPortfolioValueRepository;
         this.mfNavService = mfNavService;
         this.folioSchemeRepository = folioSchemeRepository;
@@ -74,6 +77,7 @@ public class PortfolioValueUpdateService {
         this.userFolioValueRepository = userFolioValueRepository;
         this.userCASDetailsRepository = userCASDetailsRepository;
         this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     private @Nullable Long getAmfiCodeSafe(UserTransactionDetailsEntity transaction) {
@@ -88,7 +92,10 @@ public class PortfolioValueUpdateService {
                 : null;
     }
 
-    @Async
+    /**
+     * Recalculates scheme, folio and portfolio values for a CAS. Runs on the caller's thread; uploads reach it through
+     * {@link PostUploadProcessingService} so revaluations are bounded by the job worker pool.
+     */
     public void updatePortfolioValue(Long userCasDetailsId) {
         LOGGER.info("updatePortfolioValue called for CAS ID: {}", userCasDetailsId);
         UserCasDetailsEntity userCasDetailsEntity = transactionTemplate.execute(status -> {
@@ -213,6 +220,10 @@ public class PortfolioValueUpdateService {
             // Further processing of FolioValue and PortfolioValue
             updateFolioAndPortfolioValues(schemeResults, startDateMin);
         });
+        // This runs as a background job without a transaction of its own, and module listeners only run once the
+        // publishing transaction commits
+        transactionTemplate.executeWithoutResult(
+                status -> applicationEventPublisher.publishEvent(new CasRevalued(userCasDetailsId)));
     }
 
     private void updateFolioAndPortfolioValues(List<Map<String, Object>> schemeResults, LocalDate startDateMin) {
@@ -0,0 +1,68 @@
+package com.app.folioman.portfolio.domain;
+
+import com.app.folioman.portfolio.UserSchemeDetailService;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.jobrunr.jobs.annotations.Job;
+import org.jobrunr.scheduling.BackgroundJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the work that follows a CAS upload (AMFI back-fill and portfolio revaluation) as JobRunr jobs.
+ *
+ * <p>Jobs are persisted and executed by JobRunr's fixed worker pool, so a burst of uploads queues up instead of
+ * competing for the common fork-join pool. Every request for the same CAS within one coalescing window maps to the
+ * same deterministic job id, which JobRunr only stores once, so repeated uploads of a statement trigger a single
+ * revaluation at the end of the window.
+ *
+ * <p>Coalescing is best-effort per window: windows are fixed slices of the clock, so two uploads either side of a
+ * window boundary, however close, schedule two jobs that run one window apart. That is harmless, as processing is
+ * idempotent and the second run sees the same data. The id deliberately includes the window instead of being the CAS
+ * alone: JobRunr keeps a finished job, and ignores a new job with its id, until the finished one is deleted, so an id
+ * per CAS would silently drop the processing of any upload after the first.
+ */
+@Service
+public class PostUploadProcessingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostUploadProcessingService.class);
+
+    private final UserSchemeDetailService userSchemeDetailService;
+    private final PortfolioValueUpdateService portfolioValueUpdateService;
+    private final long coalescingWindowMillis;
+
+    PostUploadProcessingService(
+            UserSchemeDetailService userSchemeDetailService,
+            PortfolioValueUpdateService portfolioValueUpdateService,
+            @Value("${app.portfolio.post-upload.coalescing-window:PT30S}") Duration coalescingWindow) {
+        this.userSchemeDetailService = userSchemeDetailService;
+        this.portfolioValueUpdateService = portfolioValueUpdateService;
+        this.coalescingWindowMillis = Math.max(1, coalescingWindow.toMillis());
+    }
+
+    /**
+     * Schedules post-upload processing for a CAS at the end of the current coalescing window. Calling this again for
+     * the same CAS before the window closes is a no-op; a call after it closes schedules a job for the next window.
+     *
+     * @param userCasDetailsId id of the uploaded CAS
+     */
+    void schedule(Long userCasDetailsId) {
+        long windowEnd = (System.currentTimeMillis() / coalescingWindowMillis + 1) * coalescingWindowMillis;
+        UUID jobId = UUID.nameUUIDFromBytes(
+                ("post-upload:" + userCasDetailsId + ":" + windowEnd).getBytes(StandardCharsets.UTF_8));
+        LOGGER.debug("Scheduling post-upload job {} for CAS ID: {}", jobId, userCasDetailsId);
+        BackgroundJob.<PostUploadProcessingService>schedule(
+                jobId, Instant.ofEpochMilli(windowEnd), service -> service.process(userCasDetailsId));
+    }
+
+    @Job(name = "Post-upload processing for CAS %0", retries = 2)
+    public void process(Long userCasDetailsId) {
+        LOGGER.info("Running post-upload processing for CAS ID: {}", userCasDetailsId);
+        userSchemeDetailService.setUserSchemeAMFIIfNull();
+        portfolioValueUpdateService.updatePortfolioValue(userCasDetailsId);
+    }
+}
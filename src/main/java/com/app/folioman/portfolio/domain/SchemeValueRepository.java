@@ -1,13 +1,13 @@
 package com.app.folioman.portfolio.domain;
 
-import io.lettuce.core.dynamic.annotation.Param;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.jspecify.annotations.NonNull;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -18,10 +18,22 @@ interface SchemeValueRepository extends JpaRepository<@NonNull SchemeValueEntity
     Optional<SchemeValueEntity> findFirstByUserSchemeDetailsEntity_IdAndDateBeforeOrderByDateDesc(
             Long id, LocalDate schemeFromDate);
 
-    @Query("""
-            SELECT sv FROM SchemeValueEntity sv
-            WHERE sv.userSchemeDetailsEntity.id IN :schemeIds
-              AND sv.date = (SELECT MAX(sv2.date) FROM SchemeValueEntity sv2 WHERE sv2.userSchemeDetailsEntity.id = sv.userSchemeDetailsEntity.id)
+    /**
+     * Latest value of each scheme, looked up as one descending probe of {@code idx_scheme_value_usd_id_date} per scheme
+     * so the cost stays independent of how many days of values the table holds.
+     */
+    @NativeQuery("""
+            SELECT latest.*
+            FROM portfolio.user_scheme_details usd
+            CROSS JOIN LATERAL (
+                SELECT sv.*
+                FROM portfolio.scheme_value sv
+                WHERE sv.user_scheme_detail_id = usd.id
+                  AND sv.date IS NOT NULL
+                ORDER BY sv.date DESC
+                LIMIT 1
+            ) latest
+            WHERE usd.id IN (:schemeIds)
             """)
     List<SchemeValueEntity> findLatestValuesBySchemeDetailsIds(@Param("schemeIds") Collection<Long> schemeIds);
 }
@@ -0,0 +1,134 @@
+package com.app.folioman.portfolio.domain;
+
+import com.app.folioman.config.redis.CacheNames;
+import com.app.folioman.portfolio.rest.dtos.UploadFileResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Short-circuits repeated uploads of the same CAS file by the same user. Files are fingerprinted with SHA-256 of their
+ * raw bytes; a fingerprint that was processed recently returns the earlier {@link UploadFileResponse} without parsing,
+ * merging or revaluing anything, and an identical upload that is still being processed waits for that run instead of
+ * starting a second one.
+ */
+@Service
+class UploadDeduplicationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadDeduplicationService.class);
+
+    private final @Nullable Cache fingerprintCache;
+    private final ConcurrentMap<String, CompletableFuture<UploadFileResponse>> inFlight = new ConcurrentHashMap<>();
+
+    UploadDeduplicationService(CacheManager cacheManager) {
+        this.fingerprintCache = cacheManager.getCache(CacheNames.UPLOAD_FINGERPRINT_CACHE);
+    }
+
+    @FunctionalInterface
+    interface Upload {
+        UploadFileResponse process() throws IOException;
+    }
+
+    /**
+     * Runs {@code upload} unless the same user uploaded identical bytes recently.
+     *
+     * @param uploadedBy name of the authenticated user, fingerprints are never shared between users
+     * @param file       the uploaded file, read once here to compute its fingerprint
+     * @param upload     the processing to run for a new fingerprint
+     */
+    UploadFileResponse deduplicate(String uploadedBy, MultipartFile file, Upload upload) throws IOException {
+        String key = uploadedBy + ":" + fingerprint(file);
+        UploadFileResponse previous = findPrevious(key);
+        if (previous != null) {
+            LOGGER.info(
+                    "Skipping duplicate upload of {} for CAS ID: {}",
+                    file.getOriginalFilename(),
+                    previous.userCASDetailsId());
+            return previous;
+        }
+
+        CompletableFuture<UploadFileResponse> processing = new CompletableFuture<>();
+        CompletableFuture<UploadFileResponse> running = inFlight.putIfAbsent(key, processing);
+        if (running != null) {
+            LOGGER.info("Upload of {} is already being processed, waiting for it", file.getOriginalFilename());
+            return await(running);
+        }
+        try {
+            UploadFileResponse response = upload.process();
+            remember(key, response);
+            processing.complete(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            processing.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, processing);
+        }
+    }
+
+    private String fingerprint(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private @Nullable UploadFileResponse findPrevious(String key) {
+        if (fingerprintCache == null) {
+            return null;
+        }
+        try {
+            return fingerprintCache.get(key, UploadFileResponse.class);
+        } catch (RuntimeException e) {
+            // A cache problem must never fail the upload itself
+            LOGGER.warn("Could not look up upload fingerprint: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void remember(String key, UploadFileResponse response) {
+        if (fingerprintCache == null) {
+            return;
+        }
+        try {
+            fingerprintCache.put(key, response);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not store upload fingerprint: {}", e.getMessage());
+        }
+    }
+
+    private UploadFileResponse await(CompletableFuture<UploadFileResponse> running) throws IOException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.app.folioman.portfolio.domain;
 
+import com.app.folioman.portfolio.domain.models.projection.CasCacheKeyProjection;
 import com.app.folioman.portfolio.domain.models.projection.PortfolioDetailsProjection;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -61,4 +63,17 @@ interface UserCASDetailsRepository extends JpaRepository<UserCasDetailsEntity, L
             @Param("pan") String panNumber, @Param("asOfDate") LocalDate asOfDate);
 
     List<UserCasDetailsEntity> findAllByInvestorInfoEntityEmail(String email);
+
+    @Query("""
+            select distinct u.id as casId, i.email as email, f.pan as pan
+            from UserFolioDetailsEntity f join f.userCasDetailsEntity u join u.investorInfoEntity i
+            where u.id in :casIds
+            """)
+    List<CasCacheKeyProjection> findCacheKeysByCasIds(@Param("casIds") Collection<Long> casIds);
+
+    @Query("""
+            select distinct s.userFolioDetails.userCasDetailsEntity.id from UserSchemeDetailsEntity s
+            where s.amfi in :amfiCodes
+            """)
+    List<Long> findCasIdsHoldingSchemes(@Param("amfiCodes") Collection<Long> amfiCodes);
 }
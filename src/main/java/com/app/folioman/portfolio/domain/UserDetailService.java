@@ -1,6 +1,5 @@
 package com.app.folioman.portfolio.domain;
 
-import com.app.folioman.portfolio.UserSchemeDetailService;
 import com.app.folioman.portfolio.rest.dtos.CasDTO;
 import com.app.folioman.portfolio.rest.dtos.PortfolioDetailsDTO;
 import com.app.folioman.portfolio.rest.dtos.PortfolioResponse;
@@ -9,21 +8,24 @@ import com.app.folioman.portfolio.rest.dtos.UserFolioDTO;
 import com.app.folioman.portfolio.rest.dtos.UserSchemeDTO;
 import com.app.folioman.portfolio.rest.dtos.UserTransactionDTO;
 import com.app.folioman.shared.LocalDateUtility;
+import com.app.folioman.shared.TransactionsChanged;
 import com.app.folioman.shared.UploadedSchemesList;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,15 +43,18 @@ public class UserDetailService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserDetailService.class);
 
+    // Number of folios bound from the upload stream before they are handed to the persistence pipeline
+    private static final int FOLIO_CHUNK_SIZE = 25;
+
     private final PortfolioServiceHelper portfolioServiceHelper;
     private final CasDetailsMapper casDetailsMapper;
     private final UserCASDetailsService userCASDetailsService;
     private final InvestorInfoService investorInfoService;
     private final UserTransactionDetailsService userTransactionDetailsService;
     private final UserFolioDetailService userFolioDetailService;
-    private final UserSchemeDetailService userSchemeDetailService;
     private final ApplicationEventPublisher applicationEventPublisher;
-    private final PortfolioValueUpdateService portfolioValueUpdateService;
+    private final PostUploadProcessingService postUploadProcessingService;
+    private final CasJsonStreamReader casJsonStreamReader;
 
     UserDetailService(
             PortfolioServiceHelper portfolioServiceHelper,
@@ -58,25 +63,36 @@ public class UserDetailService {
             InvestorInfoService investorInfoService,
             UserTransactionDetailsService userTransactionDetailsService,
             UserFolioDetailService userFolioDetailService,
-            UserSchemeDetailService userSchemeDetailService,
             ApplicationEventPublisher applicationEventPublisher,
-            PortfolioValueUpdateService portfolioValueUpdateService) {
+            PostUploadProcessingService postUploadProcessingService,
+            CasJsonStreamReader casJsonStreamReader) {
         this.portfolioServiceHelper = portfolioServiceHelper;
         this.casDetailsMapper = casDetailsMapper;
         this.userCASDetailsService = userCASDetailsService;
         this.investorInfoService = investorInfoService;
         this.userTransactionDetailsService = userTransactionDetailsService;
         this.userFolioDetailService = userFolioDetailService;
-        this.userSchemeDetailService = userSchemeDetailService;
         this.applicationEventPublisher = applicationEventPublisher;
-        this.portfolioValueUpdateService = portfolioValueUpdateService;
+        this.postUploadProcessingService = postUploadProcessingService;
+        this.casJsonStreamReader = casJsonStreamReader;
     }
 
+    /**
+     * Imports a casparser JSON upload. The document is parsed straight from the request stream in chunks of
+     * {@value #FOLIO_CHUNK_SIZE} folios, so the raw bytes of large family statements are never held in memory. For a
+     * new investor every chunk is persisted and flushed as it arrives; an existing investor's folios are still
+     * collected in full, as reconciling them needs the whole statement.
+     *
+     * @param multipartFile the uploaded CAS JSON file
+     * @return UploadFileResponse with processing statistics
+     */
     @Transactional
     public UploadFileResponse upload(MultipartFile multipartFile) throws IOException {
-        CasDTO casDTO = parseCasDTO(multipartFile);
-        boolean existingUser = validateCasDTO(casDTO);
-        return existingUser ? processExistingUser(casDTO) : processNewUser(casDTO);
+        StreamingCasImport casImport = new StreamingCasImport();
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            CasDTO header = casJsonStreamReader.read(inputStream, FOLIO_CHUNK_SIZE, casImport::accept);
+            return casImport.complete(header);
+        }
     }
 
     /**
@@ -140,23 +156,14 @@ public class UserDetailService {
                 .collect(Collectors.toList());
 
         userFolioDetailService.setPANIfNotSet(userCasDetailsEntity.getId());
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    CompletableFuture.runAsync(userSchemeDetailService::setUserSchemeAMFIIfNull)
-                            .thenRun(() ->
-                                    portfolioValueUpdateService.updatePortfolioValue(userCasDetailsEntity.getId()));
-                }
-            });
-        } else {
-            CompletableFuture.runAsync(userSchemeDetailService::setUserSchemeAMFIIfNull)
-                    .thenRun(() -> portfolioValueUpdateService.updatePortfolioValue(userCasDetailsEntity.getId()));
-        }
+        schedulePostUploadProcessing(userCasDetailsEntity.getId());
 
         if (!schemesList.isEmpty()) {
             applicationEventPublisher.publishEvent(new UploadedSchemesList(schemesList));
         }
+        if (newTransactions.get() > 0) {
+            applicationEventPublisher.publishEvent(new TransactionsChanged(userCasDetailsEntity.getId()));
+        }
 
         return new UploadFileResponse(
                 newFolios.get(), newSchemes.get(), newTransactions.get(), userCasDetailsEntity.getId());
@@ -198,21 +205,24 @@ public class UserDetailService {
             // Grouping by rtaCode for userSchemaTransactionMap
             Map<String, List<UserTransactionDTO>> userSchemaTransactionMap = groupTransactionBySchemes(folios);
 
-            // Grouping by rtaCode for userSchemaTransactionMapFromDB
-            List<UserSchemeDetailsEntity> existingUserSchemeDetailsList = userCasDetails.getFolios().stream()
-                    .map(UserFolioDetailsEntity::getSchemes)
-                    .flatMap(List::stream)
-                    .toList();
-
-            Map<String, List<UserTransactionDetailsEntity>> userSchemaTransactionMapFromDB =
-                    groupExistingTransactionsByRtaCode(existingUserSchemeDetailsList);
+            // Index existing schemes and their transactions by rtaCode in a single pass
+            Map<String, UserSchemeDetailsEntity> existingSchemesByRtaCode = new HashMap<>();
+            Map<String, List<UserTransactionDetailsEntity>> userSchemaTransactionMapFromDB = new HashMap<>();
+            for (UserFolioDetailsEntity folio : userCasDetails.getFolios()) {
+                for (UserSchemeDetailsEntity scheme : folio.getSchemes()) {
+                    existingSchemesByRtaCode.putIfAbsent(scheme.getRtaCode(), scheme);
+                    userSchemaTransactionMapFromDB
+                            .computeIfAbsent(scheme.getRtaCode(), key -> new ArrayList<>())
+                            .addAll(scheme.getTransactions());
+                }
+            }
 
             // Update transactions in existing schemes
             processNewTransactions(
                     newTransactions,
                     userSchemaTransactionMap,
                     userSchemaTransactionMapFromDB,
-                    existingUserSchemeDetailsList);
+                    existingSchemesByRtaCode);
         }
     }
 
@@ -220,7 +230,7 @@ public class UserDetailService {
             AtomicInteger newTransactions,
             Map<String, List<UserTransactionDTO>> userSchemaTransactionMap,
             Map<String, List<UserTransactionDetailsEntity>> userSchemaTransactionMapFromDB,
-            List<UserSchemeDetailsEntity> existingUserSchemeDetailsList) {
+            Map<String, UserSchemeDetailsEntity> existingSchemesByRtaCode) {
 
         // Create a map to collect new transactions by their scheme
         Map<UserSchemeDetailsEntity, List<UserTransactionDetailsEntity>> transactionsByScheme = new HashMap<>();
@@ -234,11 +244,7 @@ public class UserDetailService {
                 Map<TransactionKey, Long> dbTransactionFrequencyMap = dbTransactions.stream()
                         .collect(Collectors.groupingBy(TransactionKey::from, Collectors.counting()));
 
-                // Find matching scheme once outside the inner loop
-                UserSchemeDetailsEntity matchingScheme = existingUserSchemeDetailsList.stream()
-                        .filter(scheme -> rtaCodeFromRequest.equals(scheme.getRtaCode()))
-                        .findFirst()
-                        .orElse(null);
+                UserSchemeDetailsEntity matchingScheme = existingSchemesByRtaCode.get(rtaCodeFromRequest);
 
                 if (matchingScheme != null) {
                     // Process all transactions for this scheme focusing on finding the new ones
@@ -295,16 +301,6 @@ public class UserDetailService {
         }
     }
 
-    private Map<String, List<UserTransactionDetailsEntity>> groupExistingTransactionsByRtaCode(
-            List<UserSchemeDetailsEntity> existingUserSchemeDetailsList) {
-        return existingUserSchemeDetailsList.stream()
-                .collect(Collectors.groupingBy(
-                        UserSchemeDetailsEntity::getRtaCode,
-                        Collectors.flatMapping(
-                                userSchemeDetailsEntity -> userSchemeDetailsEntity.getTransactions().stream(),
-                                Collectors.toList())));
-    }
-
     private Map<String, List<UserTransactionDTO>> groupTransactionBySchemes(List<UserFolioDTO> folios) {
         return folios.stream()
                 .flatMap(userFolioDTO -> userFolioDTO.schemes().stream())
@@ -357,6 +353,7 @@ public class UserDetailService {
             AtomicInteger newTransactions) {
 
         Map<UserFolioDetailsEntity, List<UserSchemeDetailsEntity>> newSchemesByFolio = new HashMap<>();
+        Map<String, UserFolioDetailsEntity> foliosByNumber = indexFoliosByNumber(userCasDetails.getFolios());
 
         requestedFolioSchemesMap.forEach((folioFromRequest, requestSchemes) -> {
             List<UserSchemeDetailsEntity> existingSchemesFromDB =
@@ -366,11 +363,7 @@ public class UserDetailService {
                     .map(UserSchemeDetailsEntity::getRtaCode)
                     .collect(Collectors.toSet());
 
-            // Find the matching folio entity
-            UserFolioDetailsEntity matchingFolio = userCasDetails.getFolios().stream()
-                    .filter(folio -> folioFromRequest.equals(folio.getFolio()))
-                    .findFirst()
-                    .orElse(null);
+            UserFolioDetailsEntity matchingFolio = foliosByNumber.get(folioFromRequest);
 
             if (matchingFolio != null) {
                 // Collect all new schemes for this folio
@@ -431,75 +424,88 @@ public class UserDetailService {
         Set<String> foliosListFromDB = userCasDetails.getFolios().stream()
                 .map(UserFolioDetailsEntity::getFolio)
                 .collect(Collectors.toSet());
-        Set<String> foliosFromReq = folios.stream().map(UserFolioDTO::folio).collect(Collectors.toSet());
-
-        foliosFromReq.stream()
-                .filter(folio -> !foliosListFromDB.contains(folio))
-                .forEach(newFolio -> {
-                    Optional<UserFolioDTO> matchingDTO = folios.stream()
-                            .filter(dto -> dto.folio().equals(newFolio))
-                            .findFirst();
-                    matchingDTO.ifPresent(dto -> {
-                        userCasDetails.addFolioEntity(
-                                casDetailsMapper.mapUserFolioDTOToUserFolioDetails(dto, newSchemes, newTransactions));
-                        newFolios.incrementAndGet();
-                    });
-                });
+        // First occurrence of each folio number in the request, keyed once instead of searched per new folio
+        Map<String, UserFolioDTO> foliosFromReq = new LinkedHashMap<>();
+        folios.forEach(dto -> foliosFromReq.putIfAbsent(dto.folio(), dto));
+
+        foliosFromReq.forEach((folio, dto) -> {
+            if (!foliosListFromDB.contains(folio)) {
+                userCasDetails.addFolioEntity(
+                        casDetailsMapper.mapUserFolioDTOToUserFolioDetails(dto, newSchemes, newTransactions));
+                newFolios.incrementAndGet();
+            }
+        });
+    }
+
+    private Map<String, UserFolioDetailsEntity> indexFoliosByNumber(List<UserFolioDetailsEntity> folios) {
+        Map<String, UserFolioDetailsEntity> foliosByNumber = new HashMap<>();
+        folios.forEach(folio -> foliosByNumber.putIfAbsent(folio.getFolio(), folio));
+        return foliosByNumber;
     }
 
     private UserCasDetailsEntity getUserCASDetails(UserCasDetailsEntity userCasDetailsEntity) {
         // Extract AMFI codes before saving to avoid extra database fetches later
-        List<Long> schemesList = userCasDetailsEntity.getFolios().stream()
-                .map(UserFolioDetailsEntity::getSchemes)
-                .flatMap(List::stream)
-                .map(UserSchemeDetailsEntity::getAmfi)
-                .filter(Objects::nonNull)
+        List<Long> schemesList = amfiCodes(userCasDetailsEntity.getFolios())
                 .distinct()
                 .collect(Collectors.toList()); // Using collect instead of toList() for thread safety
 
         // Save entity in a single transaction
         UserCasDetailsEntity savedCasDetailsEntity = userCASDetailsService.saveEntity(userCasDetailsEntity);
+        onNewCasSaved(savedCasDetailsEntity.getId(), schemesList);
+        return savedCasDetailsEntity;
+    }
+
+    private static Stream<Long> amfiCodes(List<UserFolioDetailsEntity> folios) {
+        return folios.stream()
+                .map(UserFolioDetailsEntity::getSchemes)
+                .flatMap(List::stream)
+                .map(UserSchemeDetailsEntity::getAmfi)
+                .filter(Objects::nonNull);
+    }
 
+    private void onNewCasSaved(Long userCasDetailsId, List<Long> schemesList) {
         // Run critical post-processing tasks synchronously
-        userFolioDetailService.setPANIfNotSet(savedCasDetailsEntity.getId());
+        userFolioDetailService.setPANIfNotSet(userCasDetailsId);
+
+        // Run non-critical post-processing tasks as a background job
+        schedulePostUploadProcessing(userCasDetailsId);
 
-        // Run non-critical post-processing tasks asynchronously
+        // Publish event with pre-collected schemes list
+        if (!schemesList.isEmpty()) {
+            applicationEventPublisher.publishEvent(new UploadedSchemesList(schemesList));
+        }
+        applicationEventPublisher.publishEvent(new TransactionsChanged(userCasDetailsId));
+    }
+
+    private void schedulePostUploadProcessing(Long userCasDetailsId) {
+        // Only hand the CAS to the job once it is committed, so the job never reads a half-written statement
         if (TransactionSynchronizationManager.isSynchronizationActive()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    CompletableFuture.runAsync(userSchemeDetailService::setUserSchemeAMFIIfNull)
-                            .thenRun(() ->
-                                    portfolioValueUpdateService.updatePortfolioValue(savedCasDetailsEntity.getId()));
+                    postUploadProcessingService.schedule(userCasDetailsId);
                 }
             });
         } else {
-            CompletableFuture.runAsync(userSchemeDetailService::setUserSchemeAMFIIfNull)
-                    .thenRun(() -> portfolioValueUpdateService.updatePortfolioValue(savedCasDetailsEntity.getId()));
+            postUploadProcessingService.schedule(userCasDetailsId);
         }
-
-        // Publish event with pre-collected schemes list
-        if (!schemesList.isEmpty()) {
-            applicationEventPublisher.publishEvent(new UploadedSchemesList(schemesList));
-        }
-
-        return savedCasDetailsEntity;
     }
 
-    private CasDTO parseCasDTO(MultipartFile multipartFile) throws IOException {
-        return portfolioServiceHelper.readValue(multipartFile.getBytes(), CasDTO.class);
+    private boolean validateCasDTO(CasDTO casDTO) {
+        validateInvestor(casDTO);
+        if (CollectionUtils.isEmpty(casDTO.folios())) {
+            throw new IllegalArgumentException("No folios found!");
+        }
+        return investorInfoService.existsByEmailAndName(
+                casDTO.investorInfo().email(), casDTO.investorInfo().name());
     }
 
-    private boolean validateCasDTO(CasDTO casDTO) {
+    private void validateInvestor(CasDTO casDTO) {
         String email = casDTO.investorInfo().email();
         String name = casDTO.investorInfo().name();
         if (email == null || email.isEmpty() || name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Email or Name invalid!");
         }
-        if (CollectionUtils.isEmpty(casDTO.folios())) {
-            throw new IllegalArgumentException("No folios found!");
-        }
-        return investorInfoService.existsByEmailAndName(email, name);
     }
 
     private UploadFileResponse processNewUser(CasDTO casDTO) {
@@ -520,10 +526,80 @@ public class UserDetailService {
                 newFolios.get(), newSchemes.get(), newTransactions.get(), savedCasDetailsEntity.getId());
     }
 
+    /**
+     * Receives folio chunks from {@link CasJsonStreamReader}. For a new investor the CAS is saved with the first chunk
+     * and every chunk is then persisted, flushed and detached on its own, so neither the DTOs nor the entities of
+     * earlier chunks stay in memory. Existing investors need the whole statement to reconcile transaction counts, so
+     * their folios are collected and merged once the stream is exhausted.
+     */
+    private final class StreamingCasImport {
+        private final AtomicInteger newTransactions = new AtomicInteger();
+        private final AtomicInteger newFolios = new AtomicInteger();
+        private final AtomicInteger newSchemes = new AtomicInteger();
+        private final List<UserFolioDTO> existingUserFolios = new ArrayList<>();
+        private final Set<Long> newUserSchemes = new LinkedHashSet<>();
+        private @Nullable Boolean existingUser;
+        private @Nullable Long newUserCasDetailsId;
+
+        private void accept(CasDTO header, List<UserFolioDTO> folioChunk) {
+            if (existingUser == null) {
+                validateInvestor(header);
+                existingUser = investorInfoService.existsByEmailAndName(
+                        header.investorInfo().email(), header.investorInfo().name());
+            }
+            if (existingUser) {
+                existingUserFolios.addAll(folioChunk);
+                return;
+            }
+            Long userCasDetailsId = newUserCasDetailsId;
+            if (userCasDetailsId == null) {
+                UserCasDetailsEntity userCasDetailsEntity =
+                        casDetailsMapper.convert(header, newFolios, newSchemes, newTransactions);
+                if (userCasDetailsEntity.getInvestorInfoEntity() == null) {
+                    userCasDetailsEntity.setInvestorInfoEntity(
+                            casDetailsMapper.mapInvestorInfoDTOToInvestorInfoEntity(header.investorInfo()));
+                }
+                userCasDetailsId = userCASDetailsService.saveEntity(userCasDetailsEntity).getId();
+                newUserCasDetailsId = userCasDetailsId;
+            }
+            List<UserFolioDetailsEntity> folioEntities = new ArrayList<>(folioChunk.size());
+            for (UserFolioDTO folioDTO : folioChunk) {
+                folioEntities.add(
+                        casDetailsMapper.mapUserFolioDTOToUserFolioDetails(folioDTO, newSchemes, newTransactions));
+                newFolios.incrementAndGet();
+            }
+            amfiCodes(folioEntities).forEach(newUserSchemes::add);
+            userFolioDetailService.saveChunk(userCasDetailsId, folioEntities);
+            LOGGER.debug("Persisted chunk of {} folios, {} folios so far", folioChunk.size(), newFolios.get());
+        }
+
+        private UploadFileResponse complete(CasDTO header) {
+            if (existingUser == null) {
+                // No folio was streamed, validate the header to surface the same errors as a buffered upload
+                validateCasDTO(header);
+            }
+            if (Boolean.TRUE.equals(existingUser)) {
+                return processExistingUser(new CasDTO(
+                        header.statementPeriod(),
+                        header.fileType(),
+                        header.casType(),
+                        header.investorInfo(),
+                        existingUserFolios));
+            }
+            Long userCasDetailsId = Objects.requireNonNull(newUserCasDetailsId);
+            onNewCasSaved(userCasDetailsId, new ArrayList<>(newUserSchemes));
+            return new UploadFileResponse(newFolios.get(), newSchemes.get(), newTransactions.get(), userCasDetailsId);
+        }
+    }
+
+    /**
+     * Identity of a transaction for reconciliation. The amount is held as a count of ten-thousandths so the key hashes
+     * and compares as a primitive rather than a {@link BigDecimal}.
+     */
     private record TransactionKey(
             @Nullable LocalDate date,
             @Nullable String description,
-            BigDecimal amount,
+            long amount,
             TransactionType type,
             @Nullable Double units,
             @Nullable Double balance) {
@@ -532,8 +608,7 @@ public class UserDetailService {
             return new TransactionKey(
                     dto.date(),
                     dto.description(),
-                    BigDecimal.valueOf(dto.amount() != null ? dto.amount() : 0.0)
-                            .setScale(4, RoundingMode.HALF_UP),
+                    scaledAmount(BigDecimal.valueOf(dto.amount() != null ? dto.amount() : 0.0)),
                     TransactionType.valueOf(dto.type().name()),
                     dto.units(),
                     dto.balance());
@@ -543,13 +618,15 @@ public class UserDetailService {
             return new TransactionKey(
                     entity.getTransactionDate(),
                     entity.getDescription(),
-                    entity.getAmount() != null
-                            ? entity.getAmount().setScale(4, RoundingMode.HALF_UP)
-                            : BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP),
+                    entity.getAmount() != null ? scaledAmount(entity.getAmount()) : 0L,
                     entity.getType(),
                     entity.getUnits(),
                     entity.getBalance());
         }
+
+        private static long scaledAmount(BigDecimal amount) {
+            return amount.setScale(4, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
     }
 
     public PortfolioResponse getPortfolioByPAN(String panNumber, @Nullable LocalDate evaluationDate) {
@@ -1,6 +1,7 @@
 package com.app.folioman.portfolio.domain;
 
 import com.app.folioman.portfolio.domain.models.projection.UserFolioDetailsPanProjection;
+import jakarta.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -15,15 +16,32 @@ class UserFolioDetailService {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserFolioDetailService.class);
 
     private final UserFolioDetailsRepository userFolioDetailsRepository;
+    private final EntityManager entityManager;
 
-    UserFolioDetailService(UserFolioDetailsRepository userFolioDetailsRepository) {
+    UserFolioDetailService(UserFolioDetailsRepository userFolioDetailsRepository, EntityManager entityManager) {
         this.userFolioDetailsRepository = userFolioDetailsRepository;
+        this.entityManager = entityManager;
     }
 
     public List<UserFolioDetailsEntity> findByFoliosIn(List<UserFolioDetailsEntity> folios) {
         return userFolioDetailsRepository.findByUserCasDetails_FoliosIn(folios);
     }
 
+    /**
+     * Persists a chunk of folios, with their schemes and transactions, under an already saved CAS. The chunk is
+     * flushed and the persistence context cleared afterwards, so the entities of earlier chunks do not accumulate
+     * while a large statement is imported.
+     */
+    @Transactional
+    public void saveChunk(Long userCasID, List<UserFolioDetailsEntity> folios) {
+        UserCasDetailsEntity userCasDetailsEntity = entityManager.getReference(UserCasDetailsEntity.class, userCasID);
+        folios.forEach(folio -> folio.setUserCasDetailsEntity(userCasDetailsEntity));
+        userFolioDetailsRepository.saveAll(folios);
+        entityManager.flush();
+        entityManager.clear();
+        LOGGER.debug("Persisted chunk of {} folios for CAS {}", folios.size(), userCasID);
+    }
+
     // if panKYC is NOT OK then PAN is not set. hence manually setting it.
     public void setPANIfNotSet(Long userCasID) {
         // find pan by id
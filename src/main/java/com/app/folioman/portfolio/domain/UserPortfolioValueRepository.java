@@ -1,5 +1,6 @@
 package com.app.folioman.portfolio.domain;
 
+import com.app.folioman.portfolio.domain.models.projection.PortfolioValueBucketProjection;
 import com.app.folioman.portfolio.domain.models.projection.PortfolioValueDateProjection;
 import com.app.folioman.portfolio.domain.models.projection.UserPortfolioValueProjection;
 import java.time.LocalDate;
@@ -16,6 +17,27 @@ interface UserPortfolioValueRepository extends JpaRepository<UserPortfolioValueE
     List<UserPortfolioValueEntity> findByUserCasDetailsEntity_IdAndDateBetween(
             Long id, LocalDate firstDate, LocalDate lastDate);
 
+    /**
+     * Aggregates the daily values of a CAS into buckets of one {@code unit} ('week' or 'month') each, in date order.
+     */
+    @NativeQuery("""
+            SELECT max(upv.date) AS date,
+                   (array_agg(upv.invested ORDER BY upv.date DESC))[1] AS invested,
+                   (array_agg(upv.value ORDER BY upv.date DESC))[1] AS value,
+                   min(upv.value) AS minValue,
+                   max(upv.value) AS maxValue
+            FROM portfolio.user_portfolio_value upv
+            WHERE upv.user_cas_details_id = :casId
+              AND upv.date BETWEEN :fromDate AND :toDate
+            GROUP BY date_trunc(:unit, upv.date)
+            ORDER BY date
+            """)
+    List<PortfolioValueBucketProjection> findValueBuckets(
+            @Param("casId") Long casId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("unit") String unit);
+
     @NativeQuery("""
             SELECT upv.xirr, upv.live_xirr as liveXirr, upv.invested, upv.value, upv.date
             FROM portfolio.user_portfolio_value upv
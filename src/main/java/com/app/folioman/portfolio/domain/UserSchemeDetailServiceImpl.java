@@ -4,9 +4,14 @@ import com.app.folioman.mfschemes.MfSchemeService;
 import com.app.folioman.mfschemes.rest.dtos.FundDetailProjection;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeProjection;
 import com.app.folioman.portfolio.UserSchemeDetailService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,98 +34,146 @@ class UserSchemeDetailServiceImpl implements UserSchemeDetailService {
         this.mfSchemeService = mfSchemeService;
     }
 
+    /**
+     * Resolves AMFI codes for every scheme that does not have one yet. Pending rows are grouped by RTA code prefix
+     * and extracted ISIN so that lookups run as a handful of set queries, and all resolutions are written back with
+     * a single batched update.
+     */
     @Override
     public void setUserSchemeAMFIIfNull() {
         List<UserSchemeDetailsEntity> userSchemeDetailsEntities = userSchemeDetailsRepository.findByAmfiIsNull();
-        userSchemeDetailsEntities.forEach(this::processUserSchemeDetails);
-    }
-
-    public List<UserSchemeDetailsEntity> findBySchemesIn(List<UserSchemeDetailsEntity> userSchemeDetailsEntities) {
-        return userSchemeDetailsRepository.findByUserFolioDetails_SchemesIn(userSchemeDetailsEntities);
-    }
-
-    private void processUserSchemeDetails(UserSchemeDetailsEntity userSchemeDetailsEntity) {
-        String rtaCode = userSchemeDetailsEntity.getRtaCode();
-        if (StringUtils.hasText(rtaCode) && rtaCode.length() > 1) {
-            String trimmedRtaCode = rtaCode.substring(0, rtaCode.length() - 1);
-            processRtaCode(userSchemeDetailsEntity, trimmedRtaCode);
-        } else {
-            LOGGER.warn("rtaCode is too short: {}", rtaCode);
+        if (userSchemeDetailsEntities.isEmpty()) {
+            return;
         }
-    }
 
-    private void processRtaCode(UserSchemeDetailsEntity userSchemeDetailsEntity, String rtaCode) {
-        LOGGER.debug(
-                "RTA code for userSchemeDetailsEntity with id: {} is {}", userSchemeDetailsEntity.getId(), rtaCode);
-        List<MFSchemeProjection> mfSchemeEntityList = mfSchemeService.fetchSchemesByRtaCode(rtaCode);
-        if (!mfSchemeEntityList.isEmpty()) {
-            handleNonEmptyMfSchemeList(userSchemeDetailsEntity, mfSchemeEntityList);
-        } else {
-            handleEmptyMfSchemeList(userSchemeDetailsEntity);
+        Map<String, List<UserSchemeDetailsEntity>> schemesByRtaCode = groupByRtaCode(userSchemeDetailsEntities);
+        if (schemesByRtaCode.isEmpty()) {
+            return;
         }
-    }
 
-    private void handleEmptyMfSchemeList(UserSchemeDetailsEntity userSchemeDetailsEntity) {
-        String scheme = userSchemeDetailsEntity.getScheme();
-        LOGGER.info("AMFI is null for scheme: {}", scheme);
-        if (scheme.contains("ISIN:")) {
-            extractAndProcessIsin(userSchemeDetailsEntity, scheme);
-        } else {
-            processSchemeWithoutIsin(userSchemeDetailsEntity, scheme);
-        }
+        List<AmfiResolution> resolutions = new ArrayList<>();
+        List<UserSchemeDetailsEntity> unresolved = new ArrayList<>();
+        Map<String, List<MFSchemeProjection>> mfSchemesByRtaCode =
+                mfSchemeService.fetchSchemesByRtaCodes(schemesByRtaCode.keySet());
+        schemesByRtaCode.forEach((rtaCode, userSchemes) -> {
+            List<MFSchemeProjection> mfSchemeEntityList = mfSchemesByRtaCode.getOrDefault(rtaCode, List.of());
+            if (mfSchemeEntityList.isEmpty()) {
+                unresolved.addAll(userSchemes);
+            } else {
+                userSchemes.forEach(userSchemeDetails ->
+                        resolutions.add(resolveFromRtaSchemes(userSchemeDetails, mfSchemeEntityList)));
+            }
+        });
+
+        resolveUnmatched(unresolved, resolutions);
+        applyResolutions(resolutions);
     }
 
-    private void processSchemeWithoutIsin(UserSchemeDetailsEntity userSchemeDetails, String scheme) {
-        List<FundDetailProjection> fundDetailProjections = mfSchemeService.fetchSchemes(scheme);
-        if (!fundDetailProjections.isEmpty()) {
-            Long schemeId = getSchemeId(fundDetailProjections, scheme);
-            if (schemeId != null) {
-                updateUserSchemeDetails(userSchemeDetails.getId(), schemeId, null);
-            }
-        }
+    public List<UserSchemeDetailsEntity> findBySchemesIn(List<UserSchemeDetailsEntity> userSchemeDetailsEntities) {
+        return userSchemeDetailsRepository.findByUserFolioDetails_SchemesIn(userSchemeDetailsEntities);
     }
 
-    private void extractAndProcessIsin(UserSchemeDetailsEntity userSchemeDetails, String scheme) {
-        String isin = scheme.substring(scheme.lastIndexOf("ISIN:") + 5).strip();
-        if (StringUtils.hasText(isin)) {
-            Optional<MFSchemeProjection> mfSchemeEntity = mfSchemeService.findByPayOut(isin);
-            mfSchemeEntity.ifPresent(schemeEntity ->
-                    updateUserSchemeDetails(userSchemeDetails.getId(), schemeEntity.getAmfiCode(), isin));
-        } else {
-            LOGGER.warn("ISIN is null after extraction for scheme: {}", scheme);
+    private Map<String, List<UserSchemeDetailsEntity>> groupByRtaCode(
+            List<UserSchemeDetailsEntity> userSchemeDetailsEntities) {
+        Map<String, List<UserSchemeDetailsEntity>> schemesByRtaCode = new LinkedHashMap<>();
+        for (UserSchemeDetailsEntity userSchemeDetailsEntity : userSchemeDetailsEntities) {
+            String rtaCode = userSchemeDetailsEntity.getRtaCode();
+            if (StringUtils.hasText(rtaCode) && rtaCode.length() > 1) {
+                String trimmedRtaCode = rtaCode.substring(0, rtaCode.length() - 1);
+                LOGGER.debug(
+                        "RTA code for userSchemeDetailsEntity with id: {} is {}",
+                        userSchemeDetailsEntity.getId(),
+                        trimmedRtaCode);
+                schemesByRtaCode
+                        .computeIfAbsent(trimmedRtaCode, key -> new ArrayList<>())
+                        .add(userSchemeDetailsEntity);
+            } else {
+                LOGGER.warn("rtaCode is too short: {}", rtaCode);
+            }
         }
+        return schemesByRtaCode;
     }
 
-    private void handleNonEmptyMfSchemeList(
+    private AmfiResolution resolveFromRtaSchemes(
             UserSchemeDetailsEntity userSchemeDetails, List<MFSchemeProjection> mfSchemeEntityList) {
-        Optional<MFSchemeProjection> matchingScheme = mfSchemeEntityList.stream()
+        MFSchemeProjection matchingScheme = mfSchemeEntityList.stream()
                 .filter(scheme -> Objects.equals(scheme.getIsin(), userSchemeDetails.getIsin()))
-                .findFirst();
-
-        matchingScheme.ifPresentOrElse(
-                mfSchemeProjection -> updateUserSchemeDetails(
-                        userSchemeDetails.getId(), mfSchemeProjection.getAmfiCode(), mfSchemeProjection.getIsin()),
-                () -> {
+                .findFirst()
+                .orElseGet(() -> {
                     LOGGER.debug("ISIN not found in the list of schemes");
-                    MFSchemeProjection firstScheme = mfSchemeEntityList.getFirst();
-                    updateUserSchemeDetails(
-                            userSchemeDetails.getId(), firstScheme.getAmfiCode(), firstScheme.getIsin());
+                    return mfSchemeEntityList.getFirst();
                 });
+        return new AmfiResolution(userSchemeDetails.getId(), matchingScheme.getAmfiCode(), matchingScheme.getIsin());
     }
 
-    private void updateUserSchemeDetails(Long userSchemeId, Long schemeId, @Nullable String isin) {
-        userSchemeDetailsRepository.updateAmfiAndIsinById(schemeId, isin, userSchemeId);
+    private void resolveUnmatched(List<UserSchemeDetailsEntity> unresolved, List<AmfiResolution> resolutions) {
+        Map<String, List<Long>> userSchemeIdsByIsin = new LinkedHashMap<>();
+        // Full-text search can't be batched, but identical scheme names only need to be searched once
+        Map<String, Optional<Long>> schemeIdsByName = new HashMap<>();
+        for (UserSchemeDetailsEntity userSchemeDetails : unresolved) {
+            String scheme = userSchemeDetails.getScheme();
+            LOGGER.info("AMFI is null for scheme: {}", scheme);
+            if (scheme.contains("ISIN:")) {
+                String isin = scheme.substring(scheme.lastIndexOf("ISIN:") + 5).strip();
+                if (StringUtils.hasText(isin)) {
+                    userSchemeIdsByIsin
+                            .computeIfAbsent(isin, key -> new ArrayList<>())
+                            .add(userSchemeDetails.getId());
+                } else {
+                    LOGGER.warn("ISIN is null after extraction for scheme: {}", scheme);
+                }
+            } else {
+                schemeIdsByName
+                        .computeIfAbsent(scheme, this::searchSchemeId)
+                        .ifPresent(schemeId ->
+                                resolutions.add(new AmfiResolution(userSchemeDetails.getId(), schemeId, null)));
+            }
+        }
+
+        if (!userSchemeIdsByIsin.isEmpty()) {
+            Map<String, Long> amfiCodesByIsin = mfSchemeService.findByPayOutIn(userSchemeIdsByIsin.keySet()).stream()
+                    .filter(mfScheme -> mfScheme.getIsin() != null)
+                    .collect(Collectors.toMap(
+                            MFSchemeProjection::getIsin, MFSchemeProjection::getAmfiCode, (first, second) -> first));
+            userSchemeIdsByIsin.forEach((isin, userSchemeIds) -> {
+                Long amfiCode = amfiCodesByIsin.get(isin);
+                if (amfiCode != null) {
+                    userSchemeIds.forEach(
+                            userSchemeId -> resolutions.add(new AmfiResolution(userSchemeId, amfiCode, isin)));
+                }
+            });
+        }
     }
 
-    private @Nullable Long getSchemeId(List<FundDetailProjection> fundDetailProjections, String scheme) {
+    private Optional<Long> searchSchemeId(String scheme) {
+        List<FundDetailProjection> fundDetailProjections = mfSchemeService.fetchSchemes(scheme);
         return fundDetailProjections.stream()
                 .filter(fundDetailProjection -> isMatchingScheme(scheme, fundDetailProjection))
                 .map(FundDetailProjection::getAmfiCode)
-                .findFirst()
-                .orElse(null);
+                .findFirst();
+    }
+
+    private void applyResolutions(List<AmfiResolution> resolutions) {
+        if (resolutions.isEmpty()) {
+            return;
+        }
+        int size = resolutions.size();
+        Long[] ids = new Long[size];
+        Long[] amfis = new Long[size];
+        @Nullable String[] isins = new String[size];
+        for (int i = 0; i < size; i++) {
+            AmfiResolution resolution = resolutions.get(i);
+            ids[i] = resolution.userSchemeId();
+            amfis[i] = resolution.amfiCode();
+            isins[i] = resolution.isin();
+        }
+        int updated = userSchemeDetailsRepository.updateAmfiAndIsinByIdIn(ids, amfis, isins);
+        LOGGER.info("Resolved AMFI code for {} of {} user schemes", updated, size);
     }
 
     private boolean isMatchingScheme(String scheme, FundDetailProjection fundDetailProjection) {
         return scheme.contains("Income") == fundDetailProjection.getSchemeName().contains("IDCW");
     }
+
+    private record AmfiResolution(Long userSchemeId, Long amfiCode, @Nullable String isin) {}
 }
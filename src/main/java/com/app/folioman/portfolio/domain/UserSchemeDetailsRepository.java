@@ -4,6 +4,7 @@ import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -26,4 +27,21 @@ interface UserSchemeDetailsRepository extends JpaRepository<UserSchemeDetailsEnt
     @Query("update UserSchemeDetailsEntity u set u.amfi = :amfi, u.isin = :isin where u.id = :id")
     void updateAmfiAndIsinById(
             @Nullable @Param("amfi") Long schemeId, @Nullable @Param("isin") String isin, @Param("id") Long id);
+
+    /**
+     * Apply many AMFI/ISIN resolutions in a single statement. The three arrays are zipped positionally, so
+     * {@code amfis[i]} and {@code isins[i]} are written to the row with id {@code ids[i]}.
+     *
+     * @return number of rows updated
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @NativeQuery("""
+            UPDATE portfolio.user_scheme_details u
+            SET amfi = v.amfi, isin = v.isin
+            FROM unnest(cast(:ids as bigint[]), cast(:amfis as bigint[]), cast(:isins as text[])) AS v(id, amfi, isin)
+            WHERE u.id = v.id
+            """)
+    int updateAmfiAndIsinByIdIn(
+            @Param("ids") Long[] ids, @Param("amfis") Long[] amfis, @Param("isins") @Nullable String[] isins);
 }
@@ -41,37 +41,27 @@ interface UserTransactionDetailsRepository extends JpaRepository<UserTransaction
             findByUserSchemeDetails_IdAndTransactionDateGreaterThanEqualOrderByTransactionDateAscIdAsc(
                     Long id, LocalDate schemeFromDate);
 
+    /**
+     * Reads the per-month rollup that triggers on the transaction, scheme and folio tables keep current, so the cost
+     * follows the number of months invested rather than the number of transactions.
+     */
     @NativeQuery("""
-                    WITH monthly_totals AS (
-                        SELECT DATE_TRUNC('month', transaction_date) AS month,
-                               EXTRACT(YEAR FROM transaction_date) AS year,
-                               EXTRACT(MONTH FROM transaction_date) AS month_number,
-                               SUM(amount) AS total_invested
-                        FROM portfolio.user_transaction_details utd
-                        JOIN portfolio.user_scheme_details usd ON utd.user_scheme_detail_id = usd.id
-                        JOIN portfolio.user_folio_details ufd ON ufd.id = usd.user_folio_id
-                        WHERE ufd.pan = ?1
-                        GROUP BY DATE_TRUNC('month', transaction_date),
-                                 EXTRACT(YEAR FROM transaction_date),
-                                 EXTRACT(MONTH FROM transaction_date)
-                    )
-                    SELECT year,
-                           month_number,
-                           total_invested AS investmentPerMonth,
-                           SUM(total_invested) OVER (ORDER BY month) AS cumulativeInvestment
-                    FROM monthly_totals
-                    ORDER BY year, month_number
+                    SELECT EXTRACT(YEAR FROM pmi.month_start) AS year,
+                           EXTRACT(MONTH FROM pmi.month_start) AS month_number,
+                           pmi.invested AS investmentPerMonth,
+                           SUM(pmi.invested) OVER (ORDER BY pmi.month_start) AS cumulativeInvestment
+                    FROM portfolio.pan_monthly_investment pmi
+                    WHERE pmi.pan = ?1
+                    ORDER BY pmi.month_start
                     """)
     List<MonthlyInvestmentResponse> findMonthlyInvestmentsByPan(String pan);
 
     @NativeQuery("""
-                    SELECT EXTRACT(YEAR FROM transaction_date) AS year,
-                           SUM(amount) AS yearlyInvestment
-                    FROM portfolio.user_transaction_details utd
-                    JOIN portfolio.user_scheme_details usd ON utd.user_scheme_detail_id = usd.id
-                    JOIN portfolio.user_folio_details ufd ON ufd.id = usd.user_folio_id
-                    WHERE ufd.pan = ?1
-                    GROUP BY EXTRACT(YEAR FROM transaction_date)
+                    SELECT EXTRACT(YEAR FROM pmi.month_start) AS year,
+                           SUM(pmi.invested) AS yearlyInvestment
+                    FROM portfolio.pan_monthly_investment pmi
+                    WHERE pmi.pan = ?1
+                    GROUP BY EXTRACT(YEAR FROM pmi.month_start)
                     ORDER BY year
                     """)
     List<YearlyInvestmentResponse> findYearlyInvestmentsByPan(String pan);
@@ -0,0 +1,13 @@
+package com.app.folioman.portfolio.domain.models.projection;
+
+/**
+ * The values portfolio cache keys of a CAS are built from: its id and investor email, and the PAN of each folio.
+ */
+public interface CasCacheKeyProjection {
+
+    Long getCasId();
+
+    String getEmail();
+
+    String getPan();
+}
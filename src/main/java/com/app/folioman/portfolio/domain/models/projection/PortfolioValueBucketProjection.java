@@ -0,0 +1,21 @@
+package com.app.folioman.portfolio.domain.models.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Portfolio value aggregated over a week or a month: the last invested amount and value in the bucket, dated on the
+ * last day with a value, and the lowest and highest value within it.
+ */
+public interface PortfolioValueBucketProjection {
+
+    LocalDate getDate();
+
+    BigDecimal getInvested();
+
+    BigDecimal getValue();
+
+    BigDecimal getMinValue();
+
+    BigDecimal getMaxValue();
+}
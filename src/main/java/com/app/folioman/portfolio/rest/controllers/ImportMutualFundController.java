@@ -14,9 +14,10 @@ import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -41,51 +42,32 @@ public class ImportMutualFundController {
     }
 
     @PostMapping(value = "/api/upload-handler", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Caching(
-            evict = {
-                @CacheEvict(
-                        cacheNames = CacheNames.USER_PROFILE_CACHE,
-                        condition =
-                                "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication() != null",
-                        key =
-                                "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()"),
-                @CacheEvict(
-                        cacheNames = CacheNames.SUMMARY_CACHE,
-                        condition =
-                                "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication() != null",
-                        key =
-                                "'summary_' + #result.userCASDetailsId() + '_' + T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()")
-            })
+    // Cached portfolio views are evicted by the events the upload publishes
+    @CacheEvict(
+            cacheNames = CacheNames.USER_PROFILE_CACHE,
+            condition =
+                    "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication() != null",
+            key =
+                    "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()")
     public UploadFileResponse upload(@RequestPart("file") MultipartFile multipartFile) throws IOException {
         LOGGER.info("Received file :{} for processing", multipartFile.getOriginalFilename());
-        return portfolioAPI.upload(multipartFile);
+        return portfolioAPI.upload(multipartFile, currentUser());
     }
 
     @PostMapping(value = "/api/upload-pdf-cas", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Caching(
-            evict = {
-                @CacheEvict(
-                        cacheNames = CacheNames.USER_PROFILE_CACHE,
-                        condition =
-                                "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication() != null",
-                        key =
-                                "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()"),
-                @CacheEvict(
-                        cacheNames = CacheNames.SUMMARY_CACHE,
-                        condition =
-                                "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication() != null",
-                        key =
-                                "'summary_' + #result.userCASDetailsId() + '_' + T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()")
-            })
+    // Cached portfolio views are evicted by the events the upload publishes
+    @CacheEvict(
+            cacheNames = CacheNames.USER_PROFILE_CACHE,
+            condition =
+                    "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication() != null",
+            key =
+                    "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()")
     public UploadFileResponse uploadPasswordProtectedCasPdf(
             @RequestPart("file") MultipartFile pdfFile, @RequestPart("password") String password) throws IOException {
         LOGGER.info("Received password-protected PDF file: {} for processing", pdfFile.getOriginalFilename());
 
-        // First convert the PDF to CasDTO
-        var casDTO = portfolioAPI.convertPdfCasToJson(pdfFile, password);
-
-        // Then process the CasDTO using the existing flow
-        return portfolioAPI.uploadFromDto(casDTO);
+        // Converts the PDF to a CasDTO and processes it with the existing flow, unless it is a duplicate upload
+        return portfolioAPI.uploadPdf(pdfFile, password, currentUser());
     }
 
     @GetMapping("/api/portfolio/{pan}")
@@ -99,4 +81,9 @@ public class ImportMutualFundController {
                     LocalDate asOfDate) {
         return portfolioAPI.getPortfolioByPAN(panNumber, asOfDate != null ? asOfDate : LocalDate.now());
     }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
 }
@@ -5,6 +5,8 @@ import com.app.folioman.portfolio.rest.dtos.PortfolioHistoryDTO;
 import com.app.folioman.shared.EmailAware;
 import com.vaadin.hilla.Endpoint;
 import jakarta.annotation.security.RolesAllowed;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.security.Principal;
 import java.time.LocalDate;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -38,6 +40,7 @@ public class PortfolioHistoryController {
             @PathVariable Long id,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "500") @Min(2) @Max(5000) int points,
             Principal principal) {
 
         LocalDate effectiveTo = to == null ? LocalDate.now() : to;
@@ -45,7 +48,7 @@ public class PortfolioHistoryController {
         String userEmail = extractUserEmail(principal);
 
         return portfolioAPI
-                .getPortfolioHistory(id, userEmail, effectiveFrom, effectiveTo)
+                .getPortfolioHistory(id, userEmail, effectiveFrom, effectiveTo, points)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
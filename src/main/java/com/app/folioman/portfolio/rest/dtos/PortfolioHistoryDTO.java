@@ -4,8 +4,17 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.List;
 
-public record PortfolioHistoryDTO(List<Number[]> invested, List<Number[]> value) implements Serializable {
+/**
+ * Portfolio history as {@code [epochMillis, amount]} pairs. When points stand for a week or a month, or for several
+ * of them after downsampling, {@code valueRange} holds the lowest and highest value each point covers as
+ * {@code [epochMillis, min, max]}.
+ *
+ * @param interval the period one point covers before downsampling: {@code DAY}, {@code WEEK} or {@code MONTH}
+ */
+public record PortfolioHistoryDTO(
+        List<Number[]> invested, List<Number[]> value, List<Number[]> valueRange, String interval)
+        implements Serializable {
 
     @Serial
-    private static final long serialVersionUID = 2L;
+    private static final long serialVersionUID = 3L;
 }
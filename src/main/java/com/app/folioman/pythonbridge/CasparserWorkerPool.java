@@ -0,0 +1,23 @@
+package com.app.folioman.pythonbridge;
+
+/**
+ * Parses CAS PDFs on a pool of long-lived casparser worker processes, so requests do not pay interpreter startup and
+ * casparser import time.
+ */
+public interface CasparserWorkerPool {
+
+    boolean isEnabled();
+
+    /**
+     * Parses a CAS PDF held in memory.
+     *
+     * @param pdf      the PDF content
+     * @param password the PDF password
+     * @return casparser's JSON output
+     * @throws PythonWorkerUnavailableException if no worker could take the request; the caller may fall back to the
+     *                                          casparser CLI
+     * @throws PythonTimeoutException           if the worker did not answer in time
+     * @throws PythonExecutionException         if casparser rejected the document, e.g. for a wrong password
+     */
+    byte[] parse(byte[] pdf, String password);
+}
@@ -0,0 +1,243 @@
+package com.app.folioman.pythonbridge;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+@Service
+class CasparserWorkerPoolImpl implements CasparserWorkerPool, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CasparserWorkerPoolImpl.class);
+
+    private static final String WORKER_SCRIPT = "pythonbridge/casparser_worker.py";
+    private static final String COMMAND = "casparser worker";
+    private static final byte[] PING = "{\"op\":\"ping\"}".getBytes(StandardCharsets.UTF_8);
+    private static final long BORROW_POLL_MILLIS = 100;
+
+    private final PythonBridgeProperties properties;
+    private final PythonBridgeProperties.WorkerPoolConfig config;
+    private final JsonMapper jsonMapper;
+    private final PythonAdmissionController admissionController;
+    private final String workerScript;
+    private final BlockingQueue<PythonWorker> idleWorkers;
+    // One permit per live worker, so the pool never grows beyond its configured size
+    private final Semaphore workerSlots;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean closed;
+    private volatile long retryStartAfterNanos = System.nanoTime();
+
+    CasparserWorkerPoolImpl(
+            PythonBridgeProperties properties, JsonMapper jsonMapper, PythonAdmissionController admissionController) {
+        this.properties = properties;
+        this.config = properties.workerPool();
+        this.jsonMapper = jsonMapper;
+        this.admissionController = admissionController;
+        this.workerScript = loadWorkerScript();
+        int size = Math.max(1, config.size());
+        this.idleWorkers = new ArrayBlockingQueue<>(size);
+        this.workerSlots = new Semaphore(size);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("casparser-worker-watchdog").daemon().factory());
+        if (config.enabled() && config.healthCheckIntervalSeconds() > 0) {
+            // Pings can block for a while, so they run off the watchdog thread
+            scheduler.scheduleWithFixedDelay(
+                    () -> Thread.ofVirtual().name("casparser-worker-health").start(this::checkIdleWorkers),
+                    config.healthCheckIntervalSeconds(),
+                    config.healthCheckIntervalSeconds(),
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return config.enabled() && !closed;
+    }
+
+    @Override
+    public byte[] parse(byte[] pdf, String password) {
+        if (!isEnabled()) {
+            throw new PythonWorkerUnavailableException("casparser worker pool is disabled", COMMAND);
+        }
+        return admissionController.run("worker", COMMAND, () -> parseOnWorker(pdf, password));
+    }
+
+    private byte[] parseOnWorker(byte[] pdf, String password) {
+        int timeoutSeconds = properties.defaultTimeoutSeconds();
+        PythonWorker worker = borrow(timeoutSeconds);
+        boolean reusable = false;
+        try {
+            byte[] header = jsonMapper.writeValueAsBytes(Map.of("op", "parse", "password", password));
+            PythonWorker.Response response = worker.call(header, pdf, timeoutSeconds);
+            worker.recordJob();
+            reusable = true;
+            WorkerStatus status = readStatus(response);
+            if (!status.ok()) {
+                throw new PythonExecutionException("casparser failed to parse the PDF", 1, status.error(), COMMAND);
+            }
+            return response.body();
+        } finally {
+            release(worker, reusable);
+        }
+    }
+
+    private PythonWorker borrow(int timeoutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        try {
+            while (true) {
+                PythonWorker worker = idleWorkers.poll();
+                if (worker != null) {
+                    return worker;
+                }
+                if (workerSlots.tryAcquire()) {
+                    return startWorkerInSlot();
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new PythonTimeoutException(
+                            "No casparser worker became free within " + timeoutSeconds + " seconds", COMMAND);
+                }
+                // Re-check for freed slots periodically, since a retired worker releases a slot, not a worker
+                worker = idleWorkers.poll(BORROW_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (worker != null) {
+                    return worker;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PythonExecutionException("Interrupted waiting for a casparser worker", e, -1, null, COMMAND);
+        }
+    }
+
+    private PythonWorker startWorkerInSlot() {
+        try {
+            return startWorker();
+        } catch (RuntimeException e) {
+            workerSlots.release();
+            throw e;
+        }
+    }
+
+    private PythonWorker startWorker() {
+        if (System.nanoTime() - retryStartAfterNanos < 0) {
+            throw new PythonWorkerUnavailableException("casparser worker failed to start recently", COMMAND);
+        }
+        ProcessBuilder pb = new ProcessBuilder(properties.executable(), "-u", "-c", workerScript);
+        String workingDirectory = properties.workingDirectory();
+        if (workingDirectory != null && !workingDirectory.isBlank()) {
+            pb.directory(new File(workingDirectory));
+        }
+        if (properties.environment() != null) {
+            pb.environment().putAll(properties.environment());
+        }
+        // Tracebacks from casparser go to the application's stderr rather than the protocol stream
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        PythonWorker worker;
+        try {
+            worker = new PythonWorker(pb.start(), scheduler, COMMAND);
+        } catch (IOException e) {
+            backOffStarts();
+            throw new PythonWorkerUnavailableException("Failed to start casparser worker", e, COMMAND);
+        }
+        try {
+            WorkerStatus status = readStatus(worker.receive(config.startupTimeoutSeconds()));
+            if (!status.ok()) {
+                throw new PythonWorkerUnavailableException(
+                        "casparser worker failed to start: " + status.error(), COMMAND);
+            }
+            LOGGER.info("Started casparser worker pid {} with casparser {}", worker.pid(), status.version());
+            return worker;
+        } catch (RuntimeException e) {
+            worker.close();
+            backOffStarts();
+            throw e instanceof PythonWorkerUnavailableException
+                    ? e
+                    : new PythonWorkerUnavailableException("casparser worker failed to start", e, COMMAND);
+        }
+    }
+
+    private void backOffStarts() {
+        // Avoid paying a failing interpreter start on every request; try again after the next health check window
+        retryStartAfterNanos =
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(1, config.healthCheckIntervalSeconds()));
+    }
+
+    private void release(PythonWorker worker, boolean reusable) {
+        if (reusable
+                && !closed
+                && worker.isAlive()
+                && worker.jobsHandled() < config.maxJobsPerWorker()
+                && idleWorkers.offer(worker)) {
+            return;
+        }
+        LOGGER.debug("Retiring casparser worker pid {} after {} jobs", worker.pid(), worker.jobsHandled());
+        retire(worker);
+    }
+
+    private void retire(PythonWorker worker) {
+        try {
+            worker.close();
+        } finally {
+            workerSlots.release();
+        }
+    }
+
+    void checkIdleWorkers() {
+        List<PythonWorker> workers = new ArrayList<>();
+        idleWorkers.drainTo(workers);
+        for (PythonWorker worker : workers) {
+            boolean healthy = false;
+            try {
+                healthy = readStatus(worker.call(PING, new byte[0], config.startupTimeoutSeconds()))
+                        .ok();
+            } catch (RuntimeException e) {
+                LOGGER.warn("casparser worker pid {} failed its health check", worker.pid(), e);
+            }
+            release(worker, healthy);
+        }
+    }
+
+    private WorkerStatus readStatus(PythonWorker.Response response) {
+        try {
+            return jsonMapper.readValue(response.status(), WorkerStatus.class);
+        } catch (RuntimeException e) {
+            throw new PythonWorkerUnavailableException("Unreadable response from casparser worker", e, COMMAND);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        scheduler.shutdownNow();
+        List<PythonWorker> workers = new ArrayList<>();
+        idleWorkers.drainTo(workers);
+        workers.forEach(this::retire);
+    }
+
+    private static String loadWorkerScript() {
+        try {
+            return new ClassPathResource(WORKER_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load " + WORKER_SCRIPT, e);
+        }
+    }
+
+    record WorkerStatus(boolean ok, @Nullable String error, @Nullable String version) {}
+}
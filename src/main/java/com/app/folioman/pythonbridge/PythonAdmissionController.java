@@ -0,0 +1,96 @@
+package com.app.folioman.pythonbridge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits how many Python executions run at once. Callers beyond the limit wait in a bounded FIFO queue; once the
+ * queue is full, or a caller has waited too long, the execution is rejected with
+ * {@link PythonCapacityExceededException} instead of piling more CPU-heavy processes onto the host.
+ */
+@Component
+class PythonAdmissionController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PythonAdmissionController.class);
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final long maxQueueWaitSeconds;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    PythonAdmissionController(PythonBridgeProperties properties, MeterRegistry meterRegistry) {
+        PythonBridgeProperties.AdmissionConfig config = properties.admission();
+        int maxConcurrent = Math.max(1, config.maxConcurrent());
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueued = Math.max(0, config.maxQueued());
+        this.maxQueueWaitSeconds = config.maxQueueWaitSeconds();
+        this.meterRegistry = meterRegistry;
+        this.rejected = meterRegistry.counter("python.execution.rejected");
+        Gauge.builder("python.execution.queued", queued, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("python.execution.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code task} once an execution slot is free, recording how long it queued and how long it ran.
+     *
+     * @param type    execution type used as metric tag, e.g. {@code process} or {@code worker}
+     * @param command description of the command for error reporting
+     */
+    <T> T run(String type, String command, Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        acquire(command);
+        try {
+            Timer.builder("python.execution.queue.time")
+                    .tag("type", type)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            return Timer.builder("python.execution.run.time")
+                    .tag("type", type)
+                    .register(meterRegistry)
+                    .record(task);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire(String command) {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            reject("Too many Python executions in progress, try again later", command);
+        }
+        try {
+            if (!permits.tryAcquire(maxQueueWaitSeconds, TimeUnit.SECONDS)) {
+                reject(
+                        "Timed out after " + maxQueueWaitSeconds + " seconds waiting for a Python execution slot",
+                        command);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PythonExecutionException("Interrupted waiting for a Python execution slot", e, -1, null, command);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void reject(String message, String command) {
+        rejected.increment();
+        LOGGER.warn(message);
+        // A queued execution either gets a slot or gives up within the queue wait, so the queue has turned over by then
+        throw new PythonCapacityExceededException(message, command, Math.max(1, maxQueueWaitSeconds));
+    }
+}
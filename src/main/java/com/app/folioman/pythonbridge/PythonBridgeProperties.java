@@ -9,7 +9,36 @@ public record PythonBridgeProperties(
         @DefaultValue("python3") String executable,
         String workingDirectory,
         @DefaultValue("60") int defaultTimeoutSeconds,
+        @DefaultValue("67108864") long maxOutputBytes,
         Map<String, String> environment,
-        @DefaultValue CasparserConfig casparser) {
+        @DefaultValue CasparserConfig casparser,
+        @DefaultValue WorkerPoolConfig workerPool,
+        @DefaultValue AdmissionConfig admission,
+        @DefaultValue ProbeConfig probe) {
     public record CasparserConfig(@DefaultValue("casparser") String executable) {}
+
+    /**
+     * Long-lived casparser worker processes, started lazily on {@link #executable()} which must be able to import
+     * casparser. When a worker cannot be started, callers fall back to running the casparser CLI once per file.
+     */
+    public record WorkerPoolConfig(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("2") int size,
+            @DefaultValue("100") int maxJobsPerWorker,
+            @DefaultValue("30") int healthCheckIntervalSeconds,
+            @DefaultValue("30") int startupTimeoutSeconds) {}
+
+    /**
+     * Bounds concurrent Python executions, across one-shot processes and pooled workers, to protect the host CPU.
+     */
+    public record AdmissionConfig(
+            @DefaultValue("2") int maxConcurrent,
+            @DefaultValue("8") int maxQueued,
+            @DefaultValue("30") int maxQueueWaitSeconds) {}
+
+    /**
+     * Availability probes of the interpreter and CLI executables are cached for {@code ttlSeconds} and refreshed in
+     * the background once stale, so the hot path never waits on a process fork.
+     */
+    public record ProbeConfig(@DefaultValue("300") int ttlSeconds, @DefaultValue("10") int timeoutSeconds) {}
 }
@@ -0,0 +1,22 @@
+package com.app.folioman.pythonbridge;
+
+/**
+ * Thrown when a Python execution is rejected because all execution slots are busy and the wait queue is full or the
+ * wait timed out. Callers should ask the client to retry later, after {@link #getRetryAfterSeconds()}.
+ */
+public class PythonCapacityExceededException extends PythonExecutionException {
+
+    private final long retryAfterSeconds;
+
+    PythonCapacityExceededException(String message, String command, long retryAfterSeconds) {
+        super(message, -1, null, command);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Seconds after which a retry stands a chance, which is how long a queued execution may wait for a slot.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,10 +1,26 @@
 package com.app.folioman.pythonbridge;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
 
 public final class PythonCommands {
 
+    // Reads the length-prefixed password and the PDF from stdin and writes casparser's JSON to stdout, so nothing
+    // touches disk
+    private static final String CASPARSER_STDIN_SCRIPT = """
+            import io, sys
+            password_length = int(sys.stdin.buffer.readline())
+            password = sys.stdin.buffer.read(password_length).decode("utf-8")
+            pdf = sys.stdin.buffer.read()
+            out = sys.stdout.buffer
+            sys.stdout = sys.stderr
+            import casparser
+            out.write(casparser.read_cas_pdf(io.BytesIO(pdf), password, output="json").encode("utf-8"))
+            out.flush()
+            """;
+
     private PythonCommands() {
         // utility class
     }
@@ -24,4 +40,20 @@ public final class PythonCommands {
     public static PythonCommand cli(String executable, String... args) {
         return new PythonCommand(executable, null, List.of(args), null, null, null);
     }
+
+    /**
+     * Parses a CAS PDF with casparser on the configured interpreter, piping the password and PDF through stdin and
+     * returning the JSON on stdout. Unlike the casparser CLI this needs no temporary files, and the password never
+     * appears on the command line. The password is framed by its byte length rather than a line end, so it may hold
+     * any character, newlines included.
+     */
+    public static PythonCommand casparserJson(byte[] pdf, String password) {
+        byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        byte[] lengthLine = (passwordBytes.length + "\n").getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream input = new ByteArrayOutputStream(lengthLine.length + passwordBytes.length + pdf.length);
+        input.writeBytes(lengthLine);
+        input.writeBytes(passwordBytes);
+        input.writeBytes(pdf);
+        return new PythonCommand(null, "-c", List.of(CASPARSER_STDIN_SCRIPT), null, null, input.toByteArray());
+    }
 }
@@ -0,0 +1,168 @@
+package com.app.folioman.pythonbridge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probes executables once and caches the outcome per executable. A stale result is still served while a virtual
+ * thread refreshes it, so only the very first lookup of an executable ever waits for a process to run.
+ *
+ * <p>The configured interpreter is probed with a short script that also reports whether casparser can be imported;
+ * any other executable, such as the casparser CLI, is probed with {@code --version}.
+ */
+@Component
+class PythonEnvironmentProbe {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PythonEnvironmentProbe.class);
+
+    private static final String INTERPRETER_PROBE = """
+            import sys
+            print(sys.version.split()[0])
+            try:
+                import casparser
+                print(getattr(casparser, "__version__", "unknown"))
+            except Exception:
+                print("")
+            """;
+
+    private final PythonBridgeProperties properties;
+    private final Duration ttl;
+    private final ConcurrentMap<String, Result> results = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    PythonEnvironmentProbe(PythonBridgeProperties properties) {
+        this.properties = properties;
+        this.ttl = Duration.ofSeconds(Math.max(0, properties.probe().ttlSeconds()));
+    }
+
+    /**
+     * Outcome of probing one executable.
+     *
+     * @param resolvedPath     absolute path the executable resolved to on {@code PATH}, if it could be found
+     * @param version          first line of the version output
+     * @param casparserVersion casparser version importable by the interpreter, {@code null} when it cannot be
+     *                         imported or the executable is not the interpreter
+     */
+    record Result(
+            String executable,
+            @Nullable String resolvedPath,
+            boolean available,
+            @Nullable String version,
+            @Nullable String casparserVersion,
+            Instant checkedAt) {
+
+        boolean casparserImportable() {
+            return casparserVersion != null;
+        }
+    }
+
+    Result probe(String executable) {
+        Result cached = results.get(executable);
+        if (cached == null) {
+            // Concurrent first lookups may probe twice, which is harmless and cheaper than holding a lock on the map
+            Result result = run(executable);
+            Result previous = results.putIfAbsent(executable, result);
+            return previous != null ? previous : result;
+        }
+        if (cached.checkedAt().plus(ttl).isBefore(Instant.now()) && refreshing.add(executable)) {
+            Thread.ofVirtual().name("python-probe-refresh").start(() -> {
+                try {
+                    results.put(executable, run(executable));
+                } finally {
+                    refreshing.remove(executable);
+                }
+            });
+        }
+        return cached;
+    }
+
+    private Result run(String executable) {
+        boolean interpreter = executable.equals(properties.executable());
+        @Nullable String resolvedPath = resolve(executable);
+        ProcessBuilder pb = new ProcessBuilder(
+                interpreter ? List.of(executable, "-c", INTERPRETER_PROBE) : List.of(executable, "--version"));
+        pb.redirectErrorStream(true);
+        if (properties.environment() != null) {
+            pb.environment().putAll(properties.environment());
+        }
+
+        int timeoutSeconds = properties.probe().timeoutSeconds();
+        try {
+            Process process = pb.start();
+            // Version output is tiny and fits the pipe buffer, so it can be read after the process exits
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                LOGGER.warn("Probing {} timed out after {} seconds", executable, timeoutSeconds);
+                return unavailable(executable, resolvedPath);
+            }
+            List<String> lines = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8)
+                    .lines()
+                    .map(String::strip)
+                    .toList();
+            if (process.exitValue() != 0) {
+                LOGGER.warn("Probing {} failed with exit code {}: {}", executable, process.exitValue(), lines);
+                return unavailable(executable, resolvedPath);
+            }
+            @Nullable String version = lines.isEmpty() ? null : lines.getFirst();
+            @Nullable String casparserVersion =
+                    interpreter && lines.size() > 1 && !lines.get(1).isEmpty() ? lines.get(1) : null;
+            LOGGER.debug(
+                    "Probed {} at {}: version {}, casparser {}", executable, resolvedPath, version, casparserVersion);
+            return new Result(executable, resolvedPath, true, version, casparserVersion, Instant.now());
+        } catch (IOException e) {
+            LOGGER.warn("Python executable not found or failed to run: {}", executable, e);
+            return unavailable(executable, resolvedPath);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Inconclusive, so make the result stale straight away rather than caching a false negative
+            return new Result(executable, resolvedPath, false, null, null, Instant.EPOCH);
+        }
+    }
+
+    private Result unavailable(String executable, @Nullable String resolvedPath) {
+        return new Result(executable, resolvedPath, false, null, null, Instant.now());
+    }
+
+    private @Nullable String resolve(String executable) {
+        try {
+            Path path = Path.of(executable);
+            if (path.isAbsolute() || path.getNameCount() > 1) {
+                return Files.isExecutable(path) ? path.toAbsolutePath().toString() : null;
+            }
+            Map<String, String> environment = properties.environment();
+            String searchPath = environment != null && environment.containsKey("PATH")
+                    ? environment.get("PATH")
+                    : System.getenv("PATH");
+            if (searchPath == null) {
+                return null;
+            }
+            for (String directory : searchPath.split(File.pathSeparator)) {
+                if (!directory.isEmpty()) {
+                    Path candidate = Path.of(directory, executable);
+                    if (Files.isExecutable(candidate)) {
+                        return candidate.toAbsolutePath().toString();
+                    }
+                }
+            }
+        } catch (InvalidPathException e) {
+            LOGGER.debug("Could not resolve {} on PATH", executable, e);
+        }
+        return null;
+    }
+}
@@ -3,5 +3,25 @@ package com.app.folioman.pythonbridge;
 public interface PythonExecutor {
     PythonResult execute(PythonCommand command);
 
+    /**
+     * Runs the command and hands its stdout to {@code stdoutReader} as it is produced, so large outputs never have
+     * to be buffered. stderr is captured separately and reported if the process exits with a non-zero code.
+     *
+     * @return the value produced by {@code stdoutReader}
+     * @throws PythonExecutionException if the process fails, exceeds the output cap or the reader fails
+     */
+    <T> T execute(PythonCommand command, PythonOutputReader<T> stdoutReader);
+
     boolean isAvailable();
+
+    /**
+     * Whether {@code executable} can be run. The answer comes from a cached probe that is refreshed in the background,
+     * so calling this on a request path does not start a process.
+     */
+    boolean isAvailable(String executable);
+
+    /**
+     * Whether the configured interpreter can import casparser, from the same cached probe as {@link #isAvailable()}.
+     */
+    boolean isCasparserImportable();
 }
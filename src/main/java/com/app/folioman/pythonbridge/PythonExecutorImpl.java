@@ -1,12 +1,18 @@
 package com.app.folioman.pythonbridge;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,56 +26,68 @@ class PythonExecutorImpl implements PythonExecutor {
 
     private final PythonBridgeProperties properties;
     private final JsonMapper jsonMapper;
+    private final PythonAdmissionController admissionController;
+    private final PythonEnvironmentProbe probe;
 
-    private final AtomicBoolean available = new AtomicBoolean(false);
-    private final AtomicBoolean checked = new AtomicBoolean(false);
-
-    PythonExecutorImpl(PythonBridgeProperties properties, JsonMapper jsonMapper) {
+    PythonExecutorImpl(
+            PythonBridgeProperties properties,
+            JsonMapper jsonMapper,
+            PythonAdmissionController admissionController,
+            PythonEnvironmentProbe probe) {
         this.properties = properties;
         this.jsonMapper = jsonMapper;
+        this.admissionController = admissionController;
+        this.probe = probe;
     }
 
     @Override
     public boolean isAvailable() {
-        if (checked.get()) {
-            return available.get();
-        }
-
-        try {
-            ProcessBuilder pb = new ProcessBuilder(properties.executable(), "--version");
-            pb.redirectErrorStream(true);
-            Process p = pb.start();
-            int exitCode = p.waitFor();
-            boolean isAvail = exitCode == 0;
-            available.set(isAvail);
-            checked.set(true);
-            return isAvail;
-        } catch (Exception e) {
-            LOGGER.warn("Python executable not found or failed to run: {}", properties.executable(), e);
-            available.set(false);
-            checked.set(true);
-            return false;
-        }
+        return probe.probe(properties.executable()).available();
     }
 
+    @Override
     public boolean isAvailable(@Nullable String executable) {
-        if (executable == null || executable.equals(properties.executable())) {
-            return isAvailable();
-        }
-        try {
-            ProcessBuilder pb = new ProcessBuilder(executable, "--version");
-            pb.redirectErrorStream(true);
-            Process p = pb.start();
-            int exitCode = p.waitFor();
-            return exitCode == 0;
-        } catch (Exception e) {
-            LOGGER.warn("Custom Python executable not found or failed to run: {}", executable, e);
-            return false;
-        }
+        return probe.probe(executable != null ? executable : properties.executable()).available();
+    }
+
+    @Override
+    public boolean isCasparserImportable() {
+        return probe.probe(properties.executable()).casparserImportable();
     }
 
     @Override
     public PythonResult execute(PythonCommand command) {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        // stderr is merged into stdout here, matching what callers of the buffered API have always seen
+        ProcessRun<Long> run = run(command, true, stream -> stream.transferTo(stdout));
+        return new PythonResult(
+                run.exitCode(), stdout.toByteArray(), run.stderr(), run.executionTimeMillis(), jsonMapper);
+    }
+
+    @Override
+    public <T> T execute(PythonCommand command, PythonOutputReader<T> stdoutReader) {
+        ProcessRun<T> run = run(command, false, stdoutReader);
+        if (run.exitCode() != 0) {
+            throw new PythonExecutionException(
+                    "Python process failed with exit code " + run.exitCode(),
+                    run.exitCode(),
+                    new String(run.stderr(), StandardCharsets.UTF_8),
+                    getCommandString(command));
+        }
+        return run.value();
+    }
+
+    private <T> ProcessRun<T> run(PythonCommand command, boolean mergeStderr, PythonOutputReader<T> stdoutReader) {
+        return admissionController.run(
+                "process", getCommandString(command), () -> runProcess(command, mergeStderr, stdoutReader));
+    }
+
+    /**
+     * Starts the process and drains stdout and stderr on virtual threads while it runs, so a chatty process can never
+     * block on a full pipe buffer. stdin is written on its own thread for the same reason.
+     */
+    private <T> ProcessRun<T> runProcess(
+            PythonCommand command, boolean mergeStderr, PythonOutputReader<T> stdoutReader) {
         String executable = command.customExecutable() != null ? command.customExecutable() : properties.executable();
         if (!isAvailable(executable)) {
             throw new PythonNotFoundException(
@@ -96,19 +114,36 @@ class PythonExecutorImpl implements PythonExecutor {
             pb.environment().putAll(properties.environment());
         }
 
-        pb.redirectErrorStream(true);
+        pb.redirectErrorStream(mergeStderr);
 
         long startTime = System.currentTimeMillis();
+        long maxOutputBytes = properties.maxOutputBytes();
         Process process = null;
+        ExecutorService streams = Executors.newVirtualThreadPerTaskExecutor();
         try {
             process = pb.start();
+            Process running = process;
 
-            try (OutputStream os = process.getOutputStream()) {
-                if (command.inputData() != null) {
-                    os.write(command.inputData());
-                    os.flush();
+            Future<T> stdout = streams.submit(() -> {
+                try (InputStream is = new LimitedInputStream(running.getInputStream(), maxOutputBytes)) {
+                    T value = stdoutReader.read(is);
+                    // Keep draining whatever the reader left behind so the process can run to completion
+                    is.transferTo(OutputStream.nullOutputStream());
+                    return value;
+                } catch (IOException | RuntimeException e) {
+                    running.destroyForcibly();
+                    throw e;
                 }
-            }
+            });
+            Future<byte[]> stderr = streams.submit(() -> {
+                try (InputStream es = new LimitedInputStream(running.getErrorStream(), maxOutputBytes)) {
+                    return es.readAllBytes();
+                } catch (IOException e) {
+                    running.destroyForcibly();
+                    throw e;
+                }
+            });
+            streams.submit(() -> writeInput(running, command.inputData()));
 
             int timeout =
                     command.timeoutSeconds() != null ? command.timeoutSeconds() : properties.defaultTimeoutSeconds();
@@ -121,19 +156,21 @@ class PythonExecutorImpl implements PythonExecutor {
                         "Python process timed out after " + timeout + " seconds", getCommandString(command));
             }
 
-            byte[] output;
-            try (InputStream is = process.getInputStream()) {
-                output = is.readAllBytes();
-            }
-            byte[] errorOutput;
-            try (InputStream es = process.getErrorStream()) {
-                errorOutput = es.readAllBytes();
-            }
-
+            byte[] errorOutput = awaitOutput(stderr, command);
             int exitCode = process.exitValue();
+            T value;
+            try {
+                value = awaitOutput(stdout, command);
+            } catch (PythonExecutionException e) {
+                // A failed process usually leaves unparseable output; its exit code and stderr say more
+                if (exitCode != 0 && !(e.getCause() instanceof OutputLimitExceededException)) {
+                    return new ProcessRun<>(exitCode, null, errorOutput, System.currentTimeMillis() - startTime);
+                }
+                throw e;
+            }
             long executionTime = System.currentTimeMillis() - startTime;
 
-            return new PythonResult(exitCode, output, errorOutput, executionTime, jsonMapper);
+            return new ProcessRun<>(exitCode, value, errorOutput, executionTime);
 
         } catch (IOException e) {
             throw new PythonExecutionException(
@@ -149,6 +186,36 @@ class PythonExecutorImpl implements PythonExecutor {
             if (process != null && process.isAlive()) {
                 process.destroyForcibly();
             }
+            streams.shutdownNow();
+        }
+    }
+
+    private @Nullable Void writeInput(Process process, byte @Nullable [] inputData) {
+        try (OutputStream os = process.getOutputStream()) {
+            if (inputData != null) {
+                os.write(inputData);
+                os.flush();
+            }
+        } catch (IOException e) {
+            // The process may legitimately exit without reading all of its input
+            LOGGER.debug("Could not write input to Python process: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private <T> T awaitOutput(Future<T> output, PythonCommand command) throws InterruptedException {
+        try {
+            return output.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OutputLimitExceededException) {
+                throw new PythonExecutionException(cause.getMessage(), cause, -1, null, getCommandString(command));
+            }
+            if (cause instanceof PythonExecutionException pythonExecutionException) {
+                throw pythonExecutionException;
+            }
+            throw new PythonExecutionException(
+                    "Failed to read Python process output", cause, -1, null, getCommandString(command));
         }
     }
 
@@ -157,4 +224,53 @@ class PythonExecutorImpl implements PythonExecutor {
         return exec + " " + (command.script() != null ? command.script() + " " : "")
                 + String.join(" ", command.arguments());
     }
+
+    private record ProcessRun<T>(int exitCode, @Nullable T value, byte[] stderr, long executionTimeMillis) {}
+
+    /**
+     * Fails the read once more than {@code limit} bytes have been consumed, so a runaway process cannot exhaust the
+     * heap. A non-positive limit disables the cap.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long consumed;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit > 0 ? limit : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws OutputLimitExceededException {
+            consumed += n;
+            if (consumed > limit) {
+                throw new OutputLimitExceededException("Python process output exceeded " + limit + " bytes");
+            }
+        }
+    }
+
+    private static final class OutputLimitExceededException extends IOException {
+
+        private OutputLimitExceededException(String message) {
+            super(message);
+        }
+    }
 }
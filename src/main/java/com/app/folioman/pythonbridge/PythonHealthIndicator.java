@@ -0,0 +1,54 @@
+package com.app.folioman.pythonbridge;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether CAS PDFs can be parsed, either on pooled workers (the interpreter can import casparser) or with the
+ * casparser CLI. Backed by the cached probes, so health checks do not fork processes on every call.
+ *
+ * <p>casparser is optional, so when neither is usable the status is {@code UNKNOWN} rather than {@code DOWN}: it ranks
+ * below {@code UP} and leaves the aggregate health of the application unaffected.
+ */
+@Component
+class PythonHealthIndicator implements HealthIndicator {
+
+    private final PythonEnvironmentProbe probe;
+    private final PythonBridgeProperties properties;
+
+    PythonHealthIndicator(PythonEnvironmentProbe probe, PythonBridgeProperties properties) {
+        this.probe = probe;
+        this.properties = properties;
+    }
+
+    @Override
+    public Health health() {
+        PythonEnvironmentProbe.Result interpreter = probe.probe(properties.executable());
+        PythonEnvironmentProbe.Result cli = probe.probe(properties.casparser().executable());
+        boolean workersUsable = properties.workerPool().enabled() && interpreter.casparserImportable();
+        Health.Builder builder = workersUsable || cli.available() ? Health.up() : Health.unknown();
+        return builder.withDetail("interpreter", details(interpreter))
+                .withDetail("casparserCli", details(cli))
+                .build();
+    }
+
+    private Map<String, Object> details(PythonEnvironmentProbe.Result result) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("executable", result.executable());
+        details.put("available", result.available());
+        if (result.resolvedPath() != null) {
+            details.put("path", result.resolvedPath());
+        }
+        if (result.version() != null) {
+            details.put("version", result.version());
+        }
+        if (result.casparserVersion() != null) {
+            details.put("casparser", result.casparserVersion());
+        }
+        details.put("checkedAt", result.checkedAt());
+        return details;
+    }
+}
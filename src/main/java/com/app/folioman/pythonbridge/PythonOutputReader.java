@@ -0,0 +1,15 @@
+package com.app.folioman.pythonbridge;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes a Python process's stdout while the process is still running, e.g. by parsing it as JSON.
+ *
+ * @param <T> the value produced from the output
+ */
+@FunctionalInterface
+public interface PythonOutputReader<T> {
+
+    T read(InputStream stdout) throws IOException;
+}
@@ -0,0 +1,135 @@
+package com.app.folioman.pythonbridge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One long-lived Python process speaking the length-prefixed frame protocol of {@code casparser_worker.py}. A worker
+ * serves one request at a time; the pool guarantees exclusive use between borrow and release.
+ */
+final class PythonWorker implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PythonWorker.class);
+
+    // Upper bound for a single frame, well above the largest CAS JSON casparser produces
+    private static final int MAX_FRAME_BYTES = 256 * 1024 * 1024;
+
+    private final Process process;
+    private final DataOutputStream requests;
+    private final DataInputStream responses;
+    private final ScheduledExecutorService watchdog;
+    private final String command;
+    private int jobsHandled;
+
+    PythonWorker(Process process, ScheduledExecutorService watchdog, String command) {
+        this.process = process;
+        this.requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        this.watchdog = watchdog;
+        this.command = command;
+    }
+
+    record Response(byte[] status, byte[] body) {}
+
+    /**
+     * Waits for the next response without sending anything, used for the start-up announcement.
+     */
+    Response receive(int timeoutSeconds) {
+        return exchange(null, null, timeoutSeconds);
+    }
+
+    Response call(byte[] header, byte[] body, int timeoutSeconds) {
+        return exchange(header, body, timeoutSeconds);
+    }
+
+    private Response exchange(byte @Nullable [] header, byte @Nullable [] body, int timeoutSeconds) {
+        // Blocking pipe reads cannot time out, so a watchdog kills the process and the read fails instead
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        ScheduledFuture<?> kill = watchdog.schedule(
+                () -> {
+                    timedOut.set(true);
+                    process.destroyForcibly();
+                },
+                timeoutSeconds,
+                TimeUnit.SECONDS);
+        try {
+            if (header != null && body != null) {
+                writeFrame(header);
+                writeFrame(body);
+                requests.flush();
+            }
+            return new Response(readFrame(), readFrame());
+        } catch (IOException e) {
+            process.destroyForcibly();
+            if (timedOut.get()) {
+                throw new PythonTimeoutException(
+                        "Python worker did not respond within " + timeoutSeconds + " seconds", command);
+            }
+            throw new PythonWorkerUnavailableException("Python worker " + pid() + " stopped responding", e, command);
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    private void writeFrame(byte[] payload) throws IOException {
+        requests.writeInt(payload.length);
+        requests.write(payload);
+    }
+
+    private byte[] readFrame() throws IOException {
+        int length = responses.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length from Python worker: " + length);
+        }
+        byte[] payload = responses.readNBytes(length);
+        if (payload.length < length) {
+            throw new EOFException("Python worker closed the stream mid-frame");
+        }
+        return payload;
+    }
+
+    void recordJob() {
+        jobsHandled++;
+    }
+
+    int jobsHandled() {
+        return jobsHandled;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    @Override
+    public void close() {
+        // Closing stdin ends the worker's read loop; only force it down if it does not exit on its own
+        try {
+            requests.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close stdin of Python worker {}", pid(), e);
+        }
+        try {
+            if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.app.folioman.pythonbridge;
+
+/**
+ * Thrown when no long-lived Python worker could serve a request, as opposed to the worker reporting that the request
+ * itself failed. Callers can safely retry the request in one-shot mode.
+ */
+public class PythonWorkerUnavailableException extends PythonExecutionException {
+
+    PythonWorkerUnavailableException(String message, String command) {
+        super(message, -1, null, command);
+    }
+
+    PythonWorkerUnavailableException(String message, Throwable cause, String command) {
+        super(message, cause, -1, null, command);
+    }
+}
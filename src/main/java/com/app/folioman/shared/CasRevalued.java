@@ -0,0 +1,8 @@
+package com.app.folioman.shared;
+
+/**
+ * Published when the scheme, folio and portfolio values of a CAS were recomputed.
+ *
+ * @param userCasId id of the revalued CAS
+ */
+public record CasRevalued(Long userCasId) {}
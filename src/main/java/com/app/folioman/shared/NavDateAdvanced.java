@@ -0,0 +1,12 @@
+package com.app.folioman.shared;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published once per NAV load when NAVs of a newer date were loaded for some schemes.
+ *
+ * @param navDate the latest date among the loaded NAVs
+ * @param amfiCodes AMFI codes of the schemes that have a NAV for that date
+ */
+public record NavDateAdvanced(LocalDate navDate, List<Long> amfiCodes) {}
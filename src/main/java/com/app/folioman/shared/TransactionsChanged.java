@@ -0,0 +1,8 @@
+package com.app.folioman.shared;
+
+/**
+ * Published when the transactions of a CAS were added or changed, for example by an upload.
+ *
+ * @param userCasId id of the CAS whose transactions changed
+ */
+public record TransactionsChanged(Long userCasId) {}
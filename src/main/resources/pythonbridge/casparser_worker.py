@@ -0,0 +1,69 @@
+"""Long-lived casparser worker used by the pythonbridge worker pool.
+
+Every message is a frame: a 4-byte big-endian length followed by that many bytes. A request is a JSON header frame
+followed by a body frame, and every response is a JSON status frame followed by a body frame. The worker announces
+itself with a status frame once casparser has been imported and exits when stdin is closed.
+"""
+
+import io
+import json
+import struct
+import sys
+
+
+def read_frame(stream):
+    prefix = stream.read(4)
+    if len(prefix) < 4:
+        return None
+    (length,) = struct.unpack(">I", prefix)
+    payload = stream.read(length)
+    if len(payload) < length:
+        return None
+    return payload
+
+
+def write_frame(stream, payload):
+    stream.write(struct.pack(">I", len(payload)))
+    stream.write(payload)
+
+
+def respond(stream, status, body=b""):
+    write_frame(stream, json.dumps(status).encode("utf-8"))
+    write_frame(stream, body)
+    stream.flush()
+
+
+def main():
+    requests = sys.stdin.buffer
+    responses = sys.stdout.buffer
+    # Anything printed by casparser must not end up in the protocol stream
+    sys.stdout = sys.stderr
+
+    try:
+        import casparser
+    except Exception as e:
+        respond(responses, {"ok": False, "error": "casparser import failed: %s" % e})
+        return 1
+    respond(responses, {"ok": True, "version": getattr(casparser, "__version__", "unknown")})
+
+    while True:
+        header = read_frame(requests)
+        body = read_frame(requests) if header is not None else None
+        if body is None:
+            return 0
+        request = json.loads(header)
+        op = request.get("op")
+        if op == "ping":
+            respond(responses, {"ok": True})
+        elif op == "parse":
+            try:
+                parsed = casparser.read_cas_pdf(io.BytesIO(body), request.get("password", ""), output="json")
+                respond(responses, {"ok": True}, parsed.encode("utf-8"))
+            except Exception as e:
+                respond(responses, {"ok": False, "error": "%s: %s" % (type(e).__name__, e)})
+        else:
+            respond(responses, {"ok": False, "error": "unknown op: %s" % op})
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 
 import com.app.folioman.mfschemes.NavNotFoundException;
 import com.app.folioman.mfschemes.SchemeNotFoundException;
+import com.app.folioman.pythonbridge.PythonCapacityExceededException;
 import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDate;
 import java.util.List;
@@ -144,6 +145,21 @@ class GlobalExceptionHandlerTest {
         assertThat(result.getTitle()).isEqualTo("NAV Not Found");
     }
 
+    @Test
+    void onException_PythonCapacityExceededException_ShouldReturnTooManyRequests() {
+        PythonCapacityExceededException exception = mock(PythonCapacityExceededException.class);
+        when(exception.getMessage()).thenReturn("Too many Python executions in progress, try again later");
+        when(exception.getRetryAfterSeconds()).thenReturn(45L);
+
+        ResponseEntity<ProblemDetail> result = globalExceptionHandler.onException(exception);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(result.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("45");
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody().getTitle()).isEqualTo("Too Many Requests");
+        assertThat(result.getBody().getDetail()).isEqualTo("Too many Python executions in progress, try again later");
+    }
+
     @Test
     void onException_ConstraintViolationException_ShouldReturnProblemDetail() {
         String errorMessage = "Constraint violation occurred";
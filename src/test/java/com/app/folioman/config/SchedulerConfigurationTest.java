@@ -8,7 +8,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.app.folioman.config.db.PartitionMaintenance;
 import com.app.folioman.config.redis.AdaptiveStrategyScheduler;
+import com.app.folioman.config.redis.Monitor;
 import com.app.folioman.mfschemes.MFNavService;
 import com.app.folioman.portfolio.UserSchemeDetailService;
 import org.jobrunr.scheduling.BackgroundJob;
@@ -35,6 +37,12 @@ class SchedulerConfigurationTest {
     @Mock
     private SchedulerProperties schedulerProperties;
 
+    @Mock
+    private PartitionMaintenance partitionMaintenance;
+
+    @Mock
+    private Monitor monitor;
+
     @Mock
     private ApplicationStartedEvent applicationStartedEvent;
 
@@ -43,20 +51,29 @@ class SchedulerConfigurationTest {
     @BeforeEach
     void setUp() {
         schedulerConfiguration = new SchedulerConfiguration(
-                userSchemeDetailService, mfNavService, adaptiveStrategyScheduler, schedulerProperties);
+                userSchemeDetailService,
+                mfNavService,
+                adaptiveStrategyScheduler,
+                schedulerProperties,
+                partitionMaintenance,
+                monitor);
     }
 
     @Test
-    void scheduleAllJobs_ShouldScheduleAllFourJobs() {
+    void scheduleAllJobs_ShouldScheduleAllSixJobs() {
         String amfiCron = "0 0 1 * * ?";
         String historicalNavCron = "0 0 2 * * ?";
         String dailyDataCron = "0 0 3 * * ?";
         String adaptiveStrategyCron = "0 0 4 * * ?";
+        String partitionMaintenanceCron = "0 0 5 1 * ?";
+        String cacheKeyCountCron = "0 7 * * * ?";
 
         when(schedulerProperties.getAmfiJobCron()).thenReturn(amfiCron);
         when(schedulerProperties.getHistoricalNavJobCron()).thenReturn(historicalNavCron);
         when(schedulerProperties.getDailyDataJobCron()).thenReturn(dailyDataCron);
         when(schedulerProperties.getAdaptiveStrategyJobCron()).thenReturn(adaptiveStrategyCron);
+        when(schedulerProperties.getPartitionMaintenanceJobCron()).thenReturn(partitionMaintenanceCron);
+        when(schedulerProperties.getCacheKeyCountJobCron()).thenReturn(cacheKeyCountCron);
 
         try (MockedStatic<BackgroundJob> backgroundJobMock = mockStatic(BackgroundJob.class)) {
             schedulerConfiguration.scheduleAllJobs(applicationStartedEvent);
@@ -74,6 +91,16 @@ class SchedulerConfigurationTest {
                     eq("adaptive-cache-strategy"),
                     eq(adaptiveStrategyCron),
                     any(org.jobrunr.jobs.lambdas.JobLambda.class)));
+
+            backgroundJobMock.verify(() -> BackgroundJob.scheduleRecurrently(
+                    eq("yearly-partition-maintenance"),
+                    eq(partitionMaintenanceCron),
+                    any(org.jobrunr.jobs.lambdas.JobLambda.class)));
+
+            backgroundJobMock.verify(() -> BackgroundJob.scheduleRecurrently(
+                    eq("cache-key-count-reconcile"),
+                    eq(cacheKeyCountCron),
+                    any(org.jobrunr.jobs.lambdas.JobLambda.class)));
         }
 
         // Each getter is invoked once for logging and once when passed to BackgroundJob.scheduleRecurrently
@@ -81,6 +108,8 @@ class SchedulerConfigurationTest {
         verify(schedulerProperties, times(2)).getHistoricalNavJobCron();
         verify(schedulerProperties, times(2)).getDailyDataJobCron();
         verify(schedulerProperties, times(2)).getAdaptiveStrategyJobCron();
+        verify(schedulerProperties, times(2)).getPartitionMaintenanceJobCron();
+        verify(schedulerProperties, times(2)).getCacheKeyCountJobCron();
     }
 
     @Test
@@ -89,6 +118,8 @@ class SchedulerConfigurationTest {
         when(schedulerProperties.getHistoricalNavJobCron()).thenReturn("0 0 2 * * ?");
         when(schedulerProperties.getDailyDataJobCron()).thenReturn("0 0 3 * * ?");
         when(schedulerProperties.getAdaptiveStrategyJobCron()).thenReturn("0 0 4 * * ?");
+        when(schedulerProperties.getPartitionMaintenanceJobCron()).thenReturn("0 0 5 1 * ?");
+        when(schedulerProperties.getCacheKeyCountJobCron()).thenReturn("0 7 * * * ?");
 
         try (MockedStatic<BackgroundJob> backgroundJobMock = mockStatic(BackgroundJob.class)) {
             schedulerConfiguration.scheduleAllJobs(applicationStartedEvent);
@@ -96,7 +127,7 @@ class SchedulerConfigurationTest {
             backgroundJobMock.verify(
                     () -> BackgroundJob.scheduleRecurrently(
                             anyString(), anyString(), any(org.jobrunr.jobs.lambdas.JobLambda.class)),
-                    times(4));
+                    times(6));
         }
     }
 
@@ -106,6 +137,8 @@ class SchedulerConfigurationTest {
         when(schedulerProperties.getHistoricalNavJobCron()).thenReturn("0 0 2 * * ?");
         when(schedulerProperties.getDailyDataJobCron()).thenReturn("0 0 3 * * ?");
         when(schedulerProperties.getAdaptiveStrategyJobCron()).thenReturn("0 0 4 * * ?");
+        when(schedulerProperties.getPartitionMaintenanceJobCron()).thenReturn("0 0 5 1 * ?");
+        when(schedulerProperties.getCacheKeyCountJobCron()).thenReturn("0 7 * * * ?");
 
         try (MockedStatic<BackgroundJob> backgroundJobMock = mockStatic(BackgroundJob.class)) {
             schedulerConfiguration.scheduleAllJobs(applicationStartedEvent);
@@ -121,6 +154,14 @@ class SchedulerConfigurationTest {
 
             backgroundJobMock.verify(() -> BackgroundJob.scheduleRecurrently(
                     eq("adaptive-cache-strategy"), anyString(), any(org.jobrunr.jobs.lambdas.JobLambda.class)));
+
+            backgroundJobMock.verify(() -> BackgroundJob.scheduleRecurrently(
+                    eq("yearly-partition-maintenance"),
+                    anyString(),
+                    any(org.jobrunr.jobs.lambdas.JobLambda.class)));
+
+            backgroundJobMock.verify(() -> BackgroundJob.scheduleRecurrently(
+                    eq("cache-key-count-reconcile"), anyString(), any(org.jobrunr.jobs.lambdas.JobLambda.class)));
         }
     }
 }
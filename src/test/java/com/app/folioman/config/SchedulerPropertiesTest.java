@@ -157,4 +157,28 @@ class SchedulerPropertiesTest {
         schedulerProperties.setSchemeSyncJobCron("");
         assertThat(schedulerProperties.getSchemeSyncJobCron()).isEmpty();
     }
+
+    @Test
+    void defaultPartitionMaintenanceJobCron() {
+        assertThat(schedulerProperties.getPartitionMaintenanceJobCron()).isEqualTo("0 0 2 1 * *");
+    }
+
+    @Test
+    void setAndGetPartitionMaintenanceJobCron() {
+        String cronExpression = "0 0 3 * * *";
+        schedulerProperties.setPartitionMaintenanceJobCron(cronExpression);
+        assertThat(schedulerProperties.getPartitionMaintenanceJobCron()).isEqualTo(cronExpression);
+    }
+
+    @Test
+    void defaultCacheKeyCountJobCron() {
+        assertThat(schedulerProperties.getCacheKeyCountJobCron()).isEqualTo("0 7 * * * *");
+    }
+
+    @Test
+    void setAndGetCacheKeyCountJobCron() {
+        String cronExpression = "0 30 * * * *";
+        schedulerProperties.setCacheKeyCountJobCron(cronExpression);
+        assertThat(schedulerProperties.getCacheKeyCountJobCron()).isEqualTo(cronExpression);
+    }
 }
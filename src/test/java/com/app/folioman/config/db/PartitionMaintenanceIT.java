@@ -0,0 +1,68 @@
+package com.app.folioman.config.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.app.folioman.shared.AbstractIntegrationTest;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class PartitionMaintenanceIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private PartitionMaintenance partitionMaintenance;
+
+    @ParameterizedTest
+    @CsvSource({"mfschemes, mf_scheme_nav", "portfolio, scheme_value"})
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ_WRITE)
+    void maintainPartitions_ShouldCreateComingYearsAndIndexClosedYears(String schema, String table) {
+        int currentYear = LocalDate.now().getYear();
+        String lastPartition = table + "_y" + (currentYear + 2);
+        // Remove what the job is responsible for, so the assertions below can only pass if it recreates them
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + schema + "." + lastPartition);
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + schema + "." + table + "_archive_brin");
+        });
+
+        partitionMaintenance.maintainPartitions();
+        partitionMaintenance.maintainPartitions();
+
+        assertThat(partitionsOf(schema, table))
+                .contains(
+                        table + "_archive",
+                        table + "_y" + currentYear,
+                        table + "_y" + (currentYear + 1),
+                        lastPartition);
+        assertThat(brinIndexedPartitionsOf(schema, table))
+                .contains(table + "_archive", table + "_y2006", table + "_y" + (currentYear - 1))
+                .doesNotContain(table + "_y" + currentYear, lastPartition);
+    }
+
+    private List<String> partitionsOf(String schema, String table) {
+        return jdbcTemplate.queryForList(
+                """
+                SELECT c.relname::TEXT
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = CAST(? AS REGCLASS)
+                """,
+                String.class,
+                schema + "." + table);
+    }
+
+    private List<String> brinIndexedPartitionsOf(String schema, String table) {
+        return jdbcTemplate.queryForList(
+                """
+                SELECT tablename::TEXT
+                FROM pg_indexes
+                WHERE schemaname = ? AND tablename LIKE ? AND indexdef LIKE '%USING brin%'
+                """,
+                String.class,
+                schema,
+                table + "\\_%");
+    }
+}
@@ -43,6 +43,9 @@ class AdaptiveStrategySchedulerTest {
     @Mock
     private RedisAppProperties.AdaptiveStrategy adaptiveStrategy;
 
+    @Mock
+    private CacheTtlController cacheTtlController;
+
     @InjectMocks
     private AdaptiveStrategyScheduler adaptiveStrategyScheduler;
 
@@ -71,6 +74,41 @@ class AdaptiveStrategySchedulerTest {
         verify(cacheAdapter).setPolicy(cachePolicy);
     }
 
+    @Test
+    void adaptStrategy_WhenCircuitBreakerOpen_ShouldSkipEvaluation() {
+        testMetrics.put("circuitBreakerState", "OPEN");
+        given(monitor.getMetrics()).willReturn(testMetrics);
+
+        adaptiveStrategyScheduler.adaptStrategy();
+
+        verify(evaluator, never()).evaluate(any());
+        verify(cacheAdapter, never()).setPolicy(any());
+        verify(cacheTtlController, never()).adjust();
+    }
+
+    @Test
+    void adaptStrategy_ShouldTuneTtlsPerCache() {
+        given(monitor.getMetrics()).willReturn(testMetrics);
+        given(evaluator.evaluate(testMetrics)).willReturn("LRU_STRATEGY");
+        given(policyRepository.getPolicy("LRU_STRATEGY")).willReturn(cachePolicy);
+
+        adaptiveStrategyScheduler.adaptStrategy();
+
+        verify(cacheTtlController).adjust();
+    }
+
+    @Test
+    void adaptStrategy_WithGlobalTtlStrategy_ShouldNotApplyIt() {
+        given(monitor.getMetrics()).willReturn(testMetrics);
+        given(evaluator.evaluate(testMetrics)).willReturn("ADJUST_TTL");
+
+        adaptiveStrategyScheduler.adaptStrategy();
+
+        verify(cacheTtlController).adjust();
+        verify(policyRepository, never()).getPolicy(anyString());
+        verify(cacheAdapter, never()).setPolicy(any());
+    }
+
     @Test
     void adaptStrategy_SameStrategyBelowThreshold_ShouldSkipApplication() {
         String strategy = "LRU_STRATEGY";
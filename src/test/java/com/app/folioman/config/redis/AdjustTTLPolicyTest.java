@@ -10,7 +10,6 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.util.HashSet;
@@ -32,7 +31,7 @@ class AdjustTTLPolicyTest {
     private MeterRegistry meterRegistry;
 
     @Mock
-    private Counter counter;
+    private HotKeySketch hotKeySketch;
 
     @InjectMocks
     private AdjustTTLPolicy adjustTTLPolicy;
@@ -68,22 +67,20 @@ class AdjustTTLPolicyTest {
     void apply_WhenCacheHasKeys_ShouldAdjustTTLBasedOnAccessCount() {
         Set<String> keys = Set.of("key1", "key2::suffix", "prefixSimpleKeyTest");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(25.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(25L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
         verify(redisTemplate).keys("*");
         verify(redisTemplate, times(3)).expire(anyString(), any(Duration.class));
-        verify(meterRegistry, times(3)).counter(eq("cache.access"), eq("key"), anyString());
+        verify(hotKeySketch, times(3)).estimate(anyString());
     }
 
     @Test
     void apply_WithHighAccessCount_ShouldSetMaxTTL() {
         Set<String> keys = Set.of("highAccessKey");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(100.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(100L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
@@ -94,8 +91,7 @@ class AdjustTTLPolicyTest {
     void apply_WithLowAccessCount_ShouldSetMinTTL() {
         Set<String> keys = Set.of("lowAccessKey");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(5.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(5L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
@@ -106,8 +102,7 @@ class AdjustTTLPolicyTest {
     void apply_WithMediumAccessCount_ShouldCalculateProportionalTTL() {
         Set<String> keys = Set.of("mediumAccessKey");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(30.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(30L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
@@ -115,47 +110,43 @@ class AdjustTTLPolicyTest {
     }
 
     @Test
-    void apply_WithSimpleKeyFormat_ShouldExtractKeyCorrectly() {
+    void apply_WithSimpleKeyFormat_ShouldLookUpFullRedisKey() {
         Set<String> keys = Set.of("prefixSimpleKeyTest");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(25.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(25L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
-        verify(meterRegistry).counter("cache.access", "key", "SimpleKeyTest");
+        verify(hotKeySketch).estimate("prefixSimpleKeyTest");
     }
 
     @Test
-    void apply_WithDoubleColonFormat_ShouldExtractKeyCorrectly() {
+    void apply_WithDoubleColonFormat_ShouldLookUpFullRedisKey() {
         Set<String> keys = Set.of("prefix::actualKey");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(25.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(25L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
-        verify(meterRegistry).counter("cache.access", "key", "actualKey");
+        verify(hotKeySketch).estimate("prefix::actualKey");
     }
 
     @Test
     void apply_WithRegularKey_ShouldUseKeyAsIs() {
         Set<String> keys = Set.of("regularKey");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(25.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(25L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
-        verify(meterRegistry).counter("cache.access", "key", "regularKey");
+        verify(hotKeySketch).estimate("regularKey");
     }
 
     @Test
     void apply_WithAccessCountExactly50_ShouldNotSetMaxTTL() {
         Set<String> keys = Set.of("exactFiftyKey");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(50.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(50L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
@@ -167,8 +158,7 @@ class AdjustTTLPolicyTest {
     void apply_WithAccessCountExactly10_ShouldNotSetMinTTL() {
         Set<String> keys = Set.of("exactTenKey");
         when(redisTemplate.keys("*")).thenReturn(keys);
-        when(counter.count()).thenReturn(10.0);
-        when(meterRegistry.counter(eq("cache.access"), eq("key"), anyString())).thenReturn(counter);
+        when(hotKeySketch.estimate(anyString())).thenReturn(10L);
 
         adjustTTLPolicy.apply(redisTemplate, meterRegistry);
 
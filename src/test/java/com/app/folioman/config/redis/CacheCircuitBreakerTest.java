@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,16 +18,18 @@ import org.springframework.data.redis.RedisConnectionFailureException;
 @ExtendWith(MockitoExtension.class)
 class CacheCircuitBreakerTest {
 
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private CacheCircuitBreaker cacheCircuitBreaker;
 
     @BeforeEach
     void setUp() {
-        cacheCircuitBreaker = new CacheCircuitBreaker(50.0f, 30, 100);
+        cacheCircuitBreaker = new CacheCircuitBreaker(50.0f, 30, 100, meterRegistry);
     }
 
     @Test
     void constructor_WithDefaultValues_ShouldCreateCircuitBreaker() {
-        CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(50.0f, 30, 100);
+        CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(50.0f, 30, 100, meterRegistry);
 
         assertThat(circuitBreaker).isNotNull();
         assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
@@ -33,7 +37,7 @@ class CacheCircuitBreakerTest {
 
     @Test
     void constructor_WithCustomValues_ShouldCreateCircuitBreaker() {
-        CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(75.0f, 60, 200);
+        CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(75.0f, 60, 200, meterRegistry);
 
         assertThat(circuitBreaker).isNotNull();
         assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
@@ -168,4 +172,42 @@ class CacheCircuitBreakerTest {
     void execute_WithNullSupplier_ShouldThrowException() {
         assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> cacheCircuitBreaker.execute(null));
     }
+
+    @Test
+    void constructor_ShouldPublishStateGauges() {
+        assertThat(meterRegistry
+                        .get("resilience4j.circuitbreaker.state")
+                        .tag("name", "redisCache")
+                        .tag("state", "closed")
+                        .gauge()
+                        .value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_WhenFailuresOpenTheCircuit_ShouldCountTransitionAndUpdateGauges() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(50.0f, 30, 2, registry);
+        Supplier<String> failing = () -> {
+            throw new RedisConnectionFailureException("Redis connection failed");
+        };
+
+        circuitBreaker.execute(failing);
+        circuitBreaker.execute(failing);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(registry
+                        .get("cache.circuit-breaker.transitions")
+                        .tag("from", "closed")
+                        .tag("to", "open")
+                        .counter()
+                        .count())
+                .isEqualTo(1.0);
+        assertThat(registry
+                        .get("resilience4j.circuitbreaker.state")
+                        .tag("state", "open")
+                        .gauge()
+                        .value())
+                .isEqualTo(1.0);
+    }
 }
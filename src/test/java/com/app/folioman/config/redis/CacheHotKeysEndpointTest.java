@@ -0,0 +1,39 @@
+package com.app.folioman.config.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CacheHotKeysEndpointTest {
+
+    @Test
+    void hotKeys_ShouldReportHashedKeysWithoutPansOrEmails() {
+        RedisAppProperties properties = new RedisAppProperties();
+        properties.getHotKeys().setSampleRate(1);
+        HotKeySketch sketch = new HotKeySketch(properties);
+        sketch.record("returnsCache", "returns_ABCDE1234F");
+        sketch.record("portfolioSummaryCache", "summary_7_investor@example.com");
+        CacheHotKeysEndpoint endpoint = new CacheHotKeysEndpoint(sketch, properties);
+
+        List<HotKeySketch.HotKey> keys = endpoint.hotKeys().keys();
+
+        assertThat(keys).hasSize(2);
+        assertThat(keys)
+                .extracting(HotKeySketch.HotKey::key)
+                .allSatisfy(key -> assertThat(key)
+                        .doesNotContain("ABCDE1234F")
+                        .doesNotContain("investor@example.com")
+                        .matches("(returns|summary)_[0-9a-f]{16}"));
+    }
+
+    @Test
+    void redact_ShouldBeStablePerInstanceAndDistinguishKeys() {
+        RedisAppProperties properties = new RedisAppProperties();
+        CacheHotKeysEndpoint endpoint = new CacheHotKeysEndpoint(new HotKeySketch(properties), properties);
+
+        assertThat(endpoint.redact("monthly_PAN1")).isEqualTo(endpoint.redact("monthly_PAN1"));
+        assertThat(endpoint.redact("monthly_PAN1")).isNotEqualTo(endpoint.redact("monthly_PAN2"));
+        assertThat(endpoint.redact("nokeyprefix")).matches("[0-9a-f]{16}");
+    }
+}
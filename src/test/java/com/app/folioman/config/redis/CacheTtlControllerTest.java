@@ -0,0 +1,179 @@
+package com.app.folioman.config.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class CacheTtlControllerTest {
+
+    private static final String SUMMARY = "summary";
+    private static final String HISTORY = "history";
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Monitor.CacheStats EMPTY = new Monitor.CacheStats(0, 0, 0, 0, 0, 0, 0, 0);
+
+    // 900 hits on 100 keys of 1KB that take 200ms each to compute
+    private static final Monitor.CacheStats VALUABLE =
+            new Monitor.CacheStats(900, 100, 0, 100, 20_000, 100, 102_400, 100);
+    // 100 hits on 100 keys of 100KB that take 10ms each to compute
+    private static final Monitor.CacheStats CHEAP =
+            new Monitor.CacheStats(100, 100, 0, 100, 1_000, 100, 10_240_000, 100);
+
+    @Mock
+    private Monitor monitor;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private Clock clock;
+
+    private CacheTtlController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new CacheTtlController(monitor, stringRedisTemplate, clock);
+        controller.ttlFunction(SUMMARY, Duration.ofMinutes(15), null);
+        controller.ttlFunction(HISTORY, Duration.ofHours(1), null);
+    }
+
+    @Test
+    void ttlFunction_WithFixedTtlCache_ShouldReturnNull() {
+        assertThat(controller.ttlFunction(CacheNames.UPLOAD_FINGERPRINT_CACHE, Duration.ofHours(1), null))
+                .isNull();
+        assertThat(controller.currentTtl(CacheNames.UPLOAD_FINGERPRINT_CACHE)).isNull();
+    }
+
+    @Test
+    void ttlFunction_WithoutExpiry_ShouldReturnNull() {
+        assertThat(controller.ttlFunction("eternal", Duration.ZERO, null)).isNull();
+    }
+
+    @Test
+    void ttlFunction_ShouldNotCallRedis() {
+        RedisCacheWriter.TtlFunction ttlFunction = controller.ttlFunction(SUMMARY, Duration.ofMinutes(15), null);
+
+        assertThat(ttlFunction.getTimeToLive("key", "value")).isEqualTo(Duration.ofMinutes(15));
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void refreshTtls_ShouldPickUpPublishedTtlWithinBounds() {
+        givenPublishedTtls(Map.of(SUMMARY, "1200", HISTORY, "99999"));
+        RedisCacheWriter.TtlFunction ttlFunction = controller.ttlFunction(SUMMARY, Duration.ofMinutes(15), null);
+
+        controller.refreshTtls();
+
+        assertThat(ttlFunction.getTimeToLive("key", "value")).isEqualTo(Duration.ofMinutes(20));
+        assertThat(controller.currentTtl(HISTORY)).isEqualTo(Duration.ofHours(4));
+    }
+
+    @Test
+    void refreshTtls_WithSoftTtl_ShouldKeepTtlWellAboveIt() {
+        givenPublishedTtls(Map.of("staleHistory", "60", "staleSummary", "60"));
+        controller.ttlFunction("staleHistory", Duration.ofHours(24), Duration.ofHours(6));
+        controller.ttlFunction("staleSummary", Duration.ofHours(1), Duration.ofMinutes(45));
+
+        controller.refreshTtls();
+
+        assertThat(controller.currentTtl("staleHistory")).isEqualTo(Duration.ofHours(12));
+        // Twice the soft TTL is above the configured TTL, which is then never lowered
+        assertThat(controller.currentTtl("staleSummary")).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void adjust_OnFirstRun_ShouldOnlyTakeBaseline() {
+        givenPublishedTtls(Map.of());
+        given(clock.instant()).willReturn(START);
+        given(monitor.getCacheStats(SUMMARY)).willReturn(EMPTY);
+        given(monitor.getCacheStats(HISTORY)).willReturn(EMPTY);
+
+        controller.adjust();
+
+        verify(hashOperations, never()).putAll(any(), any());
+        assertThat(controller.currentTtl(SUMMARY)).isEqualTo(Duration.ofMinutes(15));
+    }
+
+    @Test
+    void adjust_ShouldShiftTtlTowardsCacheSavingMoreTimePerByte() {
+        givenPublishedTtls(Map.of());
+        given(clock.instant()).willReturn(START, START.plusSeconds(60));
+        given(monitor.getCacheStats(SUMMARY)).willReturn(EMPTY, VALUABLE);
+        given(monitor.getCacheStats(HISTORY)).willReturn(EMPTY, CHEAP);
+
+        controller.adjust();
+        controller.adjust();
+
+        // Both are far from the average, so each moves by the largest step only
+        assertThat(controller.currentTtl(SUMMARY)).isEqualTo(Duration.ofSeconds(1125));
+        assertThat(controller.currentTtl(HISTORY)).isEqualTo(Duration.ofMinutes(45));
+        verify(hashOperations).putAll("folioman:cache:ttl", Map.of(SUMMARY, "1125", HISTORY, "2700"));
+    }
+
+    @Test
+    void adjust_WithEntriesInvalidatedBeforeExpiry_ShouldNotExtendTtl() {
+        Monitor.CacheStats invalidated = new Monitor.CacheStats(900, 100, 1_000, 100, 20_000, 100, 102_400, 100);
+        given(clock.instant()).willReturn(START, START.plusSeconds(60));
+        given(monitor.getCacheStats(SUMMARY)).willReturn(EMPTY, invalidated);
+        given(monitor.getCacheStats(HISTORY)).willReturn(EMPTY, CHEAP);
+        givenPublishedTtls(Map.of());
+
+        controller.adjust();
+        controller.adjust();
+
+        assertThat(controller.currentTtl(SUMMARY)).isEqualTo(Duration.ofMinutes(15));
+        verify(hashOperations).putAll("folioman:cache:ttl", Map.of(HISTORY, "2700"));
+    }
+
+    @Test
+    void adjust_WithSimilarScores_ShouldKeepTtls() {
+        givenPublishedTtls(Map.of());
+        given(clock.instant()).willReturn(START, START.plusSeconds(60));
+        given(monitor.getCacheStats(SUMMARY)).willReturn(EMPTY, VALUABLE);
+        given(monitor.getCacheStats(HISTORY)).willReturn(EMPTY, VALUABLE);
+
+        controller.adjust();
+        controller.adjust();
+
+        verify(hashOperations, never()).putAll(any(), any());
+        assertThat(controller.currentTtl(HISTORY)).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void adjust_WithTooFewLookups_ShouldKeepTtls() {
+        Monitor.CacheStats quiet = new Monitor.CacheStats(10, 5, 0, 5, 1_000, 5, 5_120, 5);
+        given(clock.instant()).willReturn(START, START.plusSeconds(60));
+        given(monitor.getCacheStats(SUMMARY)).willReturn(EMPTY, quiet);
+        given(monitor.getCacheStats(HISTORY)).willReturn(EMPTY, CHEAP);
+        givenPublishedTtls(Map.of());
+
+        controller.adjust();
+        controller.adjust();
+
+        verify(hashOperations, never()).putAll(any(), any());
+    }
+
+    private void givenPublishedTtls(Map<Object, Object> ttls) {
+        given(stringRedisTemplate.<Object, Object>opsForHash()).willReturn(hashOperations);
+        given(hashOperations.entries("folioman:cache:ttl")).willReturn(ttls);
+    }
+}
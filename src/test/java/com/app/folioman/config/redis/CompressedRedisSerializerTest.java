@@ -199,4 +199,86 @@ class CompressedRedisSerializerTest {
         assertThat(result).isNotNull();
         assertThat(result[0]).isEqualTo((byte) 1); // Compressed marker
     }
+
+    @Test
+    void roundTrip_WithLz4_ShouldCompressAndPreserveData() {
+        CompressedRedisSerializer<String> serializer = new CompressedRedisSerializer<>(
+                RedisSerializer.string(), CompressedRedisSerializer.Compression.LZ4, 1024, 3, null);
+        String value = "{\"schemeName\":\"Equity Fund\",\"nav\":12.34}".repeat(100);
+
+        byte[] serialized = serializer.serialize(value);
+
+        assertThat(serialized[0]).isEqualTo((byte) 2); // LZ4 marker
+        assertThat(serialized.length).isLessThan(value.length());
+        assertThat(serializer.deserialize(serialized)).isEqualTo(value);
+    }
+
+    @Test
+    void roundTrip_WithZstd_ShouldCompressAndPreserveData() {
+        CompressedRedisSerializer<String> serializer = new CompressedRedisSerializer<>(
+                RedisSerializer.string(), CompressedRedisSerializer.Compression.ZSTD, 1024, 3, null);
+        String value = "{\"schemeName\":\"Equity Fund\",\"nav\":12.34}".repeat(100);
+
+        byte[] serialized = serializer.serialize(value);
+
+        assertThat(serialized[0]).isEqualTo((byte) 3); // zstd marker
+        assertThat(serialized.length).isLessThan(value.length());
+        assertThat(serializer.deserialize(serialized)).isEqualTo(value);
+    }
+
+    @Test
+    void roundTrip_WithZstdDictionary_ShouldCompressAndPreserveData() {
+        byte[] dictionary = "{\"schemeName\":\"Equity Fund\",\"nav\":".repeat(10).getBytes();
+        CompressedRedisSerializer<String> serializer = new CompressedRedisSerializer<>(
+                RedisSerializer.string(), CompressedRedisSerializer.Compression.ZSTD, 16, 3, dictionary);
+        String value = "{\"schemeName\":\"Equity Fund\",\"nav\":12.34}";
+
+        byte[] serialized = serializer.serialize(value);
+
+        assertThat(serialized[0]).isEqualTo((byte) 4); // zstd with dictionary marker
+        assertThat(serializer.deserialize(serialized)).isEqualTo(value);
+    }
+
+    @Test
+    void deserialize_WithZstdDictionaryValueAndNoDictionary_ShouldThrowSerializationException() {
+        byte[] dictionary = "{\"schemeName\":\"Equity Fund\",\"nav\":".repeat(10).getBytes();
+        byte[] serialized = new CompressedRedisSerializer<>(
+                        RedisSerializer.string(), CompressedRedisSerializer.Compression.ZSTD, 16, 3, dictionary)
+                .serialize("{\"schemeName\":\"Equity Fund\",\"nav\":12.34}");
+        CompressedRedisSerializer<String> serializer = new CompressedRedisSerializer<>(
+                RedisSerializer.string(), CompressedRedisSerializer.Compression.ZSTD, 16, 3, null);
+
+        assertThatExceptionOfType(SerializationException.class).isThrownBy(() -> serializer.deserialize(serialized));
+    }
+
+    @Test
+    void deserialize_WithGzipValueAndLz4Configured_ShouldStillReadValue() {
+        String value = "x".repeat(2000);
+        byte[] gzipped = new CompressedRedisSerializer<>(RedisSerializer.string()).serialize(value);
+        CompressedRedisSerializer<String> serializer = new CompressedRedisSerializer<>(
+                RedisSerializer.string(), CompressedRedisSerializer.Compression.LZ4, 1024, 3, null);
+
+        assertThat(gzipped[0]).isEqualTo((byte) 1); // GZIP marker
+        assertThat(serializer.deserialize(gzipped)).isEqualTo(value);
+    }
+
+    @Test
+    void deserialize_WithTruncatedLz4Value_ShouldThrowSerializationException() {
+        byte[] truncated = {2, 0, 0};
+
+        assertThatExceptionOfType(SerializationException.class)
+                .isThrownBy(() -> compressedSerializer.deserialize(truncated));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void serialize_WithNoCompression_ShouldNotCompressLargeValue() {
+        CompressedRedisSerializer<String> serializer = new CompressedRedisSerializer<>(
+                RedisSerializer.string(), CompressedRedisSerializer.Compression.NONE, 1024, 3, null);
+
+        byte[] serialized = serializer.serialize("x".repeat(2000));
+
+        assertThat(serialized[0]).isEqualTo((byte) 0); // Not compressed marker
+        assertThat(serialized).hasSize(2001);
+    }
 }
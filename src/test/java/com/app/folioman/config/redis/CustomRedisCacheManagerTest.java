@@ -1,14 +1,26 @@
 package com.app.folioman.config.redis;
 
 import static org.assertj.core.api.Assertions.assertThat;
-
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +35,9 @@ class CustomRedisCacheManagerTest {
     @Mock
     private CacheCircuitBreaker circuitBreaker;
 
+    @Mock
+    private CacheTtlController ttlController;
+
     private static final RedisSerializer<Object> SIMPLE_SERIALIZER = new RedisSerializer<>() {
         @Override
         public byte[] serialize(Object t) {
@@ -41,8 +56,7 @@ class CustomRedisCacheManagerTest {
         // Instead of instantiating the manager (which calls Spring's defaultCacheConfig
         // and requires complex static mocking), test the underlying CustomRedisCache
         // construction directly with the SIMPLE_SERIALIZER.
-        CustomRedisCache cache = new CustomRedisCache(
-                "testCache", redisCacheWriter, SIMPLE_SERIALIZER, customTtl, monitor, circuitBreaker);
+        CustomRedisCache cache = cache("testCache", customTtl);
 
         assertThat(cache).isNotNull();
     }
@@ -50,8 +64,7 @@ class CustomRedisCacheManagerTest {
     @Test
     void constructorWithNullDefaultTtl() {
         // Test direct CustomRedisCache construction with null TTL (should accept a TTL provided)
-        CustomRedisCache cache = new CustomRedisCache(
-                "testCache", redisCacheWriter, SIMPLE_SERIALIZER, Duration.ofMinutes(10), monitor, circuitBreaker);
+        CustomRedisCache cache = cache("testCache", Duration.ofMinutes(10));
 
         assertThat(cache).isNotNull();
     }
@@ -60,8 +73,7 @@ class CustomRedisCacheManagerTest {
     void createRedisCacheWithNullCacheConfig() {
         String cacheName = "testCache";
         // Directly construct the cache to avoid manager creation
-        CustomRedisCache result = new CustomRedisCache(
-                cacheName, redisCacheWriter, SIMPLE_SERIALIZER, Duration.ofMinutes(5), monitor, circuitBreaker);
+        CustomRedisCache result = cache(cacheName, Duration.ofMinutes(5));
 
         assertThat(result).isNotNull();
     }
@@ -71,8 +83,7 @@ class CustomRedisCacheManagerTest {
         String cacheName = "testCache";
         // none
         // Test cache creation logic by constructing a CustomRedisCache directly
-        CustomRedisCache result = new CustomRedisCache(
-                cacheName, redisCacheWriter, SIMPLE_SERIALIZER, Duration.ofMinutes(5), monitor, circuitBreaker);
+        CustomRedisCache result = cache(cacheName, Duration.ofMinutes(5));
 
         assertThat(result).isNotNull();
     }
@@ -82,9 +93,95 @@ class CustomRedisCacheManagerTest {
         String cacheName = "testCache";
         Duration configTtl = Duration.ofMinutes(20);
         // Test cache construction/TTL handling directly
-        CustomRedisCache result = new CustomRedisCache(
-                cacheName, redisCacheWriter, SIMPLE_SERIALIZER, configTtl, monitor, circuitBreaker);
+        CustomRedisCache result = cache(cacheName, configTtl);
 
         assertThat(result).isNotNull();
     }
+
+    @Test
+    void createRedisCache_ShouldUseConfiguredValueSerializer() {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(5))
+                .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.string()));
+        CustomRedisCacheManager manager = new CustomRedisCacheManager(
+                redisCacheWriter,
+                configuration,
+                Map.of(),
+                monitor,
+                circuitBreaker,
+                CacheOptions.defaults());
+        doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                .when(circuitBreaker)
+                .execute(any());
+
+        Cache cache = manager.getCache("testCache");
+        assertThat(cache).isInstanceOf(CustomRedisCache.class);
+        cache.put("key", "value");
+
+        verify(redisCacheWriter)
+                .put(eq("testCache"), any(byte[].class), aryEq("value".getBytes(StandardCharsets.UTF_8)), any());
+        verify(monitor).registerCache("testCache");
+    }
+
+    @Test
+    void createRedisCache_WithTtlController_ShouldWriteWithControlledTtl() {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(5))
+                .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.string()));
+        given(ttlController.ttlFunction("testCache", Duration.ofMinutes(5), null))
+                .willReturn((key, value) -> Duration.ofMinutes(7));
+        CustomRedisCacheManager manager = new CustomRedisCacheManager(
+                redisCacheWriter,
+                configuration,
+                Map.of(),
+                monitor,
+                circuitBreaker,
+                new CacheOptions(new RedisAppProperties.NearCache(), null, ttlController, Map.of()));
+        doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                .when(circuitBreaker)
+                .execute(any());
+
+        manager.getCache("testCache").put("key", "value");
+
+        verify(redisCacheWriter).put(eq("testCache"), any(byte[].class), any(byte[].class), eq(Duration.ofMinutes(7)));
+    }
+
+    @Test
+    void createRedisCache_WithSoftTtl_ShouldKeepControlledTtlAwareOfIt() {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(5))
+                .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.string()));
+        given(ttlController.ttlFunction("testCache", Duration.ofMinutes(5), Duration.ofMinutes(1)))
+                .willReturn((key, value) -> Duration.ofMinutes(5));
+        CustomRedisCacheManager manager = new CustomRedisCacheManager(
+                redisCacheWriter,
+                configuration,
+                Map.of(),
+                monitor,
+                circuitBreaker,
+                new CacheOptions(
+                        new RedisAppProperties.NearCache(),
+                        null,
+                        ttlController,
+                        Map.of("testCache", Duration.ofMinutes(1))));
+
+        assertThat(manager.getCache("testCache")).isInstanceOf(CustomRedisCache.class);
+        verify(monitor).registerCache("testCache");
+    }
+
+    private CustomRedisCache cache(String name, Duration ttl) {
+        return new CustomRedisCache(
+                name,
+                redisCacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(ttl)
+                        .serializeValuesWith(
+                                RedisSerializationContext.SerializationPair.fromSerializer(SIMPLE_SERIALIZER)),
+                monitor,
+                circuitBreaker,
+                CacheOptions.defaults());
+    }
 }
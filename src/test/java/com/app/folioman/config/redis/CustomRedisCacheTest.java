@@ -2,16 +2,29 @@ package com.app.folioman.config.redis;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,7 +33,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.Cache;
 import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,8 +44,7 @@ class CustomRedisCacheTest {
     @Mock
     private RedisCacheWriter cacheWriter;
 
-    @Mock
-    private RedisSerializer<Object> valueSerializer;
+    private final RedisSerializer<Object> valueSerializer = RedisSerializer.java();
 
     @Mock
     private Monitor monitor;
@@ -41,13 +55,16 @@ class CustomRedisCacheTest {
     @Mock
     private Cache.ValueWrapper valueWrapper;
 
+    @Mock
+    private NearCacheInvalidator invalidator;
+
     private CustomRedisCache customRedisCache;
     private static final String CACHE_NAME = "testCache";
     private static final Duration TTL = Duration.ofMinutes(10);
 
     @BeforeEach
     void setUp() {
-        customRedisCache = new CustomRedisCache(CACHE_NAME, cacheWriter, valueSerializer, TTL, monitor, circuitBreaker);
+        customRedisCache = cache(CacheOptions.defaults());
     }
 
     @Test
@@ -72,7 +89,31 @@ class CustomRedisCacheTest {
         customRedisCache.put(key, value);
 
         verify(circuitBreaker).execute(any());
-        verify(monitor).recordUpdate(key.toString());
+        verify(monitor).recordUpdate(CACHE_NAME);
+        verify(monitor).recordKeyWritten(CACHE_NAME, CACHE_NAME + "::testKey");
+        verify(monitor).recordLatency(eq(CACHE_NAME), eq("put"), anyLong());
+        verify(monitor).recordEntrySize(eq(CACHE_NAME), anyInt());
+    }
+
+    @Test
+    void put_AfterMissOnSameKey_ShouldRecordLoadTime() {
+        when(circuitBreaker.executeWithFallback(any(), any())).thenReturn(null);
+
+        customRedisCache.get("testKey");
+        customRedisCache.put("testKey", "loaded");
+        customRedisCache.put("testKey", "updated");
+
+        verify(monitor).recordLoad(eq(CACHE_NAME), anyLong());
+    }
+
+    @Test
+    void put_AfterMissOnOtherKey_ShouldNotRecordLoadTime() {
+        when(circuitBreaker.executeWithFallback(any(), any())).thenReturn(null);
+
+        customRedisCache.get("testKey");
+        customRedisCache.put("otherKey", "value");
+
+        verify(monitor, never()).recordLoad(eq(CACHE_NAME), anyLong());
     }
 
     @Test
@@ -86,6 +127,7 @@ class CustomRedisCacheTest {
 
         assertThatCode(() -> customRedisCache.put(key, value)).doesNotThrowAnyException();
         verify(circuitBreaker).execute(any());
+        verify(monitor, never()).recordKeyWritten(any(), any());
     }
 
     @Test
@@ -118,8 +160,8 @@ class CustomRedisCacheTest {
         Cache.ValueWrapper result = customRedisCache.get(key);
 
         verify(circuitBreaker).executeWithFallback(any(), any());
-        verify(monitor).recordAccess(key.toString());
-        verify(monitor).recordHit(key.toString());
+        verify(monitor).recordHit(CACHE_NAME, key.toString());
+        verify(monitor).recordLatency(eq(CACHE_NAME), eq("get"), anyLong());
     }
 
     @Test
@@ -132,32 +174,81 @@ class CustomRedisCacheTest {
         customRedisCache.get(key);
 
         verify(circuitBreaker).executeWithFallback(any(), any());
-        verify(monitor).recordAccess(key.toString());
-        verify(monitor).recordMiss(key.toString());
+        verify(monitor).recordMiss(CACHE_NAME, key.toString());
     }
 
     @Test
-    void get_ShouldUseFallback_WhenCircuitBreakerActivated() {
-        Object key = "testKey";
-        Object value = "fallbackValue";
+    void get_ShouldServeFromNearCache_AfterPut() {
+        customRedisCache.put("testKey", "nearValue");
 
-        when(circuitBreaker.executeWithFallback(any(), any())).thenAnswer(invocation -> {
-            Supplier<Cache.ValueWrapper> fallback = invocation.getArgument(1);
-            return fallback.get();
-        });
+        Cache.ValueWrapper result = customRedisCache.get("testKey");
 
-        customRedisCache.put(key, value);
-        reset(circuitBreaker);
+        assertThat(result).isNotNull();
+        assertThat(result.get()).isEqualTo("nearValue");
+        verify(circuitBreaker, never()).executeWithFallback(any(), any());
+        verify(monitor).recordHit(CACHE_NAME, "testKey");
+        verify(monitor, never()).recordLatency(eq(CACHE_NAME), eq("get"), anyLong());
+    }
+
+    @Test
+    void get_ShouldUseFallback_WhenCircuitBreakerActivated() {
+        RedisAppProperties.NearCache nearCache = new RedisAppProperties.NearCache();
+        nearCache.setEnabled(false);
+        customRedisCache = cache(new CacheOptions(nearCache, null, null, Map.of()));
+        customRedisCache.put("testKey", "fallbackValue");
         when(circuitBreaker.executeWithFallback(any(), any())).thenAnswer(invocation -> {
             Supplier<Cache.ValueWrapper> fallback = invocation.getArgument(1);
             return fallback.get();
         });
 
-        customRedisCache.get(key);
+        Cache.ValueWrapper result = customRedisCache.get("testKey");
 
+        assertThat(result).isNotNull();
+        assertThat(result.get()).isEqualTo("fallbackValue");
         verify(circuitBreaker).executeWithFallback(any(), any());
     }
 
+    @Test
+    void invalidateLocal_ShouldMakeNextGetReadRedis() {
+        customRedisCache.put("testKey", "staleValue");
+        when(circuitBreaker.executeWithFallback(any(), any())).thenReturn(new SimpleValueWrapper("freshValue"));
+
+        customRedisCache.invalidateLocal("testKey");
+        Cache.ValueWrapper result = customRedisCache.get("testKey");
+
+        assertThat(result).isNotNull();
+        assertThat(result.get()).isEqualTo("freshValue");
+        assertThat(customRedisCache.localSize()).isEqualTo(1);
+    }
+
+    @Test
+    void clearLocal_ShouldDropAllNearCacheEntries() {
+        customRedisCache.put("key1", "value1");
+        customRedisCache.put("key2", "value2");
+
+        customRedisCache.clearLocal();
+
+        assertThat(customRedisCache.localSize()).isZero();
+    }
+
+    @Test
+    void putAndEvict_ShouldPublishInvalidation_WhenInvalidatorConfigured() {
+        customRedisCache = cache(new CacheOptions(new RedisAppProperties.NearCache(), invalidator, null, Map.of()));
+        doAnswer(invocation -> {
+                    invocation.getArgument(0, Supplier.class).get();
+                    return null;
+                })
+                .when(circuitBreaker)
+                .execute(any());
+
+        customRedisCache.put("testKey", "testValue");
+        customRedisCache.evict("testKey");
+        customRedisCache.clear();
+
+        verify(invalidator, times(2)).publishEvict(CACHE_NAME, "testKey");
+        verify(invalidator).publishClear(CACHE_NAME);
+    }
+
     @Test
     void get_ShouldHandleException_WhenUnexpectedErrorOccurs() {
         Object key = "testKey";
@@ -184,6 +275,7 @@ class CustomRedisCacheTest {
         customRedisCache.evict(key);
 
         verify(circuitBreaker).execute(any());
+        verify(monitor).recordEviction(CACHE_NAME);
     }
 
     @Test
@@ -223,25 +315,32 @@ class CustomRedisCacheTest {
     }
 
     @Test
-    void getNormalizedKey_ShouldHandleSimpleKey() {
+    void get_WithSimpleKey_ShouldRecordKeyInRedisForm() {
         SimpleKey simpleKey = new SimpleKey("param1", "param2");
 
-        doAnswer(invocation -> {
-                    invocation.getArgument(0, Supplier.class).get();
-                    return null;
-                })
-                .when(circuitBreaker)
-                .execute(any());
+        when(circuitBreaker.executeWithFallback(any(), any())).thenReturn(null);
 
-        customRedisCache.put(simpleKey, "value");
+        customRedisCache.get(simpleKey);
 
-        verify(monitor).recordUpdate(simpleKey.toString());
+        verify(monitor).recordMiss(CACHE_NAME, simpleKey.toString());
     }
 
     @Test
-    void getNormalizedKey_ShouldHandleRegularKey() {
+    void get_WithRegularKey_ShouldRecordKeyAsIs() {
         String regularKey = "regularKey";
 
+        when(circuitBreaker.executeWithFallback(any(), any())).thenReturn(null);
+
+        customRedisCache.get(regularKey);
+
+        verify(monitor).recordMiss(CACHE_NAME, regularKey);
+    }
+
+    @Test
+    void recordMetrics_ShouldRecordUpdateMetrics_WhenOperationIsUpdate() {
+        Object key = "testKey";
+        Object value = "testValue";
+
         doAnswer(invocation -> {
                     invocation.getArgument(0, Supplier.class).get();
                     return null;
@@ -249,39 +348,181 @@ class CustomRedisCacheTest {
                 .when(circuitBreaker)
                 .execute(any());
 
-        customRedisCache.put(regularKey, "value");
+        customRedisCache.put(key, value);
 
-        verify(monitor).recordUpdate(regularKey);
+        verify(monitor).recordUpdate(CACHE_NAME);
     }
 
     @Test
-    void recordMetrics_ShouldRecordAccessMetrics_WhenOperationIsAccess() {
-        Object key = "testKey";
+    void getWithLoader_WhenPastSoftTtl_ShouldServeStaleValueAndRefreshInBackground() {
+        List<Object> written = new CopyOnWriteArrayList<>();
+        CustomRedisCache cache = staleWhileRevalidateCache(written);
+        long writtenAt = System.currentTimeMillis() - Duration.ofMinutes(2).toMillis();
+        when(circuitBreaker.executeWithFallback(any(), any()))
+                .thenReturn(new SimpleValueWrapper(new CustomRedisCache.StampedValue("stale", writtenAt)));
+        doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                .when(circuitBreaker)
+                .execute(any());
+        AtomicInteger loads = new AtomicInteger();
+
+        String result = cache.get("testKey", () -> "fresh" + loads.incrementAndGet());
+
+        assertThat(result).isEqualTo("stale");
+        verify(monitor).recordHit(CACHE_NAME, "testKey");
+        verify(monitor, timeout(1000)).recordUpdate(CACHE_NAME);
+        assertThat(loads).hasValue(1);
+        assertThat(written)
+                .singleElement()
+                .isInstanceOfSatisfying(
+                        CustomRedisCache.StampedValue.class,
+                        stamped -> assertThat(stamped.value()).isEqualTo("fresh1"));
+    }
 
-        when(circuitBreaker.executeWithFallback(any(), any())).thenAnswer(invocation -> {
-            Supplier<Cache.ValueWrapper> supplier = invocation.getArgument(0);
-            return supplier.get();
-        });
+    @Test
+    void getWithLoader_WhenWithinSoftTtl_ShouldNotReload() {
+        CustomRedisCache cache = staleWhileRevalidateCache(new CopyOnWriteArrayList<>());
+        when(circuitBreaker.executeWithFallback(any(), any()))
+                .thenReturn(new SimpleValueWrapper(
+                        new CustomRedisCache.StampedValue("cached", System.currentTimeMillis())));
 
-        customRedisCache.get(key);
+        String result = cache.get("testKey", () -> "loaded");
 
-        verify(monitor).recordAccess(key.toString());
+        assertThat(result).isEqualTo("cached");
+        verify(circuitBreaker, never()).execute(any());
     }
 
     @Test
-    void recordMetrics_ShouldRecordUpdateMetrics_WhenOperationIsUpdate() {
-        Object key = "testKey";
-        Object value = "testValue";
+    void getWithLoader_WhenMissing_ShouldLoadAndStoreStampedValue() {
+        List<Object> written = new CopyOnWriteArrayList<>();
+        CustomRedisCache cache = staleWhileRevalidateCache(written);
+        when(circuitBreaker.executeWithFallback(any(), any())).thenReturn(null);
+        doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                .when(circuitBreaker)
+                .execute(any());
 
-        doAnswer(invocation -> {
-                    invocation.getArgument(0, Supplier.class).get();
-                    return null;
-                })
+        String result = cache.get("testKey", () -> "loaded");
+
+        assertThat(result).isEqualTo("loaded");
+        verify(monitor).recordMiss(CACHE_NAME, "testKey");
+        verify(monitor).recordLoad(eq(CACHE_NAME), anyLong());
+        assertThat(written).singleElement().isInstanceOf(CustomRedisCache.StampedValue.class);
+    }
+
+    @Test
+    void getWithLoader_WhenEvictedWhileLoading_ShouldReturnValueWithoutCachingIt() {
+        List<Object> written = new CopyOnWriteArrayList<>();
+        CustomRedisCache cache = staleWhileRevalidateCache(written);
+        when(circuitBreaker.executeWithFallback(any(), any())).thenReturn(null);
+        doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
                 .when(circuitBreaker)
                 .execute(any());
 
-        customRedisCache.put(key, value);
+        String result = cache.get("testKey", () -> {
+            // The data the value was computed from changes before the load completes
+            cache.evict("testKey");
+            return "outdated";
+        });
+
+        assertThat(result).isEqualTo("outdated");
+        assertThat(written).isEmpty();
+        verify(monitor, never()).recordUpdate(CACHE_NAME);
+    }
+
+    @Test
+    void getWithLoader_WhenEvictedWhileRefreshing_ShouldDropRefreshedValue() throws InterruptedException {
+        List<Object> written = new CopyOnWriteArrayList<>();
+        CustomRedisCache cache = staleWhileRevalidateCache(written);
+        long writtenAt = System.currentTimeMillis() - Duration.ofMinutes(2).toMillis();
+        when(circuitBreaker.executeWithFallback(any(), any()))
+                .thenReturn(new SimpleValueWrapper(new CustomRedisCache.StampedValue("stale", writtenAt)));
+        doAnswer(invocation -> invocation.getArgument(0, Supplier.class).get())
+                .when(circuitBreaker)
+                .execute(any());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        String result = cache.get("testKey", () -> {
+            started.countDown();
+            evicted.await();
+            return "outdated";
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        cache.evict("testKey");
+        evicted.countDown();
+
+        assertThat(result).isEqualTo("stale");
+        verify(monitor, after(300).never()).recordUpdate(CACHE_NAME);
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void getWithLoader_WithManyStaleKeys_ShouldCapConcurrentRefreshes() throws InterruptedException {
+        CustomRedisCache cache = staleWhileRevalidateCache(new CopyOnWriteArrayList<>());
+        long writtenAt = System.currentTimeMillis() - Duration.ofMinutes(2).toMillis();
+        when(circuitBreaker.executeWithFallback(any(), any()))
+                .thenReturn(new SimpleValueWrapper(new CustomRedisCache.StampedValue("stale", writtenAt)));
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get("key" + i, () -> {
+                refreshes.incrementAndGet();
+                release.await();
+                return "fresh";
+            });
+        }
+
+        verify(monitor, times(10)).recordHit(eq(CACHE_NAME), any());
+        await().atMost(Duration.ofSeconds(1)).untilAsserted(() -> assertThat(refreshes).hasValue(4));
+        release.countDown();
+    }
+
+    @Test
+    void get_WithStampedValue_ShouldReturnPlainValue() {
+        CustomRedisCache cache = staleWhileRevalidateCache(new CopyOnWriteArrayList<>());
+        when(circuitBreaker.executeWithFallback(any(), any()))
+                .thenReturn(new SimpleValueWrapper(new CustomRedisCache.StampedValue("cached", 0L)));
+
+        Cache.ValueWrapper result = cache.get("testKey");
+
+        assertThat(result).isNotNull();
+        assertThat(result.get()).isEqualTo("cached");
+    }
+
+    private CustomRedisCache staleWhileRevalidateCache(List<Object> written) {
+        RedisSerializer<Object> capturingSerializer = new RedisSerializer<>() {
+            @Override
+            public byte[] serialize(@Nullable Object value) {
+                written.add(value);
+                return new byte[] {1};
+            }
+
+            @Override
+            public @Nullable Object deserialize(byte @Nullable [] bytes) {
+                return null;
+            }
+        };
+        return new CustomRedisCache(
+                CACHE_NAME,
+                cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(TTL)
+                        .serializeValuesWith(SerializationPair.fromSerializer(capturingSerializer)),
+                monitor,
+                circuitBreaker,
+                new CacheOptions(
+                        new RedisAppProperties.NearCache(), null, null, Map.of(CACHE_NAME, Duration.ofMinutes(1))));
+    }
 
-        verify(monitor).recordUpdate(key.toString());
+    private CustomRedisCache cache(CacheOptions options) {
+        return new CustomRedisCache(
+                CACHE_NAME,
+                cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(TTL)
+                        .serializeValuesWith(SerializationPair.fromSerializer(valueSerializer)),
+                monitor,
+                circuitBreaker,
+                options);
     }
 }
@@ -0,0 +1,70 @@
+package com.app.folioman.config.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HotKeySketchTest {
+
+    @Test
+    void topKeys_ShouldRankKeysByReads() {
+        HotKeySketch sketch = sketch(10, 1);
+        read(sketch, "summary", "PAN1", 5);
+        read(sketch, "summary", "PAN2", 2);
+        read(sketch, "history", "PAN1", 9);
+
+        List<HotKeySketch.HotKey> topKeys = sketch.topKeys(2);
+
+        assertThat(topKeys)
+                .containsExactly(
+                        new HotKeySketch.HotKey("history", "PAN1", 9, 0),
+                        new HotKeySketch.HotKey("summary", "PAN1", 5, 0));
+    }
+
+    @Test
+    void record_BeyondCapacity_ShouldKeepHeavyHittersAndStayBounded() {
+        HotKeySketch sketch = sketch(3, 1);
+        read(sketch, "summary", "hot", 100);
+        for (int i = 0; i < 50; i++) {
+            read(sketch, "summary", "cold" + i, 1);
+        }
+
+        List<HotKeySketch.HotKey> topKeys = sketch.topKeys(10);
+
+        assertThat(topKeys).hasSize(3);
+        assertThat(topKeys.getFirst().key()).isEqualTo("hot");
+        assertThat(topKeys.getFirst().count()).isEqualTo(100);
+    }
+
+    @Test
+    void estimate_ShouldUseRedisKeyAndReturnZeroForUntrackedKeys() {
+        HotKeySketch sketch = sketch(10, 1);
+        read(sketch, "summary", "PAN1", 3);
+
+        assertThat(sketch.estimate("summary::PAN1")).isEqualTo(3);
+        assertThat(sketch.estimate("summary::PAN2")).isZero();
+    }
+
+    @Test
+    void estimate_WithSampling_ShouldScaleCountsBack() {
+        HotKeySketch sketch = sketch(10, 4);
+        read(sketch, "summary", "PAN1", 4_000);
+
+        assertThat(sketch.estimate("summary::PAN1")).isBetween(3_400L, 4_600L);
+        assertThat(sketch.getSampleRate()).isEqualTo(4);
+    }
+
+    private void read(HotKeySketch sketch, String cache, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.record(cache, key);
+        }
+    }
+
+    private HotKeySketch sketch(int capacity, int sampleRate) {
+        RedisAppProperties properties = new RedisAppProperties();
+        properties.getHotKeys().setCapacity(capacity);
+        properties.getHotKeys().setSampleRate(sampleRate);
+        return new HotKeySketch(properties);
+    }
+}
@@ -0,0 +1,236 @@
+package com.app.folioman.config.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHyperLogLogCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+@ExtendWith(MockitoExtension.class)
+class MonitorTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private HotKeySketch hotKeySketch;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisHyperLogLogCommands hyperLogLogCommands;
+
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    @Mock
+    private Cursor<byte[]> cursor;
+
+    @Mock
+    private CacheCircuitBreaker circuitBreaker;
+
+    private MeterRegistry meterRegistry;
+
+    private Monitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new Monitor(redisTemplate, meterRegistry, hotKeySketch, circuitBreaker);
+    }
+
+    @Test
+    void recordHitAndMiss_ShouldTagCountersByCacheAndOutcomeOnly() {
+        monitor.recordHit("summary", "PAN1");
+        monitor.recordHit("summary", "PAN2");
+        monitor.recordMiss("summary", "PAN3");
+
+        assertThat(meterRegistry
+                        .get("cache.lookups")
+                        .tag("cache", "summary")
+                        .tag("outcome", "hit")
+                        .counter()
+                        .count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.find("cache.lookups").counters()).hasSize(2);
+        assertThat(meterRegistry.getMeters())
+                .allSatisfy(meter -> assertThat(meter.getId().getTag("key")).isNull());
+        verify(hotKeySketch).record("summary", "PAN3");
+    }
+
+    @Test
+    void recordUpdate_ShouldCountPerCache() {
+        monitor.recordUpdate("summary");
+        monitor.recordUpdate("summary");
+
+        assertThat(meterRegistry.get("cache.updates").tag("cache", "summary").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void getMetrics_ShouldComputeHitRateAcrossCaches() {
+        given(circuitBreaker.getState()).willReturn(CircuitBreaker.State.CLOSED);
+        monitor.recordHit("summary", "PAN1");
+        monitor.recordHit("history", "PAN1");
+        monitor.recordHit("history", "PAN1");
+        monitor.recordMiss("summary", "PAN2");
+
+        assertThat(monitor.getMetrics()).containsEntry("hitRate", 0.75);
+    }
+
+    @Test
+    void recordLatency_ShouldPublishHistogramWithSloBucketsPerCacheAndOperation() {
+        monitor.recordLatency("summary", "get", Duration.ofMillis(3).toNanos());
+        monitor.recordLatency("summary", "get", Duration.ofMillis(40).toNanos());
+        monitor.recordLatency("summary", "put", Duration.ofMillis(1).toNanos());
+
+        Timer getTimer = meterRegistry
+                .get("cache.latency")
+                .tag("cache", "summary")
+                .tag("operation", "get")
+                .timer();
+        assertThat(getTimer.count()).isEqualTo(2);
+        assertThat(getTimer.takeSnapshot().histogramCounts())
+                .filteredOn(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 5.0)
+                .singleElement()
+                .satisfies(bucket -> assertThat(bucket.count()).isEqualTo(1.0));
+        assertThat(meterRegistry.find("cache.latency").timers()).hasSize(2);
+    }
+
+    @Test
+    void getMetrics_ShouldReportRealCircuitBreakerStateAndMeanGetLatency() {
+        given(circuitBreaker.getState()).willReturn(CircuitBreaker.State.OPEN);
+        monitor.recordLatency("summary", "get", Duration.ofMillis(2).toNanos());
+        monitor.recordLatency("history", "get", Duration.ofMillis(4).toNanos());
+
+        Map<String, Object> metrics = monitor.getMetrics();
+
+        assertThat(metrics)
+                .containsEntry("circuitBreakerState", "OPEN")
+                .containsEntry("localCacheEnabled", true)
+                .containsEntry("meanGetLatencyMs", 3.0);
+    }
+
+    @Test
+    void recordKeyWritten_ShouldAddKeysToCacheHyperLogLogOncePerBatch() {
+        stubConnection();
+
+        for (int i = 0; i < 255; i++) {
+            monitor.recordKeyWritten("summary", "summary::PAN" + i);
+        }
+        verifyNoInteractions(redisTemplate);
+
+        monitor.recordKeyWritten("summary", "summary::PAN255");
+
+        ArgumentCaptor<byte[]> keys = ArgumentCaptor.forClass(byte[].class);
+        verify(hyperLogLogCommands).pfAdd(eq(bytes("folioman:cache:key-count:summary")), keys.capture());
+        assertThat(keys.getAllValues()).hasSize(256).contains(bytes("summary::PAN0"), bytes("summary::PAN255"));
+    }
+
+    @Test
+    void estimateKeyCount_ShouldAddPendingKeysBeforeCountingWithoutScanning() {
+        stubConnection();
+        given(hyperLogLogCommands.pfCount(bytes("folioman:cache:key-count:summary"))).willReturn(1L);
+        monitor.recordKeyWritten("summary", "summary::PAN1");
+
+        assertThat(monitor.estimateKeyCount("summary")).isEqualTo(1L);
+
+        InOrder inOrder = inOrder(hyperLogLogCommands);
+        inOrder.verify(hyperLogLogCommands).pfAdd(bytes("folioman:cache:key-count:summary"), bytes("summary::PAN1"));
+        inOrder.verify(hyperLogLogCommands).pfCount(bytes("folioman:cache:key-count:summary"));
+        verifyNoInteractions(keyCommands);
+    }
+
+    @Test
+    void reconcileKeyCounts_ShouldRebuildEveryCacheFromOneScan() {
+        stubConnection();
+        given(connection.keyCommands()).willReturn(keyCommands);
+        given(keyCommands.scan(any(ScanOptions.class))).willReturn(cursor);
+        given(cursor.hasNext()).willReturn(true, true, true, true, false);
+        given(cursor.next())
+                .willReturn(
+                        bytes("summary::PAN1"),
+                        bytes("folioman:cache:key-count:summary"),
+                        bytes("unregistered::PAN1"),
+                        bytes("summary::PAN2"));
+        monitor.registerCache("summary");
+        monitor.registerCache("history");
+
+        monitor.reconcileKeyCounts();
+
+        ArgumentCaptor<ScanOptions> scanOptions = ArgumentCaptor.forClass(ScanOptions.class);
+        verify(keyCommands, times(1)).scan(scanOptions.capture());
+        assertThat(scanOptions.getValue().getPattern()).isNull();
+        byte[] rebuilding = bytes("folioman:cache:key-count:summary:rebuilding");
+        InOrder inOrder = inOrder(keyCommands, hyperLogLogCommands);
+        inOrder.verify(keyCommands).del(rebuilding);
+        inOrder.verify(hyperLogLogCommands).pfAdd(rebuilding, bytes("summary::PAN1"), bytes("summary::PAN2"));
+        inOrder.verify(keyCommands).rename(rebuilding, bytes("folioman:cache:key-count:summary"));
+        // A cache without keys left forgets its count
+        verify(keyCommands).del(bytes("folioman:cache:key-count:history"));
+        verify(keyCommands, times(0)).rename(eq(bytes("folioman:cache:key-count:history:rebuilding")), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCacheStats_ShouldReturnTotalsOfOneCache() {
+        given(redisTemplate.execute(any(RedisCallback.class))).willReturn(3L);
+        monitor.recordHit("summary", "PAN1");
+        monitor.recordMiss("summary", "PAN2");
+        monitor.recordHit("history", "PAN1");
+        monitor.recordLoad("summary", Duration.ofMillis(30).toNanos());
+        monitor.recordLoad("summary", Duration.ofMillis(50).toNanos());
+        monitor.recordEntrySize("summary", 1000);
+        monitor.recordEntrySize("summary", 3000);
+        monitor.recordEviction("summary");
+
+        Monitor.CacheStats stats = monitor.getCacheStats("summary");
+
+        assertThat(stats).isEqualTo(new Monitor.CacheStats(1, 1, 1, 2, 80.0, 2, 4000.0, 3));
+    }
+
+    @Test
+    void getCacheStats_WithNothingRecorded_ShouldReturnZeros() {
+        given(redisTemplate.execute(any(RedisCallback.class))).willReturn(null);
+
+        assertThat(monitor.getCacheStats("summary")).isEqualTo(new Monitor.CacheStats(0, 0, 0, 0, 0.0, 0, 0.0, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubConnection() {
+        given(redisTemplate.execute(any(RedisCallback.class)))
+                .willAnswer(invocation -> invocation.getArgument(0, RedisCallback.class).doInRedis(connection));
+        given(connection.hyperLogLogCommands()).willReturn(hyperLogLogCommands);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
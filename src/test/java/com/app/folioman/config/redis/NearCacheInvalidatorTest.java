@@ -0,0 +1,126 @@
+package com.app.folioman.config.redis;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheInvalidatorTest {
+
+    private static final String CHANNEL = "folioman:cache:invalidation";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private CustomRedisCache cache;
+
+    private NearCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        invalidator = new NearCacheInvalidator(stringRedisTemplate, new RedisAppProperties());
+    }
+
+    @Test
+    void onMessage_FromOtherInstanceWithKey_ShouldInvalidateLocalEntry() {
+        register();
+
+        invalidator.onMessage(message("other\nsummaryCache\nsummaryCache::PAN1"), null);
+
+        verify(cache).invalidateLocal("summaryCache::PAN1");
+    }
+
+    @Test
+    void onMessage_FromOtherInstanceWithoutKey_ShouldClearLocalCache() {
+        register();
+
+        invalidator.onMessage(message("other\nsummaryCache"), null);
+
+        verify(cache).clearLocal();
+    }
+
+    @Test
+    void onMessage_FromSameInstance_ShouldBeIgnored() {
+        register();
+        invalidator.publishEvict("summaryCache", "summaryCache::PAN1");
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(CHANNEL), published.capture());
+
+        invalidator.onMessage(message(published.getValue()), null);
+
+        verify(cache, never()).invalidateLocal(anyString());
+    }
+
+    @Test
+    void onMessage_ForUnknownCache_ShouldBeIgnored() {
+        invalidator.onMessage(message("other\nunknownCache\nkey"), null);
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    void invalidate_ShouldDropLocalEntriesAndNotifyOtherInstances() {
+        register();
+
+        invalidator.invalidate("summaryCache", List.of("monthly_PAN1", "yearly_PAN1"));
+
+        verify(cache).invalidateLocal("monthly_PAN1");
+        verify(cache).invalidateLocal("yearly_PAN1");
+        verify(stringRedisTemplate)
+                .convertAndSend(eq(CHANNEL), endsWith("\nsummaryCache\nmonthly_PAN1\nyearly_PAN1"));
+    }
+
+    @Test
+    void invalidate_WithoutKeys_ShouldPublishNothing() {
+        invalidator.invalidate("summaryCache", List.of());
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void onMessage_FromOtherInstanceWithSeveralKeys_ShouldInvalidateEachLocalEntry() {
+        register();
+
+        invalidator.onMessage(message("other\nsummaryCache\nmonthly_PAN1\nyearly_PAN1"), null);
+
+        verify(cache).invalidateLocal("monthly_PAN1");
+        verify(cache).invalidateLocal("yearly_PAN1");
+        verify(cache, never()).clearLocal();
+    }
+
+    @Test
+    void publishClear_WhenRedisFails_ShouldNotThrow() {
+        doThrow(new IllegalStateException("Redis down"))
+                .when(stringRedisTemplate)
+                .convertAndSend(eq(CHANNEL), anyString());
+
+        assertThatCode(() -> invalidator.publishClear("summaryCache")).doesNotThrowAnyException();
+    }
+
+    private void register() {
+        given(cache.getName()).willReturn("summaryCache");
+        invalidator.register(cache);
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,11 +5,21 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 class PolicyRepositoryTest {
 
+    @Mock
+    private HotKeySketch hotKeySketch;
+
+    @Mock
+    private Monitor monitor;
+
+    @Mock
+    private NearCacheInvalidator nearCacheInvalidator;
+
     @InjectMocks
     private PolicyRepository policyRepository;
 
@@ -40,6 +40,12 @@ class RedisConfigTest {
     @Mock
     private RedisAppProperties redisAppProperties;
 
+    @Mock
+    private NearCacheInvalidator nearCacheInvalidator;
+
+    @Mock
+    private CacheTtlController cacheTtlController;
+
     @InjectMocks
     private RedisConfig redisConfig;
 
@@ -61,8 +67,13 @@ class RedisConfigTest {
     void cacheManager_WithCompressionDisabled_ShouldCreateCustomRedisCacheManager() {
         setConfigFields(false, 1800L);
 
-        CustomRedisCacheManager cacheManager =
-                redisConfig.cacheManager(redisConnectionFactory, monitor, circuitBreaker, redisAppProperties);
+        CustomRedisCacheManager cacheManager = redisConfig.cacheManager(
+                redisConnectionFactory,
+                monitor,
+                circuitBreaker,
+                redisAppProperties,
+                nearCacheInvalidator,
+                cacheTtlController);
 
         assertThat(cacheManager).isNotNull();
     }
@@ -109,8 +120,13 @@ class RedisConfigTest {
     void cacheManager_WithCustomTtl_ShouldUseCustomValue() {
         setConfigFields(false, 7200L);
 
-        CustomRedisCacheManager cacheManager =
-                redisConfig.cacheManager(redisConnectionFactory, monitor, circuitBreaker, redisAppProperties);
+        CustomRedisCacheManager cacheManager = redisConfig.cacheManager(
+                redisConnectionFactory,
+                monitor,
+                circuitBreaker,
+                redisAppProperties,
+                nearCacheInvalidator,
+                cacheTtlController);
 
         assertThat(cacheManager).isNotNull();
     }
@@ -118,15 +134,40 @@ class RedisConfigTest {
     private void setConfigFields(boolean compressionEnabled, long ttlSeconds) {
         given(redisAppProperties.isCompressionEnabled()).willReturn(compressionEnabled);
         given(redisAppProperties.getDefaultTtl()).willReturn(ttlSeconds);
+        given(redisAppProperties.getNearCache()).willReturn(new RedisAppProperties.NearCache());
+        given(redisAppProperties.getCodec()).willReturn(new RedisAppProperties.Codec());
     }
 
     @Test
     void cacheManager_WithCompressionEnabled_ShouldCreateCustomRedisCacheManager() {
         setConfigFields(true, 3600L);
 
-        CustomRedisCacheManager cacheManager =
-                redisConfig.cacheManager(redisConnectionFactory, monitor, circuitBreaker, redisAppProperties);
+        CustomRedisCacheManager cacheManager = redisConfig.cacheManager(
+                redisConnectionFactory,
+                monitor,
+                circuitBreaker,
+                redisAppProperties,
+                nearCacheInvalidator,
+                cacheTtlController);
 
         assertThat(cacheManager).isNotNull();
     }
+
+    @Test
+    void cacheManager_WithPerCacheCompression_ShouldCreateCustomRedisCacheManager() {
+        setConfigFields(true, 1800L);
+        RedisAppProperties.CacheCodec cacheCodec = new RedisAppProperties.CacheCodec();
+        cacheCodec.setCompression(CompressedRedisSerializer.Compression.ZSTD);
+        redisAppProperties.getCodec().getCaches().put(CacheNames.PORTFOLIO_HISTORY_CACHE, cacheCodec);
+
+        CustomRedisCacheManager cacheManager = redisConfig.cacheManager(
+                redisConnectionFactory,
+                monitor,
+                circuitBreaker,
+                redisAppProperties,
+                nearCacheInvalidator,
+                cacheTtlController);
+
+        assertThat(cacheManager.getCacheConfigurations()).containsKey(CacheNames.PORTFOLIO_HISTORY_CACHE);
+    }
 }
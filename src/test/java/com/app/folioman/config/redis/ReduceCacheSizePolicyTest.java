@@ -1,35 +1,42 @@
 package com.app.folioman.config.redis;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
-import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyNoInteractions;
 
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.mockito.MockedConstruction;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 @ExtendWith(MockitoExtension.class)
 class ReduceCacheSizePolicyTest {
 
+    private static final String CACHE = "summary";
+
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
 
@@ -37,17 +44,25 @@ class ReduceCacheSizePolicyTest {
     private MeterRegistry meterRegistry;
 
     @Mock
-    private Counter counter;
+    private Monitor monitor;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    @Mock
+    private NearCacheInvalidator nearCacheInvalidator;
+
+    // key -> {ttl seconds, idle seconds}, in the order RANDOMKEY draws them
+    private final Map<String, long[]> keyStats = new LinkedHashMap<>();
 
-    @InjectMocks
     private ReduceCacheSizePolicy reduceCacheSizePolicy;
 
     @BeforeEach
     void setUp() {
-        // Make this lenient because some tests don't access the meterRegistry counter
-        lenient()
-                .when(meterRegistry.counter(anyString(), anyString(), anyString()))
-                .thenReturn(counter);
+        reduceCacheSizePolicy = new ReduceCacheSizePolicy(monitor, nearCacheInvalidator);
     }
 
     @Test
@@ -57,195 +72,181 @@ class ReduceCacheSizePolicyTest {
     }
 
     @Test
-    void apply_WithEmptyKeys_LogsAndReturns() {
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(new HashSet<>());
-        })) {
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            verify(mocked.constructed().get(0)).scanKeys("*");
-            verify(redisTemplate, never()).delete(anyString());
-        }
+    void apply_WithNoRegisteredCaches_DoesNotTouchRedis() {
+        given(monitor.getCacheNames()).willReturn(Set.of());
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
-    void apply_WithNullKeys_LogsAndReturns() {
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(null);
-        })) {
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            verify(mocked.constructed().get(0)).scanKeys("*");
-            verify(redisTemplate, never()).delete(anyString());
-        }
+    void apply_WithEmptyCache_DoesNotUnlink() {
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        verify(redisTemplate, never()).unlink(anyCollection());
     }
 
     @Test
-    void apply_WithRegularKeys_EvictsKeysAndAppliesTTL() {
-        Set<String> keys = new LinkedHashSet<>(List.of("key1", "key2", "key3", "key4", "key5"));
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            when(counter.count()).thenReturn(2.0, 1.0, 3.0, 0.5, 4.0);
-            when(redisTemplate.getExpire(anyString())).thenReturn(3600L);
-
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            verify(redisTemplate, times(1)).delete(anyString());
-            verify(redisTemplate, atLeastOnce()).expire(anyString(), eq(Duration.ofMinutes(15)));
-        }
+    void apply_InspectsOnlyKeysOfRegisteredCaches() {
+        keyStats.put(CACHE + "::PAN1", new long[] {600, 10});
+        keyStats.put("unregistered::PAN1", new long[] {600, 9000});
+        keyStats.put("jobrunr:lock", new long[] {600, 9000});
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        verify(keyCommands).ttl(bytes(CACHE + "::PAN1"));
+        verify(keyCommands, never()).ttl(bytes("unregistered::PAN1"));
+        verify(keyCommands, never()).ttl(bytes("jobrunr:lock"));
     }
 
     @Test
-    void apply_WithProtectedKeys_SkipsProtectedKeys() {
-        // Use a LinkedHashSet to preserve insertion order so the sequence of
-        // counter.count() invocations maps deterministically to keys.
-        LinkedHashSet<String> keys = new LinkedHashSet<>();
-        keys.add("critical:important");
-        keys.add("regular:key1");
-        keys.add("regular:key2");
-        keys.add("regular:key3");
-        keys.add("regular:key4"); // will be the lowest-access key in this test
-
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            // For 5 keys, 30% -> floor(1.5) == 1 keyToRemove. Provide counts in
-            // the same order as the keys so that the lowest-access key is
-            // predictable (regular:key4).
-            when(counter.count()).thenReturn(100.0, 50.0, 40.0, 1.0, 0.5);
-            when(redisTemplate.getExpire(anyString())).thenReturn(3600L);
-
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            // Ensure the high-access protected key is never deleted
-            verify(redisTemplate, never()).delete("critical:important");
-
-            // Exactly one deletion should occur for the lowest-access key
-            verify(redisTemplate, times(1)).delete("regular:key4");
-        }
+    void apply_StopsDrawingOnceKeyspaceIsExhausted() {
+        keyStats.put(CACHE + "::key1", new long[] {3600, 10});
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        // The second draw only repeats the single key
+        verify(keyCommands, times(1000)).randomKey();
     }
 
     @Test
-    void apply_WithHighAccessKeys_DoesNotEvictHighAccessKeys() {
-        Set<String> keys = new LinkedHashSet<>(List.of("key1", "key2", "key3", "key4", "key5", "key6", "key7"));
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            when(counter.count()).thenReturn(50.0, 60.0, 1.0, 2.0, 3.0, 4.0, 5.0);
-            when(redisTemplate.getExpire(anyString())).thenReturn(3600L);
-
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            // 7 keys × 30% = 2.1 → 2 deletions expected, but high-access keys should be protected
-            verify(redisTemplate, never()).delete("key1");
-            verify(redisTemplate, never()).delete("key2");
-            verify(redisTemplate, times(2)).delete(anyString());
-        }
+    void apply_UnlinksMostIdleKeysInOneCommand() {
+        keyStats.put(CACHE + "::key1", new long[] {3600, 10});
+        keyStats.put(CACHE + "::key2", new long[] {3600, 5000});
+        keyStats.put(CACHE + "::key3", new long[] {3600, 20});
+        keyStats.put(CACHE + "::key4", new long[] {3600, 4000});
+        keyStats.put(CACHE + "::key5", new long[] {3600, 30});
+        keyStats.put(CACHE + "::key6", new long[] {3600, 40});
+        keyStats.put(CACHE + "::key7", new long[] {3600, 50});
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        // 7 keys x 30% = 2 victims, the two most idle
+        verify(redisTemplate).unlink(List.of(CACHE + "::key2", CACHE + "::key4"));
+        verify(nearCacheInvalidator).invalidate(CACHE, List.of("key2", "key4"));
+        verify(keyCommands, times(7)).ttl(any(byte[].class));
+        verify(keyCommands, times(7)).idletime(any(byte[].class));
     }
 
     @Test
-    void apply_WithNegativeTTL_HandlesNegativeTTL() {
-        LinkedHashSet<String> keys = new LinkedHashSet<>();
-        keys.add("key1");
-        keys.add("key2");
-        keys.add("key3");
-        keys.add("key4");
-
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            // For 4 keys, 30% -> floor(1.2) == 1 keyToRemove. Provide counts in
-            // the same order as the keys so that the lowest-access key is
-            // predictable (key4). Make key1 and key2 low-access (<5) so they
-            // will receive TTL adjustments after eviction of key4.
-            when(counter.count()).thenReturn(1.0, 0.5, 50.0, 0.1);
-
-            // Mock TTLs per key: key1 has negative TTL, key2 has null TTL, key3/key4 have normal TTLs
-            when(redisTemplate.getExpire("key1")).thenReturn(-1L);
-            when(redisTemplate.getExpire("key2")).thenReturn(null);
-            when(redisTemplate.getExpire("key3")).thenReturn(3600L);
-            when(redisTemplate.getExpire("key4")).thenReturn(3600L);
-
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            // Exactly one deletion should occur for a low-access key
-            verify(redisTemplate, times(1)).delete(anyString());
-
-            // Ensure keys with negative/null TTLs are adjusted and not deleted
-            verify(redisTemplate, never()).delete("key1");
-            verify(redisTemplate, never()).delete("key2");
-
-            // TTL adjustments should be applied for key1 (negative) and key2 (null)
-            verify(redisTemplate).expire(eq("key1"), eq(Duration.ofMinutes(15)));
-            verify(redisTemplate).expire(eq("key2"), eq(Duration.ofMinutes(15)));
-        }
+    void apply_WithEqualIdleTime_PrefersKeysExpiringSoonest() {
+        keyStats.put(CACHE + "::key1", new long[] {3600, 100});
+        keyStats.put(CACHE + "::key2", new long[] {60, 100});
+        keyStats.put(CACHE + "::key3", new long[] {1800, 100});
+        keyStats.put(CACHE + "::key4", new long[] {900, 100});
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        verify(redisTemplate).unlink(List.of(CACHE + "::key2"));
     }
 
     @Test
-    void apply_WithSimpleKeyInKeyName_ProcessesKeyCorrectly() {
-        Set<String> keys = Set.of("cache::SimpleKey[param1]");
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            when(meterRegistry.counter("cache.access", "key", "SimpleKey[param1]"))
-                    .thenReturn(counter);
-            when(counter.count()).thenReturn(1.0);
-            when(redisTemplate.getExpire(anyString())).thenReturn(3600L);
-
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            verify(meterRegistry).counter("cache.access", "key", "SimpleKey[param1]");
-        }
+    void apply_SkipsKeysThatExpiredAfterScan() {
+        keyStats.put(CACHE + "::gone", new long[] {-2, 9999});
+        keyStats.put(CACHE + "::key1", new long[] {3600, 10});
+        keyStats.put(CACHE + "::key2", new long[] {3600, 20});
+        keyStats.put(CACHE + "::key3", new long[] {3600, 30});
+        keyStats.put(CACHE + "::key4", new long[] {3600, 40});
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        verify(redisTemplate).unlink(List.of(CACHE + "::key4"));
     }
 
     @Test
-    void apply_WithDoubleColonInKeyName_ProcessesKeyCorrectly() {
-        Set<String> keys = Set.of("cache::methodName");
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            when(meterRegistry.counter("cache.access", "key", "methodName")).thenReturn(counter);
-            when(counter.count()).thenReturn(1.0);
-            when(redisTemplate.getExpire(anyString())).thenReturn(3600L);
-
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            verify(meterRegistry).counter("cache.access", "key", "methodName");
-        }
+    void apply_ShortensTtlOfIdleKeysThatAreKept() {
+        keyStats.put(CACHE + "::victim", new long[] {3600, 9000});
+        keyStats.put(CACHE + "::idleNoExpiry", new long[] {-1, 8000});
+        keyStats.put(CACHE + "::idle", new long[] {3600, 7000});
+        keyStats.put(CACHE + "::expiringSoon", new long[] {60, 6000});
+        keyStats.put(CACHE + "::recent", new long[] {3600, 5});
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        verify(keyCommands).expire(bytes(CACHE + "::idleNoExpiry"), 900);
+        verify(keyCommands).expire(bytes(CACHE + "::idle"), 900);
+        verify(keyCommands, never()).expire(bytes(CACHE + "::expiringSoon"), 900);
+        verify(keyCommands, never()).expire(bytes(CACHE + "::recent"), 900);
     }
 
     @Test
-    void apply_WithLowAccessCountKeys_AppliesShortTTL() {
-        Set<String> keys = new LinkedHashSet<>(List.of("key1", "key2", "key3", "key4", "key5", "key6"));
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            when(counter.count()).thenReturn(1.0, 2.0, 3.0, 4.0, 6.0, 7.0);
-            when(redisTemplate.getExpire(anyString())).thenReturn(3600L);
-
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
-
-            verify(redisTemplate, times(1)).delete(anyString());
-            verify(redisTemplate, atLeastOnce()).expire(anyString(), eq(Duration.ofMinutes(15)));
+    void apply_WithManyKeys_PipelinesAndUnlinksInBatches() {
+        for (int i = 0; i < 2000; i++) {
+            keyStats.put(CACHE + "::key" + i, new long[] {3600, i % 600});
         }
+        givenCache();
+
+        reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> unlinked = ArgumentCaptor.forClass(Collection.class);
+        verify(redisTemplate, times(2)).unlink(unlinked.capture());
+        assertThat(unlinked.getAllValues()).extracting(Collection::size).containsExactly(500, 100);
+        // Four lookup pipelines of 500 keys; no key here is idle long enough for a TTL pipeline
+        verify(redisTemplate, times(4)).executePipelined(any(RedisCallback.class));
+        // One invalidation message per UNLINK, carrying all of its keys
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> invalidated = ArgumentCaptor.forClass(Collection.class);
+        verify(nearCacheInvalidator, times(2)).invalidate(eq(CACHE), invalidated.capture());
+        assertThat(invalidated.getAllValues()).extracting(Collection::size).containsExactly(500, 100);
+        verify(keyCommands, never()).expire(any(byte[].class), anyLong());
     }
 
-    @Test
-    void apply_WithManyKeysToRemove_ProcessesInBatches() {
-        Set<String> keys = new HashSet<>();
-        for (int i = 0; i < 500; i++) {
-            keys.add("key" + i);
+    @SuppressWarnings("unchecked")
+    private void givenCache() {
+        given(monitor.getCacheNames()).willReturn(Set.of(CACHE));
+        given(connection.keyCommands()).willReturn(keyCommands);
+
+        // RANDOMKEY draws the keys in order and then starts over, or nothing from an empty keyspace
+        List<String> keys = new ArrayList<>(keyStats.keySet());
+        int[] draws = {0};
+        given(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .willAnswer(invocation -> {
+                    int before = draws[0];
+                    invocation.getArgument(0, RedisCallback.class).doInRedis(connection);
+                    List<Object> drawn = new ArrayList<>();
+                    for (int i = before; i < draws[0]; i++) {
+                        drawn.add(keys.isEmpty() ? null : keys.get(i % keys.size()));
+                    }
+                    return drawn;
+                });
+        given(keyCommands.randomKey()).willAnswer(invocation -> {
+            draws[0]++;
+            return null;
+        });
+        if (keyStats.isEmpty()) {
+            return;
         }
-        try (MockedConstruction<Monitor> mocked = mockConstruction(Monitor.class, (mock, ctx) -> {
-            when(mock.scanKeys("*")).thenReturn(keys);
-        })) {
-            when(counter.count()).thenReturn(1.0);
-            when(redisTemplate.getExpire(anyString())).thenReturn(3600L);
 
-            reduceCacheSizePolicy.apply(redisTemplate, meterRegistry);
+        // Answer each pipeline with the stats of the keys its callback asked for
+        List<String> requested = new ArrayList<>();
+        given(keyCommands.ttl(any(byte[].class))).willAnswer(invocation -> {
+            requested.add(new String(invocation.getArgument(0, byte[].class), StandardCharsets.UTF_8));
+            return null;
+        });
+        given(redisTemplate.executePipelined(any(RedisCallback.class))).willAnswer(invocation -> {
+            requested.clear();
+            invocation.getArgument(0, RedisCallback.class).doInRedis(connection);
+            List<Object> results = new ArrayList<>();
+            for (String key : requested) {
+                long[] stats = keyStats.get(key);
+                results.add(stats[0]);
+                results.add(Duration.ofSeconds(stats[1]));
+            }
+            return results;
+        });
+    }
 
-            verify(redisTemplate, times(150)).delete(anyString());
-        }
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 }
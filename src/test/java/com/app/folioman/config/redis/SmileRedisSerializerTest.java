@@ -0,0 +1,86 @@
+package com.app.folioman.config.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+@ExtendWith(MockitoExtension.class)
+class SmileRedisSerializerTest {
+
+    @Mock
+    private RedisSerializer<Object> jsonSerializer;
+
+    private SmileRedisSerializer smileSerializer;
+
+    @BeforeEach
+    void setUp() {
+        smileSerializer = new SmileRedisSerializer(jsonSerializer);
+    }
+
+    @Test
+    void roundTrip_WithRecord_ShouldPreserveType() {
+        Holding holding =
+                new Holding("ABCDE1234F", new BigDecimal("1234.56"), LocalDate.of(2024, 3, 31), List.of("equity"));
+
+        byte[] serialized = smileSerializer.serialize(holding);
+
+        assertThat(new String(serialized, 0, 3, StandardCharsets.UTF_8)).isEqualTo(":)\n");
+        assertThat(smileSerializer.deserialize(serialized)).isEqualTo(holding);
+        verifyNoInteractions(jsonSerializer);
+    }
+
+    @Test
+    void roundTrip_WithList_ShouldPreserveElements() {
+        List<Holding> holdings = List.of(
+                new Holding("ABCDE1234F", BigDecimal.ONE, LocalDate.of(2024, 3, 31), List.of()),
+                new Holding("ABCDE1234F", BigDecimal.TEN, LocalDate.of(2024, 4, 1), List.of("debt")));
+
+        Object result = smileSerializer.deserialize(smileSerializer.serialize(holdings));
+
+        assertThat(result).isInstanceOf(List.class);
+        assertThat((List<?>) result).containsExactlyElementsOf(holdings);
+    }
+
+    @Test
+    void deserialize_WithJsonValue_ShouldDelegateToJsonSerializer() {
+        byte[] json = "{\"pan\":\"ABCDE1234F\"}".getBytes(StandardCharsets.UTF_8);
+        given(jsonSerializer.deserialize(json)).willReturn("legacy");
+
+        assertThat(smileSerializer.deserialize(json)).isEqualTo("legacy");
+    }
+
+    @Test
+    void serialize_WithNull_ShouldReturnEmpty() {
+        assertThat(smileSerializer.serialize(null)).isEmpty();
+    }
+
+    @Test
+    void deserialize_WithNullOrEmpty_ShouldReturnNull() {
+        assertThat(smileSerializer.deserialize(null)).isNull();
+        assertThat(smileSerializer.deserialize(new byte[0])).isNull();
+        verifyNoInteractions(jsonSerializer);
+    }
+
+    @Test
+    void deserialize_WithCorruptedSmileValue_ShouldThrowSerializationException() {
+        byte[] corrupted = {':', ')', '\n', 0, (byte) 0xFA}; // Object start without an end
+
+        assertThatExceptionOfType(SerializationException.class)
+                .isThrownBy(() -> smileSerializer.deserialize(corrupted));
+    }
+
+    record Holding(String pan, BigDecimal value, LocalDate asOf, List<String> tags) {}
+}
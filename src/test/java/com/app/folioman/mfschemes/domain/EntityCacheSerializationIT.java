@@ -0,0 +1,70 @@
+package com.app.folioman.mfschemes.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.app.folioman.config.redis.CacheNames;
+import com.app.folioman.config.redis.CustomRedisCacheManager;
+import com.app.folioman.shared.AbstractIntegrationTest;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+/**
+ * Entities are cached detached, with their lazy collections still uninitialized; the caches holding them have to
+ * write and read them back without touching those collections.
+ */
+class EntityCacheSerializationIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private CustomRedisCacheManager cacheManager;
+
+    @Autowired
+    private MfAmcRepository mfAmcRepository;
+
+    @Autowired
+    private MFSchemeTypeRepository mfSchemeTypeRepository;
+
+    @Test
+    void amcCaches_ShouldRoundTripDetachedEntity() {
+        transactionTemplate.executeWithoutResult(status -> mfAmcRepository.save(
+                new MfAmcEntity().setName("Round Trip Mutual Fund").setCode("RTMF")));
+        MfAmcEntity amc = mfAmcRepository.findByCode("RTMF").orElseThrow();
+
+        for (String cacheName : new String[] {CacheNames.AMC_BY_NAME_CACHE, CacheNames.AMC_BY_CODE_CACHE}) {
+            assertThat(roundTrip(cacheName, amc))
+                    .isInstanceOfSatisfying(MfAmcEntity.class, cached -> {
+                        assertThat(cached.getId()).isEqualTo(amc.getId());
+                        assertThat(cached.getName()).isEqualTo("Round Trip Mutual Fund");
+                        assertThat(cached.getCode()).isEqualTo("RTMF");
+                    });
+        }
+    }
+
+    @Test
+    void schemeTypeCache_ShouldRoundTripDetachedEntity() {
+        transactionTemplate.executeWithoutResult(status -> mfSchemeTypeRepository.save(new MFSchemeTypeEntity()
+                .setType("Round Trip Scheme")
+                .setCategory("Equity Scheme")
+                .setSubCategory("Flexi Cap Fund")));
+        MFSchemeTypeEntity schemeType = Objects.requireNonNull(mfSchemeTypeRepository
+                .findByTypeAndCategoryAndSubCategory("Round Trip Scheme", "Equity Scheme", "Flexi Cap Fund"));
+
+        assertThat(roundTrip(CacheNames.SCHEME_TYPE_CACHE, schemeType))
+                .isInstanceOfSatisfying(MFSchemeTypeEntity.class, cached -> {
+                    assertThat(cached.getSchemeTypeId()).isEqualTo(schemeType.getSchemeTypeId());
+                    assertThat(cached.getType()).isEqualTo("Round Trip Scheme");
+                    assertThat(cached.getSubCategory()).isEqualTo("Flexi Cap Fund");
+                });
+    }
+
+    private Object roundTrip(String cacheName, Object value) {
+        RedisCacheConfiguration configuration =
+                Objects.requireNonNull(cacheManager.getCacheConfigurations().get(cacheName));
+        RedisSerializationContext.SerializationPair<Object> values = configuration.getValueSerializationPair();
+        ByteBuffer written = values.write(value);
+        return values.read(written);
+    }
+}
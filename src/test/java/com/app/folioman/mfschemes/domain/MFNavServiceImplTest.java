@@ -25,6 +25,7 @@ import com.app.folioman.mfschemes.config.NavProperties;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeDTO;
 import com.app.folioman.mfschemes.rest.dtos.MFSchemeNavProjection;
 import com.app.folioman.shared.LocalDateUtility;
+import com.app.folioman.shared.NavDateAdvanced;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -39,6 +40,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClient;
@@ -83,6 +85,9 @@ class MFNavServiceImplTest {
     @Mock
     private ApplicationProperties applicationProperties;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Mock
     private NavProperties nav;
 
@@ -101,7 +106,8 @@ class MFNavServiceImplTest {
                 mfFundSchemeRepository,
                 restClient,
                 transactionManager,
-                applicationProperties);
+                applicationProperties,
+                applicationEventPublisher);
     }
 
     @Test
@@ -271,7 +277,8 @@ class MFNavServiceImplTest {
                     mfFundSchemeRepository,
                     restClient,
                     transactionManager,
-                    applicationProperties);
+                    applicationProperties,
+                    applicationEventPublisher);
 
             // The service creates its own TransactionTemplate using the transactionManager; the
             // mocked transactionTemplate field is not injected and stubbing it is unnecessary.
@@ -279,6 +286,8 @@ class MFNavServiceImplTest {
             mfNavService.loadLastDayDataNav();
 
             verify(MfSchemeNavRepository).saveAll(anyList());
+            verify(applicationEventPublisher)
+                    .publishEvent(new NavDateAdvanced(LocalDate.of(2024, 1, 15), List.of(123456L, 654321L)));
         }
     }
 
@@ -291,6 +300,7 @@ class MFNavServiceImplTest {
 
         verify(restClient, never()).get();
         verify(MfSchemeNavRepository, never()).saveAll(anyList());
+        verify(applicationEventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -209,4 +209,26 @@ class MFSchemeNavRepositoryTest {
         assertThat(projection.nav()).isEqualByComparingTo(new BigDecimal("200.25000"));
         assertThat(projection.navDate()).isEqualTo(LocalDate.of(2023, 1, 10));
     }
+
+    @Test
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ_WRITE)
+    void saveAndFindAllNavDateValues_ShouldRoundTripThroughArchiveAndComingYearPartitions() {
+        LocalDate archived = LocalDate.of(2001, 4, 2);
+        LocalDate comingYear = LocalDate.of(LocalDate.now().getYear() + 2, 1, 3);
+        MFSchemeNavEntity archivedNav = new MFSchemeNavEntity();
+        archivedNav.setMfFundSchemeEntity(testScheme2);
+        archivedNav.setNavDate(archived);
+        archivedNav.setNav(new BigDecimal("10.00"));
+        MFSchemeNavEntity comingNav = new MFSchemeNavEntity();
+        comingNav.setMfFundSchemeEntity(testScheme2);
+        comingNav.setNavDate(comingYear);
+        comingNav.setNav(new BigDecimal("300.00"));
+
+        repository.saveAllAndFlush(List.of(archivedNav, comingNav));
+        entityManager.clear();
+
+        assertThat(repository.findAllNavDateValuesBySchemeId(testScheme2.getId()))
+                .extracting(NavDateValueProjection::navDate)
+                .containsExactlyInAnyOrder(LocalDate.of(2023, 1, 10), archived, comingYear);
+    }
 }
@@ -127,6 +127,20 @@ class MfFundSchemeRepositoryTest {
         assertThat(result).isNotNull();
     }
 
+    @Test
+    void findByRtaCodePrefixIn_WithPrefixes_ShouldReturnList() {
+        List<MfFundSchemeEntity> result = mfFundSchemeRepository.findByRtaCodePrefixIn(4, List.of("HDFC", "ICIC"));
+        assertThat(result)
+                .isNotNull()
+                .allSatisfy(scheme -> assertThat(scheme.getRtaCode()).matches("^(HDFC|ICIC).*"));
+    }
+
+    @Test
+    void findByIsinIn_WithUnknownIsins_ShouldReturnEmptyList() {
+        List<MFSchemeProjection> result = mfFundSchemeRepository.findByIsinIn(List.of("INE000000000", "INE999999999"));
+        assertThat(result).isEmpty();
+    }
+
     @Test
     void getReferenceByAmfiCode_WithValidAmfiCode_ShouldReturnReference() {
         Long amfiCode = 123456L;
@@ -1,6 +1,7 @@
 package com.app.folioman.mfschemes.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -10,9 +11,12 @@ import static org.mockito.Mockito.when;
 
 import com.app.folioman.mfschemes.config.ApplicationProperties;
 import com.app.folioman.mfschemes.rest.dtos.FundDetailProjection;
+import com.app.folioman.mfschemes.rest.dtos.MFSchemeProjection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -199,6 +203,39 @@ class MfSchemeServiceImplTest {
         verify(mfSchemeRepository, never()).findByAmfiCode(anyLong());
     }
 
+    @Test
+    void fetchSchemesByRtaCodes_shouldQueryOncePerPrefixLengthAndKeyByPrefix() {
+        // Arrange
+        MfFundSchemeEntity hdfcScheme = createTestScheme(100001L, "HDFC Flexi Cap", "HDFC").setRtaCode("HFC1G");
+        MfFundSchemeEntity iciciScheme = createTestScheme(100002L, "ICICI Bluechip", "ICICI").setRtaCode("IPB2");
+        MfFundSchemeEntity sbiScheme = createTestScheme(100003L, "SBI Small Cap", "SBI").setRtaCode("SBI12X");
+        when(mfSchemeRepository.findByRtaCodePrefixIn(eq(4), anyCollection()))
+                .thenReturn(List.of(hdfcScheme, sbiScheme));
+        when(mfSchemeRepository.findByRtaCodePrefixIn(eq(3), anyCollection())).thenReturn(List.of(iciciScheme));
+
+        // Act
+        Map<String, List<MFSchemeProjection>> result =
+                mfSchemeService.fetchSchemesByRtaCodes(List.of("HFC1", "SBI1", "IPB", "", "HFC1"));
+
+        // Assert
+        assertThat(result).containsOnlyKeys("HFC1", "SBI1", "IPB");
+        assertThat(result.get("HFC1")).extracting(MFSchemeProjection::getAmfiCode).containsExactly(100001L);
+        assertThat(result.get("SBI1")).extracting(MFSchemeProjection::getAmfiCode).containsExactly(100003L);
+        assertThat(result.get("IPB")).extracting(MFSchemeProjection::getAmfiCode).containsExactly(100002L);
+        verify(mfSchemeRepository).findByRtaCodePrefixIn(eq(4), anyCollection());
+        verify(mfSchemeRepository).findByRtaCodePrefixIn(eq(3), anyCollection());
+    }
+
+    @Test
+    void findByPayOutIn_withNoIsins_shouldNotQueryRepository() {
+        // Act
+        List<MFSchemeProjection> result = mfSchemeService.findByPayOutIn(Set.of());
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(mfSchemeRepository, never()).findByIsinIn(anyCollection());
+    }
+
     private MfFundSchemeEntity createTestScheme(Long amfiCode, String name, String amcName) {
         MfFundSchemeEntity scheme = new MfFundSchemeEntity();
         scheme.setAmfiCode(amfiCode);
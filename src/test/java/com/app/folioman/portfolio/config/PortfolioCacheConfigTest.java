@@ -1,10 +1,12 @@
 package com.app.folioman.portfolio.config;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.atLeastOnce;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -12,17 +14,21 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.app.folioman.config.redis.CacheNames;
-import java.util.Collections;
-import java.util.Set;
+import com.app.folioman.config.redis.NearCacheInvalidator;
+import java.util.Iterator;
+import java.util.List;
 import org.jobrunr.scheduling.BackgroundJob;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 
 @ExtendWith(MockitoExtension.class)
 class PortfolioCacheConfigTest {
@@ -39,12 +45,19 @@ class PortfolioCacheConfigTest {
     @Mock
     private ApplicationStartedEvent applicationStartedEvent;
 
+    @Mock
+    private Cursor<String> cursor;
+
+    @Mock
+    private NearCacheInvalidator nearCacheInvalidator;
+
     @InjectMocks
     private PortfolioCacheConfig portfolioCacheConfig;
 
     @Test
     void constructor_ShouldInitializeFields() {
-        PortfolioCacheConfig config = new PortfolioCacheConfig(redisTemplate, portfolioCacheProperties);
+        PortfolioCacheConfig config =
+                new PortfolioCacheConfig(redisTemplate, portfolioCacheProperties, nearCacheInvalidator);
 
         verify(portfolioCacheProperties, never()).getEviction();
     }
@@ -68,102 +81,142 @@ class PortfolioCacheConfigTest {
     }
 
     @Test
-    void evictTransactionCaches_WithNoKeys_ShouldReturnEarly() {
-        when(redisTemplate.keys(anyString())).thenReturn(Collections.emptySet());
+    void evictTransactionCaches_WithNoKeys_ShouldNotUnlink() {
+        givenScannedKeys();
 
         portfolioCacheConfig.evictTransactionCaches();
 
-        verify(redisTemplate).keys(CacheNames.TRANSACTION_CACHE + "::*");
-        verify(redisTemplate, never()).delete(anyString());
+        verify(redisTemplate, never()).unlink(anyCollection());
+        verify(redisTemplate, never()).keys(anyString());
+        verify(nearCacheInvalidator, never()).invalidate(anyString(), anyCollection());
+    }
+
+    @Test
+    void evictTransactionCaches_ShouldScanOnlyTheTransactionCache() {
+        givenScannedKeys();
+
+        portfolioCacheConfig.evictTransactionCaches();
+
+        ArgumentCaptor<ScanOptions> scanOptions = ArgumentCaptor.forClass(ScanOptions.class);
+        verify(redisTemplate).scan(scanOptions.capture());
+        assertThat(scanOptions.getValue().getPattern()).isEqualTo(CacheNames.TRANSACTION_CACHE + "::*");
+        assertThat(scanOptions.getValue().getCount()).isEqualTo(10);
+        verify(cursor).close();
     }
 
     @Test
-    void evictTransactionCaches_WithMatchingKeys_ShouldEvictCorrectKeys() {
-        Set<String> keys = Set.of(
+    void evictTransactionCaches_WithMatchingKeys_ShouldUnlinkCorrectKeys() {
+        givenScannedKeys(
                 CacheNames.TRANSACTION_CACHE + "::monthly_2023",
                 CacheNames.TRANSACTION_CACHE + "::yearly_2023",
                 CacheNames.TRANSACTION_CACHE + "::daily_2023",
                 CacheNames.TRANSACTION_CACHE + "::weekly_2023");
-        when(redisTemplate.keys(CacheNames.TRANSACTION_CACHE + "::*")).thenReturn(keys);
-        when(portfolioCacheProperties.getEviction()).thenReturn(eviction);
-        when(eviction.getBatchSize()).thenReturn(10);
 
         portfolioCacheConfig.evictTransactionCaches();
-        verify(redisTemplate).delete(CacheNames.TRANSACTION_CACHE + "::monthly_2023");
-        verify(redisTemplate).delete(CacheNames.TRANSACTION_CACHE + "::yearly_2023");
-        verify(redisTemplate, never()).delete(CacheNames.TRANSACTION_CACHE + "::daily_2023");
-        verify(redisTemplate, never()).delete(CacheNames.TRANSACTION_CACHE + "::weekly_2023");
+
+        verify(redisTemplate)
+                .unlink(List.of(
+                        CacheNames.TRANSACTION_CACHE + "::monthly_2023",
+                        CacheNames.TRANSACTION_CACHE + "::yearly_2023"));
+        verify(redisTemplate, never()).delete(anyString());
     }
 
     @Test
-    void evictTransactionCaches_WithBatchProcessing_ShouldProcessInBatches() {
-        Set<String> keys = Set.of(
+    void evictTransactionCaches_ShouldInvalidateNearCachesForEachUnlinkedBatch() {
+        givenScannedKeys(
+                2,
+                CacheNames.TRANSACTION_CACHE + "::monthly_1",
+                CacheNames.TRANSACTION_CACHE + "::yearly_1",
+                CacheNames.TRANSACTION_CACHE + "::monthly_2");
+
+        portfolioCacheConfig.evictTransactionCaches();
+
+        verify(nearCacheInvalidator).invalidate(CacheNames.TRANSACTION_CACHE, List.of("monthly_1", "yearly_1"));
+        verify(nearCacheInvalidator).invalidate(CacheNames.TRANSACTION_CACHE, List.of("monthly_2"));
+    }
+
+    @Test
+    void evictTransactionCaches_WithBatchProcessing_ShouldUnlinkOneBatchPerCommand() {
+        givenScannedKeys(
+                2,
                 CacheNames.TRANSACTION_CACHE + "::monthly_1",
                 CacheNames.TRANSACTION_CACHE + "::monthly_2",
                 CacheNames.TRANSACTION_CACHE + "::monthly_3");
-        when(redisTemplate.keys(CacheNames.TRANSACTION_CACHE + "::*")).thenReturn(keys);
-        when(portfolioCacheProperties.getEviction()).thenReturn(eviction);
-        when(eviction.getBatchSize()).thenReturn(2);
 
         portfolioCacheConfig.evictTransactionCaches();
 
-        verify(redisTemplate, times(3)).delete(anyString());
-        verify(eviction, atLeastOnce()).getBatchSize();
+        verify(redisTemplate)
+                .unlink(List.of(
+                        CacheNames.TRANSACTION_CACHE + "::monthly_1", CacheNames.TRANSACTION_CACHE + "::monthly_2"));
+        verify(redisTemplate).unlink(List.of(CacheNames.TRANSACTION_CACHE + "::monthly_3"));
+        verify(redisTemplate, times(2)).unlink(anyCollection());
     }
 
     @Test
-    void evictTransactionCaches_WithException_ShouldHandleGracefully() {
-        when(redisTemplate.keys(anyString())).thenThrow(new RuntimeException("Redis connection failed"));
+    void evictTransactionCaches_WithScanException_ShouldHandleGracefully() {
+        given(portfolioCacheProperties.getEviction()).willReturn(eviction);
+        given(eviction.getBatchSize()).willReturn(10);
+        given(redisTemplate.scan(any(ScanOptions.class))).willThrow(new RuntimeException("Redis connection failed"));
 
         portfolioCacheConfig.evictTransactionCaches();
 
-        verify(redisTemplate).keys(CacheNames.TRANSACTION_CACHE + "::*");
-        verify(redisTemplate, never()).delete(anyString());
+        verify(redisTemplate, never()).unlink(anyCollection());
     }
 
     @Test
-    void evictTransactionCaches_WithDeleteException_ShouldHandleGracefully() {
-        Set<String> keys = Set.of(CacheNames.TRANSACTION_CACHE + "::monthly_2023");
-        when(redisTemplate.keys(CacheNames.TRANSACTION_CACHE + "::*")).thenReturn(keys);
-        doThrow(new RuntimeException("Delete failed")).when(redisTemplate).delete(anyString());
+    void evictTransactionCaches_WithUnlinkException_ShouldHandleGracefullyAndCloseCursor() {
+        givenScannedKeys(CacheNames.TRANSACTION_CACHE + "::monthly_2023");
+        given(redisTemplate.unlink(anyCollection())).willThrow(new RuntimeException("Unlink failed"));
 
         portfolioCacheConfig.evictTransactionCaches();
 
-        verify(redisTemplate).keys(CacheNames.TRANSACTION_CACHE + "::*");
-        verify(redisTemplate).delete(CacheNames.TRANSACTION_CACHE + "::monthly_2023");
+        verify(redisTemplate).unlink(List.of(CacheNames.TRANSACTION_CACHE + "::monthly_2023"));
+        verify(cursor).close();
     }
 
     @Test
     void evictTransactionCaches_WithOnlyNonMatchingKeys_ShouldNotEvictAny() {
-        Set<String> keys = Set.of(
+        givenScannedKeys(
                 CacheNames.TRANSACTION_CACHE + "::daily_2023",
                 CacheNames.TRANSACTION_CACHE + "::weekly_2023",
                 CacheNames.TRANSACTION_CACHE + "::custom_2023");
-        when(redisTemplate.keys(CacheNames.TRANSACTION_CACHE + "::*")).thenReturn(keys);
 
         portfolioCacheConfig.evictTransactionCaches();
-        verify(redisTemplate).keys(CacheNames.TRANSACTION_CACHE + "::*");
-        verify(redisTemplate, never()).delete(anyString());
+
+        verify(redisTemplate, never()).unlink(anyCollection());
     }
 
     @Test
     void evictTransactionCaches_WithMixedKeys_ShouldOnlyEvictMatching() {
-        Set<String> keys = Set.of(
+        givenScannedKeys(
                 CacheNames.TRANSACTION_CACHE + "::monthly_jan",
                 CacheNames.TRANSACTION_CACHE + "::yearly_summary",
                 CacheNames.TRANSACTION_CACHE + "::daily_report",
                 CacheNames.TRANSACTION_CACHE + "::some_monthly_data",
                 CacheNames.TRANSACTION_CACHE + "::yearly_stats");
-        when(redisTemplate.keys(CacheNames.TRANSACTION_CACHE + "::*")).thenReturn(keys);
-        when(portfolioCacheProperties.getEviction()).thenReturn(eviction);
-        when(eviction.getBatchSize()).thenReturn(5);
 
         portfolioCacheConfig.evictTransactionCaches();
 
-        verify(redisTemplate).delete(CacheNames.TRANSACTION_CACHE + "::monthly_jan");
-        verify(redisTemplate).delete(CacheNames.TRANSACTION_CACHE + "::yearly_summary");
-        verify(redisTemplate).delete(CacheNames.TRANSACTION_CACHE + "::some_monthly_data");
-        verify(redisTemplate).delete(CacheNames.TRANSACTION_CACHE + "::yearly_stats");
-        verify(redisTemplate, never()).delete(CacheNames.TRANSACTION_CACHE + "::daily_report");
+        verify(redisTemplate)
+                .unlink(List.of(
+                        CacheNames.TRANSACTION_CACHE + "::monthly_jan",
+                        CacheNames.TRANSACTION_CACHE + "::yearly_summary",
+                        CacheNames.TRANSACTION_CACHE + "::some_monthly_data",
+                        CacheNames.TRANSACTION_CACHE + "::yearly_stats"));
+    }
+
+    private void givenScannedKeys(String... keys) {
+        givenScannedKeys(10, keys);
+    }
+
+    private void givenScannedKeys(int batchSize, String... keys) {
+        given(portfolioCacheProperties.getEviction()).willReturn(eviction);
+        given(eviction.getBatchSize()).willReturn(batchSize);
+        given(redisTemplate.scan(any(ScanOptions.class))).willReturn(cursor);
+        Iterator<String> scanned = List.of(keys).iterator();
+        given(cursor.hasNext()).willAnswer(invocation -> scanned.hasNext());
+        if (keys.length > 0) {
+            given(cursor.next()).willAnswer(invocation -> scanned.next());
+        }
     }
 }
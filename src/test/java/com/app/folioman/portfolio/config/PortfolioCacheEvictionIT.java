@@ -5,6 +5,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.app.folioman.config.redis.NearCacheInvalidator;
 import com.app.folioman.shared.AbstractIntegrationTest;
 import org.jobrunr.jobs.lambdas.JobLambda;
 import org.jobrunr.scheduling.BackgroundJob;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 
 /**
@@ -24,6 +26,9 @@ class PortfolioCacheEvictionIT extends AbstractIntegrationTest {
 
     private static final String TEST_CRON_EXPRESSION = "0 45 18 * * *";
 
+    @Autowired
+    private NearCacheInvalidator nearCacheInvalidator;
+
     @Test
     @DisplayName("Should configure cache eviction job with correct schedule")
     void shouldConfigureJobRunrCacheEvictionWithCorrectSchedule() {
@@ -33,13 +38,15 @@ class PortfolioCacheEvictionIT extends AbstractIntegrationTest {
             given(evictionSpy.getTransactionCron()).willReturn(TEST_CRON_EXPRESSION);
 
             // Create a new instance of the config for the test
-            PortfolioCacheConfig configUnderTest =
-                    new PortfolioCacheConfig(redisTemplate, new PortfolioCacheProperties() {
+            PortfolioCacheConfig configUnderTest = new PortfolioCacheConfig(
+                    redisTemplate,
+                    new PortfolioCacheProperties() {
                         @Override
                         public Eviction getEviction() {
                             return evictionSpy;
                         }
-                    });
+                    },
+                    nearCacheInvalidator);
 
             // Trigger the method that schedules the job
             configUnderTest.scheduleTransactionCacheEvictionJob(Mockito.mock(ApplicationStartedEvent.class));
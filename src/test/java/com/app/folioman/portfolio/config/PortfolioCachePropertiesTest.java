@@ -2,6 +2,7 @@ package com.app.folioman.portfolio.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -107,4 +108,12 @@ class PortfolioCachePropertiesTest {
         assertThat(newEviction.getBatchSize()).isEqualTo(100);
         assertThat(newEviction.getTransactionCron()).isEqualTo("0 45 18 * * *");
     }
+
+    @Test
+    void warmupDefaultValues() {
+        PortfolioCacheProperties.Warmup warmup = portfolioCacheProperties.getWarmup();
+        assertThat(warmup.getMaxInvestors()).isEqualTo(500);
+        assertThat(warmup.getActiveWithin()).isEqualTo(Duration.ofDays(7));
+        assertThat(warmup.getPoolShare()).isEqualTo(0.25);
+    }
 }
@@ -0,0 +1,97 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.app.folioman.portfolio.rest.dtos.CasDTO;
+import com.app.folioman.portfolio.rest.dtos.UserFolioDTO;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+class CasJsonStreamReaderTest {
+
+    private final CasJsonStreamReader casJsonStreamReader = new CasJsonStreamReader(JsonMapper.builder().build());
+
+    @Test
+    void read_ShouldDeliverFoliosInBoundedChunks() {
+        List<List<UserFolioDTO>> chunks = new ArrayList<>();
+
+        CasDTO header = casJsonStreamReader.read(
+                json("""
+                        {"statement_period":{"from":"01-Jan-2023","to":"31-Dec-2023"},"file_type":"CAMS",
+                        "cas_type":"DETAILED","investor_info":{"email":"junit@email.com","name":"Junit"},
+                        "folios":[%s]}
+                        """.formatted(folios(5))),
+                2,
+                (casHeader, chunk) -> {
+                    assertThat(casHeader.investorInfo().email()).isEqualTo("junit@email.com");
+                    chunks.add(chunk);
+                });
+
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(chunks.getLast().getFirst().folio()).isEqualTo("FOLIO4");
+        assertThat(header.statementPeriod().myto()).isEqualTo("31-Dec-2023");
+        assertThat(header.fileType()).isEqualTo("CAMS");
+        assertThat(header.casType()).isEqualTo("DETAILED");
+        assertThat(header.folios()).isEmpty();
+    }
+
+    @Test
+    void read_WhenFoliosPrecedeInvestorInfo_ShouldHoldFoliosUntilHeaderIsComplete() {
+        List<CasDTO> headersSeen = new ArrayList<>();
+        List<UserFolioDTO> folios = new ArrayList<>();
+
+        casJsonStreamReader.read(
+                json("""
+                        {"folios":[%s],"unknown":{"nested":[1,2,3]},
+                        "investor_info":{"email":"junit@email.com","name":"Junit"}}
+                        """.formatted(folios(3))),
+                2,
+                (casHeader, chunk) -> {
+                    headersSeen.add(casHeader);
+                    folios.addAll(chunk);
+                });
+
+        assertThat(folios).extracting(UserFolioDTO::folio).containsExactly("FOLIO0", "FOLIO1", "FOLIO2");
+        assertThat(headersSeen)
+                .hasSize(2)
+                .allSatisfy(casHeader -> assertThat(casHeader.investorInfo().name()).isEqualTo("Junit"));
+    }
+
+    @Test
+    void read_WithoutFolios_ShouldNotInvokeConsumer() {
+        List<List<UserFolioDTO>> chunks = new ArrayList<>();
+
+        CasDTO header = casJsonStreamReader.read(
+                json("{\"investor_info\":{\"email\":\"junit@email.com\",\"name\":\"Junit\"},\"folios\":[]}"),
+                2,
+                (casHeader, chunk) -> chunks.add(chunk));
+
+        assertThat(chunks).isEmpty();
+        assertThat(header.investorInfo().name()).isEqualTo("Junit");
+    }
+
+    @Test
+    void read_WithNonObjectDocument_ShouldThrowException() {
+        assertThatThrownBy(() -> casJsonStreamReader.read(json("[]"), 2, (casHeader, chunk) -> {}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CAS document must be a JSON object");
+    }
+
+    private String folios(int count) {
+        List<String> folios = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            folios.add("{\"folio\":\"FOLIO" + i + "\",\"amc\":\"AMC\",\"schemes\":[]}");
+        }
+        return String.join(",", folios);
+    }
+
+    private InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,155 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.app.folioman.shared.AbstractIntegrationTest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The rollup in {@code portfolio.pan_monthly_investment} has to list exactly what the aggregate over the transactions
+ * it replaced returns, whichever way the transactions, schemes or folios change.
+ */
+class PanMonthlyInvestmentIT extends AbstractIntegrationTest {
+
+    private static final String AGGREGATE_QUERY = """
+            SELECT to_char(DATE_TRUNC('month', utd.transaction_date), 'YYYY-MM')
+                   || '=' || SUM(utd.amount)::numeric(30, 2)
+            FROM portfolio.user_transaction_details utd
+            JOIN portfolio.user_scheme_details usd ON utd.user_scheme_detail_id = usd.id
+            JOIN portfolio.user_folio_details ufd ON ufd.id = usd.user_folio_id
+            WHERE ufd.pan = ?
+            GROUP BY DATE_TRUNC('month', utd.transaction_date)
+            ORDER BY DATE_TRUNC('month', utd.transaction_date)
+            """;
+
+    private static final String ROLLUP_QUERY = """
+            SELECT to_char(pmi.month_start, 'YYYY-MM') || '=' || pmi.invested::numeric(30, 2)
+            FROM portfolio.pan_monthly_investment pmi
+            WHERE pmi.pan = ?
+            ORDER BY pmi.month_start
+            """;
+
+    @Test
+    void trigger_ShouldFollowInsertedUpdatedAndDeletedTransactions() {
+        UserCasDetailsEntity cas = persist(TransactionTestDataBuilder.builder()
+                .withInvestor("rollup-trigger@example.com", "Rollup Trigger")
+                .withFolio("1001 / 1", "AXIS Mutual Fund", "ROLLA1234A")
+                .withScheme("Axis Bluechip Fund", "INF846K01DP8", 120465L)
+                .addTransaction(LocalDate.of(2024, 1, 5), TransactionType.PURCHASE, amount("1000"), 10.0, 100.0, 10.0)
+                .addTransaction(LocalDate.of(2024, 1, 20), TransactionType.PURCHASE, amount("500"), 5.0, 100.0, 15.0)
+                .addTransaction(LocalDate.of(2024, 2, 5), TransactionType.PURCHASE, amount("750"), 7.5, 100.0, 22.5)
+                .build());
+        List<UserTransactionDetailsEntity> transactions = transactions(cas);
+
+        assertThat(rollup("ROLLA1234A")).containsExactly("2024-01=1500.00", "2024-02=750.00");
+        assertParity("ROLLA1234A");
+
+        update("UPDATE portfolio.user_transaction_details SET amount = 600 WHERE id = ?", transactions.get(1).getId());
+        assertThat(rollup("ROLLA1234A")).containsExactly("2024-01=1600.00", "2024-02=750.00");
+
+        update(
+                "UPDATE portfolio.user_transaction_details SET transaction_date = DATE '2024-03-10' WHERE id = ?",
+                transactions.get(0).getId());
+        assertThat(rollup("ROLLA1234A")).containsExactly("2024-01=600.00", "2024-02=750.00", "2024-03=1000.00");
+
+        update("DELETE FROM portfolio.user_transaction_details WHERE id = ?", transactions.get(2).getId());
+        assertThat(rollup("ROLLA1234A")).containsExactly("2024-01=600.00", "2024-03=1000.00");
+        assertParity("ROLLA1234A");
+    }
+
+    @Test
+    void rebuild_ShouldMatchAggregateOverTransactions() {
+        persist(TransactionTestDataBuilder.builder()
+                .withInvestor("rollup-rebuild@example.com", "Rollup Rebuild")
+                .withFolio("1002 / 1", "HDFC Mutual Fund", "ROLLB1234B")
+                .withScheme("HDFC Flexi Cap Fund", "INF179K01608", 118955L)
+                .addTransaction(LocalDate.of(2023, 12, 1), TransactionType.PURCHASE, amount("2000"), 2.0, 1000.0, 2.0)
+                .addTransaction(LocalDate.of(2024, 4, 1), TransactionType.REDEMPTION, amount("-900"), -1.0, 900.0, 1.0)
+                .withFolio("1002 / 2", "HDFC Mutual Fund", "ROLLB1234B")
+                .withScheme("HDFC Mid Cap Fund", "INF179K01XQ0", 118989L)
+                .addTransaction(LocalDate.of(2024, 4, 15), TransactionType.PURCHASE, amount("300"), 3.0, 100.0, 3.0)
+                .build());
+
+        // Forget what the trigger recorded, so only the rebuild, which also backfills the rollup, is checked
+        update("DELETE FROM portfolio.pan_monthly_investment WHERE pan = ?", "ROLLB1234B");
+        transactionTemplate.executeWithoutResult(
+                status -> jdbcTemplate.execute("SELECT portfolio.rebuild_pan_monthly_investment()"));
+
+        assertThat(rollup("ROLLB1234B")).containsExactly("2023-12=2000.00", "2024-04=-600.00");
+        assertParity("ROLLB1234B");
+    }
+
+    @Test
+    void panSetOnFolio_ShouldMoveItsMonthsToTheNewPan() {
+        UserCasDetailsEntity cas = persist(TransactionTestDataBuilder.builder()
+                .withInvestor("rollup-pan@example.com", "Rollup Pan")
+                .withFolio("1003 / 1", "SBI Mutual Fund", "ROLLF0000F")
+                .withScheme("SBI Small Cap Fund", "INF200K01T51", 125497L)
+                .addTransaction(LocalDate.of(2024, 5, 2), TransactionType.PURCHASE, amount("1200"), 12.0, 100.0, 12.0)
+                .build());
+
+        // As done for folios whose KYC is not OK, once the PAN of the statement is known
+        update(
+                "UPDATE portfolio.user_folio_details SET pan = 'ROLLC1234C' WHERE id = ?",
+                cas.getFolios().getFirst().getId());
+
+        assertThat(rollup("ROLLF0000F")).isEmpty();
+        assertThat(rollup("ROLLC1234C")).containsExactly("2024-05=1200.00");
+        assertParity("ROLLC1234C");
+    }
+
+    @Test
+    void schemeMovedToFolioOfOtherPan_ShouldMoveItsMonths() {
+        UserCasDetailsEntity cas = persist(TransactionTestDataBuilder.builder()
+                .withInvestor("rollup-move@example.com", "Rollup Move")
+                .withFolio("1004 / 1", "ICICI Prudential Mutual Fund", "ROLLD1234D")
+                .withScheme("ICICI Prudential Bluechip Fund", "INF109K01BL4", 120586L)
+                .addTransaction(LocalDate.of(2024, 6, 3), TransactionType.PURCHASE, amount("400"), 4.0, 100.0, 4.0)
+                .addTransaction(LocalDate.of(2024, 7, 3), TransactionType.PURCHASE, amount("400"), 4.0, 100.0, 8.0)
+                .withScheme("ICICI Prudential Value Fund", "INF109K01AF8", 120323L)
+                .addTransaction(LocalDate.of(2024, 6, 10), TransactionType.PURCHASE, amount("250"), 2.5, 100.0, 2.5)
+                .withFolio("1004 / 2", "ICICI Prudential Mutual Fund", "ROLLE1234E")
+                .build());
+        UserFolioDetailsEntity from = cas.getFolios().get(0);
+        UserFolioDetailsEntity to = cas.getFolios().get(1);
+
+        update(
+                "UPDATE portfolio.user_scheme_details SET user_folio_id = ? WHERE id = ?",
+                to.getId(),
+                from.getSchemes().getFirst().getId());
+
+        assertThat(rollup("ROLLD1234D")).containsExactly("2024-06=250.00");
+        assertThat(rollup("ROLLE1234E")).containsExactly("2024-06=400.00", "2024-07=400.00");
+        assertParity("ROLLD1234D");
+        assertParity("ROLLE1234E");
+    }
+
+    private UserCasDetailsEntity persist(UserCasDetailsEntity cas) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(cas));
+        return cas;
+    }
+
+    private void update(String sql, Object... args) {
+        // The pool does not auto-commit
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(sql, args));
+    }
+
+    private static List<UserTransactionDetailsEntity> transactions(UserCasDetailsEntity cas) {
+        return cas.getFolios().getFirst().getSchemes().getFirst().getTransactions();
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+
+    private List<String> rollup(String pan) {
+        return jdbcTemplate.queryForList(ROLLUP_QUERY, String.class, pan);
+    }
+
+    private void assertParity(String pan) {
+        assertThat(rollup(pan)).isEqualTo(jdbcTemplate.queryForList(AGGREGATE_QUERY, String.class, pan));
+    }
+}
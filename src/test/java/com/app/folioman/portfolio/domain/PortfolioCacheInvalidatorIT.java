@@ -0,0 +1,65 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.app.folioman.config.redis.CacheNames;
+import com.app.folioman.portfolio.PortfolioAPI;
+import com.app.folioman.shared.AbstractIntegrationTest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+class PortfolioCacheInvalidatorIT extends AbstractIntegrationTest {
+
+    // Glob metacharacters are legal in email addresses
+    private static final String EMAIL = "re*valued[1]?@example.com";
+    private static final String PAN = "REVAL1234F";
+
+    @Autowired
+    private PortfolioValueUpdateService portfolioValueUpdateService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PortfolioAPI portfolioAPI;
+
+    @Test
+    void updatePortfolioValue_OutsideTransaction_ShouldEvictCachedViewsOfCas() {
+        UserCasDetailsEntity casDetails = TransactionTestDataBuilder.builder()
+                .withInvestor(EMAIL, "Revalued Investor")
+                .withFolio("12345678 / 0", "AXIS Mutual Fund", PAN)
+                .build();
+        Long casId = Objects.requireNonNull(transactionTemplate.execute(status -> {
+            entityManager.persist(casDetails);
+            return casDetails.getId();
+        }));
+
+        Cache summaryCache = Objects.requireNonNull(cacheManager.getCache(CacheNames.SUMMARY_CACHE));
+        Cache returnsCache = Objects.requireNonNull(cacheManager.getCache(CacheNames.RETURNS_CACHE));
+        Cache historyCache = Objects.requireNonNull(cacheManager.getCache(CacheNames.PORTFOLIO_HISTORY_CACHE));
+        String summaryKey = "summary_" + casId + "_" + EMAIL;
+        String returnsKey = "returns_" + PAN;
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        String historyKey = PortfolioHistoryKeyIndex.key(casId, EMAIL, from, to, 500);
+        summaryCache.put(summaryKey, "stale summary");
+        returnsCache.put(returnsKey, "stale returns");
+        portfolioAPI.getPortfolioHistory(casId, EMAIL, from, to, 500);
+        assertThat(historyCache.get(historyKey)).isNotNull();
+
+        // Called without a surrounding transaction, as the post-upload job does
+        portfolioValueUpdateService.updatePortfolioValue(casId);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(summaryCache.get(summaryKey)).isNull();
+            assertThat(returnsCache.get(returnsKey)).isNull();
+            assertThat(historyCache.get(historyKey)).isNull();
+        });
+    }
+}
@@ -0,0 +1,192 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.app.folioman.config.redis.CacheNames;
+import com.app.folioman.portfolio.PortfolioCacheWarmer;
+import com.app.folioman.portfolio.domain.models.projection.CasCacheKeyProjection;
+import com.app.folioman.shared.CasRevalued;
+import com.app.folioman.shared.NavDateAdvanced;
+import com.app.folioman.shared.TransactionsChanged;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.jobrunr.jobs.lambdas.JobLambda;
+import org.jobrunr.scheduling.BackgroundJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioCacheInvalidatorTest {
+
+    private static final String EMAIL = "investor@example.com";
+
+    @Mock
+    private UserCASDetailsRepository userCASDetailsRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private PortfolioHistoryKeyIndex portfolioHistoryKeyIndex;
+
+    @Mock
+    private Cache summaryCache;
+
+    @Mock
+    private Cache historyCache;
+
+    @Mock
+    private Cache returnsCache;
+
+    @Mock
+    private Cache transactionCache;
+
+    @Mock
+    private PortfolioCacheWarmer portfolioCacheWarmer;
+
+    private PortfolioCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        invalidator = new PortfolioCacheInvalidator(
+                userCASDetailsRepository, cacheManager, portfolioHistoryKeyIndex, portfolioCacheWarmer);
+    }
+
+    @Test
+    void onTransactionsChanged_ShouldEvictEveryViewOfCasAndItsPans() {
+        given(userCASDetailsRepository.findCacheKeysByCasIds(List.of(7L)))
+                .willReturn(List.of(holder(7L, "ABCDE1234F"), holder(7L, "ABCDE1234F")));
+        stubCaches();
+        given(cacheManager.getCache(CacheNames.TRANSACTION_CACHE)).willReturn(transactionCache);
+        Set<String> historyKeys = Set.of("history_7_" + EMAIL + "_2024-01-01_2024-12-31_500");
+        given(portfolioHistoryKeyIndex.keysOf(7L)).willReturn(historyKeys);
+
+        invalidator.onTransactionsChanged(new TransactionsChanged(7L));
+
+        verify(summaryCache).evict("summary_7_" + EMAIL);
+        verify(returnsCache).evict("returns_ABCDE1234F");
+        verify(historyCache).evict("history_7_" + EMAIL + "_2024-01-01_2024-12-31_500");
+        verify(portfolioHistoryKeyIndex).forget(7L, historyKeys);
+        verify(transactionCache).evict("monthly_ABCDE1234F");
+        verify(transactionCache).evict("yearly_ABCDE1234F");
+    }
+
+    @Test
+    void onCasRevalued_WithGlobCharactersInEmail_ShouldEvictIndexedHistoriesAsIs() {
+        given(userCASDetailsRepository.findCacheKeysByCasIds(List.of(7L))).willReturn(List.of(holder(7L, "PAN")));
+        stubCaches();
+        // Histories are found by CAS, whatever characters their keys contain
+        String historyKey = PortfolioHistoryKeyIndex.key(
+                7L, "a*b?[c]@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), 500);
+        given(portfolioHistoryKeyIndex.keysOf(7L)).willReturn(Set.of(historyKey));
+
+        invalidator.onCasRevalued(new CasRevalued(7L));
+
+        verify(historyCache).evict("history_7_a*b?[c]@example.com_2024-01-01_2024-12-31_500");
+    }
+
+    @Test
+    void onCasRevalued_WhenIndexFails_ShouldStillEvictSummaryAndReturns() {
+        given(userCASDetailsRepository.findCacheKeysByCasIds(List.of(7L))).willReturn(List.of(holder(7L, "PAN")));
+        stubCaches();
+        given(portfolioHistoryKeyIndex.keysOf(7L)).willThrow(new IllegalStateException("Redis down"));
+
+        invalidator.onCasRevalued(new CasRevalued(7L));
+
+        verify(summaryCache).evict("summary_7_" + EMAIL);
+        verify(returnsCache).evict("returns_PAN");
+        verify(historyCache, never()).evict(any());
+        verify(cacheManager, never()).getCache(CacheNames.TRANSACTION_CACHE);
+    }
+
+    @Test
+    void onNavDateAdvanced_ShouldEvictCurrentValuesOfHoldersButNotHistory() {
+        given(userCASDetailsRepository.findCasIdsHoldingSchemes(List.of(120503L))).willReturn(List.of(7L, 9L));
+        given(userCASDetailsRepository.findCacheKeysByCasIds(List.of(7L, 9L)))
+                .willReturn(List.of(holder(7L, "PAN7"), holder(9L, "PAN9")));
+        given(cacheManager.getCache(CacheNames.SUMMARY_CACHE)).willReturn(summaryCache);
+        given(cacheManager.getCache(CacheNames.RETURNS_CACHE)).willReturn(returnsCache);
+
+        try (MockedStatic<BackgroundJob> backgroundJob = mockStatic(BackgroundJob.class)) {
+            invalidator.onNavDateAdvanced(new NavDateAdvanced(LocalDate.of(2024, 1, 15), List.of(120503L)));
+
+            backgroundJob.verify(() -> BackgroundJob.enqueue(any(JobLambda.class)));
+        }
+
+        verify(summaryCache).evict("summary_7_" + EMAIL);
+        verify(summaryCache).evict("summary_9_" + EMAIL);
+        verify(returnsCache).evict("returns_PAN7");
+        verify(returnsCache).evict("returns_PAN9");
+        verifyNoInteractions(portfolioHistoryKeyIndex);
+    }
+
+    @Test
+    void onNavDateAdvanced_ShouldQueueWarmUpOnlyAfterEvicting() {
+        given(userCASDetailsRepository.findCasIdsHoldingSchemes(List.of(120503L))).willReturn(List.of(7L));
+        given(userCASDetailsRepository.findCacheKeysByCasIds(List.of(7L))).willReturn(List.of(holder(7L, "PAN7")));
+        given(cacheManager.getCache(CacheNames.SUMMARY_CACHE)).willReturn(summaryCache);
+        given(cacheManager.getCache(CacheNames.RETURNS_CACHE)).willReturn(returnsCache);
+
+        try (MockedStatic<BackgroundJob> backgroundJob = mockStatic(BackgroundJob.class)) {
+            backgroundJob
+                    .when(() -> BackgroundJob.enqueue(any(JobLambda.class)))
+                    .thenAnswer(invocation -> {
+                        // The warm-up must not find the outdated summary still cached
+                        verify(summaryCache).evict("summary_7_" + EMAIL);
+                        return null;
+                    });
+
+            invalidator.onNavDateAdvanced(new NavDateAdvanced(LocalDate.of(2024, 1, 15), List.of(120503L)));
+
+            backgroundJob.verify(() -> BackgroundJob.enqueue(any(JobLambda.class)));
+        }
+    }
+
+    @Test
+    void onNavDateAdvanced_WithoutHolders_ShouldEvictNothing() {
+        given(userCASDetailsRepository.findCasIdsHoldingSchemes(List.of(120503L))).willReturn(List.of());
+
+        invalidator.onNavDateAdvanced(new NavDateAdvanced(LocalDate.of(2024, 1, 15), List.of(120503L)));
+
+        verify(userCASDetailsRepository, never()).findCacheKeysByCasIds(any());
+        verifyNoInteractions(cacheManager);
+        verifyNoInteractions(portfolioCacheWarmer);
+    }
+
+    private void stubCaches() {
+        given(cacheManager.getCache(CacheNames.SUMMARY_CACHE)).willReturn(summaryCache);
+        given(cacheManager.getCache(CacheNames.RETURNS_CACHE)).willReturn(returnsCache);
+        given(cacheManager.getCache(CacheNames.PORTFOLIO_HISTORY_CACHE)).willReturn(historyCache);
+    }
+
+    private static CasCacheKeyProjection holder(Long casId, String pan) {
+        return new CasCacheKeyProjection() {
+            @Override
+            public Long getCasId() {
+                return casId;
+            }
+
+            @Override
+            public String getEmail() {
+                return EMAIL;
+            }
+
+            @Override
+            public String getPan() {
+                return pan;
+            }
+        };
+    }
+}
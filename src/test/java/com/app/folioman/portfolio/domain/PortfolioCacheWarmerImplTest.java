@@ -0,0 +1,92 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.app.folioman.portfolio.config.PortfolioCacheProperties;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioCacheWarmerImplTest {
+
+    private static final String KEY = "folioman:portfolio:summary-views";
+
+    @Mock
+    private PortfolioSummaryService portfolioSummaryService;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private PortfolioCacheWarmerImpl warmer;
+
+    @BeforeEach
+    void setUp() {
+        PortfolioCacheProperties properties = new PortfolioCacheProperties();
+        properties.getWarmup().setMaxInvestors(2);
+        // A quarter of a pool of 4 is a single thread, so summaries are computed strictly in priority order
+        warmer = new PortfolioCacheWarmerImpl(portfolioSummaryService, stringRedisTemplate, properties, 4);
+        given(stringRedisTemplate.opsForZSet()).willReturn(zSetOperations);
+    }
+
+    @Test
+    void recordSummaryView_ShouldScoreInvestorByViewTime() {
+        warmer.recordSummaryView(7L, "investor@example.com");
+
+        verify(zSetOperations).add(eq(KEY), eq("7:investor@example.com"), anyDouble());
+    }
+
+    @Test
+    void recordSummaryView_WhenRedisFails_ShouldNotThrow() {
+        given(zSetOperations.add(anyString(), anyString(), anyDouble())).willThrow(new IllegalStateException("down"));
+
+        warmer.recordSummaryView(7L, "investor@example.com");
+    }
+
+    @Test
+    void warmUpSummaries_ShouldComputeMostRecentInvestorsFirst() {
+        given(zSetOperations.reverseRangeByScore(
+                        eq(KEY), anyDouble(), eq(Double.POSITIVE_INFINITY), eq(0L), eq(2L)))
+                .willReturn(new LinkedHashSet<>(List.of("9:recent@example.com", "7:older@example.com")));
+        given(portfolioSummaryService.getPortfolioSummary(9L, "recent@example.com"))
+                .willThrow(new IllegalStateException("boom"));
+        given(portfolioSummaryService.getPortfolioSummary(7L, "older@example.com"))
+                .willReturn(Optional.empty());
+
+        warmer.warmUpSummaries();
+
+        verify(zSetOperations).removeRangeByScore(eq(KEY), eq(0.0), anyDouble());
+        InOrder inOrder = inOrder(portfolioSummaryService);
+        inOrder.verify(portfolioSummaryService).getPortfolioSummary(9L, "recent@example.com");
+        inOrder.verify(portfolioSummaryService).getPortfolioSummary(7L, "older@example.com");
+    }
+
+    @Test
+    void warmUpSummaries_WithoutActiveInvestors_ShouldComputeNothing() {
+        given(zSetOperations.reverseRangeByScore(
+                        eq(KEY), anyDouble(), eq(Double.POSITIVE_INFINITY), anyLong(), anyLong()))
+                .willReturn(new LinkedHashSet<>());
+
+        warmer.warmUpSummaries();
+
+        verify(portfolioSummaryService, never()).getPortfolioSummary(anyLong(), anyString());
+    }
+}
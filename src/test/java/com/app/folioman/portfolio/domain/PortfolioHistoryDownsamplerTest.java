@@ -0,0 +1,89 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.app.folioman.portfolio.domain.PortfolioHistoryDownsampler.Interval;
+import com.app.folioman.portfolio.domain.PortfolioHistoryDownsampler.Point;
+import com.app.folioman.portfolio.rest.dtos.PortfolioHistoryDTO;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PortfolioHistoryDownsamplerTest {
+
+    private static final LocalDate START = LocalDate.of(2010, 1, 1);
+
+    @Test
+    void intervalFor_ShouldPickFinestResolutionThatFits() {
+        assertThat(PortfolioHistoryDownsampler.intervalFor(START, START.plusYears(1), 500))
+                .isEqualTo(Interval.DAY);
+        assertThat(PortfolioHistoryDownsampler.intervalFor(START, START.plusYears(5), 500))
+                .isEqualTo(Interval.WEEK);
+        assertThat(PortfolioHistoryDownsampler.intervalFor(START, START.plusYears(15), 500))
+                .isEqualTo(Interval.MONTH);
+    }
+
+    @Test
+    void downsample_WhenSeriesFits_ShouldReturnItUnchanged() {
+        List<Point> points = series(10);
+
+        assertThat(PortfolioHistoryDownsampler.downsample(points, 10)).isSameAs(points);
+    }
+
+    @Test
+    void downsample_ShouldKeepEndpointsAndSpikesWithRangeOfTheirBucket() {
+        List<Point> points = series(100);
+        points.set(42, Point.of(START.plusDays(42), BigDecimal.TEN, BigDecimal.valueOf(5_000)));
+        points.set(43, Point.of(START.plusDays(43), BigDecimal.TEN, BigDecimal.valueOf(-5_000)));
+
+        List<Point> sampled = PortfolioHistoryDownsampler.downsample(points, 12);
+
+        assertThat(sampled).hasSize(12);
+        assertThat(sampled.getFirst()).isEqualTo(points.getFirst());
+        assertThat(sampled.getLast()).isEqualTo(points.getLast());
+        assertThat(sampled).extracting(Point::date).isSorted();
+        assertThat(sampled)
+                .filteredOn(point -> point.maxValue().compareTo(BigDecimal.valueOf(5_000)) == 0)
+                .singleElement()
+                .satisfies(point -> {
+                    assertThat(point.value().abs()).isEqualByComparingTo("5000");
+                    assertThat(point.minValue()).isEqualByComparingTo("-5000");
+                });
+    }
+
+    @Test
+    void downsample_WithFewerThanThreePoints_ShouldKeepEndpoints() {
+        List<Point> points = series(5);
+
+        assertThat(PortfolioHistoryDownsampler.downsample(points, 2))
+                .containsExactly(points.getFirst(), points.getLast());
+    }
+
+    @Test
+    void toDto_ShouldOnlyAddValueRangeWhenRequested() {
+        List<Point> points = List.of(new Point(
+                START, BigDecimal.ONE, BigDecimal.TWO, BigDecimal.ONE, BigDecimal.TEN));
+
+        PortfolioHistoryDTO daily = PortfolioHistoryDownsampler.toDto(points, Interval.DAY, false);
+        PortfolioHistoryDTO monthly = PortfolioHistoryDownsampler.toDto(points, Interval.MONTH, true);
+
+        assertThat(daily.valueRange()).isEmpty();
+        assertThat(daily.interval()).isEqualTo("DAY");
+        assertThat(monthly.value().getFirst()[1]).isEqualTo(BigDecimal.TWO);
+        assertThat(monthly.valueRange().getFirst()).containsExactly(
+                START.atStartOfDay(java.time.ZoneOffset.UTC).toInstant().toEpochMilli(),
+                BigDecimal.ONE,
+                BigDecimal.TEN);
+        assertThat(monthly.interval()).isEqualTo("MONTH");
+    }
+
+    private static List<Point> series(int size) {
+        List<Point> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(Point.of(START.plusDays(i), BigDecimal.valueOf(1_000), BigDecimal.valueOf(1_000 + i)));
+        }
+        return points;
+    }
+}
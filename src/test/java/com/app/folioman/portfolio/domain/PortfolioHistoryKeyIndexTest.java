@@ -0,0 +1,93 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioHistoryKeyIndexTest {
+
+    private static final String INDEX_KEY = "folioman:portfolio:history-keys:7";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private StringRedisConnection connection;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    private PortfolioHistoryKeyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PortfolioHistoryKeyIndex(stringRedisTemplate);
+    }
+
+    @Test
+    void key_ShouldMatchCachedHistoryKey() {
+        assertThat(PortfolioHistoryKeyIndex.key(
+                        7L, "investor@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), 500))
+                .isEqualTo("history_7_investor@example.com_2024-01-01_2024-12-31_500");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_ShouldAddKeyAndRenewExpiryInOnePipeline() {
+        given(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .willAnswer(invocation -> {
+                    invocation.getArgument(0, RedisCallback.class).doInRedis(connection);
+                    return List.of();
+                });
+
+        index.record(7L, "history_7_a");
+
+        verify(connection).sAdd(INDEX_KEY, "history_7_a");
+        verify(connection).expire(INDEX_KEY, 30L * 24 * 60 * 60);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_WhenRedisFails_ShouldNotThrow() {
+        given(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .willThrow(new IllegalStateException("down"));
+
+        assertThatCode(() -> index.record(7L, "history_7_a")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void keysOfAndForget_ShouldReadAndRemoveIndexedKeys() {
+        given(stringRedisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.members(INDEX_KEY)).willReturn(Set.of("history_7_a"));
+
+        Set<String> keys = index.keysOf(7L);
+        index.forget(7L, keys);
+
+        assertThat(keys).containsExactly("history_7_a");
+        verify(setOperations).remove(INDEX_KEY, "history_7_a");
+    }
+
+    @Test
+    void forget_WithoutKeys_ShouldNotCallRedis() {
+        index.forget(7L, Set.of());
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+}
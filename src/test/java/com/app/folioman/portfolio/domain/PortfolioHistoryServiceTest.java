@@ -3,8 +3,10 @@ package com.app.folioman.portfolio.domain;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.app.folioman.portfolio.domain.models.projection.PortfolioValueBucketProjection;
 import com.app.folioman.portfolio.rest.dtos.PortfolioHistoryDTO;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -34,6 +36,9 @@ class PortfolioHistoryServiceTest {
     @Mock
     private UserPortfolioValueRepository userPortfolioValueRepository;
 
+    @Mock
+    private PortfolioHistoryKeyIndex portfolioHistoryKeyIndex;
+
     @InjectMocks
     private PortfolioAPIImpl portfolioAPI;
 
@@ -42,7 +47,7 @@ class PortfolioHistoryServiceTest {
         when(userCASDetailsRepository.findById(1L)).thenReturn(Optional.empty());
 
         Optional<PortfolioHistoryDTO> result = portfolioAPI.getPortfolioHistory(
-                1L, "user@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+                1L, "user@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), 500);
 
         assertThat(result).isEmpty();
     }
@@ -57,7 +62,7 @@ class PortfolioHistoryServiceTest {
         when(userCASDetailsRepository.findById(1L)).thenReturn(Optional.of(casDetails));
 
         Optional<PortfolioHistoryDTO> result = portfolioAPI.getPortfolioHistory(
-                1L, "otheruser@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+                1L, "otheruser@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), 500);
 
         assertThat(result).isEmpty();
     }
@@ -84,13 +89,15 @@ class PortfolioHistoryServiceTest {
                 .thenReturn(List.of(later, earlier));
 
         Optional<PortfolioHistoryDTO> result = portfolioAPI.getPortfolioHistory(
-                1L, "user@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+                1L, "user@example.com", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), 500);
 
         assertThat(result).isPresent();
 
         PortfolioHistoryDTO historyDTO = result.get();
         assertThat(historyDTO.invested()).hasSize(2);
         assertThat(historyDTO.value()).hasSize(2);
+        assertThat(historyDTO.valueRange()).isEmpty();
+        assertThat(historyDTO.interval()).isEqualTo("DAY");
 
         assertThat(historyDTO.invested().get(0)[0])
                 .isEqualTo(LocalDate.of(2024, 10, 1)
@@ -108,4 +115,32 @@ class PortfolioHistoryServiceTest {
         assertThat(historyDTO.value().get(0)[1]).isEqualTo(BigDecimal.valueOf(2000L));
         assertThat(historyDTO.value().get(1)[1]).isEqualTo(BigDecimal.valueOf(2100L));
     }
+
+    @Test
+    void shouldServeMonthlyBucketsWithValueRangeForLongRanges() {
+        UserCasDetailsEntity casDetails = new UserCasDetailsEntity();
+        InvestorInfoEntity investorInfo = new InvestorInfoEntity();
+        investorInfo.setEmail("user@example.com");
+        casDetails.setInvestorInfoEntity(investorInfo);
+        PortfolioValueBucketProjection bucket = mock(PortfolioValueBucketProjection.class);
+        when(bucket.getDate()).thenReturn(LocalDate.of(2010, 1, 29));
+        when(bucket.getInvested()).thenReturn(BigDecimal.valueOf(1000));
+        when(bucket.getValue()).thenReturn(BigDecimal.valueOf(1100));
+        when(bucket.getMinValue()).thenReturn(BigDecimal.valueOf(950));
+        when(bucket.getMaxValue()).thenReturn(BigDecimal.valueOf(1150));
+
+        when(userCASDetailsRepository.findById(1L)).thenReturn(Optional.of(casDetails));
+        when(userPortfolioValueRepository.findValueBuckets(
+                        1L, LocalDate.of(2010, 1, 1), LocalDate.of(2024, 12, 31), "month"))
+                .thenReturn(List.of(bucket));
+
+        Optional<PortfolioHistoryDTO> result = portfolioAPI.getPortfolioHistory(
+                1L, "user@example.com", LocalDate.of(2010, 1, 1), LocalDate.of(2024, 12, 31), 500);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().interval()).isEqualTo("MONTH");
+        assertThat(result.get().value().getFirst()[1]).isEqualTo(BigDecimal.valueOf(1100));
+        assertThat(result.get().valueRange().getFirst()[1]).isEqualTo(BigDecimal.valueOf(950));
+        assertThat(result.get().valueRange().getFirst()[2]).isEqualTo(BigDecimal.valueOf(1150));
+    }
 }
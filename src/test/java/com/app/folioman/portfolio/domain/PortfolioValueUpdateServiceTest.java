@@ -17,6 +17,7 @@ import com.app.folioman.portfolio.TestData;
 import com.app.folioman.portfolio.rest.dtos.CasDTO;
 import com.app.folioman.portfolio.rest.dtos.TransactionType;
 import com.app.folioman.portfolio.util.XirrCalculator;
+import com.app.folioman.shared.CasRevalued;
 import com.app.folioman.shared.LocalDateUtility;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
@@ -45,6 +46,7 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class PortfolioValueUpdateServiceTest {
@@ -73,6 +75,9 @@ class PortfolioValueUpdateServiceTest {
     @Mock
     private org.springframework.transaction.support.TransactionTemplate transactionTemplate;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private PortfolioValueUpdateService portfolioValueUpdateService;
 
@@ -186,6 +191,7 @@ class PortfolioValueUpdateServiceTest {
 
                 // Then
                 verify(userPortfolioValueRepository).saveAll(portfolioValueCaptor.capture());
+                verify(applicationEventPublisher).publishEvent(new CasRevalued(userCasDetailsEntity.getId()));
 
                 List<UserPortfolioValueEntity> savedValues = portfolioValueCaptor.getValue();
 
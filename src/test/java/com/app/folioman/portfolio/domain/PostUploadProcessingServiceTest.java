@@ -0,0 +1,107 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+
+import com.app.folioman.portfolio.UserSchemeDetailService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.jobrunr.jobs.lambdas.IocJobLambda;
+import org.jobrunr.scheduling.BackgroundJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PostUploadProcessingServiceTest {
+
+    // Longer than the epoch offset, so every call made by the test falls in the first window
+    private static final Duration SINGLE_WINDOW = Duration.ofDays(365L * 200);
+
+    @Mock
+    private UserSchemeDetailService userSchemeDetailService;
+
+    @Mock
+    private PortfolioValueUpdateService portfolioValueUpdateService;
+
+    private PostUploadProcessingService postUploadProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        postUploadProcessingService =
+                new PostUploadProcessingService(userSchemeDetailService, portfolioValueUpdateService, SINGLE_WINDOW);
+    }
+
+    @Test
+    void schedule_SameCasWithinWindow_ShouldReuseJobId() {
+        ArgumentCaptor<UUID> jobIds = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<Instant> runAts = ArgumentCaptor.forClass(Instant.class);
+
+        try (MockedStatic<BackgroundJob> backgroundJobMock = mockStatic(BackgroundJob.class)) {
+            postUploadProcessingService.schedule(1L);
+            postUploadProcessingService.schedule(1L);
+
+            backgroundJobMock.verify(
+                    () -> BackgroundJob.schedule(jobIds.capture(), runAts.capture(), any(IocJobLambda.class)),
+                    times(2));
+        }
+
+        assertThat(jobIds.getAllValues()).hasSize(2).containsOnly(jobIds.getValue());
+        assertThat(runAts.getAllValues()).containsOnly(Instant.ofEpochMilli(SINGLE_WINDOW.toMillis()));
+    }
+
+    @Test
+    void schedule_SameCasAfterWindowCloses_ShouldScheduleJobForNextWindow() throws InterruptedException {
+        PostUploadProcessingService shortWindowService = new PostUploadProcessingService(
+                userSchemeDetailService, portfolioValueUpdateService, Duration.ofMillis(1));
+        ArgumentCaptor<UUID> jobIds = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<Instant> runAts = ArgumentCaptor.forClass(Instant.class);
+
+        try (MockedStatic<BackgroundJob> backgroundJobMock = mockStatic(BackgroundJob.class)) {
+            shortWindowService.schedule(1L);
+            Thread.sleep(5);
+            shortWindowService.schedule(1L);
+
+            backgroundJobMock.verify(
+                    () -> BackgroundJob.schedule(jobIds.capture(), runAts.capture(), any(IocJobLambda.class)),
+                    times(2));
+        }
+
+        assertThat(jobIds.getAllValues()).doesNotHaveDuplicates();
+        assertThat(runAts.getAllValues().get(1)).isAfter(runAts.getAllValues().get(0));
+    }
+
+    @Test
+    void schedule_DifferentCas_ShouldUseDistinctJobIds() {
+        ArgumentCaptor<UUID> jobIds = ArgumentCaptor.forClass(UUID.class);
+
+        try (MockedStatic<BackgroundJob> backgroundJobMock = mockStatic(BackgroundJob.class)) {
+            postUploadProcessingService.schedule(1L);
+            postUploadProcessingService.schedule(2L);
+
+            backgroundJobMock.verify(
+                    () -> BackgroundJob.schedule(jobIds.capture(), any(Instant.class), any(IocJobLambda.class)),
+                    times(2));
+        }
+
+        assertThat(jobIds.getAllValues()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void process_ShouldResolveAmfiBeforeRevaluingPortfolio() {
+        postUploadProcessingService.process(1L);
+
+        InOrder inOrder = inOrder(userSchemeDetailService, portfolioValueUpdateService);
+        inOrder.verify(userSchemeDetailService).setUserSchemeAMFIIfNull();
+        inOrder.verify(portfolioValueUpdateService).updatePortfolioValue(1L);
+    }
+}
@@ -0,0 +1,166 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.app.folioman.config.SQLContainersConfig;
+import jakarta.persistence.PersistenceException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import(SQLContainersConfig.class)
+class SchemeValueRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SchemeValueRepository schemeValueRepository;
+
+    private UserFolioDetailsEntity userFolio;
+
+    @BeforeEach
+    void setUp() {
+        UserCasDetailsEntity cas = new UserCasDetailsEntity();
+        cas.setCasTypeEnum(CasTypeEnum.DETAILED);
+        cas.setFileTypeEnum(FileTypeEnum.CAMS);
+        cas.setInvestorInfoEntity(new InvestorInfoEntity());
+        cas = entityManager.persistAndFlush(cas);
+
+        userFolio = new UserFolioDetailsEntity();
+        userFolio.setFolio("FOLIO-SV");
+        userFolio.setAmc("AMC-SV");
+        userFolio.setPan("PANSV0001");
+        userFolio.setUserCasDetailsEntity(cas);
+        userFolio = entityManager.persistAndFlush(userFolio);
+    }
+
+    @Test
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ_WRITE)
+    void findLatestValuesBySchemeDetailsIds_WithSeveralDatesPerScheme_ShouldMapLatestRowOfEachScheme() {
+        UserSchemeDetailsEntity equity = persistScheme("Equity Fund");
+        UserSchemeDetailsEntity debt = persistScheme("Debt Fund");
+        persistValue(equity, LocalDate.of(2024, 3, 28), "100.00");
+        SchemeValueEntity latestEquity = persistValue(equity, LocalDate.of(2025, 6, 30), "150.00");
+        persistValue(equity, LocalDate.of(2025, 1, 2), "120.00");
+        SchemeValueEntity latestDebt = persistValue(debt, LocalDate.of(2025, 6, 27), "80.00");
+        persistValue(debt, LocalDate.of(2024, 12, 31), "75.00");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<SchemeValueEntity> latest =
+                schemeValueRepository.findLatestValuesBySchemeDetailsIds(List.of(equity.getId(), debt.getId()));
+
+        assertThat(latest)
+                .hasSize(2)
+                .extracting(SchemeValueEntity::getId)
+                .containsExactlyInAnyOrder(latestEquity.getId(), latestDebt.getId());
+        SchemeValueEntity equityValue = latest.stream()
+                .filter(value -> value.getId().equals(latestEquity.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(equityValue.getDate()).isEqualTo(LocalDate.of(2025, 6, 30));
+        assertThat(equityValue.getValue()).isEqualByComparingTo("150.00");
+        assertThat(equityValue.getInvested()).isEqualByComparingTo("90.00");
+        assertThat(equityValue.getNav()).isEqualByComparingTo("15.0000");
+        assertThat(equityValue.getBalance()).isEqualByComparingTo("10.000");
+        assertThat(equityValue.getUserSchemeDetails().getId()).isEqualTo(equity.getId());
+    }
+
+    @Test
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ_WRITE)
+    void findLatestValuesBySchemeDetailsIds_WithUnknownIdsAndSchemesWithoutValues_ShouldSkipThem() {
+        UserSchemeDetailsEntity valued = persistScheme("Valued Fund");
+        UserSchemeDetailsEntity unvalued = persistScheme("New Fund");
+        SchemeValueEntity value = persistValue(valued, LocalDate.of(2025, 6, 30), "10.00");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(schemeValueRepository.findLatestValuesBySchemeDetailsIds(
+                        List.of(valued.getId(), unvalued.getId(), -1L)))
+                .extracting(SchemeValueEntity::getId)
+                .containsExactly(value.getId());
+        assertThat(schemeValueRepository.findLatestValuesBySchemeDetailsIds(List.of(-1L, -2L))).isEmpty();
+    }
+
+    @Test
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ_WRITE)
+    void findLatestValuesBySchemeDetailsIds_ShouldReadAcrossYearlyAndArchivePartitions() {
+        UserSchemeDetailsEntity scheme = persistScheme("Old Fund");
+        SchemeValueEntity archived = persistValue(scheme, LocalDate.of(2001, 5, 15), "5.00");
+        SchemeValueEntity current = persistValue(scheme, LocalDate.of(2025, 6, 30), "50.00");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(partitionOf(archived)).isEqualTo("scheme_value_archive");
+        assertThat(partitionOf(current)).isEqualTo("scheme_value_y2025");
+        assertThat(schemeValueRepository.findLatestValuesBySchemeDetailsIds(List.of(scheme.getId())))
+                .extracting(SchemeValueEntity::getId)
+                .containsExactly(current.getId());
+    }
+
+    @Test
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ_WRITE)
+    void save_WithDateInComingYear_ShouldBeReadBackFromItsPartition() {
+        UserSchemeDetailsEntity scheme = persistScheme("Forward Fund");
+        int comingYear = LocalDate.now().getYear() + 2;
+        SchemeValueEntity saved = schemeValueRepository.saveAndFlush(new SchemeValueEntity()
+                .setDate(LocalDate.of(comingYear, 1, 3))
+                .setValue(new BigDecimal("42.00"))
+                .setUserSchemeDetails(scheme));
+        entityManager.clear();
+
+        assertThat(partitionOf(saved)).isEqualTo("scheme_value_y" + comingYear);
+        assertThat(schemeValueRepository.findById(saved.getId()).orElseThrow().getValue())
+                .isEqualByComparingTo("42.00");
+    }
+
+    @Test
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ_WRITE)
+    void save_WithNullDate_ShouldBeRejectedByPartitionedTable() {
+        // The table is partitioned by date, so the query's "date IS NOT NULL" guard can never exclude a stored row
+        UserSchemeDetailsEntity scheme = persistScheme("Undated Fund");
+        SchemeValueEntity undated = new SchemeValueEntity()
+                .setValue(new BigDecimal("1.00"))
+                .setUserSchemeDetails(scheme);
+
+        assertThatThrownBy(() -> entityManager.persistAndFlush(undated)).isInstanceOf(PersistenceException.class);
+    }
+
+    private UserSchemeDetailsEntity persistScheme(String name) {
+        UserSchemeDetailsEntity scheme = new UserSchemeDetailsEntity();
+        scheme.setScheme(name);
+        scheme.setUserFolioDetails(userFolio);
+        return entityManager.persistAndFlush(scheme);
+    }
+
+    private SchemeValueEntity persistValue(UserSchemeDetailsEntity scheme, LocalDate date, String value) {
+        return entityManager.persist(new SchemeValueEntity()
+                .setDate(date)
+                .setValue(new BigDecimal(value))
+                .setInvested(new BigDecimal("90.00"))
+                .setAvgNav(new BigDecimal("9.0000000000"))
+                .setNav(new BigDecimal("15.0000"))
+                .setBalance(new BigDecimal("10.000"))
+                .setUserSchemeDetails(scheme));
+    }
+
+    private String partitionOf(SchemeValueEntity value) {
+        return (String) entityManager
+                .getEntityManager()
+                .createNativeQuery("select cast(c.relname as text) from portfolio.scheme_value sv"
+                        + " join pg_class c on c.oid = sv.tableoid where sv.id = ?")
+                .setParameter(1, value.getId())
+                .getSingleResult();
+    }
+}
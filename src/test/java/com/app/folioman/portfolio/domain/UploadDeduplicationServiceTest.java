@@ -0,0 +1,120 @@
+package com.app.folioman.portfolio.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import com.app.folioman.config.redis.CacheNames;
+import com.app.folioman.portfolio.rest.dtos.UploadFileResponse;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockMultipartFile;
+
+class UploadDeduplicationServiceTest {
+
+    private final AtomicInteger processed = new AtomicInteger();
+
+    private UploadDeduplicationService uploadDeduplicationService;
+
+    @BeforeEach
+    void setUp() {
+        uploadDeduplicationService =
+                new UploadDeduplicationService(new ConcurrentMapCacheManager(CacheNames.UPLOAD_FINGERPRINT_CACHE));
+    }
+
+    @Test
+    void deduplicate_SameBytesSameUser_ShouldReturnPreviousResult() throws IOException {
+        UploadFileResponse first =
+                uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> process(1L));
+        UploadFileResponse second =
+                uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> process(2L));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(processed).hasValue(1);
+    }
+
+    @Test
+    void deduplicate_DifferentBytes_ShouldProcessBoth() throws IOException {
+        uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> process(1L));
+        UploadFileResponse second =
+                uploadDeduplicationService.deduplicate("user", file("other-content"), () -> process(2L));
+
+        assertThat(second.userCASDetailsId()).isEqualTo(2L);
+        assertThat(processed).hasValue(2);
+    }
+
+    @Test
+    void deduplicate_SameBytesDifferentUser_ShouldNotShareResults() throws IOException {
+        uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> process(1L));
+        UploadFileResponse second =
+                uploadDeduplicationService.deduplicate("other-user", file("cas-content"), () -> process(2L));
+
+        assertThat(second.userCASDetailsId()).isEqualTo(2L);
+        assertThat(processed).hasValue(2);
+    }
+
+    @Test
+    void deduplicate_AfterFailure_ShouldProcessAgain() throws IOException {
+        assertThatIOException()
+                .isThrownBy(() -> uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> {
+                    throw new IOException("Incorrect PDF password");
+                }));
+
+        UploadFileResponse response =
+                uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> process(1L));
+
+        assertThat(response.userCASDetailsId()).isEqualTo(1L);
+    }
+
+    @Test
+    void deduplicate_WhileIdenticalUploadInProgress_ShouldWaitForIt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<UploadFileResponse> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> {
+                    started.countDown();
+                    await(release);
+                    return process(1L);
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<UploadFileResponse> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return uploadDeduplicationService.deduplicate("user", file("cas-content"), () -> process(2L));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS));
+        assertThat(processed).hasValue(1);
+    }
+
+    private UploadFileResponse process(Long casId) {
+        processed.incrementAndGet();
+        return new UploadFileResponse(1, 1, 5, casId);
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "cas.json", "application/json", content.getBytes());
+    }
+}
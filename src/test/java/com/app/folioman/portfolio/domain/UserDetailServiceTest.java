@@ -5,20 +5,26 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.app.folioman.portfolio.UserSchemeDetailService;
 import com.app.folioman.portfolio.rest.dtos.CasDTO;
 import com.app.folioman.portfolio.rest.dtos.InvestorInfoDTO;
 import com.app.folioman.portfolio.rest.dtos.PortfolioDetailsDTO;
 import com.app.folioman.portfolio.rest.dtos.PortfolioResponse;
 import com.app.folioman.portfolio.rest.dtos.StatementPeriodDTO;
+import com.app.folioman.portfolio.rest.dtos.TransactionType;
 import com.app.folioman.portfolio.rest.dtos.UploadFileResponse;
 import com.app.folioman.portfolio.rest.dtos.UserFolioDTO;
+import com.app.folioman.portfolio.rest.dtos.UserSchemeDTO;
+import com.app.folioman.portfolio.rest.dtos.UserTransactionDTO;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -30,9 +36,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.json.JsonMapper;
 
 @ExtendWith(MockitoExtension.class)
 class UserDetailServiceTest {
@@ -55,18 +63,18 @@ class UserDetailServiceTest {
     @Mock
     private UserFolioDetailService userFolioDetailService;
 
-    @Mock
-    private UserSchemeDetailService userSchemeDetailService;
-
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
 
     @Mock
-    private PortfolioValueUpdateService portfolioValueUpdateService;
+    private PostUploadProcessingService postUploadProcessingService;
 
     @Mock
     private MultipartFile multipartFile;
 
+    @Spy
+    private CasJsonStreamReader casJsonStreamReader = new CasJsonStreamReader(JsonMapper.builder().build());
+
     @InjectMocks
     private UserDetailService userDetailService;
 
@@ -75,6 +83,11 @@ class UserDetailServiceTest {
     private UserFolioDTO mockFolioDTO;
     private UserCasDetailsEntity mockEntity;
 
+    private static final String INVESTOR_JSON = """
+            {"email":"test@example.com","name":"Test User","mobile":"1234567890","address":"Address"}""";
+    private static final String FOLIO_JSON = """
+            {"folio":"FOLIO123","amc":"AMFI","schemes":[]}""";
+
     @BeforeEach
     void setUp() {
         mockInvestorInfoDTO = new InvestorInfoDTO("test@example.com", "Test User", "1234567890", "Address");
@@ -92,14 +105,8 @@ class UserDetailServiceTest {
 
     @Test
     void upload_invalidInvestorEmail_throwsException() throws IOException {
-        when(multipartFile.getBytes()).thenReturn(new byte[0]);
-        CasDTO invalidCas = new CasDTO(
-                new StatementPeriodDTO("01-Jan-2023", "31-Dec-2023"),
-                "FileType",
-                "CasType",
-                new InvestorInfoDTO(null, "Test User", "1234567890", "Address"),
-                List.of(mockFolioDTO));
-        when(portfolioServiceHelper.readValue(any(), eq(CasDTO.class))).thenReturn(invalidCas);
+        when(multipartFile.getInputStream())
+                .thenReturn(casJson("{\"name\":\"Test User\",\"mobile\":\"1234567890\"}", FOLIO_JSON));
 
         assertThatThrownBy(() -> userDetailService.upload(multipartFile))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -108,14 +115,8 @@ class UserDetailServiceTest {
 
     @Test
     void upload_invalidInvestorName_throwsException() throws IOException {
-        when(multipartFile.getBytes()).thenReturn(new byte[0]);
-        CasDTO invalidCas = new CasDTO(
-                new StatementPeriodDTO("01-Jan-2023", "31-Dec-2023"),
-                "FileType",
-                "CasType",
-                new InvestorInfoDTO("test@example.com", "", "1234567890", "Address"),
-                List.of(mockFolioDTO));
-        when(portfolioServiceHelper.readValue(any(), eq(CasDTO.class))).thenReturn(invalidCas);
+        when(multipartFile.getInputStream())
+                .thenReturn(casJson("{\"email\":\"test@example.com\",\"name\":\"\"}", FOLIO_JSON));
 
         assertThatThrownBy(() -> userDetailService.upload(multipartFile))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -124,14 +125,7 @@ class UserDetailServiceTest {
 
     @Test
     void upload_noFolios_throwsException() throws IOException {
-        when(multipartFile.getBytes()).thenReturn(new byte[0]);
-        CasDTO invalidCas = new CasDTO(
-                new StatementPeriodDTO("01-Jan-2023", "31-Dec-2023"),
-                "FileType",
-                "CasType",
-                mockInvestorInfoDTO,
-                Collections.emptyList());
-        when(portfolioServiceHelper.readValue(any(), eq(CasDTO.class))).thenReturn(invalidCas);
+        when(multipartFile.getInputStream()).thenReturn(casJson(INVESTOR_JSON, ""));
 
         assertThatThrownBy(() -> userDetailService.upload(multipartFile))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -140,24 +134,74 @@ class UserDetailServiceTest {
 
     @Test
     void upload_newUser_processesAndReturnsResponse() throws IOException {
-        when(multipartFile.getBytes()).thenReturn(new byte[0]);
-        when(portfolioServiceHelper.readValue(any(), eq(CasDTO.class))).thenReturn(mockCasDTO);
+        when(multipartFile.getInputStream()).thenReturn(casJson(INVESTOR_JSON, FOLIO_JSON));
         when(investorInfoService.existsByEmailAndName("test@example.com", "Test User"))
                 .thenReturn(false);
         when(casDetailsMapper.convert(
-                        eq(mockCasDTO), any(AtomicInteger.class), any(AtomicInteger.class), any(AtomicInteger.class)))
+                        any(CasDTO.class),
+                        any(AtomicInteger.class),
+                        any(AtomicInteger.class),
+                        any(AtomicInteger.class)))
                 .thenReturn(mockEntity);
+        UserFolioDetailsEntity folioEntity = new UserFolioDetailsEntity();
+        when(casDetailsMapper.mapUserFolioDTOToUserFolioDetails(
+                        any(UserFolioDTO.class), any(AtomicInteger.class), any(AtomicInteger.class)))
+                .thenReturn(folioEntity);
         when(userCASDetailsService.saveEntity(mockEntity)).thenReturn(mockEntity);
 
         UploadFileResponse response = userDetailService.upload(multipartFile);
 
         assertThat(response).isNotNull();
         assertThat(response.userCASDetailsId()).isEqualTo(1L);
-        org.mockito.Mockito.verify(portfolioValueUpdateService, org.mockito.Mockito.timeout(1000))
-                .updatePortfolioValue(mockEntity.getId());
+        assertThat(response.newFolios()).isOne();
+        verify(userFolioDetailService).saveChunk(1L, List.of(folioEntity));
+        verify(postUploadProcessingService).schedule(mockEntity.getId());
         verify(userFolioDetailService).setPANIfNotSet(1L);
     }
 
+    @Test
+    void upload_newUser_persistsEachChunkAgainstOneCas() throws IOException {
+        when(multipartFile.getInputStream()).thenReturn(casJson(INVESTOR_JSON, folioArray(30)));
+        when(investorInfoService.existsByEmailAndName("test@example.com", "Test User"))
+                .thenReturn(false);
+        when(casDetailsMapper.convert(
+                        any(CasDTO.class),
+                        any(AtomicInteger.class),
+                        any(AtomicInteger.class),
+                        any(AtomicInteger.class)))
+                .thenReturn(mockEntity);
+        when(casDetailsMapper.mapUserFolioDTOToUserFolioDetails(
+                        any(UserFolioDTO.class), any(AtomicInteger.class), any(AtomicInteger.class)))
+                .thenAnswer(invocation -> new UserFolioDetailsEntity());
+        when(userCASDetailsService.saveEntity(mockEntity)).thenReturn(mockEntity);
+
+        UploadFileResponse response = userDetailService.upload(multipartFile);
+
+        assertThat(response.newFolios()).isEqualTo(30);
+        verify(userCASDetailsService).saveEntity(mockEntity);
+        verify(userFolioDetailService).saveChunk(eq(1L), argThat(chunk -> chunk.size() == 25));
+        verify(userFolioDetailService).saveChunk(eq(1L), argThat(chunk -> chunk.size() == 5));
+    }
+
+    @Test
+    void upload_existingUser_mergesAllStreamedFolios() throws IOException {
+        when(multipartFile.getInputStream()).thenReturn(casJson(INVESTOR_JSON, folioArray(30)));
+        when(investorInfoService.existsByEmailAndName("test@example.com", "Test User"))
+                .thenReturn(true);
+        when(portfolioServiceHelper.countTransactionsByUserFolioDTOList(anyList()))
+                .thenReturn(0L);
+        when(userTransactionDetailsService.findAllTransactionsByEmailNameAndPeriod(
+                        anyString(), anyString(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(0L);
+        when(userCASDetailsService.findByInvestorEmailAndName("test@example.com", "Test User"))
+                .thenReturn(Optional.of(mockEntity));
+
+        UploadFileResponse response = userDetailService.upload(multipartFile);
+
+        assertThat(response.userCASDetailsId()).isEqualTo(1L);
+        verify(portfolioServiceHelper).countTransactionsByUserFolioDTOList(argThat(list -> list.size() == 30));
+    }
+
     @Test
     void getPortfolioByPAN_validPan_returnsPortfolioResponse() {
         String pan = "ABCDE1234F";
@@ -190,6 +234,7 @@ class UserDetailServiceTest {
 
         assertThat(response).isNotNull();
         assertThat(response.userCASDetailsId()).isEqualTo(1L);
+        verify(postUploadProcessingService).schedule(1L);
     }
 
     @Test
@@ -220,4 +265,98 @@ class UserDetailServiceTest {
         // It should have found 1 new folio because the db mockEntity has no folios
         assertThat(response.newFolios()).isEqualTo(1);
     }
+
+    @Test
+    void uploadFromDto_existingUser_addsOnlyUnmatchedTransactionsToMatchingScheme() {
+        UserTransactionDTO existingTxn = new UserTransactionDTO(
+                LocalDate.of(2023, 1, 2), "Purchase", 1000.0, 10.0, 100.0, 10.0, TransactionType.PURCHASE, null);
+        UserTransactionDTO newTxn = new UserTransactionDTO(
+                LocalDate.of(2023, 2, 2), "Purchase", 500.0, 5.0, 100.0, 15.0, TransactionType.PURCHASE, null);
+        CasDTO casDTO = new CasDTO(
+                new StatementPeriodDTO("01-Jan-2023", "31-Dec-2023"),
+                "FileType",
+                "CasType",
+                mockInvestorInfoDTO,
+                List.of(
+                        new UserFolioDTO("FOLIO1", "AMC", "KYC", "PAN", "KRA", List.of(schemeDTO("RTA2"))),
+                        new UserFolioDTO(
+                                "FOLIO2",
+                                "AMC",
+                                "KYC",
+                                "PAN",
+                                "KRA",
+                                List.of(schemeDTO("RTA1", existingTxn, newTxn)))));
+
+        UserTransactionDetailsEntity dbTxn = new UserTransactionDetailsEntity()
+                .setTransactionDate(LocalDate.of(2023, 1, 2))
+                .setDescription("Purchase")
+                .setAmount(new BigDecimal("1000.00"))
+                .setUnits(10.0)
+                .setBalance(10.0)
+                .setType(com.app.folioman.portfolio.domain.TransactionType.PURCHASE);
+        UserSchemeDetailsEntity otherScheme =
+                new UserSchemeDetailsEntity().setRtaCode("RTA2").setTransactions(new ArrayList<>());
+        UserSchemeDetailsEntity matchingScheme =
+                new UserSchemeDetailsEntity().setRtaCode("RTA1").setTransactions(new ArrayList<>(List.of(dbTxn)));
+        mockEntity.setFolios(new ArrayList<>(List.of(
+                new UserFolioDetailsEntity().setFolio("FOLIO1").setSchemes(new ArrayList<>(List.of(otherScheme))),
+                new UserFolioDetailsEntity().setFolio("FOLIO2").setSchemes(new ArrayList<>(List.of(matchingScheme))))));
+
+        when(investorInfoService.existsByEmailAndName("test@example.com", "Test User"))
+                .thenReturn(true);
+        when(userCASDetailsService.findByInvestorEmailAndName("test@example.com", "Test User"))
+                .thenReturn(Optional.of(mockEntity));
+        when(portfolioServiceHelper.countTransactionsByUserFolioDTOList(anyList()))
+                .thenReturn(2L);
+        when(userTransactionDetailsService.findAllTransactionsByEmailNameAndPeriod(
+                        anyString(), anyString(), any(), any()))
+                .thenReturn(1L);
+        UserTransactionDetailsEntity mappedTxn = new UserTransactionDetailsEntity();
+        when(casDetailsMapper.transactionDTOToTransactionEntity(newTxn)).thenReturn(mappedTxn);
+        when(userTransactionDetailsService.saveTransactions(List.of(mappedTxn))).thenReturn(List.of(mappedTxn));
+
+        UploadFileResponse response = userDetailService.uploadFromDto(casDTO);
+
+        assertThat(response.newFolios()).isZero();
+        assertThat(response.newSchemes()).isZero();
+        assertThat(response.newTransactions()).isEqualTo(1);
+        assertThat(mappedTxn.getUserSchemeDetails()).isSameAs(matchingScheme);
+        assertThat(matchingScheme.getTransactions()).containsExactly(dbTxn, mappedTxn);
+        assertThat(otherScheme.getTransactions()).isEmpty();
+    }
+
+    private UserSchemeDTO schemeDTO(String rtaCode, UserTransactionDTO... transactions) {
+        return new UserSchemeDTO(
+                "Scheme " + rtaCode,
+                null,
+                null,
+                null,
+                rtaCode,
+                "EQUITY",
+                "CAMS",
+                "0",
+                "0",
+                "0",
+                null,
+                List.of(transactions));
+    }
+
+    private InputStream casJson(String investorInfo, String folios) {
+        String json = """
+                {"statement_period":{"from":"01-Jan-2023","to":"31-Dec-2023"},"file_type":"CAMS","cas_type":"DETAILED",
+                "investor_info":%s,"folios":[%s]}
+                """.formatted(investorInfo, folios);
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String folioArray(int count) {
+        StringBuilder folios = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            folios.append(i == 0 ? "" : ",")
+                    .append("{\"folio\":\"FOLIO")
+                    .append(i)
+                    .append("\",\"amc\":\"AMC\",\"schemes\":[]}");
+        }
+        return folios.toString();
+    }
 }
@@ -4,11 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.app.folioman.portfolio.domain.models.projection.UserFolioDetailsPanProjection;
+import jakarta.persistence.EntityManager;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -16,6 +18,7 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -29,6 +32,9 @@ class UserFolioDetailServiceTest {
     @Mock
     private UserFolioDetailsPanProjection panProjection;
 
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private UserFolioDetailService userFolioDetailService;
 
@@ -44,7 +50,7 @@ class UserFolioDetailServiceTest {
 
     @Test
     void constructor() {
-        UserFolioDetailService service = new UserFolioDetailService(userFolioDetailsRepository);
+        UserFolioDetailService service = new UserFolioDetailService(userFolioDetailsRepository, entityManager);
         assertThat(service).isNotNull();
     }
 
@@ -82,6 +88,20 @@ class UserFolioDetailServiceTest {
                 .isThrownBy(() -> userFolioDetailService.findByFoliosIn(null));
     }
 
+    @Test
+    void saveChunkLinksFoliosToCasAndClearsContext() {
+        UserCasDetailsEntity casReference = new UserCasDetailsEntity();
+        when(entityManager.getReference(UserCasDetailsEntity.class, 42L)).thenReturn(casReference);
+
+        userFolioDetailService.saveChunk(42L, testFolios);
+
+        assertThat(testFolio.getUserCasDetailsEntity()).isSameAs(casReference);
+        InOrder inOrder = inOrder(userFolioDetailsRepository, entityManager);
+        inOrder.verify(userFolioDetailsRepository).saveAll(testFolios);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+    }
+
     @Test
     void setPANIfNotSetWithValidProjection() {
         Long userCasID = 123L;
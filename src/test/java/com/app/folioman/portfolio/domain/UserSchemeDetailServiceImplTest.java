@@ -1,9 +1,12 @@
 package com.app.folioman.portfolio.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -14,7 +17,8 @@ import com.app.folioman.mfschemes.rest.dtos.MFSchemeTypeProjection;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -98,8 +102,8 @@ class UserSchemeDetailServiceImplTest {
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService, never()).fetchSchemesByRtaCode(anyString());
-        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinById(anyLong(), anyString(), anyLong());
+        verify(mfSchemeService, never()).fetchSchemesByRtaCodes(anyCollection());
+        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinByIdIn(any(), any(), any());
     }
 
     @Test
@@ -113,8 +117,8 @@ class UserSchemeDetailServiceImplTest {
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService, never()).fetchSchemesByRtaCode(anyString());
-        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinById(anyLong(), anyString(), anyLong());
+        verify(mfSchemeService, never()).fetchSchemesByRtaCodes(anyCollection());
+        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinByIdIn(any(), any(), any());
     }
 
     @Test
@@ -128,21 +132,25 @@ class UserSchemeDetailServiceImplTest {
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService, never()).fetchSchemesByRtaCode(anyString());
-        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinById(anyLong(), anyString(), anyLong());
+        verify(mfSchemeService, never()).fetchSchemesByRtaCodes(anyCollection());
+        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinByIdIn(any(), any(), any());
     }
 
     @Test
     void setUserSchemeAMFIIfNull_WithValidRtaCodeAndMatchingSchemes_ShouldUpdateSchemeDetails() {
         when(userSchemeDetailsRepository.findByAmfiIsNull())
                 .thenReturn(Collections.singletonList(userSchemeDetailsEntity));
-        when(mfSchemeService.fetchSchemesByRtaCode("ABC12")).thenReturn(Collections.singletonList(mfSchemeProjection));
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("ABC12")))
+                .thenReturn(Map.of("ABC12", List.of(mfSchemeProjection)));
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("ABC12");
-        verify(userSchemeDetailsRepository).updateAmfiAndIsinById(123L, "INE123456789", 1L);
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("ABC12"));
+        verify(userSchemeDetailsRepository)
+                .updateAmfiAndIsinByIdIn(aryEq(new Long[] {1L}), aryEq(new Long[] {123L}), aryEq(new String[] {
+                    "INE123456789"
+                }));
     }
 
     @Test
@@ -153,13 +161,47 @@ class UserSchemeDetailServiceImplTest {
         differentIsinScheme.setIsin("INE987654321");
 
         when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(Arrays.asList(differentIsinScheme));
-        when(mfSchemeService.fetchSchemesByRtaCode("XYZ45")).thenReturn(Arrays.asList(mfSchemeProjection));
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("XYZ45")))
+                .thenReturn(Map.of("XYZ45", List.of(mfSchemeProjection)));
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("XYZ45");
-        verify(userSchemeDetailsRepository).updateAmfiAndIsinById(123L, "INE123456789", 4L);
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("XYZ45"));
+        verify(userSchemeDetailsRepository)
+                .updateAmfiAndIsinByIdIn(aryEq(new Long[] {4L}), aryEq(new Long[] {123L}), aryEq(new String[] {
+                    "INE123456789"
+                }));
+    }
+
+    @Test
+    void setUserSchemeAMFIIfNull_WithManyPendingSchemes_ShouldResolveInOneLookupAndOneUpdate() {
+        UserSchemeDetailsEntity sameRtaScheme = new UserSchemeDetailsEntity();
+        sameRtaScheme.setId(12L);
+        sameRtaScheme.setRtaCode("ABC125");
+        sameRtaScheme.setIsin("INE123456789");
+
+        UserSchemeDetailsEntity isinScheme = new UserSchemeDetailsEntity();
+        isinScheme.setId(13L);
+        isinScheme.setRtaCode("DEF789");
+        isinScheme.setScheme("Test Scheme ISIN:INE111222333");
+
+        when(userSchemeDetailsRepository.findByAmfiIsNull())
+                .thenReturn(List.of(userSchemeDetailsEntity, sameRtaScheme, isinScheme));
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("ABC12", "DEF78")))
+                .thenReturn(Map.of("ABC12", List.of(mfSchemeProjection)));
+        when(mfSchemeService.findByPayOutIn(Set.of("INE111222333"))).thenReturn(List.of(isinProjection()));
+
+        userSchemeDetailService.setUserSchemeAMFIIfNull();
+
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("ABC12", "DEF78"));
+        verify(mfSchemeService).findByPayOutIn(Set.of("INE111222333"));
+        verify(mfSchemeService, never()).fetchSchemes(anyString());
+        verify(userSchemeDetailsRepository)
+                .updateAmfiAndIsinByIdIn(
+                        aryEq(new Long[] {1L, 12L, 13L}),
+                        aryEq(new Long[] {123L, 123L, 321L}),
+                        aryEq(new String[] {"INE123456789", "INE123456789", "INE111222333"}));
     }
 
     @Test
@@ -170,15 +212,18 @@ class UserSchemeDetailServiceImplTest {
         schemeWithIsin.setScheme("Test Scheme ISIN:INE111222333");
 
         when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(Arrays.asList(schemeWithIsin));
-        when(mfSchemeService.fetchSchemesByRtaCode("DEF78")).thenReturn(Collections.emptyList());
-        when(mfSchemeService.findByPayOut("INE111222333")).thenReturn(Optional.of(mfSchemeProjection));
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("DEF78"))).thenReturn(Map.of());
+        when(mfSchemeService.findByPayOutIn(Set.of("INE111222333"))).thenReturn(List.of(isinProjection()));
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("DEF78");
-        verify(mfSchemeService).findByPayOut("INE111222333");
-        verify(userSchemeDetailsRepository).updateAmfiAndIsinById(123L, "INE111222333", 5L);
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("DEF78"));
+        verify(mfSchemeService).findByPayOutIn(Set.of("INE111222333"));
+        verify(userSchemeDetailsRepository)
+                .updateAmfiAndIsinByIdIn(aryEq(new Long[] {5L}), aryEq(new Long[] {321L}), aryEq(new String[] {
+                    "INE111222333"
+                }));
     }
 
     @Test
@@ -188,17 +233,24 @@ class UserSchemeDetailServiceImplTest {
         schemeWithoutIsin.setRtaCode("GHI012");
         schemeWithoutIsin.setScheme("Test Income Scheme");
 
-        when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(List.of(schemeWithoutIsin));
-        when(mfSchemeService.fetchSchemesByRtaCode("GHI01")).thenReturn(Collections.emptyList());
+        UserSchemeDetailsEntity sameNameScheme = new UserSchemeDetailsEntity();
+        sameNameScheme.setId(7L);
+        sameNameScheme.setRtaCode("JKL345");
+        sameNameScheme.setScheme("Test Income Scheme");
+
+        when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(List.of(schemeWithoutIsin, sameNameScheme));
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("GHI01", "JKL34"))).thenReturn(Map.of());
         when(mfSchemeService.fetchSchemes("Test Income Scheme"))
                 .thenReturn(Collections.singletonList(fundDetailProjection));
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("GHI01");
-        verify(mfSchemeService).fetchSchemes("Test Income Scheme");
-        verify(userSchemeDetailsRepository).updateAmfiAndIsinById(456L, null, 6L);
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("GHI01", "JKL34"));
+        verify(mfSchemeService, times(1)).fetchSchemes("Test Income Scheme");
+        verify(userSchemeDetailsRepository)
+                .updateAmfiAndIsinByIdIn(
+                        aryEq(new Long[] {6L, 7L}), aryEq(new Long[] {456L, 456L}), aryEq(new String[] {null, null}));
     }
 
     @Test
@@ -209,15 +261,15 @@ class UserSchemeDetailServiceImplTest {
         schemeWithoutIsin.setScheme("Test Scheme Without ISIN");
 
         when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(Arrays.asList(schemeWithoutIsin));
-        when(mfSchemeService.fetchSchemesByRtaCode("MNO67")).thenReturn(Collections.emptyList());
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("MNO67"))).thenReturn(Map.of());
         when(mfSchemeService.fetchSchemes("Test Scheme Without ISIN")).thenReturn(Collections.emptyList());
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("MNO67");
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("MNO67"));
         verify(mfSchemeService).fetchSchemes("Test Scheme Without ISIN");
-        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinById(anyLong(), anyString(), anyLong());
+        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinByIdIn(any(), any(), any());
     }
 
     @Test
@@ -245,15 +297,15 @@ class UserSchemeDetailServiceImplTest {
         };
 
         when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(Arrays.asList(nonMatchingScheme));
-        when(mfSchemeService.fetchSchemesByRtaCode("PQR90")).thenReturn(Collections.emptyList());
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("PQR90"))).thenReturn(Map.of());
         when(mfSchemeService.fetchSchemes("Test Growth Scheme")).thenReturn(Arrays.asList(nonMatchingFund));
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("PQR90");
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("PQR90"));
         verify(mfSchemeService).fetchSchemes("Test Growth Scheme");
-        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinById(anyLong(), anyString(), anyLong());
+        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinByIdIn(any(), any(), any());
     }
 
     @Test
@@ -264,15 +316,15 @@ class UserSchemeDetailServiceImplTest {
         schemeWithIsinNotFound.setScheme("Test Scheme ISIN:INE999888777");
 
         when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(Arrays.asList(schemeWithIsinNotFound));
-        when(mfSchemeService.fetchSchemesByRtaCode("STU23")).thenReturn(Collections.emptyList());
-        when(mfSchemeService.findByPayOut("INE999888777")).thenReturn(Optional.empty());
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("STU23"))).thenReturn(Map.of());
+        when(mfSchemeService.findByPayOutIn(Set.of("INE999888777"))).thenReturn(List.of());
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("STU23");
-        verify(mfSchemeService).findByPayOut("INE999888777");
-        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinById(anyLong(), anyString(), anyLong());
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("STU23"));
+        verify(mfSchemeService).findByPayOutIn(Set.of("INE999888777"));
+        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinByIdIn(any(), any(), any());
     }
 
     @Test
@@ -283,14 +335,14 @@ class UserSchemeDetailServiceImplTest {
         schemeWithEmptyIsin.setScheme("Test Scheme ISIN:");
 
         when(userSchemeDetailsRepository.findByAmfiIsNull()).thenReturn(Arrays.asList(schemeWithEmptyIsin));
-        when(mfSchemeService.fetchSchemesByRtaCode("VWX56")).thenReturn(Collections.emptyList());
+        when(mfSchemeService.fetchSchemesByRtaCodes(Set.of("VWX56"))).thenReturn(Map.of());
 
         userSchemeDetailService.setUserSchemeAMFIIfNull();
 
         verify(userSchemeDetailsRepository).findByAmfiIsNull();
-        verify(mfSchemeService).fetchSchemesByRtaCode("VWX56");
-        verify(mfSchemeService, never()).findByPayOut(anyString());
-        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinById(anyLong(), anyString(), anyLong());
+        verify(mfSchemeService).fetchSchemesByRtaCodes(Set.of("VWX56"));
+        verify(mfSchemeService, never()).findByPayOutIn(anyCollection());
+        verify(userSchemeDetailsRepository, never()).updateAmfiAndIsinByIdIn(any(), any(), any());
     }
 
     @Test
@@ -320,4 +372,33 @@ class UserSchemeDetailServiceImplTest {
         assertThat(result).isEqualTo(expectedResult);
         verify(userSchemeDetailsRepository).findByUserFolioDetails_SchemesIn(inputList);
     }
+
+    private MFSchemeProjection isinProjection() {
+        return new MFSchemeProjection() {
+            @Override
+            public Long getAmfiCode() {
+                return 321L;
+            }
+
+            @Override
+            public String getIsin() {
+                return "INE111222333";
+            }
+
+            @Override
+            public MFSchemeTypeProjection getMfSchemeTypeEntity() {
+                return null;
+            }
+
+            @Override
+            public String getRta() {
+                return null;
+            }
+
+            @Override
+            public String getPlan() {
+                return null;
+            }
+        };
+    }
 }
@@ -300,4 +300,13 @@ class UserSchemeDetailsRepositoryTest {
                 })
                 .doesNotThrowAnyException();
     }
+
+    @Test
+    @ResourceLock(value = "database", mode = ResourceAccessMode.READ)
+    void updateAmfiAndIsinByIdIn_WithNonExistentIds_ShouldUpdateNothing() {
+        int updated = userSchemeDetailsRepository.updateAmfiAndIsinByIdIn(
+                new Long[] {997L, 998L}, new Long[] {54321L, 54322L}, new String[] {"INE123A01012", null});
+
+        assertThat(updated).isZero();
+    }
 }
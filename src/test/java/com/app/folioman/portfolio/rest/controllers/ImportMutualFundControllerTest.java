@@ -17,7 +17,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.app.folioman.auth.domain.JwtService;
 import com.app.folioman.auth.domain.TokenBlacklistService;
 import com.app.folioman.portfolio.PortfolioAPI;
-import com.app.folioman.portfolio.rest.dtos.CasDTO;
 import com.app.folioman.portfolio.rest.dtos.PortfolioResponse;
 import com.app.folioman.portfolio.rest.dtos.UploadFileResponse;
 import java.math.BigDecimal;
@@ -128,7 +127,7 @@ class ImportMutualFundControllerTest {
                 new MockMultipartFile("file", "test.json", MediaType.APPLICATION_JSON_VALUE, "{}".getBytes());
         UploadFileResponse response = new UploadFileResponse(1, 2, 3, 100L);
 
-        doReturn(response).when(portfolioAPI).upload(any(MultipartFile.class));
+        doReturn(response).when(portfolioAPI).upload(any(MultipartFile.class), eq("user"));
 
         this.mockMvc
                 .perform(
@@ -139,7 +138,7 @@ class ImportMutualFundControllerTest {
                 .andExpect(jsonPath("$.newTransactions", is(3)))
                 .andExpect(jsonPath("$.userCASDetailsId", is(100)));
 
-        verify(portfolioAPI).upload(any(MultipartFile.class));
+        verify(portfolioAPI).upload(any(MultipartFile.class), eq("user"));
     }
 
     @Test
@@ -149,10 +148,7 @@ class ImportMutualFundControllerTest {
         MockMultipartFile password = new MockMultipartFile("password", "", "text/plain", "pass123".getBytes());
         UploadFileResponse response = new UploadFileResponse(1, 2, 3, 100L);
 
-        // Mock PDF conversion
-        CasDTO mockCasDto = new CasDTO(null, null, null, null, List.of());
-        doReturn(mockCasDto).when(portfolioAPI).convertPdfCasToJson(any(MultipartFile.class), eq("pass123"));
-        doReturn(response).when(portfolioAPI).uploadFromDto(mockCasDto);
+        doReturn(response).when(portfolioAPI).uploadPdf(any(MultipartFile.class), eq("pass123"), eq("user"));
 
         this.mockMvc
                 .perform(multipart("/api/upload-pdf-cas")
@@ -163,7 +159,6 @@ class ImportMutualFundControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.userCASDetailsId", is(100)));
 
-        verify(portfolioAPI).convertPdfCasToJson(any(MultipartFile.class), eq("pass123"));
-        verify(portfolioAPI).uploadFromDto(mockCasDto);
+        verify(portfolioAPI).uploadPdf(any(MultipartFile.class), eq("pass123"), eq("user"));
     }
 }
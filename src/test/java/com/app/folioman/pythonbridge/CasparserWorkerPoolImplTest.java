@@ -0,0 +1,143 @@
+package com.app.folioman.pythonbridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+class CasparserWorkerPoolImplTest {
+
+    // Stands in for casparser so the worker protocol can be exercised without the real library
+    private static final String FAKE_CASPARSER = """
+            import json, os
+            __version__ = "0.0-test"
+            def read_cas_pdf(fp, password, output="dict"):
+                data = fp.read()
+                if password != "secret":
+                    raise ValueError("Incorrect PDF password!")
+                return json.dumps({"size": len(data), "pid": os.getpid()})
+            """;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @TempDir
+    Path pythonPath;
+
+    private CasparserWorkerPoolImpl pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.destroy();
+        }
+    }
+
+    @Test
+    void parse_ShouldReturnCasparserJsonFromWorker() throws IOException {
+        pool = createPool(true, 5);
+
+        JsonNode parsed = jsonMapper.readTree(pool.parse(new byte[1024], "secret"));
+
+        assertThat(parsed.get("size").asInt()).isEqualTo(1024);
+    }
+
+    @Test
+    void parse_ShouldReuseWorkerAcrossRequests() throws IOException {
+        pool = createPool(true, 5);
+
+        long firstPid = pid(pool.parse(new byte[1], "secret"));
+        long secondPid = pid(pool.parse(new byte[1], "secret"));
+
+        assertThat(secondPid).isEqualTo(firstPid);
+    }
+
+    @Test
+    void parse_AfterMaxJobs_ShouldRecycleWorker() throws IOException {
+        pool = createPool(true, 2);
+
+        long firstPid = pid(pool.parse(new byte[1], "secret"));
+        pid(pool.parse(new byte[1], "secret"));
+        long thirdPid = pid(pool.parse(new byte[1], "secret"));
+
+        assertThat(thirdPid).isNotEqualTo(firstPid);
+    }
+
+    @Test
+    void parse_WithWrongPassword_ShouldFailRequestButKeepWorker() throws IOException {
+        pool = createPool(true, 5);
+        long pid = pid(pool.parse(new byte[1], "secret"));
+
+        assertThatThrownBy(() -> pool.parse(new byte[1], "wrong"))
+                .isInstanceOf(PythonExecutionException.class)
+                .isNotInstanceOf(PythonWorkerUnavailableException.class)
+                .satisfies(e -> assertThat(((PythonExecutionException) e).getStderr())
+                        .contains("Incorrect PDF password"));
+        assertThat(pid(pool.parse(new byte[1], "secret"))).isEqualTo(pid);
+    }
+
+    @Test
+    void parse_WhenCasparserCannotBeImported_ShouldReportWorkerUnavailable() throws IOException {
+        Files.writeString(pythonPath.resolve("casparser.py"), "raise ImportError('broken install')");
+        pool = createPool(properties(true, 5));
+
+        assertThatExceptionOfType(PythonWorkerUnavailableException.class)
+                .isThrownBy(() -> pool.parse(new byte[1], "secret"))
+                .withMessageContaining("casparser import failed");
+    }
+
+    @Test
+    void parse_WhenDisabled_ShouldReportWorkerUnavailable() throws IOException {
+        pool = createPool(false, 5);
+
+        assertThat(pool.isEnabled()).isFalse();
+        assertThatExceptionOfType(PythonWorkerUnavailableException.class)
+                .isThrownBy(() -> pool.parse(new byte[1], "secret"));
+    }
+
+    @Test
+    void checkIdleWorkers_ShouldKeepHealthyWorkers() throws IOException {
+        pool = createPool(true, 5);
+        long pid = pid(pool.parse(new byte[1], "secret"));
+
+        pool.checkIdleWorkers();
+
+        assertThat(pid(pool.parse(new byte[1], "secret"))).isEqualTo(pid);
+    }
+
+    private CasparserWorkerPoolImpl createPool(boolean enabled, int maxJobsPerWorker) throws IOException {
+        Files.writeString(pythonPath.resolve("casparser.py"), FAKE_CASPARSER);
+        return createPool(properties(enabled, maxJobsPerWorker));
+    }
+
+    private CasparserWorkerPoolImpl createPool(PythonBridgeProperties properties) {
+        return new CasparserWorkerPoolImpl(
+                properties, jsonMapper, new PythonAdmissionController(properties, new SimpleMeterRegistry()));
+    }
+
+    private PythonBridgeProperties properties(boolean enabled, int maxJobsPerWorker) {
+        return new PythonBridgeProperties(
+                "python3",
+                "",
+                10,
+                1024 * 1024,
+                Map.of("PYTHONPATH", pythonPath.toString()),
+                new PythonBridgeProperties.CasparserConfig("casparser"),
+                new PythonBridgeProperties.WorkerPoolConfig(enabled, 1, maxJobsPerWorker, 0, 10),
+                new PythonBridgeProperties.AdmissionConfig(1, 4, 10),
+                new PythonBridgeProperties.ProbeConfig(300, 10));
+    }
+
+    private long pid(byte[] json) {
+        return jsonMapper.readTree(json).get("pid").asLong();
+    }
+}
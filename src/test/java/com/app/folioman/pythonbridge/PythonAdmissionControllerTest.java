@@ -0,0 +1,115 @@
+package com.app.folioman.pythonbridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PythonAdmissionControllerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void run_WithFreeSlot_ShouldRecordQueueAndRunTime() {
+        PythonAdmissionController controller = controller(1, 0, 1);
+
+        String result = controller.run("process", "python3 --version", () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(meterRegistry
+                        .get("python.execution.run.time")
+                        .tag("type", "process")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+        assertThat(meterRegistry
+                        .get("python.execution.queue.time")
+                        .tag("type", "process")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void run_WhenQueueIsFull_ShouldRejectImmediately() throws Exception {
+        PythonAdmissionController controller = controller(1, 0, 30);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running =
+                CompletableFuture.supplyAsync(() -> controller.run("process", "first", () -> {
+                    started.countDown();
+                    await(release);
+                    return "first";
+                }));
+
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThatExceptionOfType(PythonCapacityExceededException.class)
+                    .isThrownBy(() -> controller.run("process", "second", () -> "second"))
+                    .withMessageContaining("Too many Python executions")
+                    .extracting(PythonCapacityExceededException::getRetryAfterSeconds)
+                    .isEqualTo(30L);
+            assertThat(meterRegistry.get("python.execution.rejected").counter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("python.execution.active").gauge().value())
+                    .isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+    }
+
+    @Test
+    void run_WhenQueueWaitExpires_ShouldReject() throws Exception {
+        PythonAdmissionController controller = controller(1, 1, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running =
+                CompletableFuture.supplyAsync(() -> controller.run("worker", "first", () -> {
+                    started.countDown();
+                    await(release);
+                    return "first";
+                }));
+
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThatExceptionOfType(PythonCapacityExceededException.class)
+                    .isThrownBy(() -> controller.run("worker", "second", () -> "second"))
+                    .withMessageContaining("Timed out")
+                    .extracting(PythonCapacityExceededException::getRetryAfterSeconds)
+                    .isEqualTo(1L);
+            assertThat(meterRegistry.get("python.execution.queued").gauge().value())
+                    .isZero();
+        } finally {
+            release.countDown();
+        }
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+    }
+
+    private PythonAdmissionController controller(int maxConcurrent, int maxQueued, int maxQueueWaitSeconds) {
+        PythonBridgeProperties properties = new PythonBridgeProperties(
+                "python3",
+                "",
+                10,
+                1024 * 1024,
+                Map.of(),
+                new PythonBridgeProperties.CasparserConfig("casparser"),
+                new PythonBridgeProperties.WorkerPoolConfig(false, 1, 1, 0, 10),
+                new PythonBridgeProperties.AdmissionConfig(maxConcurrent, maxQueued, maxQueueWaitSeconds),
+                new PythonBridgeProperties.ProbeConfig(300, 10));
+        return new PythonAdmissionController(properties, meterRegistry);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
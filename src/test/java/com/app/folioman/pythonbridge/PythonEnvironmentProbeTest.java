@@ -0,0 +1,94 @@
+package com.app.folioman.pythonbridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PythonEnvironmentProbeTest {
+
+    @TempDir
+    Path pythonPath;
+
+    @Test
+    void probe_Interpreter_ShouldReportVersionAndCasparser() throws IOException {
+        Files.writeString(pythonPath.resolve("casparser.py"), "__version__ = \"0.0-test\"");
+        PythonEnvironmentProbe probe = new PythonEnvironmentProbe(properties(300));
+
+        PythonEnvironmentProbe.Result result = probe.probe("python3");
+
+        assertThat(result.available()).isTrue();
+        assertThat(result.version()).startsWith("3.");
+        assertThat(result.resolvedPath()).endsWith("python3");
+        assertThat(result.casparserImportable()).isTrue();
+        assertThat(result.casparserVersion()).isEqualTo("0.0-test");
+    }
+
+    @Test
+    void probe_InterpreterWithoutCasparser_ShouldStillBeAvailable() throws IOException {
+        Files.writeString(pythonPath.resolve("casparser.py"), "raise ImportError('broken install')");
+        PythonEnvironmentProbe probe = new PythonEnvironmentProbe(properties(300));
+
+        PythonEnvironmentProbe.Result result = probe.probe("python3");
+
+        assertThat(result.available()).isTrue();
+        assertThat(result.casparserImportable()).isFalse();
+    }
+
+    @Test
+    void probe_MissingExecutable_ShouldBeUnavailable() {
+        PythonEnvironmentProbe probe = new PythonEnvironmentProbe(properties(300));
+
+        PythonEnvironmentProbe.Result result = probe.probe("folioman-missing-executable");
+
+        assertThat(result.available()).isFalse();
+        assertThat(result.resolvedPath()).isNull();
+    }
+
+    @Test
+    void probe_WithinTtl_ShouldReuseCachedResult() {
+        PythonEnvironmentProbe probe = new PythonEnvironmentProbe(properties(300));
+
+        PythonEnvironmentProbe.Result first = probe.probe("python3");
+
+        assertThat(probe.probe("python3")).isSameAs(first);
+    }
+
+    @Test
+    void probe_AfterTtl_ShouldServeStaleResultAndRefreshInBackground() throws InterruptedException {
+        PythonEnvironmentProbe probe = new PythonEnvironmentProbe(properties(0));
+        PythonEnvironmentProbe.Result first = probe.probe("python3");
+        Thread.sleep(5);
+
+        assertThat(probe.probe("python3")).isSameAs(first);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        PythonEnvironmentProbe.Result refreshed = first;
+        while (refreshed == first && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            refreshed = probe.probe("python3");
+        }
+        assertThat(refreshed).isNotSameAs(first);
+        assertThat(refreshed.checkedAt()).isAfter(first.checkedAt());
+        assertThat(refreshed.checkedAt()).isBeforeOrEqualTo(Instant.now());
+    }
+
+    private PythonBridgeProperties properties(int ttlSeconds) {
+        return new PythonBridgeProperties(
+                "python3",
+                "",
+                10,
+                1024 * 1024,
+                Map.of("PYTHONPATH", pythonPath.toString()),
+                new PythonBridgeProperties.CasparserConfig("casparser"),
+                new PythonBridgeProperties.WorkerPoolConfig(false, 1, 1, 0, 10),
+                new PythonBridgeProperties.AdmissionConfig(1, 1, 1),
+                new PythonBridgeProperties.ProbeConfig(ttlSeconds, 10));
+    }
+}
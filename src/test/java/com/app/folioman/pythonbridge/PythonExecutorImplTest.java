@@ -4,10 +4,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tools.jackson.databind.json.JsonMapper;
@@ -23,7 +28,13 @@ class PythonExecutorImplTest {
     @BeforeEach
     void setUp() {
         JsonMapper jsonMapper = JsonMapper.builder().build();
-        executor = new PythonExecutorImpl(properties, jsonMapper);
+        when(properties.admission()).thenReturn(new PythonBridgeProperties.AdmissionConfig(2, 8, 30));
+        when(properties.probe()).thenReturn(new PythonBridgeProperties.ProbeConfig(300, 10));
+        executor = new PythonExecutorImpl(
+                properties,
+                jsonMapper,
+                new PythonAdmissionController(properties, new SimpleMeterRegistry()),
+                new PythonEnvironmentProbe(properties));
     }
 
     @Test
@@ -51,6 +62,18 @@ class PythonExecutorImplTest {
                 .withMessageContaining("timed out after 1 seconds");
     }
 
+    @Test
+    void executeWithMissingCustomExecutable() {
+        when(properties.executable()).thenReturn("python3");
+
+        PythonCommand command = PythonCommands.cli("folioman-missing-executable", "--version");
+
+        assertThat(executor.isAvailable("folioman-missing-executable")).isFalse();
+        assertThatExceptionOfType(PythonNotFoundException.class)
+                .isThrownBy(() -> executor.execute(command))
+                .withMessageContaining("folioman-missing-executable");
+    }
+
     @Test
     void executeScriptNotFound() {
         when(properties.executable()).thenReturn("python3");
@@ -81,4 +104,81 @@ class PythonExecutorImplTest {
         Map<String, String> parsed = result.asJson(Map.class);
         assertThat(parsed).containsEntry("received", "test-input");
     }
+
+    @Test
+    void executeWithOutputLargerThanPipeBuffer() {
+        when(properties.executable()).thenReturn("python3");
+        when(properties.defaultTimeoutSeconds()).thenReturn(10);
+        when(properties.maxOutputBytes()).thenReturn(10L * 1024 * 1024);
+
+        PythonCommand command = PythonCommand.command("-c", "import sys; sys.stdout.write('x' * 1000000)");
+        PythonResult result = executor.execute(command);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.stdout()).hasSize(1_000_000);
+    }
+
+    @Test
+    void executeExceedingMaxOutputBytes() {
+        when(properties.executable()).thenReturn("python3");
+        when(properties.defaultTimeoutSeconds()).thenReturn(10);
+        when(properties.maxOutputBytes()).thenReturn(1024L);
+
+        PythonCommand command = PythonCommand.command("-c", "import sys; sys.stdout.write('x' * 100000)");
+
+        assertThatExceptionOfType(PythonExecutionException.class)
+                .isThrownBy(() -> executor.execute(command))
+                .withMessageContaining("exceeded 1024 bytes");
+    }
+
+    @Test
+    void executeWithStdoutReader() {
+        when(properties.executable()).thenReturn("python3");
+        when(properties.defaultTimeoutSeconds()).thenReturn(10);
+        when(properties.maxOutputBytes()).thenReturn(1024L * 1024);
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+
+        PythonCommand command = PythonCommand.command(
+                "-c", "import sys; print('noise', file=sys.stderr); print('{\"status\": \"ok\"}')");
+        Map<String, String> parsed = executor.execute(command, stdout -> jsonMapper.readValue(stdout, Map.class));
+
+        assertThat(parsed).containsEntry("status", "ok");
+    }
+
+    @Test
+    void executeWithStdoutReaderWhenProcessFails() {
+        when(properties.executable()).thenReturn("python3");
+        when(properties.defaultTimeoutSeconds()).thenReturn(10);
+        when(properties.maxOutputBytes()).thenReturn(1024L * 1024);
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+
+        PythonCommand command = PythonCommand.command("-c", "import sys; sys.exit('boom')");
+
+        assertThatExceptionOfType(PythonExecutionException.class)
+                .isThrownBy(() -> executor.execute(command, stdout -> jsonMapper.readValue(stdout, Map.class)))
+                .withMessageContaining("exit code 1")
+                .satisfies(e -> assertThat(e.getStderr()).contains("boom"));
+    }
+
+    @Test
+    void executeCasparserJsonPipesPdfThroughStdin(@TempDir Path pythonPath) throws IOException {
+        Files.writeString(pythonPath.resolve("casparser.py"), """
+                import json
+                def read_cas_pdf(fp, password, output="dict"):
+                    print("casparser noise")
+                    return json.dumps({"size": len(fp.read()), "password": password})
+                """);
+        when(properties.executable()).thenReturn("python3");
+        when(properties.defaultTimeoutSeconds()).thenReturn(10);
+        when(properties.maxOutputBytes()).thenReturn(1024L * 1024);
+        when(properties.environment()).thenReturn(Map.of("PYTHONPATH", pythonPath.toString()));
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+
+        PythonCommand command =
+                PythonCommands.casparserJson(new byte[] {'%', 'P', 'D', 'F', '\n', 0}, "pass word\nwith ünicode");
+        Map<String, Object> parsed = executor.execute(command, stdout -> jsonMapper.readValue(stdout, Map.class));
+
+        assertThat(executor.isCasparserImportable()).isTrue();
+        assertThat(parsed).containsEntry("size", 6).containsEntry("password", "pass word\nwith ünicode");
+    }
 }
@@ -0,0 +1,69 @@
+package com.app.folioman.pythonbridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+@ExtendWith(MockitoExtension.class)
+class PythonHealthIndicatorTest {
+
+    @Mock
+    private PythonEnvironmentProbe probe;
+
+    @Mock
+    private PythonBridgeProperties properties;
+
+    private PythonHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        when(properties.executable()).thenReturn("python3");
+        when(properties.casparser()).thenReturn(new PythonBridgeProperties.CasparserConfig("casparser"));
+        healthIndicator = new PythonHealthIndicator(probe, properties);
+    }
+
+    @Test
+    void health_WithCasparserImportable_ShouldBeUp() {
+        when(properties.workerPool()).thenReturn(new PythonBridgeProperties.WorkerPoolConfig(true, 2, 100, 30, 30));
+        when(probe.probe("python3")).thenReturn(result("python3", true, "1.0"));
+        when(probe.probe("casparser")).thenReturn(result("casparser", false, null));
+
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsKeys("interpreter", "casparserCli");
+        assertThat((Map<?, ?>) health.getDetails().get("interpreter")).containsEntry("casparser", "1.0");
+    }
+
+    @Test
+    void health_WithOnlyCli_ShouldBeUp() {
+        when(properties.workerPool()).thenReturn(new PythonBridgeProperties.WorkerPoolConfig(true, 2, 100, 30, 30));
+        when(probe.probe("python3")).thenReturn(result("python3", true, null));
+        when(probe.probe("casparser")).thenReturn(result("casparser", true, null));
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void health_WithNoWayToParse_ShouldBeUnknown() {
+        when(properties.workerPool()).thenReturn(new PythonBridgeProperties.WorkerPoolConfig(false, 2, 100, 30, 30));
+        when(probe.probe("python3")).thenReturn(result("python3", true, "1.0"));
+        when(probe.probe("casparser")).thenReturn(result("casparser", false, null));
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    private PythonEnvironmentProbe.Result result(String executable, boolean available, String casparserVersion) {
+        return new PythonEnvironmentProbe.Result(
+                executable, "/usr/bin/" + executable, available, "3.12.0", casparserVersion, Instant.now());
+    }
+}